@@ -0,0 +1,247 @@
+package com.chat.server.benchmark;
+
+import com.chat.server.domain.id.EntityIdGenerator;
+import com.chat.server.domain.id.SnowflakeIdGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅방 생성 비용을 참여자 수(10, 100, 1,000명)별로 이전 방식과 배치 방식으로 비교하는 벤치마크다.
+ * <ul>
+ *   <li>이전 방식: 닉네임마다 사용자를 조회하고, 참여 기록을 한 행씩 INSERT 후 생성된 키를 읽으며,
+ *   참여자마다 전체 참여자 목록을 다시 조회해 JOIN 메시지를 직렬화한다.</li>
+ *   <li>배치 방식: 닉네임 전체를 IN 조회 한 번으로 찾고, Snowflake ID로 참여 기록을 JDBC 배치로 저장한 뒤,
+ *   참여자 전체를 담은 ROOM_CREATED 메시지 하나만 직렬화한다.</li>
+ * </ul>
+ * 결과 단위는 채팅방 하나를 만드는 데 걸린 시간이다.
+ * Spring 컨텍스트 없이 서비스와 같은 SQL을 JDBC로 실행한다.
+ * <p>
+ * 기본값은 H2 메모리 DB이며, MariaDB로 비교하려면 {@link MessageInsertBenchmark}와 같이 jmh.jdbcUrl 등을 지정한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CreateRoomBenchmark {
+
+    private static final int USER_COUNT = 1_000;
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"10", "100", "1000"})
+    public int members;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private Connection connection;
+    private EntityIdGenerator idGenerator;
+    private List<String> nicknames;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, ClassNotFoundException {
+        // jmhJar에는 java.sql.Driver 서비스 파일이 하나만 남으므로 드라이버를 직접 등록한다
+        Class.forName("org.h2.Driver");
+        Class.forName("org.mariadb.jdbc.Driver");
+        String url = System.getProperty("jmh.jdbcUrl", "jdbc:h2:mem:create_room_bench;DB_CLOSE_DELAY=-1");
+        connection = DriverManager.getConnection(url,
+                System.getProperty("jmh.jdbcUser", "sa"), System.getProperty("jmh.jdbcPassword", ""));
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            dropTables(statement);
+            statement.execute("CREATE TABLE bench_user (user_id BIGINT NOT NULL, user_nickname VARCHAR(50) NOT NULL, "
+                    + "PRIMARY KEY (user_id), UNIQUE (user_nickname))");
+            statement.execute("CREATE TABLE bench_room (room_id BIGINT NOT NULL AUTO_INCREMENT, room_name VARCHAR(100) NOT NULL, "
+                    + "PRIMARY KEY (room_id))");
+            statement.execute("CREATE TABLE bench_participant_identity (participant_id BIGINT NOT NULL AUTO_INCREMENT, "
+                    + "room_id BIGINT NOT NULL, user_id BIGINT NOT NULL, joined_at TIMESTAMP NOT NULL, quit_at TIMESTAMP NULL, "
+                    + "PRIMARY KEY (participant_id))");
+            statement.execute("CREATE TABLE bench_participant_snowflake (participant_id BIGINT NOT NULL, "
+                    + "room_id BIGINT NOT NULL, user_id BIGINT NOT NULL, joined_at TIMESTAMP NOT NULL, quit_at TIMESTAMP NULL, "
+                    + "PRIMARY KEY (participant_id))");
+            statement.execute("CREATE INDEX idx_bench_participant_identity_room ON bench_participant_identity (room_id, user_id)");
+            statement.execute("CREATE INDEX idx_bench_participant_snowflake_room ON bench_participant_snowflake (room_id, user_id)");
+        }
+        nicknames = new ArrayList<>();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO bench_user (user_id, user_nickname) VALUES (?, ?)")) {
+            for (int i = 1; i <= USER_COUNT; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "user" + i);
+                insert.addBatch();
+                nicknames.add("user" + i);
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        idGenerator = new SnowflakeIdGenerator(1);
+    }
+
+    @Setup(Level.Iteration)
+    public void shuffle() {
+        Collections.shuffle(nicknames);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM bench_participant_identity");
+            statement.execute("DELETE FROM bench_participant_snowflake");
+            statement.execute("DELETE FROM bench_room");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            dropTables(statement);
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    /**
+     * 이전 방식: 닉네임별 조회, 한 행씩 INSERT, 참여자마다 전체 목록을 담은 JOIN 메시지.
+     */
+    @Benchmark
+    public long perMemberCreate() throws Exception {
+        List<String> requested = nicknames.subList(0, members);
+        List<Long> userIds = new ArrayList<>(members);
+        try (PreparedStatement select = connection.prepareStatement("SELECT user_id, user_nickname FROM bench_user WHERE user_nickname = ?")) {
+            for (String nickname : requested) {
+                select.setString(1, nickname);
+                try (ResultSet rs = select.executeQuery()) {
+                    rs.next();
+                    userIds.add(rs.getLong(1));
+                }
+            }
+        }
+
+        long roomId = insertRoom();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_participant_identity (room_id, user_id, joined_at) VALUES (?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (Long userId : userIds) {
+                insert.setLong(1, roomId);
+                insert.setLong(2, userId);
+                insert.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+        }
+        connection.commit();
+
+        long bytes = 0;
+        try (PreparedStatement participants = connection.prepareStatement(
+                "SELECT u.user_id, u.user_nickname FROM bench_participant_identity p JOIN bench_user u ON u.user_id = p.user_id "
+                        + "WHERE p.room_id = ? AND p.quit_at IS NULL")) {
+            for (Long userId : userIds) {
+                participants.setLong(1, roomId);
+                bytes += objectMapper.writeValueAsBytes(notification("JOIN", userId, readUsers(participants))).length;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 배치 방식: IN 조회 한 번, Snowflake ID 배치 INSERT, ROOM_CREATED 메시지 하나.
+     */
+    @Benchmark
+    public long batchedCreate() throws Exception {
+        List<String> requested = nicknames.subList(0, members);
+        String placeholders = String.join(", ", Collections.nCopies(members, "?"));
+        List<Map<String, Object>> users;
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT user_id, user_nickname FROM bench_user WHERE user_nickname IN (" + placeholders + ")")) {
+            for (int i = 0; i < members; i++) {
+                select.setString(i + 1, requested.get(i));
+            }
+            users = readUsers(select);
+        }
+
+        long roomId = insertRoom();
+        Timestamp joinedAt = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_participant_snowflake (participant_id, room_id, user_id, joined_at) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < users.size(); i++) {
+                insert.setLong(1, idGenerator.nextId());
+                insert.setLong(2, roomId);
+                insert.setLong(3, (Long) users.get(i).get("userId"));
+                insert.setTimestamp(4, joinedAt);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+
+        return objectMapper.writeValueAsBytes(notification("ROOM_CREATED", null, users)).length;
+    }
+
+    private long insertRoom() throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_room (room_name) VALUES (?)", Statement.RETURN_GENERATED_KEYS)) {
+            insert.setString(1, "benchmark room");
+            insert.executeUpdate();
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                keys.next();
+                return keys.getLong(1);
+            }
+        }
+    }
+
+    private static List<Map<String, Object>> readUsers(PreparedStatement select) throws SQLException {
+        List<Map<String, Object>> users = new ArrayList<>();
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                Map<String, Object> user = new LinkedHashMap<>();
+                user.put("userId", rs.getLong(1));
+                user.put("userNickname", rs.getString(2));
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    private static Map<String, Object> notification(String type, Long senderId, List<Map<String, Object>> users) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", type);
+        message.put("senderId", senderId);
+        message.put("createdAt", LocalDateTime.now());
+        message.put("ROOM_CREATED".equals(type) ? "changedMembers" : "participants", users);
+        return message;
+    }
+
+    private static void dropTables(Statement statement) throws SQLException {
+        statement.execute("DROP TABLE IF EXISTS bench_participant_identity");
+        statement.execute("DROP TABLE IF EXISTS bench_participant_snowflake");
+        statement.execute("DROP TABLE IF EXISTS bench_room");
+        statement.execute("DROP TABLE IF EXISTS bench_user");
+    }
+}
@@ -0,0 +1,173 @@
+package com.chat.server.benchmark;
+
+import com.chat.server.config.HibernateCacheConfig;
+import com.chat.server.domain.ChatRoom;
+import com.chat.server.domain.RoomParticipantsHistory;
+import com.chat.server.domain.UserBase;
+import com.chat.server.domain.id.EntityIdGenerators;
+import com.chat.server.domain.id.SnowflakeIdGenerator;
+import com.chat.server.repository.ChatRoomRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.cache.CacheManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate 2차 캐시를 켰을 때와 껐을 때 채팅방 목록 조회와 채팅방 열기 시간을 비교하는 벤치마크다.
+ * <ul>
+ *   <li>채팅방 목록: 사용자가 참여한 채팅방 50개를 마지막 메시지 순으로 읽고, 모든 참여자를 사용자와 함께 한 번에 읽는다.</li>
+ *   <li>채팅방 열기: 채팅방 하나와 그 참여자를 읽는다.</li>
+ * </ul>
+ * 두 작업 모두 서비스와 같은 쿼리를 요청마다 새 세션에서 실행하므로, 1차 캐시 없이 2차 캐시만의 효과가 측정된다.
+ * 채팅방 목록 쿼리는 JDBC로 갱신되는 마지막 메시지 순서가 틀어지지 않도록 캐시하지 않으며, 참여자 쿼리만 쿼리 캐시에 둔다.
+ * <p>
+ * 스키마를 만들고 지우므로 H2 메모리 DB에서만 실행한다. 네트워크 왕복이 없으므로 실제 DB에서의 차이는 이보다 크다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HibernateCacheBenchmark {
+
+    private static final int USER_COUNT = 1_000;
+    private static final int ROOM_COUNT = 500;
+    private static final int MEMBERS_PER_ROOM = 20; // 사용자 한 명당 ROOM_COUNT * MEMBERS_PER_ROOM / USER_COUNT = 50개 채팅방
+
+    private static final String SELECT_PARTICIPANTS = "SELECT p FROM RoomParticipantsHistory p JOIN FETCH p.userBase "
+            + "WHERE p.chatRoom.roomId IN :roomIds AND p.quitAt IS NULL ORDER BY p.chatRoom.roomId, p.joinedAt";
+
+    @Param({"off", "on"})
+    public String cache;
+
+    private SessionFactory sessionFactory;
+    private CacheManager cacheManager;
+    private List<Long> userIds;
+    private List<Long> roomIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EntityIdGenerators.set(new SnowflakeIdGenerator(1));
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(UserBase.class)
+                .addAnnotatedClass(ChatRoom.class)
+                .addAnnotatedClass(RoomParticipantsHistory.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:hibernate_cache_bench_" + cache + ";DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "100")
+                .setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy());
+        boolean enabled = "on".equals(cache);
+        configuration.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, String.valueOf(enabled));
+        configuration.setProperty(AvailableSettings.USE_QUERY_CACHE, String.valueOf(enabled));
+        if (enabled) {
+            // 애플리케이션과 같은 영역 구성을 사용한다
+            cacheManager = new HibernateCacheConfig().hibernateCacheManager(10_000, 10_000, 100_000, 10_000, 10_000, 30);
+            configuration.setProperty(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            configuration.getProperties().put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            configuration.setProperty(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            configuration.setProperty(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, "true");
+        }
+        sessionFactory = configuration.buildSessionFactory();
+        populate();
+    }
+
+    private void populate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        sessionFactory.inTransaction(session -> {
+            List<UserBase> users = new ArrayList<>();
+            for (int i = 1; i <= USER_COUNT; i++) {
+                UserBase user = new UserBase();
+                user.setUserNickname("user" + i);
+                session.persist(user);
+                users.add(user);
+            }
+            List<ChatRoom> rooms = new ArrayList<>();
+            for (int i = 1; i <= ROOM_COUNT; i++) {
+                ChatRoom room = new ChatRoom();
+                room.setRoomName("room" + i);
+                room.setRoomType("GROUP");
+                room.setLastMessageAt(LocalDateTime.now().minusSeconds(random.nextInt(86_400)));
+                session.persist(room);
+                rooms.add(room);
+            }
+            // 채팅방을 차례로 돌며 사용자를 순서대로 채우므로 모든 사용자가 같은 수의 채팅방에 참여한다
+            LocalDateTime joinedAt = LocalDateTime.now();
+            int next = 0;
+            for (ChatRoom room : rooms) {
+                for (int j = 0; j < MEMBERS_PER_ROOM; j++) {
+                    RoomParticipantsHistory participant = new RoomParticipantsHistory();
+                    participant.setChatRoom(room);
+                    participant.setUserBase(users.get(next++ % USER_COUNT));
+                    participant.setJoinedAt(joinedAt);
+                    session.persist(participant);
+                }
+            }
+            userIds = users.stream().map(UserBase::getUserId).toList();
+            roomIds = rooms.stream().map(ChatRoom::getRoomId).toList();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+        if (cacheManager != null) {
+            cacheManager.close();
+        }
+    }
+
+    /**
+     * 채팅방 목록: 마지막 메시지 순 채팅방 조회 + 참여자 일괄 조회.
+     */
+    @Benchmark
+    public int roomList() {
+        Long userId = userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+        return sessionFactory.fromTransaction(session -> {
+            List<ChatRoom> rooms = session.createSelectionQuery(
+                            ChatRoomRepository.SELECT_INBOX + "ORDER BY r.lastMessageAt DESC, r.roomId DESC", ChatRoom.class)
+                    .setParameter("userId", userId)
+                    .getResultList();
+            return nicknameLength(session, rooms.stream().map(ChatRoom::getRoomId).toList());
+        });
+    }
+
+    /**
+     * 채팅방 열기: 채팅방 하나 + 참여자 조회.
+     */
+    @Benchmark
+    public int roomOpen() {
+        Long roomId = roomIds.get(ThreadLocalRandom.current().nextInt(roomIds.size()));
+        return sessionFactory.fromTransaction(session -> {
+            ChatRoom room = session.find(ChatRoom.class, roomId);
+            return room.getRoomName().length() + nicknameLength(session, List.of(roomId));
+        });
+    }
+
+    private static int nicknameLength(Session session, List<Long> roomIds) {
+        int length = 0;
+        for (RoomParticipantsHistory participant : session.createSelectionQuery(SELECT_PARTICIPANTS, RoomParticipantsHistory.class)
+                .setParameter("roomIds", roomIds)
+                .setCacheable(true)
+                .getResultList()) {
+            length += participant.getUserBase().getUserNickname().length();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,137 @@
+package com.chat.server.benchmark;
+
+import com.chat.server.domain.id.EntityIdGenerator;
+import com.chat.server.domain.id.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * chat_message INSERT 처리량을 IDENTITY 방식과 Snowflake ID 배치 방식으로 비교하는 벤치마크다.
+ * IDENTITY 방식은 Hibernate가 하는 것처럼 한 행씩 INSERT 후 생성된 키를 읽고,
+ * Snowflake 방식은 ID를 미리 발급해 JDBC 배치 한 번으로 전송한다.
+ * 결과 단위는 초당 저장한 행 수다.
+ * <p>
+ * 기본값은 H2 메모리 DB이며, 같은 장비의 MariaDB로 비교하려면 jmhJar를 만든 뒤 다음처럼 실행한다.
+ * <pre>
+ * java -Djmh.jdbcUrl=jdbc:mariadb://localhost:3307/chatdb -Djmh.jdbcUser=chat_user -Djmh.jdbcPassword=chat_pwd \
+ *   -jar build/libs/chat-be-0.0.1-SNAPSHOT-jmh.jar MessageInsertBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MessageInsertBenchmark {
+
+    private static final int ROWS_PER_TRANSACTION = 100;
+
+    @Param({"100"})
+    public int batchSize;
+
+    private Connection connection;
+    private EntityIdGenerator idGenerator;
+    private PreparedStatement identityInsert;
+    private PreparedStatement snowflakeInsert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, ClassNotFoundException {
+        // jmhJar에는 java.sql.Driver 서비스 파일이 하나만 남으므로 드라이버를 직접 등록한다
+        Class.forName("org.h2.Driver");
+        Class.forName("org.mariadb.jdbc.Driver");
+        String url = System.getProperty("jmh.jdbcUrl", "jdbc:h2:mem:insert_bench;DB_CLOSE_DELAY=-1");
+        connection = DriverManager.getConnection(url,
+                System.getProperty("jmh.jdbcUser", "sa"), System.getProperty("jmh.jdbcPassword", ""));
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_message_identity");
+            statement.execute("DROP TABLE IF EXISTS bench_message_snowflake");
+            statement.execute("CREATE TABLE bench_message_identity (message_id BIGINT NOT NULL AUTO_INCREMENT, room_id BIGINT NOT NULL, "
+                    + "user_id BIGINT NOT NULL, message_content TEXT NOT NULL, created_at TIMESTAMP NOT NULL, PRIMARY KEY (message_id))");
+            statement.execute("CREATE TABLE bench_message_snowflake (message_id BIGINT NOT NULL, room_id BIGINT NOT NULL, "
+                    + "user_id BIGINT NOT NULL, message_content TEXT NOT NULL, created_at TIMESTAMP NOT NULL, PRIMARY KEY (message_id))");
+        }
+        connection.commit();
+
+        idGenerator = new SnowflakeIdGenerator(1);
+        identityInsert = connection.prepareStatement(
+                "INSERT INTO bench_message_identity (room_id, user_id, message_content, created_at) VALUES (?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS);
+        snowflakeInsert = connection.prepareStatement(
+                "INSERT INTO bench_message_snowflake (message_id, room_id, user_id, message_content, created_at) VALUES (?, ?, ?, ?, ?)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_message_identity");
+            statement.execute("DROP TABLE IF EXISTS bench_message_snowflake");
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    /**
+     * IDENTITY: 행마다 INSERT를 실행하고 생성된 키를 받아 온다.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_TRANSACTION)
+    public long identityInsert() throws SQLException {
+        long lastId = 0;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < ROWS_PER_TRANSACTION; i++) {
+            identityInsert.setLong(1, 1L);
+            identityInsert.setLong(2, 1L);
+            identityInsert.setString(3, "benchmark message " + i);
+            identityInsert.setTimestamp(4, now);
+            identityInsert.executeUpdate();
+            try (ResultSet keys = identityInsert.getGeneratedKeys()) {
+                keys.next();
+                lastId = keys.getLong(1);
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    /**
+     * Snowflake: ID를 미리 발급하고 batchSize 단위로 JDBC 배치를 전송한다.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_TRANSACTION)
+    public long snowflakeBatchInsert() throws SQLException {
+        long lastId = 0;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < ROWS_PER_TRANSACTION; i++) {
+            lastId = idGenerator.nextId();
+            snowflakeInsert.setLong(1, lastId);
+            snowflakeInsert.setLong(2, 1L);
+            snowflakeInsert.setLong(3, 1L);
+            snowflakeInsert.setString(4, "benchmark message " + i);
+            snowflakeInsert.setTimestamp(5, now);
+            snowflakeInsert.addBatch();
+            if ((i + 1) % batchSize == 0) {
+                snowflakeInsert.executeBatch();
+            }
+        }
+        snowflakeInsert.executeBatch();
+        connection.commit();
+        return lastId;
+    }
+}
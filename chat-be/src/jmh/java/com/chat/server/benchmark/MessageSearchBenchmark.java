@@ -0,0 +1,181 @@
+package com.chat.server.benchmark;
+
+import com.chat.server.dto.ChatMessageDto;
+import com.chat.server.service.MessageSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 메시지 전문 검색 인덱스의 색인 처리량과 검색 지연 시간을 측정하는 벤치마크다.
+ * <ul>
+ *   <li>index: 메시지 {@value #INDEX_BATCH}개를 대기열에 넣고 색인하여 검색 결과에 보이게 하기까지의 처리량 (메시지/초)</li>
+ *   <li>searchRoom: 채팅방 하나에서 검색어가 들어 있는 최신 메시지 20개를 찾는 시간</li>
+ *   <li>searchUserRooms: 사용자가 참여한 채팅방 {@value #ROOMS_PER_USER}개 전체에서 같은 검색을 하는 시간</li>
+ * </ul>
+ * 서비스가 쓰는 {@link MessageSearchIndex}를 임시 디렉터리에 그대로 열어 측정한다. 본문은 2~3음절 한글 단어 사전에서
+ * 앞쪽 단어가 자주 나오도록 골라 만들고, 검색어는 흔한 단어와 드문 단어를 섞어 쓴다.
+ * <p>
+ * 기본 말뭉치는 10만 건이다. 운영 규모는 {@code -p corpusSize=10000000}으로 측정한다(준비에 수 분이 걸리고 디스크를 수 GB 쓴다).
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MessageSearchBenchmark {
+
+    private static final int INDEX_BATCH = 1_000;
+    private static final int ROOM_COUNT = 10_000;
+    private static final int ROOMS_PER_USER = 50;
+    private static final int VOCABULARY_SIZE = 5_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100000"})
+    public int corpusSize;
+
+    private Path indexDir;
+    private MessageSearchIndex searchIndex;
+    private String[] vocabulary;
+    private long nextMessageId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        vocabulary = buildVocabulary(new Random(42));
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:message_search_bench;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        // 시작할 때 도는 재색인이 읽을 빈 테이블 (말뭉치는 대기열로 색인한다)
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS chat_message (message_id BIGINT PRIMARY KEY, room_id BIGINT, "
+                + "user_id BIGINT, message_content CLOB, created_at TIMESTAMP)");
+
+        indexDir = Files.createTempDirectory("message-search-bench");
+        long manual = TimeUnit.HOURS.toMillis(1); // 갱신과 기록은 벤치마크에서 직접 호출한다
+        searchIndex = new MessageSearchIndex(jdbcTemplate, new SimpleMeterRegistry(), "simple", true, indexDir.toString(),
+                64, INDEX_BATCH * 100, manual, manual, 10_000, false, 60_000);
+        searchIndex.start();
+        while (searchIndex.reindex() < 0) {
+            Thread.onSpinWait();
+        }
+
+        long startedAt = System.nanoTime();
+        while (nextMessageId < corpusSize) {
+            int chunk = (int) Math.min(INDEX_BATCH * 100, corpusSize - nextMessageId);
+            for (int i = 0; i < chunk; i++) {
+                searchIndex.enqueue(randomMessage());
+            }
+            searchIndex.refresh();
+        }
+        System.out.printf("%nIndexed %d messages in %d ms%n", corpusSize, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        searchIndex.stop();
+        try (Stream<Path> paths = Files.walk(indexDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(INDEX_BATCH)
+    public void index() {
+        for (int i = 0; i < INDEX_BATCH; i++) {
+            searchIndex.enqueue(randomMessage());
+        }
+        searchIndex.refresh();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public List<MessageSearchIndex.Hit> searchRoom() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return searchIndex.search(randomQuery(random), List.of((long) random.nextInt(ROOM_COUNT)), null, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public List<MessageSearchIndex.Hit> searchUserRooms() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Long> roomIds = new ArrayList<>(ROOMS_PER_USER);
+        for (int i = 0; i < ROOMS_PER_USER; i++) {
+            roomIds.add((long) random.nextInt(ROOM_COUNT));
+        }
+        return searchIndex.search(randomQuery(random), roomIds, null, PAGE_SIZE + 1);
+    }
+
+    private ChatMessageDto randomMessage() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int words = 3 + random.nextInt(8);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                content.append(' ');
+            }
+            content.append(randomWord(random));
+        }
+        return ChatMessageDto.builder()
+                .type(ChatMessageDto.MessageType.TALK)
+                .messageId(++nextMessageId)
+                .roomId((long) random.nextInt(ROOM_COUNT))
+                .senderId((long) random.nextInt(ROOM_COUNT * 10))
+                .message(content.toString())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    // 세제곱으로 치우치게 뽑아 앞쪽 단어일수록 자주 나오게 한다
+    private String randomWord(ThreadLocalRandom random) {
+        double r = random.nextDouble();
+        return vocabulary[(int) (r * r * r * VOCABULARY_SIZE)];
+    }
+
+    // 흔한 단어 하나 또는 흔한 단어와 드문 단어 두 개
+    private String randomQuery(ThreadLocalRandom random) {
+        String common = vocabulary[random.nextInt(50)];
+        return random.nextBoolean() ? common : common + " " + vocabulary[50 + random.nextInt(VOCABULARY_SIZE - 50)];
+    }
+
+    private static String[] buildVocabulary(Random random) {
+        String[] words = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            int syllables = 2 + random.nextInt(2);
+            StringBuilder word = new StringBuilder(syllables);
+            for (int j = 0; j < syllables; j++) {
+                word.append((char) (0xAC00 + random.nextInt(11_172)));
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+}
@@ -0,0 +1,132 @@
+package com.chat.server.benchmark;
+
+import com.chat.server.domain.id.SnowflakeIdGenerator;
+import com.chat.server.dto.ChatMessageDto;
+import com.chat.server.service.ChatBroadcaster;
+import com.chat.server.service.ReadReceiptAggregator;
+import com.chat.server.service.UnreadCountRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 참여자 500명이 있는 활성 채팅방에서 메시지 하나를 모두가 읽을 때의 읽음 확인 전송량을 비교하는 벤치마크다.
+ * <ul>
+ *   <li>바로 전송: 읽음 확인마다 READ_RECEIPT 프레임을 만들어 채팅방에 브로드캐스트한다.</li>
+ *   <li>모아서 전송: {@link ReadReceiptAggregator}에 모두 기록한 뒤 한 주기의 flush로 채팅방당 프레임 하나를 보낸다.</li>
+ * </ul>
+ * 결과의 ops/s는 초당 처리한 (메시지 하나 × 참여자 전원의 읽음 확인) 수이고,
+ * 보조 카운터 frames는 초당 채팅방 토픽으로 보낸 프레임 수, deliveries는 구독자 전원에게 전달될 프레임 수(frames × 참여자 수)다.
+ * 브로커 대신 전송 횟수와 바이트만 세므로 JSON 인코딩과 집계 비용만 측정된다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ReadReceiptBenchmark {
+
+    private static final long ROOM_ID = 1L;
+
+    @Param({"500"})
+    public int members;
+
+    private CountingBroadcaster broadcaster;
+    private ReadReceiptAggregator aggregator;
+    private SnowflakeIdGenerator idGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        broadcaster = new CountingBroadcaster(objectMapper);
+        // DB 없이 메모리에서만 읽음 위치를 관리한다 (flush는 호출하지 않는다)
+        UnreadCountRegistry unreadCountRegistry = new UnreadCountRegistry(null, null, new SimpleMeterRegistry(), "simple", 500, 1000);
+        aggregator = new ReadReceiptAggregator(broadcaster, unreadCountRegistry, new SimpleMeterRegistry(), 250);
+        idGenerator = new SnowflakeIdGenerator(1);
+    }
+
+    /**
+     * 전송 횟수를 초당 값으로 보여주는 보조 카운터다.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Frames {
+        public long frames;
+        public long deliveries;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            frames = 0;
+            deliveries = 0;
+            bytes = 0;
+        }
+    }
+
+    /**
+     * 바로 전송: 참여자마다 READ_RECEIPT 프레임 하나.
+     */
+    @Benchmark
+    public void perReceiptBroadcast(Frames frames) {
+        long messageId = idGenerator.nextId();
+        for (long userId = 1; userId <= members; userId++) {
+            broadcaster.broadcastToRoom(ROOM_ID, ChatMessageDto.builder()
+                    .type(ChatMessageDto.MessageType.READ_RECEIPT)
+                    .roomId(ROOM_ID)
+                    .readReceipts(Map.of(messageId, List.of(userId)))
+                    .build());
+        }
+        broadcaster.drainTo(frames, members);
+    }
+
+    /**
+     * 모아서 전송: 한 주기 동안 기록하고 채팅방당 프레임 하나.
+     */
+    @Benchmark
+    public void coalescedBroadcast(Frames frames) {
+        long messageId = idGenerator.nextId();
+        for (long userId = 1; userId <= members; userId++) {
+            aggregator.record(ROOM_ID, userId, messageId);
+        }
+        aggregator.flush();
+        broadcaster.drainTo(frames, members);
+    }
+
+    /**
+     * 브로커로 보내지 않고 전송 횟수와 바이트만 세는 브로드캐스터다.
+     */
+    private static final class CountingBroadcaster extends ChatBroadcaster {
+        private long frames;
+        private long bytes;
+
+        private CountingBroadcaster(ObjectMapper objectMapper) {
+            super(null, objectMapper);
+        }
+
+        @Override
+        public void send(String destination, byte[] encodedPayload) {
+            frames++;
+            bytes += encodedPayload.length;
+        }
+
+        private void drainTo(Frames counters, int subscribers) {
+            counters.frames += frames;
+            counters.deliveries += frames * subscribers;
+            counters.bytes += bytes;
+            frames = 0;
+            bytes = 0;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.chat.server.benchmark;
+
+import com.chat.server.dto.ChatMessageDto;
+import com.chat.server.service.ChatBroadcaster;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅방 브로드캐스트 비용을 convertAndSend 방식과 한 번 인코딩한 바이트 배열을 보내는 방식으로 비교하는 벤치마크다.
+ * 실제 SimpleBrokerMessageHandler에 구독자를 등록하고, 구독 세션마다 StompSubProtocolHandler처럼 STOMP 프레임을 인코딩한다.
+ * 채널은 모두 동기 방식이라 결과는 메시지 한 건을 모든 구독자에게 전달하는 데 걸린 시간이다.
+ * <pre>
+ * java -jar build/libs/chat-be-0.0.1-SNAPSHOT-jmh.jar RoomBroadcastBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RoomBroadcastBenchmark {
+
+    private static final String DESTINATION = "/topic/chat/room/1";
+
+    @Param({"10", "1000", "10000"})
+    public int subscribers;
+
+    private SimpleBrokerMessageHandler broker;
+    private SimpMessagingTemplate messagingTemplate;
+    private ChatBroadcaster chatBroadcaster;
+    private ChatMessageDto message;
+    private Blackhole blackhole;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        StompEncoder stompEncoder = new StompEncoder();
+
+        ExecutorSubscribableChannel clientInboundChannel = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel clientOutboundChannel = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        // 세션별로 전달되는 메시지를 STOMP 프레임으로 인코딩한다 (StompSubProtocolHandler가 하는 일)
+        clientOutboundChannel.subscribe(outbound -> {
+            StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+            accessor.setSubscriptionId(SimpMessageHeaderAccessor.getSubscriptionId(outbound.getHeaders()));
+            accessor.setDestination(SimpMessageHeaderAccessor.getDestination(outbound.getHeaders()));
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            this.blackhole.consume(stompEncoder.encode(accessor.getMessageHeaders(), (byte[]) outbound.getPayload()));
+        });
+
+        broker = new SimpleBrokerMessageHandler(clientInboundChannel, clientOutboundChannel, brokerChannel, List.of("/topic"));
+        broker.start();
+        for (int i = 0; i < subscribers; i++) {
+            SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            subscribe.setSessionId("session-" + i);
+            subscribe.setSubscriptionId("sub-0");
+            subscribe.setDestination(DESTINATION);
+            Message<byte[]> subscribeMessage = MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders());
+            broker.handleMessage(subscribeMessage);
+        }
+
+        messagingTemplate = new SimpMessagingTemplate(brokerChannel);
+        messagingTemplate.setMessageConverter(new CompositeMessageConverter(List.of(
+                new StringMessageConverter(), new ByteArrayMessageConverter(), jacksonConverter(objectMapper))));
+        chatBroadcaster = new ChatBroadcaster(messagingTemplate, objectMapper);
+
+        message = new ChatMessageDto(7_000_000_000_000_000L, 1L, 2L, "benchmark-user",
+                "안녕하세요, 벤치마크 메시지입니다. ".repeat(4), LocalDateTime.now());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        broker.stop();
+    }
+
+    /**
+     * 기존 방식: 메시지 변환기 체인을 거쳐 변환한 뒤 전송한다.
+     */
+    @Benchmark
+    public void convertAndSend() {
+        messagingTemplate.convertAndSend(DESTINATION, message);
+    }
+
+    /**
+     * ChatBroadcaster: ObjectMapper로 한 번 인코딩한 바이트 배열을 변환 없이 전송한다.
+     */
+    @Benchmark
+    public void encodeOnceAndSend() {
+        chatBroadcaster.broadcastToRoom(1L, message);
+    }
+
+    private static MappingJackson2MessageConverter jacksonConverter(ObjectMapper objectMapper) {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        return converter;
+    }
+}
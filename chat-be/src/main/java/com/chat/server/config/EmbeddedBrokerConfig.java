@@ -0,0 +1,42 @@
+package com.chat.server.config;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 로컬 개발과 테스트에서 relay 모드를 외부 브로커 없이 사용할 수 있도록 프로세스 내부에 Artemis STOMP 브로커를 띄우는 설정 클래스다.
+ * chat.broker.embedded.enabled=true일 때만 등록되며, 메시지는 메모리에만 보관한다.
+ * 운영에서는 외부 브로커를 띄우고 chat.broker.relay.host/port로 연결한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "chat.broker.embedded.enabled", havingValue = "true")
+public class EmbeddedBrokerConfig {
+
+    /**
+     * STOMP 수신기를 가진 내장 Artemis 브로커를 생성한다.
+     * /topic/ 접두사를 멀티캐스트 주소로 매핑하여 Spring 브로커 릴레이의 /topic 목적지를 그대로 받는다.
+     * 애플리케이션 컨텍스트가 초기화될 때 시작되므로, 브로커 릴레이가 연결을 시도하는 시점에는 이미 기동되어 있다.
+     * @param host 바인딩할 호스트
+     * @param port STOMP 수신 포트
+     * @return 내장 Artemis 브로커
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public EmbeddedActiveMQ embeddedStompBroker(@Value("${chat.broker.embedded.host:localhost}") String host,
+                                                @Value("${chat.broker.embedded.port:61613}") int port) throws Exception {
+        ConfigurationImpl configuration = new ConfigurationImpl();
+        configuration.setName("chat-embedded-broker");
+        configuration.setPersistenceEnabled(false);
+        configuration.setSecurityEnabled(false);
+        configuration.setJMXManagementEnabled(false);
+        configuration.addAcceptorConfiguration("stomp",
+                "tcp://" + host + ":" + port + "?protocols=STOMP;multicastPrefix=/topic/");
+
+        EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(configuration);
+        return broker;
+    }
+}
@@ -0,0 +1,122 @@
+package com.chat.server.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate 2차 캐시와 쿼리 캐시 설정을 담당하는 클래스다.
+ * chat.cache.hibernate.enabled=true일 때만 켜지며, 꺼져 있으면 classpath에 JCache가 있더라도 2차 캐시를 사용하지 않는다.
+ * <p>
+ * 캐시 저장소는 로컬 Caffeine JCache이고, 영역마다 최대 크기를 따로 두어 한 영역이 메모리를 모두 차지하지 않도록 한다.
+ * 영역은 애플리케이션이 시작될 때 모두 만들어 두며, 엔티티에 선언한 영역 이름이 설정과 다르면 기동에 실패하도록 한다.
+ * <p>
+ * 캐시는 서버마다 따로 가지므로, 여러 서버가 같은 DB를 쓰는 relay 모드에서는 다른 서버의 변경이 만료 전까지 보이지 않을 수 있다.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    /**
+     * 사용자 엔티티 캐시 영역
+     */
+    public static final String USER_REGION = "chat.user";
+
+    /**
+     * 채팅방 엔티티 캐시 영역
+     */
+    public static final String ROOM_REGION = "chat.room";
+
+    /**
+     * 채팅방 참여 기록 엔티티 캐시 영역
+     */
+    public static final String PARTICIPANT_REGION = "chat.participant";
+
+    /**
+     * 채팅방의 참여 기록 컬렉션(ChatRoom.participants) 캐시 영역
+     */
+    public static final String ROOM_PARTICIPANTS_REGION = "chat.room.participants";
+
+    // Hibernate 기본 쿼리 캐시 영역 이름
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    /**
+     * Hibernate 2차 캐시 관련 설정을 채운다.
+     * 켜져 있으면 JCache 영역 팩토리에 이 설정에서 만든 캐시 매니저를 넘기고, 통계 수집과 컬렉션 캐시 자동 무효화를 함께 켠다.
+     * @param enabled 2차 캐시 사용 여부
+     * @param hibernateCacheManager 영역을 만들어 둔 캐시 매니저 (켜져 있을 때만 존재)
+     * @return Hibernate 설정 커스터마이저
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(@Value("${chat.cache.hibernate.enabled:false}") boolean enabled,
+                                                                    ObjectProvider<CacheManager> hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            if (!enabled) {
+                return;
+            }
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager.getObject());
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // 참여 기록만 저장해도 ChatRoom.participants 컬렉션 캐시가 무효화되도록 한다
+            properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    /**
+     * 2차 캐시 영역을 만들어 둔 Caffeine JCache 캐시 매니저를 생성한다.
+     * 같은 JVM에 애플리케이션 컨텍스트가 여러 개 떠도 영역이 겹치지 않도록 컨텍스트마다 별도의 매니저를 만든다.
+     * @return 캐시 매니저
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "chat.cache.hibernate.enabled", havingValue = "true")
+    public CacheManager hibernateCacheManager(@Value("${chat.cache.hibernate.user-max-size:10000}") long userMaxSize,
+                                              @Value("${chat.cache.hibernate.room-max-size:10000}") long roomMaxSize,
+                                              @Value("${chat.cache.hibernate.participant-max-size:100000}") long participantMaxSize,
+                                              @Value("${chat.cache.hibernate.room-participants-max-size:10000}") long roomParticipantsMaxSize,
+                                              @Value("${chat.cache.hibernate.query-max-size:10000}") long queryMaxSize,
+                                              @Value("${chat.cache.hibernate.expire-after-write-minutes:30}") long expireAfterWriteMinutes) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("chat-hibernate-" + UUID.randomUUID()),
+                getClass().getClassLoader(), new Properties());
+        long expireAfterWriteNanos = TimeUnit.MINUTES.toNanos(expireAfterWriteMinutes);
+        createRegion(cacheManager, USER_REGION, userMaxSize, expireAfterWriteNanos);
+        createRegion(cacheManager, ROOM_REGION, roomMaxSize, expireAfterWriteNanos);
+        createRegion(cacheManager, PARTICIPANT_REGION, participantMaxSize, expireAfterWriteNanos);
+        createRegion(cacheManager, ROOM_PARTICIPANTS_REGION, roomParticipantsMaxSize, expireAfterWriteNanos);
+        createRegion(cacheManager, QUERY_RESULTS_REGION, queryMaxSize, expireAfterWriteNanos);
+        // 테이블별 마지막 변경 시각은 쿼리 캐시 결과보다 먼저 사라지면 안 되므로 크기와 만료 제한을 두지 않는다
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, null, null);
+        return cacheManager;
+    }
+
+    private static void createRegion(CacheManager cacheManager, String region, Long maxSize, Long expireAfterWriteNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maxSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (expireAfterWriteNanos != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWriteNanos));
+        }
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+}
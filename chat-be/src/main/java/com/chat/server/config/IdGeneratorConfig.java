@@ -0,0 +1,29 @@
+package com.chat.server.config;
+
+import com.chat.server.domain.id.EntityIdGenerator;
+import com.chat.server.domain.id.EntityIdGenerators;
+import com.chat.server.domain.id.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 애플리케이션 측 식별자 생성기 설정을 담당하는 클래스다.
+ * 노드 번호로 Snowflake 생성기를 만들고 Hibernate 식별자 생성기가 사용할 수 있도록 홀더에 등록한다.
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    /**
+     * 엔티티 식별자 생성기를 생성한다.
+     * 여러 서버를 띄울 때는 서버마다 chat.id.node-id를 다르게 설정해야 한다.
+     * @param nodeId 현재 서버의 노드 번호 (0 ~ 1023)
+     * @return EntityIdGenerator 식별자 생성기
+     */
+    @Bean
+    public EntityIdGenerator entityIdGenerator(@Value("${chat.id.node-id:0}") long nodeId) {
+        EntityIdGenerator generator = new SnowflakeIdGenerator(nodeId);
+        EntityIdGenerators.set(generator);
+        return generator;
+    }
+}
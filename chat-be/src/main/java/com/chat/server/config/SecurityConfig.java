@@ -36,6 +36,7 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers("/api/users/signup", "/api/users/login", "/api/users/me", "/ws/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll() // 헬스 체크 및 Prometheus 수집
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(e -> e
@@ -1,23 +1,197 @@
 package com.chat.server.config;
 
+import com.chat.server.service.PresenceRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.StringUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private static final String BROKER_MODE_SIMPLE = "simple";
+    private static final String BROKER_MODE_RELAY = "relay";
+
     @Value("${cors.allowed-origins}")
     private String[] allowedOrigins;
 
+    @Value("${chat.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${chat.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${chat.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${chat.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${chat.broker.relay.client-login:guest}")
+    private String relayClientLogin;
+
+    @Value("${chat.broker.relay.client-passcode:guest}")
+    private String relayClientPasscode;
+
+    @Value("${chat.broker.relay.system-login:guest}")
+    private String relaySystemLogin;
+
+    @Value("${chat.broker.relay.system-passcode:guest}")
+    private String relaySystemPasscode;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${chat.websocket.inbound.core-pool-size:16}")
+    private int inboundCorePoolSize;
+
+    @Value("${chat.websocket.inbound.max-pool-size:32}")
+    private int inboundMaxPoolSize;
+
+    @Value("${chat.websocket.inbound.queue-capacity:10000}")
+    private int inboundQueueCapacity;
+
+    @Value("${chat.websocket.inbound.virtual-concurrency-limit:1000}")
+    private int inboundVirtualConcurrencyLimit;
+
+    @Value("${chat.websocket.outbound.core-pool-size:16}")
+    private int outboundCorePoolSize;
+
+    @Value("${chat.websocket.outbound.max-pool-size:32}")
+    private int outboundMaxPoolSize;
+
+    @Value("${chat.websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${chat.websocket.keep-alive-seconds:60}")
+    private int keepAliveSeconds;
+
+    @Value("${chat.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${chat.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${chat.websocket.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${chat.presence.heartbeat-ms:10000}")
+    private long heartbeatMillis;
+
+    private final PresenceRegistry presenceRegistry;
+    private final TaskScheduler messageBrokerTaskScheduler;
+
+    public WebSocketConfig(PresenceRegistry presenceRegistry,
+                           @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
+        this.presenceRegistry = presenceRegistry;
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
+
+    /**
+     * 메시지 브로커를 설정한다.
+     * simple 모드는 구독 정보를 이 서버 메모리에만 두므로 단일 서버에서만 동작하고,
+     * relay 모드는 /topic 메시지를 외부 STOMP 브로커로 중계하므로 여러 서버가 같은 구독자에게 메시지를 전달할 수 있다.
+     * simple 모드에서는 클라이언트와 heartbeat-ms 간격으로 하트비트를 주고받아, 접속 상태 추적이 끊긴 세션을 알아챌 수 있게 한다.
+     * @param registry 메시지 브로커 설정 레지스트리
+     */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic");
+        if (BROKER_MODE_RELAY.equalsIgnoreCase(brokerMode)) {
+            StompBrokerRelayRegistration relay = registry.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayClientLogin)
+                    .setClientPasscode(relayClientPasscode)
+                    .setSystemLogin(relaySystemLogin)
+                    .setSystemPasscode(relaySystemPasscode);
+            if (StringUtils.hasText(relayVirtualHost)) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+        } else if (BROKER_MODE_SIMPLE.equalsIgnoreCase(brokerMode)) {
+            registry.enableSimpleBroker("/topic")
+                    .setHeartbeatValue(new long[]{heartbeatMillis, heartbeatMillis})
+                    .setTaskScheduler(messageBrokerTaskScheduler);
+        } else {
+            throw new IllegalStateException("Unknown chat.broker.mode: " + brokerMode + " (expected simple or relay)");
+        }
         registry.setApplicationDestinationPrefixes("/app");
+        // 같은 세션으로 나가는 메시지가 발행 순서대로 전달되도록 한다
+        registry.setPreservePublishOrder(true);
+    }
+
+    /**
+     * 클라이언트에서 들어오는 STOMP 프레임을 처리하는 채널의 실행기를 설정한다.
+     * 가상 스레드 모드에서는 프레임마다 가상 스레드를 사용하고, 동시에 처리 중인 프레임 수를 virtual-concurrency-limit으로 제한한다.
+     * 한도에 이르면 프레임을 넘기는 WebSocket 수신 스레드가 기다리므로, 처리량을 넘는 프레임이 메모리에 무한히 쌓이지 않고 클라이언트 쪽으로 역압이 걸린다.
+     * 플랫폼 스레드 모드에서는 core 크기만큼 스레드를 유지하고, 대기열이 가득 찬 경우에만 max 크기까지 늘린다.
+     * 하트비트를 포함해 들어오는 모든 프레임으로 세션의 마지막 활동 시각을 갱신한다.
+     * @param registration 채널 설정
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                if (sessionId != null) {
+                    presenceRegistry.touch(sessionId);
+                }
+                return message;
+            }
+        });
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("chat-inbound-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(inboundVirtualConcurrencyLimit);
+            registration.executor(executor);
+        } else {
+            registration.taskExecutor()
+                    .corePoolSize(inboundCorePoolSize)
+                    .maxPoolSize(inboundMaxPoolSize)
+                    .queueCapacity(inboundQueueCapacity)
+                    .keepAliveSeconds(keepAliveSeconds);
+        }
+    }
+
+    /**
+     * 클라이언트로 나가는 메시지를 전송하는 채널의 실행기를 설정한다.
+     * 세션별 전송은 send-time-limit과 send-buffer-size-limit으로 제한되므로 가상 스레드 모드에서도 플랫폼 스레드 풀을 사용한다.
+     * @param registration 채널 설정
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity)
+                .keepAliveSeconds(keepAliveSeconds);
+    }
+
+    /**
+     * WebSocket 전송 한도를 설정한다.
+     * 느린 클라이언트로 보내는 메시지가 send-time-limit 동안 처리되지 않거나 send-buffer-size-limit을 넘게 쌓이면 해당 세션을 닫는다.
+     * @param registration 전송 설정
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMillis)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit);
     }
 
     @Override
@@ -25,5 +199,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws/chat")
                 .setAllowedOrigins(allowedOrigins)
                 .withSockJS();
+        // 같은 세션에서 들어온 프레임이 받은 순서대로 처리되도록 한다 (채팅방 레인에 넘기기 전까지의 순서 보장)
+        registry.setPreserveReceiveOrder(true);
     }
 }
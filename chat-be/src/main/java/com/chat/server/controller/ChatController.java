@@ -5,12 +5,15 @@ import com.chat.server.dto.ChatRoomDto;
 import com.chat.server.dto.UserDto;
 import com.chat.server.service.ChatService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 채팅방과 채팅 메시지 관리를 위한 REST API 컨트롤러다.
@@ -33,6 +36,24 @@ public class ChatController {
         return ResponseEntity.ok(chatService.findRoomsByUserId(userId));
     }
 
+    /**
+     * 특정 사용자가 참여한 채팅방 목록을 마지막 메시지 시간 역순으로 한 페이지 조회한다.
+     * 다음 페이지는 응답의 nextBeforeAt, nextBeforeRoomId를 함께 넘겨 조회한다.
+     * @param userId 사용자 ID
+     * @param beforeAt 이 시간(같으면 beforeRoomId)보다 이전 채팅방을 조회 (선택, beforeRoomId와 함께 지정)
+     * @param beforeRoomId 이전 페이지의 마지막 채팅방 ID (선택, beforeAt과 함께 지정)
+     * @param limit 조회할 채팅방 수 (선택)
+     * @return 채팅방 페이지
+     */
+    @GetMapping("/rooms/user/{userId}/inbox")
+    public ResponseEntity<ChatRoomDto.InboxPage> getInbox(@PathVariable Long userId,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeAt,
+                                                          @RequestParam(required = false) Long beforeRoomId,
+                                                          @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(chatService.findInboxPage(userId, beforeAt, beforeRoomId, limit));
+    }
+
     /**
      * 새로운 채팅방을 생성한다.
      * @param request 채팅방 생성 요청 정보
@@ -54,7 +75,19 @@ public class ChatController {
     }
 
     /**
-     * 특정 채팅방의 모든 메시지를 조회한다.
+     * 특정 채팅방의 현재 참여자 목록을 참여자 구성 버전과 함께 조회한다.
+     * JOIN/LEAVE 메시지의 버전이 건너뛰었을 때 클라이언트가 참여자 목록을 다시 맞추는 데 사용한다.
+     * @param roomId 조회할 채팅방 ID
+     * @return 참여자 구성 버전과 현재 참여자 목록
+     */
+    @GetMapping("/room/{roomId}/members")
+    public ResponseEntity<ChatRoomDto.Members> getRoomMembers(@PathVariable Long roomId) {
+        return ResponseEntity.ok(chatService.getRoomMembers(roomId));
+    }
+
+    /**
+     * 특정 채팅방의 최근 메시지를 조회한다.
+     * 최대 조회 건수가 제한되어 있으므로 이전 기록은 커서 조회 API를 사용한다.
      * @param roomId 메시지를 조회할 채팅방 ID
      * @return 채팅방의 메시지 목록
      */
@@ -63,6 +96,43 @@ public class ChatController {
         return ResponseEntity.ok(chatService.findMessagesByRoomId(roomId));
     }
 
+    /**
+     * 메시지 ID 커서로 채팅방 메시지를 한 페이지씩 조회한다.
+     * 커서 없이 호출하면 최신 메시지부터 반환하며, 위로 스크롤할 때는 응답의 oldestMessageId를 before로 전달한다.
+     * @param roomId 메시지를 조회할 채팅방 ID
+     * @param before 이 메시지 ID보다 이전 메시지를 조회 (선택)
+     * @param after 이 메시지 ID보다 이후 메시지를 조회 (선택)
+     * @param limit 조회할 메시지 수 (선택)
+     * @return 메시지 페이지
+     */
+    @GetMapping("/room/{roomId}/messages/page")
+    public ResponseEntity<ChatMessageDto.CursorPage> getMessagePage(@PathVariable Long roomId,
+                                                                   @RequestParam(required = false) Long before,
+                                                                   @RequestParam(required = false) Long after,
+                                                                   @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(chatService.findMessagePage(roomId, before, after, limit));
+    }
+
+    /**
+     * 현재 사용자가 참여 중인 채팅방의 메시지를 검색어로 찾아 최신순으로 한 페이지 조회한다.
+     * 다음 페이지는 응답의 nextBefore를 before로 전달하여 조회한다.
+     * @param query 검색어
+     * @param roomId 검색할 채팅방 ID (선택, 없으면 참여 중인 모든 채팅방)
+     * @param before 이 메시지 ID보다 이전 메시지를 조회 (선택)
+     * @param limit 조회할 메시지 수 (선택)
+     * @param authentication 현재 인증된 사용자 정보
+     * @return 검색 결과 페이지
+     */
+    @GetMapping("/messages/search")
+    public ResponseEntity<ChatMessageDto.SearchPage> searchMessages(@RequestParam String query,
+                                                                    @RequestParam(required = false) Long roomId,
+                                                                    @RequestParam(required = false) Long before,
+                                                                    @RequestParam(required = false) Integer limit,
+                                                                    Authentication authentication) {
+        UserDto user = (UserDto) authentication.getPrincipal();
+        return ResponseEntity.ok(chatService.searchMessages(user.getUserId(), query, roomId, before, limit));
+    }
+
     /**
      * 현재 사용자가 채팅방에서 나간다.
      * @param roomId 나갈 채팅방 ID
@@ -77,6 +147,30 @@ public class ChatController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * 현재 사용자가 채팅방의 메시지를 모두 읽은 것으로 처리한다.
+     * @param roomId 읽은 채팅방 ID
+     * @param authentication 현재 인증된 사용자 정보
+     * @return 빈 응답
+     */
+    @PostMapping("/room/{roomId}/read")
+    public ResponseEntity<Void> markRoomRead(@PathVariable Long roomId, Authentication authentication) {
+        UserDto user = (UserDto) authentication.getPrincipal();
+        chatService.markRoomRead(roomId, user.getUserId());
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * 채팅방 참여자들의 현재 읽음 위치를 조회한다.
+     * 채팅방을 열 때 한 번 조회하고, 이후 변경은 READ_RECEIPT 메시지로 받는다.
+     * @param roomId 조회할 채팅방 ID
+     * @return 메시지 ID별로 그 메시지까지 읽은 사용자 ID 목록
+     */
+    @GetMapping("/room/{roomId}/read-receipts")
+    public ResponseEntity<Map<Long, List<Long>>> getReadReceipts(@PathVariable Long roomId) {
+        return ResponseEntity.ok(chatService.getReadReceipts(roomId));
+    }
+
     /**
      * 채팅방에 사용자들을 초대한다.
      * @param roomId 초대할 채팅방 ID
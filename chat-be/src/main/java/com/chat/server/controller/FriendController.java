@@ -26,13 +26,18 @@ public class FriendController {
     /**
      * 닉네임으로 사용자를 검색한다.
      * @param nickname 검색할 닉네임
+     * @param page 조회할 페이지 (선택, 0부터 시작)
+     * @param size 페이지 크기 (선택)
      * @param principal 현재 인증된 사용자 정보
      * @return 검색된 사용자 목록
      */
     @GetMapping("/search")
-    public ResponseEntity<List<FriendDto>> searchUsers(@RequestParam String nickname, Principal principal) {
+    public ResponseEntity<List<FriendDto>> searchUsers(@RequestParam String nickname,
+                                                       @RequestParam(required = false) Integer page,
+                                                       @RequestParam(required = false) Integer size,
+                                                       Principal principal) {
         UserDto currentUser = (UserDto) ((Authentication) principal).getPrincipal();
-        return ResponseEntity.ok(friendService.searchUsers(nickname, currentUser.getUserId()));
+        return ResponseEntity.ok(friendService.searchUsers(nickname, currentUser.getUserId(), page, size));
     }
 
     /**
@@ -2,44 +2,166 @@ package com.chat.server.controller;
 
 import com.chat.server.domain.ChatMessage;
 import com.chat.server.dto.ChatMessageDto;
+import com.chat.server.dto.ReadReceiptDto;
+import com.chat.server.dto.TypingDto;
+import com.chat.server.dto.UserDto;
+import com.chat.server.exception.CustomException;
+import com.chat.server.exception.ErrorCode;
+import com.chat.server.service.ChatBroadcaster;
 import com.chat.server.service.ChatService;
+import com.chat.server.service.MessageSearchIndex;
+import com.chat.server.service.MessageWriteBehindService;
+import com.chat.server.service.RecentMessageCache;
+import com.chat.server.service.RoomInboxUpdater;
+import com.chat.server.service.RoomLaneExecutor;
+import com.chat.server.service.TypingIndicatorService;
+import com.chat.server.service.UnreadCountRegistry;
+import com.chat.server.service.UserProfileCache;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 
+import java.security.Principal;
 import java.time.LocalDateTime;
 
 /**
  * WebSocket을 통한 실시간 메시지 전송을 처리하는 컨트롤러다.
  * 클라이언트로부터 메시지를 받아서 저장하고 해당 채팅방을 구독한 모든 클라이언트에게 브로드캐스트한다.
  */
+@Slf4j
 @Controller
 @RequiredArgsConstructor
 public class MessageController {
 
     private final ChatService chatService;
-    private final SimpMessageSendingOperations messagingTemplate;
+    private final MessageWriteBehindService messageWriteBehindService;
+    private final RecentMessageCache recentMessageCache;
+    private final ChatBroadcaster chatBroadcaster;
+    private final RoomLaneExecutor roomLaneExecutor;
+    private final UnreadCountRegistry unreadCountRegistry;
+    private final TypingIndicatorService typingIndicatorService;
+    private final RoomInboxUpdater roomInboxUpdater;
+    private final MessageSearchIndex messageSearchIndex;
+    private final UserProfileCache userProfileCache;
 
     /**
-     * WebSocket을 통해 받은 메시지를 처리한다.
-     * TALK 타입 메시지는 데이터베이스에 저장하고, 모든 메시지를 해당 채팅방 구독자들에게 브로드캐스트한다.
+     * WebSocket을 통해 받은 메시지를 채팅방 레인에 넘긴다.
+     * 같은 채팅방의 메시지는 항상 같은 레인에서 받은 순서대로 저장되고 브로드캐스트된다.
+     * 클라이언트는 TALK 메시지만 보낼 수 있다. 입력 중 이벤트는 /chat/typing으로 받고, JOIN/LEAVE/ROOM_CREATED/READ_RECEIPT 등은
+     * 서버만 보내는 메시지이므로 위조된 멤버 변경이나 읽음 상태가 다른 클라이언트에 전달되지 않도록 버린다.
+     * 보낸 사용자는 프레임에 담긴 값이 아니라 세션의 인증 정보로 정하므로 다른 참여자를 사칭할 수 없고, 인증되지 않은 세션의 메시지는 버린다.
+     * 레인에서 처리하다 실패하면(채팅방 참여자가 아니거나 저장 대기열이 가득 찬 경우 등) 보낸 사용자의 오류 토픽으로 알린다.
      * @param message 클라이언트로부터 받은 채팅 메시지
+     * @param principal 세션의 인증 정보
      */
     @MessageMapping("/chat/message")
-    public void message(ChatMessageDto message) {
-        // TALK 타입 메시지만 처리
-        if (message.getType() == ChatMessageDto.MessageType.TALK) {
+    public void message(ChatMessageDto message, Principal principal) {
+        if (message.getType() != ChatMessageDto.MessageType.TALK || message.getRoomId() == null) {
+            log.debug("Ignoring {} message sent to /chat/message for room {}", message.getType(), message.getRoomId());
+            return;
+        }
+        Long userId = userIdOf(principal);
+        if (userId == null) {
+            log.debug("Ignoring unauthenticated message for room {}", message.getRoomId());
+            return;
+        }
+        message.setSenderId(userId);
+        // 서버만 채우는 필드는 클라이언트가 보낸 값을 그대로 브로드캐스트하지 않는다
+        message.setMembershipVersion(null);
+        message.setChangedMembers(null);
+        message.setParticipants(null);
+        message.setReadReceipts(null);
+        try {
+            roomLaneExecutor.execute(message.getRoomId(), () -> handleMessage(message), failure -> sendError(userId, failure));
+        } catch (CustomException e) {
+            sendError(userId, e);
+        }
+    }
+
+    /**
+     * WebSocket을 통해 받은 읽음 확인을 처리한다.
+     * 바로 브로드캐스트하지 않고 채팅방별로 모았다가 짧은 주기마다 READ_RECEIPT 메시지 하나로 알린다.
+     * 인증되지 않은 세션의 읽음 확인은 무시한다.
+     * @param receipt 채팅방 ID와 읽은 메시지 중 가장 최신 메시지 ID
+     * @param principal 세션의 인증 정보
+     */
+    @MessageMapping("/chat/read")
+    public void read(ReadReceiptDto receipt, Principal principal) {
+        Long userId = userIdOf(principal);
+        if (userId != null) {
+            chatService.receiveReadReceipt(receipt.getRoomId(), userId, receipt.getMessageId());
+        }
+    }
+
+    /**
+     * WebSocket을 통해 받은 입력 중 이벤트를 처리한다.
+     * 저장하지 않고 채팅방 레인도 거치지 않으며, 사용자/채팅방별로 throttle한 뒤 별도 토픽으로 알린다.
+     * 인증되지 않은 세션의 이벤트는 무시한다.
+     * @param event 채팅방 ID와 입력 중 여부
+     * @param principal 세션의 인증 정보
+     */
+    @MessageMapping("/chat/typing")
+    public void typing(TypingDto event, Principal principal) {
+        Long userId = userIdOf(principal);
+        if (userId != null && event.getRoomId() != null) {
+            typingIndicatorService.update(event.getRoomId(), userId, event.isTyping());
+        }
+    }
+
+    /**
+     * 채팅방 레인에서 TALK 메시지를 처리한다.
+     * 데이터베이스에 저장한 뒤 해당 채팅방 구독자들에게 브로드캐스트한다.
+     * 지연 저장 모드가 켜져 있으면 저장 대기열에 넣기만 하고 바로 브로드캐스트한다.
+     * 보낸 사용자의 닉네임은 클라이언트가 보낸 값 대신 서버의 프로필로 채운다.
+     * @param message 클라이언트로부터 받은 채팅 메시지
+     */
+    private void handleMessage(ChatMessageDto message) {
+        message.setSenderNickname(userProfileCache.findById(message.getSenderId())
+                .map(UserProfileCache.UserProfile::userNickname)
+                .orElse(null));
+        if (messageWriteBehindService.isEnabled()) {
+            // 저장은 writer 스레드에 맡기고, 대기열에 넣을 때 발급한 ID와 시간을 바로 사용
+            chatService.validateSender(message.getRoomId(), message.getSenderId());
+            messageWriteBehindService.enqueue(message);
+        } else {
             ChatMessage saved = chatService.saveMessage(message);
             // 저장된 메시지의 생성 시간으로 채워서 프론트가 즉시 시간 표시 가능
             if (saved != null) {
+                message.setMessageId(saved.getMessageId());
                 message.setCreatedAt(saved.getCreatedAt());
             } else {
                 message.setCreatedAt(LocalDateTime.now());
             }
+            // 커밋된 메시지를 검색 색인 대기열에 넣는다 (지연 저장 모드에서는 writer 스레드가 저장한 뒤 넣는다)
+            messageSearchIndex.enqueue(message);
         }
+        // 채팅방을 열 때 최신 메시지를 메모리에서 바로 돌려줄 수 있도록 최근 메시지 버퍼에 추가
+        recentMessageCache.append(message);
+        // 참여자들의 안 읽은 메시지 수 증가 (채팅방 순번 하나만 올린다)
+        unreadCountRegistry.onMessage(message.getRoomId(), message.getSenderId(), message.getMessageId());
+        // 메시지를 보냈으므로 입력 중 상태를 지운다 (클라이언트는 TALK 메시지로 입력 중 표시를 지운다)
+        typingIndicatorService.clear(message.getRoomId(), message.getSenderId());
+        // 채팅방 목록 정렬에 쓰는 마지막 메시지 정보 갱신 (채팅방별로 모아서 주기적으로 저장)
+        roomInboxUpdater.onMessage(message);
 
-        // /topic/chat/room/{roomId}를 구독하고 있는 클라이언트에게 메시지 전송
-        messagingTemplate.convertAndSend("/topic/chat/room/" + message.getRoomId(), message);
+        // /topic/chat/room/{roomId}를 구독하고 있는 클라이언트에게 메시지 전송 (JSON 인코딩은 한 번만 수행)
+        chatBroadcaster.broadcastToRoom(message.getRoomId(), message);
+    }
+
+    private void sendError(Long userId, RuntimeException failure) {
+        if (userId == null) {
+            return;
+        }
+        ErrorCode errorCode = failure instanceof CustomException e ? e.getErrorCode() : ErrorCode.INTERNAL_SERVER_ERROR;
+        chatBroadcaster.sendErrorToUser(userId, errorCode);
+    }
+
+    private static Long userIdOf(Principal principal) {
+        if (principal instanceof Authentication authentication && authentication.getPrincipal() instanceof UserDto user) {
+            return user.getUserId();
+        }
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.chat.server.domain;
 
+import com.chat.server.domain.id.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -12,15 +13,16 @@ import java.time.LocalDateTime;
  * 채팅방에서 주고받은 메시지의 내용과 발신자 정보를 관리한다.
  */
 @Entity
+@Table(indexes = @Index(name = "idx_chat_message_room_id_message_id", columnList = "room_id, message_id"))
 @Getter
 @Setter
 @NoArgsConstructor
 public class ChatMessage {
     /**
-     * 메시지 고유 식별자
+     * 메시지 고유 식별자 (시간 순서가 보장되는 Snowflake ID, 정렬 키로도 사용)
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long messageId;
 
     /**
@@ -1,9 +1,13 @@
 package com.chat.server.domain;
 
+import com.chat.server.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
@@ -13,8 +17,13 @@ import java.util.List;
 /**
  * 채팅방 정보를 저장하는 엔티티다.
  * 채팅방의 기본 정보와 참여자 목록을 관리한다.
+ * 채팅방 목록을 최신 메시지 순으로 정렬할 수 있도록 마지막 메시지 정보를 비정규화해 함께 둔다.
+ * 2차 캐시가 켜져 있으면 채팅방과 참여 기록 컬렉션을 캐시에 두며, JDBC로 갱신하는 마지막 메시지 정보는
+ * {@link com.chat.server.service.RoomInboxUpdater}가 갱신할 때 캐시에서 제거한다.
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ROOM_REGION)
+@Table(indexes = @Index(name = "idx_chat_room_last_message_at_room_id", columnList = "last_message_at, room_id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -56,9 +65,48 @@ public class ChatRoom {
     @Column(length = 1, columnDefinition = "CHAR(1) DEFAULT 'Y'")
     private String isActive;
 
+    /**
+     * 마지막 메시지 ID (메시지가 없으면 null)
+     * 마지막 메시지 정보는 {@link com.chat.server.service.RoomInboxUpdater}가 JDBC로만 갱신하므로,
+     * 엔티티를 수정해 저장할 때 오래된 값으로 덮어쓰지 않도록 JPA UPDATE에서는 제외한다.
+     */
+    @Column(updatable = false)
+    private Long lastMessageId;
+
+    /**
+     * 마지막 메시지 시간 (메시지가 없으면 채팅방 생성 시간, 채팅방 목록의 정렬 기준)
+     */
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime lastMessageAt;
+
+    /**
+     * 마지막 메시지 미리보기 (앞부분만 저장)
+     */
+    @Column(length = 100, updatable = false)
+    private String lastMessagePreview;
+
+    /**
+     * 채팅방 메시지 순번 (relay 모드에서 안 읽은 메시지 수를 계산하는 기준)
+     * {@link com.chat.server.service.UnreadCountRegistry}가 JDBC로만 올리므로 JPA INSERT와 UPDATE에서는 제외한다.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Long messageSeq;
+
     /**
      * 채팅방 참여자 기록 목록 (일대다 관계)
      */
     @OneToMany(mappedBy = "chatRoom", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ROOM_PARTICIPANTS_REGION)
     private List<RoomParticipantsHistory> participants = new ArrayList<>();
+
+    /**
+     * 메시지가 없는 채팅방도 생성 시점 순서로 정렬되도록 마지막 메시지 시간을 생성 시간으로 채운다.
+     */
+    @PrePersist
+    void initLastMessageAt() {
+        if (lastMessageAt == null) {
+            lastMessageAt = LocalDateTime.now();
+        }
+    }
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package com.chat.server.domain;
 
+import com.chat.server.config.HibernateCacheConfig;
+import com.chat.server.domain.id.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
@@ -11,17 +15,23 @@ import java.time.LocalDateTime;
  * 채팅방 참여자의 입장/퇴장 기록을 저장하는 엔티티다.
  * 사용자가 언제 채팅방에 입장했고 언제 나갔는지 이력을 관리한다.
  * quitAt이 null이면 현재 참여 중인 상태를 의미한다.
+ * 채팅방의 참여 기록 컬렉션 캐시는 기록 ID만 담으므로, 기록 자체도 2차 캐시에 둔다.
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.PARTICIPANT_REGION)
+@Table(indexes = {
+        @Index(name = "idx_room_participants_history_room_id_user_id", columnList = "room_id, user_id"),
+        @Index(name = "idx_room_participants_history_user_id_quit_at", columnList = "user_id, quit_at, room_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 public class RoomParticipantsHistory {
     /**
-     * 참여자 기록 고유 식별자
+     * 참여자 기록 고유 식별자 (Snowflake ID, 여러 명을 한 번에 초대할 때 INSERT를 배치로 묶을 수 있도록 애플리케이션에서 발급)
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long participantId;
 
     /**
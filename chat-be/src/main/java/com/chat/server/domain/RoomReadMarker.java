@@ -0,0 +1,71 @@
+package com.chat.server.domain;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 사용자가 채팅방에서 마지막으로 읽은 메시지를 저장하는 엔티티다.
+ * 안 읽은 메시지 수는 메모리에서 관리하고, 이 테이블은 재시작 시 안 읽은 메시지 수를 다시 계산하는 기준으로만 사용한다.
+ * relay 모드에서는 읽은 시점의 채팅방 메시지 순번도 함께 저장하여 안 읽은 메시지 수를 순번의 차이로 계산한다.
+ * 변경은 {@link com.chat.server.service.UnreadCountRegistry}가 모아서 JDBC 배치로 저장한다.
+ */
+@Entity
+@IdClass(RoomReadMarker.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "room_read_marker")
+public class RoomReadMarker {
+
+    /**
+     * 사용자 ID
+     */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * 채팅방 ID
+     */
+    @Id
+    @Column(name = "room_id")
+    private Long roomId;
+
+    /**
+     * 마지막으로 읽은 메시지 ID (Snowflake ID이므로 이보다 큰 ID의 메시지가 안 읽은 메시지다)
+     */
+    @Column(nullable = false)
+    private Long lastReadMessageId;
+
+    /**
+     * 마지막으로 읽은 시점의 채팅방 메시지 순번 (relay 모드에서만 사용, chat_room.message_seq와의 차이가 안 읽은 메시지 수다)
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long readMessageSeq;
+
+    /**
+     * 마지막으로 저장된 시간
+     */
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * (사용자 ID, 채팅방 ID) 복합 키다.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long roomId;
+    }
+}
@@ -1,9 +1,12 @@
 package com.chat.server.domain;
 
+import com.chat.server.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
@@ -11,8 +14,10 @@ import java.time.LocalDateTime;
 /**
  * 사용자의 기본 프로필 정보를 저장하는 엔티티다.
  * 사용자 닉네임, 프로필 이미지 등 기본적인 사용자 정보를 관리한다.
+ * 변경보다 조회가 훨씬 많으므로 2차 캐시가 켜져 있으면 캐시에 둔다.
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USER_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
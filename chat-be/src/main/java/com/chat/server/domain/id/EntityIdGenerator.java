@@ -0,0 +1,15 @@
+package com.chat.server.domain.id;
+
+/**
+ * 엔티티 식별자를 애플리케이션에서 직접 발급하는 생성기 인터페이스다.
+ * 데이터베이스 IDENTITY 컬럼에 의존하지 않으므로 INSERT 전에 식별자를 알 수 있고, Hibernate JDBC 배치를 사용할 수 있다.
+ */
+public interface EntityIdGenerator {
+
+    /**
+     * 새로운 식별자를 발급한다.
+     * 같은 생성기 인스턴스에서 발급한 값은 항상 이전 값보다 크다.
+     * @return 새 식별자
+     */
+    long nextId();
+}
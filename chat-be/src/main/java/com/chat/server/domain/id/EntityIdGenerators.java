@@ -0,0 +1,30 @@
+package com.chat.server.domain.id;
+
+/**
+ * Hibernate 식별자 생성기가 사용할 {@link EntityIdGenerator}를 보관하는 홀더다.
+ * Hibernate는 식별자 생성기를 Spring 컨테이너 밖에서 생성하므로, 애플리케이션 설정에서 만든 생성기를 이 홀더에 등록해 공유한다.
+ * 등록 전에는 노드 번호 0의 Snowflake 생성기를 사용한다.
+ */
+public final class EntityIdGenerators {
+
+    private static volatile EntityIdGenerator current = new SnowflakeIdGenerator(0);
+
+    private EntityIdGenerators() {
+    }
+
+    /**
+     * 현재 등록된 생성기를 반환한다.
+     * @return 등록된 식별자 생성기
+     */
+    public static EntityIdGenerator get() {
+        return current;
+    }
+
+    /**
+     * 사용할 생성기를 등록한다.
+     * @param generator 등록할 식별자 생성기
+     */
+    public static void set(EntityIdGenerator generator) {
+        current = generator;
+    }
+}
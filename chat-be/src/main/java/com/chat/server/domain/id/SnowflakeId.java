@@ -0,0 +1,18 @@
+package com.chat.server.domain.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 엔티티 식별자를 {@link EntityIdGenerators}에 등록된 생성기로 발급하도록 지정하는 어노테이션이다.
+ * {@code @GeneratedValue(strategy = GenerationType.IDENTITY)} 대신 사용한다.
+ */
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SnowflakeId {
+}
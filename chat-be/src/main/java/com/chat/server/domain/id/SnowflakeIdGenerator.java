@@ -0,0 +1,83 @@
+package com.chat.server.domain.id;
+
+import java.time.Instant;
+
+/**
+ * Snowflake 방식으로 시간 순서가 보장되는 64비트 식별자를 발급하는 생성기다.
+ * 식별자는 상위부터 41비트 타임스탬프(기준 시각 이후 밀리초), 10비트 노드 번호, 12비트 순번으로 구성된다.
+ * 노드마다 다른 번호를 설정하면 여러 서버가 동시에 발급해도 충돌하지 않는다.
+ * 시계가 뒤로 가거나 1밀리초에 4096개를 넘게 발급하더라도 마지막 타임스탬프를 논리적으로 이어 가므로 한 노드 안에서는 항상 증가한다.
+ */
+public class SnowflakeIdGenerator implements EntityIdGenerator {
+
+    /**
+     * 타임스탬프 기준 시각 (2025-01-01T00:00:00Z)
+     */
+    public static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+
+    private final long nodeId;
+
+    private long lastTimestamp = -1L;
+    private long sequence;
+
+    /**
+     * @param nodeId 노드 번호 (0 ~ 1023)
+     * @throws IllegalArgumentException 노드 번호가 범위를 벗어난 경우
+     */
+    public SnowflakeIdGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public synchronized long nextId() {
+        long timestamp = Math.max(currentTimeMillis() - EPOCH_MILLIS, lastTimestamp);
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                // 같은 밀리초의 순번을 모두 쓴 경우 다음 밀리초를 미리 사용한다
+                timestamp++;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = timestamp;
+        return (timestamp << TIMESTAMP_SHIFT) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * 현재 시각을 밀리초로 반환한다. 테스트에서 시계를 바꿔 끼울 수 있도록 분리했다.
+     * @return 현재 시각 (epoch 밀리초)
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * 식별자에 담긴 발급 시각을 꺼낸다.
+     * @param id Snowflake 식별자
+     * @return 발급 시각
+     */
+    public static Instant extractInstant(long id) {
+        return Instant.ofEpochMilli((id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS);
+    }
+
+    /**
+     * 특정 시각 이전에 발급된 식별자보다 항상 큰 최소 식별자를 반환한다.
+     * 시간 범위를 식별자 범위로 바꿔 조회할 때 사용한다.
+     * @param instant 기준 시각
+     * @return 해당 시각에 발급될 수 있는 가장 작은 식별자
+     */
+    public static long minIdAt(Instant instant) {
+        return Math.max(instant.toEpochMilli() - EPOCH_MILLIS, 0L) << TIMESTAMP_SHIFT;
+    }
+}
@@ -0,0 +1,24 @@
+package com.chat.server.domain.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * {@link SnowflakeId}가 붙은 식별자를 INSERT 전에 발급하는 Hibernate 생성기다.
+ */
+public class SnowflakeIdentifierGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return EntityIdGenerators.get().nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -1,12 +1,16 @@
 package com.chat.server.dto;
 
 import com.chat.server.domain.ChatMessage;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 채팅 메시지 전송 및 수신을 위한 DTO 클래스다.
@@ -36,13 +40,30 @@ public class ChatMessageDto {
         /**
          * 일반 대화 메시지
          */
-        TALK
+        TALK,
+
+        /**
+         * 채팅방 생성 알림 메시지 (처음 참여자 전체를 메시지 하나에 담는다)
+         */
+        ROOM_CREATED,
+
+        /**
+         * 읽음 확인 메시지 (짧은 주기 동안 받은 채팅방의 읽음 확인을 하나로 모은다)
+         */
+        READ_RECEIPT
     }
 
     /**
-     * 메시지 타입 (JOIN, LEAVE, TALK)
+     * 메시지 타입 (JOIN, LEAVE, TALK, ROOM_CREATED, READ_RECEIPT)
      */
     private MessageType type;
+
+    /**
+     * 메시지 고유 식별자 (저장된 TALK 메시지에만 존재)
+     * JavaScript Number 정밀도를 넘는 값이므로 JSON에서는 문자열로 내보낸다.
+     */
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long messageId;
     
     /**
      * 메시지가 전송된 채팅방 ID
@@ -70,10 +91,52 @@ public class ChatMessageDto {
     private LocalDateTime createdAt;
     
     /**
-     * 현재 채팅방 참여자 목록 (JOIN/LEAVE 메시지에 포함)
+     * 이 JOIN/LEAVE/ROOM_CREATED가 반영된 참여자 구성 버전
+     * 클라이언트는 직전 버전 + 1이면 changedMembers만 참여자 목록에 더하거나 빼고, 건너뛰었으면 전체 참여자 목록을 다시 조회한다.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long membershipVersion;
+
+    /**
+     * 이 JOIN/LEAVE/ROOM_CREATED로 참여하거나 퇴장한 사용자 목록
+     * 여러 명을 한 번에 초대하면 메시지 하나에 모두 담긴다. 한 명일 때는 발신자 필드에도 같은 사용자가 담긴다.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<UserDto> changedMembers;
+
+    /**
+     * 현재 채팅방 참여자 목록 (참여자 구성 버전이 없는 relay 모드의 JOIN/LEAVE 메시지에만 포함)
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<UserDto> participants;
 
+    /**
+     * 메시지 ID별로 그 메시지까지 읽은 사용자 ID 목록 (READ_RECEIPT 메시지에만 포함)
+     * 같은 메시지까지 읽은 사용자를 묶으므로 참여자가 많아도 프레임 크기는 메시지 ID 수에 따라 작게 유지된다.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<Long, List<Long>> readReceipts;
+
+    /**
+     * 메시지 조회 쿼리의 생성자 표현식(JPQL constructor expression)에서 사용하는 생성자다.
+     * 데이터베이스에서 조회한 메시지는 항상 TALK 타입으로 설정한다.
+     * @param messageId 메시지 ID
+     * @param roomId 채팅방 ID
+     * @param senderId 발신자 ID
+     * @param senderNickname 발신자 닉네임
+     * @param message 메시지 내용
+     * @param createdAt 메시지 생성 시간
+     */
+    public ChatMessageDto(Long messageId, Long roomId, Long senderId, String senderNickname, String message, LocalDateTime createdAt) {
+        this.type = MessageType.TALK;
+        this.messageId = messageId;
+        this.roomId = roomId;
+        this.senderId = senderId;
+        this.senderNickname = senderNickname;
+        this.message = message;
+        this.createdAt = createdAt;
+    }
+
     /**
      * ChatMessage 엔티티를 ChatMessageDto로 변환한다.
      * 데이터베이스에서 조회한 메시지는 항상 TALK 타입으로 설정한다.
@@ -83,6 +146,7 @@ public class ChatMessageDto {
     public static ChatMessageDto fromEntity(ChatMessage chatMessage) {
         return ChatMessageDto.builder()
                 .type(MessageType.TALK) // DB에서 조회한 메시지는 TALK 타입
+                .messageId(chatMessage.getMessageId())
                 .roomId(chatMessage.getChatRoom().getRoomId())
                 .senderId(chatMessage.getSender().getUserId())
                 .senderNickname(chatMessage.getSender().getUserNickname())
@@ -90,4 +154,64 @@ public class ChatMessageDto {
                 .createdAt(chatMessage.getCreatedAt())
                 .build();
     }
+
+    /**
+     * 커서 기반 메시지 조회 결과를 담는 DTO 클래스다.
+     * 메시지는 항상 오래된 순으로 담기며, 다음 페이지를 요청할 때 사용할 커서를 함께 내려준다.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CursorPage {
+
+        /**
+         * 조회된 메시지 목록 (메시지 ID 오름차순)
+         */
+        private List<ChatMessageDto> messages;
+
+        /**
+         * 더 이전 메시지를 조회할 때 before 값으로 사용할 커서 (가장 오래된 메시지 ID, 메시지가 없으면 null)
+         */
+        @JsonSerialize(using = ToStringSerializer.class)
+        private Long oldestMessageId;
+
+        /**
+         * 더 이후 메시지를 조회할 때 after 값으로 사용할 커서 (가장 최신 메시지 ID, 메시지가 없으면 null)
+         */
+        @JsonSerialize(using = ToStringSerializer.class)
+        private Long newestMessageId;
+
+        /**
+         * 요청한 방향으로 조회할 메시지가 더 남아 있는지 여부
+         */
+        private boolean hasMore;
+    }
+
+    /**
+     * 메시지 검색 결과를 담는 DTO 클래스다.
+     * 메시지는 최신순으로 담기며, 다음 페이지를 요청할 때 사용할 커서를 함께 내려준다.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SearchPage {
+
+        /**
+         * 검색된 메시지 목록 (메시지 ID 내림차순)
+         */
+        private List<ChatMessageDto> messages;
+
+        /**
+         * 다음 페이지를 조회할 때 before 값으로 사용할 커서 (가장 오래된 메시지 ID, 메시지가 없으면 null)
+         */
+        @JsonSerialize(using = ToStringSerializer.class)
+        private Long nextBefore;
+
+        /**
+         * 검색된 메시지가 더 남아 있는지 여부
+         */
+        private boolean hasMore;
+    }
 }
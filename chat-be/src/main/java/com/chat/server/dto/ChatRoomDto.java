@@ -2,6 +2,8 @@ package com.chat.server.dto;
 
 import com.chat.server.domain.ChatRoom;
 import com.chat.server.domain.RoomParticipantsHistory;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import lombok.Builder;
 import lombok.Data;
 import java.time.LocalDateTime;
@@ -13,7 +15,7 @@ import java.util.stream.Collectors;
  * 채팅방 기본 정보와 현재 참여자 목록을 포함한다.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class ChatRoomDto {
     /**
      * 채팅방 고유 식별자
@@ -35,6 +37,27 @@ public class ChatRoomDto {
      */
     private List<UserDto> participants;
 
+    /**
+     * 조회한 사용자의 안 읽은 메시지 수 (사용자별 채팅방 목록에서만 채워진다)
+     */
+    private Long unreadCount;
+
+    /**
+     * 마지막 메시지 ID (메시지가 없으면 null, JSON에서는 문자열)
+     */
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long lastMessageId;
+
+    /**
+     * 마지막 메시지 시간 (메시지가 없으면 채팅방 생성 시간)
+     */
+    private LocalDateTime lastMessageAt;
+
+    /**
+     * 마지막 메시지 미리보기
+     */
+    private String lastMessagePreview;
+
     /**
      * ChatRoom 엔티티를 ChatRoomDto로 변환한다.
      * 현재 참여 중인 사용자만 참여자 목록에 포함한다.
@@ -42,16 +65,40 @@ public class ChatRoomDto {
      * @return 변환된 ChatRoomDto
      */
     public static ChatRoomDto fromEntity(ChatRoom chatRoom) {
-        List<UserDto> participantDtos = chatRoom.getParticipants().stream()
+        return fromEntity(chatRoom, chatRoom.getParticipants().stream()
                 .filter(p -> p.getQuitAt() == null) // 활성 참여자만 필터링
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * ChatRoom 엔티티와 따로 조회한 현재 참여 기록으로 ChatRoomDto를 만든다.
+     * 채팅방의 참여자 컬렉션을 초기화하지 않으므로, 여러 채팅방의 참여자를 한 번에 조회해 넘길 때 사용한다.
+     * @param chatRoom 변환할 ChatRoom 엔티티
+     * @param activeParticipants 채팅방의 현재 참여 기록 (사용자 엔티티가 로딩되어 있어야 한다)
+     * @return 변환된 ChatRoomDto
+     */
+    public static ChatRoomDto fromEntity(ChatRoom chatRoom, List<RoomParticipantsHistory> activeParticipants) {
+        return of(chatRoom, activeParticipants.stream()
                 .map(p -> UserDto.fromEntity(p.getUserBase()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
 
+    /**
+     * ChatRoom 엔티티와 이미 만들어 둔 참여자 목록으로 ChatRoomDto를 만든다.
+     * 참여자의 사용자 엔티티를 로딩하지 않고 캐시한 사용자 정보로 참여자를 채울 때 사용한다.
+     * @param chatRoom 변환할 ChatRoom 엔티티
+     * @param participantDtos 현재 참여자 목록
+     * @return 변환된 ChatRoomDto
+     */
+    public static ChatRoomDto of(ChatRoom chatRoom, List<UserDto> participantDtos) {
         return ChatRoomDto.builder()
                 .roomId(chatRoom.getRoomId())
                 .roomName(chatRoom.getRoomName())
                 .roomType(chatRoom.getRoomType())
                 .participants(participantDtos)
+                .lastMessageId(chatRoom.getLastMessageId())
+                .lastMessageAt(chatRoom.getLastMessageAt())
+                .lastMessagePreview(chatRoom.getLastMessagePreview())
                 .build();
     }
 
@@ -77,6 +124,52 @@ public class ChatRoomDto {
         private List<String> userNicknames;
     }
 
+    /**
+     * 사용자별 채팅방 목록을 한 페이지씩 조회한 결과를 담는 DTO 클래스다.
+     * 채팅방은 마지막 메시지 시간 역순으로 담기며, 다음 페이지를 요청할 때 사용할 커서를 함께 내려준다.
+     */
+    @Data
+    @Builder
+    public static class InboxPage {
+        /**
+         * 조회된 채팅방 목록 (마지막 메시지 시간 역순)
+         */
+        private List<ChatRoomDto> rooms;
+
+        /**
+         * 다음 페이지를 조회할 때 beforeAt 값으로 사용할 커서 (마지막 채팅방의 마지막 메시지 시간, 채팅방이 없으면 null)
+         */
+        private LocalDateTime nextBeforeAt;
+
+        /**
+         * 다음 페이지를 조회할 때 beforeRoomId 값으로 사용할 커서 (마지막 채팅방 ID, 채팅방이 없으면 null)
+         */
+        private Long nextBeforeRoomId;
+
+        /**
+         * 조회할 채팅방이 더 남아 있는지 여부
+         */
+        private boolean hasMore;
+    }
+
+    /**
+     * 채팅방의 현재 참여자 목록과 참여자 구성 버전을 담는 DTO 클래스다.
+     * 클라이언트는 이 버전 이후의 JOIN/LEAVE 메시지만 목록에 이어서 적용한다.
+     */
+    @Data
+    @Builder
+    public static class Members {
+        /**
+         * 참여자 구성 버전 (relay 모드에서는 null)
+         */
+        private Long version;
+
+        /**
+         * 현재 참여자 목록 (사용자 ID 오름차순)
+         */
+        private List<UserDto> members;
+    }
+
     /**
      * 채팅방 참여자 기록 정보를 담는 DTO 클래스다.
      * 사용자의 입장 및 퇴장 시간을 포함한다.
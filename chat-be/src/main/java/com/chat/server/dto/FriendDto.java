@@ -21,4 +21,9 @@ public class FriendDto {
      * 친구의 닉네임
      */
     private String userNickname;
+
+    /**
+     * 친구의 현재 접속 여부
+     */
+    private boolean online;
 }
@@ -0,0 +1,24 @@
+package com.chat.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 사용자의 접속 상태 변경을 담는 DTO 클래스다.
+ * 친구와 같은 채팅방 참여자에게 /topic/user/{userId}/presence로 목록 단위로 전송된다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceDto {
+    /**
+     * 접속 상태가 바뀐 사용자 ID
+     */
+    private Long userId;
+
+    /**
+     * 현재 접속 여부
+     */
+    private boolean online;
+}
@@ -0,0 +1,24 @@
+package com.chat.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 클라이언트가 /app/chat/read로 보내는 읽음 확인 DTO 클래스다.
+ * 채팅방에서 화면에 표시한 메시지 중 가장 최신 메시지 ID를 담는다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadReceiptDto {
+    /**
+     * 읽은 채팅방 ID
+     */
+    private Long roomId;
+
+    /**
+     * 읽은 메시지 중 가장 최신 메시지 ID (JSON에서는 문자열로도 받는다)
+     */
+    private Long messageId;
+}
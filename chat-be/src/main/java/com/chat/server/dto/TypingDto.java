@@ -0,0 +1,30 @@
+package com.chat.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 입력 중 상태를 주고받는 DTO 클래스다.
+ * 클라이언트는 /app/chat/typing으로 보내고, 서버는 /topic/chat/room/{roomId}/typing으로 전송한다.
+ * 저장하지 않는 일회성 이벤트다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypingDto {
+    /**
+     * 채팅방 ID
+     */
+    private Long roomId;
+
+    /**
+     * 입력 중인 사용자 ID (클라이언트가 보낸 값은 무시하고 세션의 사용자로 채운다)
+     */
+    private Long userId;
+
+    /**
+     * 입력 중이면 true, 입력을 멈췄거나 만료되었으면 false
+     */
+    private boolean typing;
+}
@@ -0,0 +1,11 @@
+package com.chat.server.event;
+
+/**
+ * 두 사용자의 친구 관계가 맺어지거나 끊어졌을 때 발행하는 이벤트다.
+ * 친구 요청 수락, 거절, 친구 삭제 시 발행되며, 트랜잭션 커밋 이후 친구 관계 인덱스 갱신에 사용된다.
+ * @param userId1 첫 번째 사용자 ID (ID가 더 작은 사용자)
+ * @param userId2 두 번째 사용자 ID (ID가 더 큰 사용자)
+ * @param accepted 친구 관계가 맺어졌으면 true, 끊어졌으면 false
+ */
+public record FriendshipChangedEvent(Long userId1, Long userId2, boolean accepted) {
+}
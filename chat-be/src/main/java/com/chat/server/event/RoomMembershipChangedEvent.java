@@ -0,0 +1,44 @@
+package com.chat.server.event;
+
+import java.util.Set;
+
+/**
+ * 채팅방 참여자 구성이 바뀌었을 때 발행하는 이벤트다.
+ * 채팅방 생성, 초대, 퇴장 시 발행되며, 트랜잭션 커밋 이후 캐시 무효화 등에 사용된다.
+ * @param roomId 참여자 구성이 바뀐 채팅방 ID
+ * @param joinedUserIds 새로 참여한 사용자 ID 목록
+ * @param leftUserIds 퇴장한 사용자 ID 목록
+ * @param roomCreated 채팅방 생성으로 처음 참여자가 정해진 경우 true
+ */
+public record RoomMembershipChangedEvent(Long roomId, Set<Long> joinedUserIds, Set<Long> leftUserIds, boolean roomCreated) {
+
+    /**
+     * 채팅방이 생성되어 처음 참여자가 정해진 경우의 이벤트를 생성한다.
+     * @param roomId 생성된 채팅방 ID
+     * @param userIds 처음 참여자 ID 목록
+     * @return 채팅방 생성 이벤트
+     */
+    public static RoomMembershipChangedEvent created(Long roomId, Set<Long> userIds) {
+        return new RoomMembershipChangedEvent(roomId, Set.copyOf(userIds), Set.of(), true);
+    }
+
+    /**
+     * 사용자들이 참여한 경우의 이벤트를 생성한다.
+     * @param roomId 채팅방 ID
+     * @param userIds 참여한 사용자 ID 목록
+     * @return 참여 이벤트
+     */
+    public static RoomMembershipChangedEvent joined(Long roomId, Set<Long> userIds) {
+        return new RoomMembershipChangedEvent(roomId, Set.copyOf(userIds), Set.of(), false);
+    }
+
+    /**
+     * 사용자가 퇴장한 경우의 이벤트를 생성한다.
+     * @param roomId 채팅방 ID
+     * @param userId 퇴장한 사용자 ID
+     * @return 퇴장 이벤트
+     */
+    public static RoomMembershipChangedEvent left(Long roomId, Long userId) {
+        return new RoomMembershipChangedEvent(roomId, Set.of(), Set.of(userId), false);
+    }
+}
@@ -0,0 +1,9 @@
+package com.chat.server.event;
+
+/**
+ * 사용자가 가입하거나, 프로필(닉네임, 프로필 이미지)이 바뀌거나, 삭제되었을 때 발행하는 이벤트다.
+ * 트랜잭션 커밋 이후 사용자 프로필 캐시 무효화와 닉네임 검색 인덱스 갱신에 사용된다.
+ * @param userId 가입했거나 프로필이 바뀌거나 삭제된 사용자 ID
+ */
+public record UserProfileChangedEvent(Long userId) {
+}
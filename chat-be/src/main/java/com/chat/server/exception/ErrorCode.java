@@ -31,7 +31,10 @@ public enum ErrorCode {
     // Chat
     CHAT_ROOM_NOT_FOUND(HttpStatus.NOT_FOUND, "CH001", "채팅방을 찾을 수 없습니다."),
     USER_ALREADY_IN_CHAT_ROOM(HttpStatus.BAD_REQUEST, "CH002", "이미 채팅방에 참여중인 사용자입니다."),
-    INVALID_INVITATION(HttpStatus.BAD_REQUEST, "CH003", "자기 자신을 채팅방에 초대할 수 없습니다.");
+    INVALID_INVITATION(HttpStatus.BAD_REQUEST, "CH003", "자기 자신을 채팅방에 초대할 수 없습니다."),
+    MESSAGE_QUEUE_FULL(HttpStatus.SERVICE_UNAVAILABLE, "CH004", "메시지 처리 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요."),
+    NOT_ROOM_PARTICIPANT(HttpStatus.FORBIDDEN, "CH005", "채팅방에 참여 중인 사용자가 아닙니다."),
+    MESSAGE_SEARCH_DISABLED(HttpStatus.SERVICE_UNAVAILABLE, "CH006", "메시지 검색을 사용할 수 없습니다.");
 
 
     private final HttpStatus status;
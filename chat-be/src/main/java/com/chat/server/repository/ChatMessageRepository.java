@@ -1,8 +1,12 @@
 package com.chat.server.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.chat.server.domain.ChatMessage;
+import com.chat.server.dto.ChatMessageDto;
 
 import java.util.List;
 
@@ -11,6 +15,12 @@ import java.util.List;
  * 채팅 메시지의 저장, 조회, 수정, 삭제와 관련된 데이터베이스 작업을 처리한다.
  */
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
+
+    /**
+     * 메시지와 발신자를 조인하여 {@link ChatMessageDto}로 바로 변환하는 조회 절이다.
+     */
+    String SELECT_MESSAGE_DTO = "SELECT new com.chat.server.dto.ChatMessageDto(m.messageId, m.chatRoom.roomId, s.userId, s.userNickname, m.messageContent, m.createdAt) "
+            + "FROM ChatMessage m JOIN m.sender s ";
     
     /**
      * 특정 채팅방의 모든 메시지를 생성 시간 순으로 조회한다.
@@ -19,4 +29,35 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
      * @return 해당 채팅방의 메시지 목록 (생성 시간 오름차순)
      */
     List<ChatMessage> findByChatRoom_RoomIdOrderByCreatedAtAsc(Long roomId);
+
+    /**
+     * 특정 채팅방의 최신 메시지를 최신순으로 조회한다.
+     * (room_id, message_id) 인덱스를 역방향으로 읽으므로 채팅방 메시지 수와 관계없이 limit 만큼만 읽는다.
+     * 발신자를 조인하여 DTO로 바로 변환하므로 엔티티를 영속성 컨텍스트에 올리지 않고, 발신자 조회 쿼리가 추가로 발생하지 않는다.
+     * @param roomId 조회할 채팅방 ID
+     * @param limit 최대 조회 건수
+     * @return 메시지 목록 (메시지 ID 내림차순)
+     */
+    @Query(SELECT_MESSAGE_DTO + "WHERE m.chatRoom.roomId = :roomId ORDER BY m.messageId DESC")
+    List<ChatMessageDto> findLatestMessages(@Param("roomId") Long roomId, Limit limit);
+
+    /**
+     * 기준 메시지보다 이전 메시지를 최신순으로 조회한다. (위로 스크롤)
+     * @param roomId 조회할 채팅방 ID
+     * @param messageId 기준 메시지 ID (포함하지 않음)
+     * @param limit 최대 조회 건수
+     * @return 메시지 목록 (메시지 ID 내림차순)
+     */
+    @Query(SELECT_MESSAGE_DTO + "WHERE m.chatRoom.roomId = :roomId AND m.messageId < :messageId ORDER BY m.messageId DESC")
+    List<ChatMessageDto> findMessagesBefore(@Param("roomId") Long roomId, @Param("messageId") Long messageId, Limit limit);
+
+    /**
+     * 기준 메시지보다 이후 메시지를 오래된 순으로 조회한다. (재접속 후 놓친 메시지 보충)
+     * @param roomId 조회할 채팅방 ID
+     * @param messageId 기준 메시지 ID (포함하지 않음)
+     * @param limit 최대 조회 건수
+     * @return 메시지 목록 (메시지 ID 오름차순)
+     */
+    @Query(SELECT_MESSAGE_DTO + "WHERE m.chatRoom.roomId = :roomId AND m.messageId > :messageId ORDER BY m.messageId ASC")
+    List<ChatMessageDto> findMessagesAfter(@Param("roomId") Long roomId, @Param("messageId") Long messageId, Limit limit);
 }
@@ -1,9 +1,11 @@
 package com.chat.server.repository;
 
 import com.chat.server.domain.ChatRoom;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -11,6 +13,12 @@ import java.util.List;
  * 채팅방의 저장, 조회, 수정, 삭제와 관련된 데이터베이스 작업을 처리한다.
  */
 public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
+
+    /**
+     * 사용자가 현재 참여 중인 채팅방을 참여 기록에서 찾는 조회 절이다.
+     */
+    String SELECT_INBOX = "SELECT r FROM RoomParticipantsHistory p JOIN p.chatRoom r "
+            + "WHERE p.userBase.userId = :userId AND p.quitAt IS NULL ";
     
     /**
      * 특정 사용자가 현재 참여 중인 모든 채팅방을 조회한다.
@@ -20,4 +28,29 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
      */
     @Query("SELECT r FROM ChatRoom r JOIN r.participants p WHERE p.userBase.userId = :userId AND p.quitAt IS NULL")
     List<ChatRoom> findChatRoomsByUserId(@Param("userId") Long userId);
+
+    /**
+     * 특정 사용자가 현재 참여 중인 채팅방을 마지막 메시지 시간 역순으로 조회한다.
+     * 참여 기록의 (user_id, quit_at, room_id) 인덱스로 채팅방을 찾고, 채팅방에 비정규화된 마지막 메시지 시간으로 정렬하므로
+     * 채팅방마다 메시지 테이블을 조회하지 않는다.
+     * @param userId 조회할 사용자 ID
+     * @param limit 최대 조회 건수
+     * @return 채팅방 목록 (마지막 메시지 시간 역순, 같으면 채팅방 ID 역순)
+     */
+    @Query(SELECT_INBOX + "ORDER BY r.lastMessageAt DESC, r.roomId DESC")
+    List<ChatRoom> findInbox(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * 특정 사용자의 채팅방 목록에서 커서 이후(더 오래된) 채팅방을 조회한다.
+     * OFFSET 없이 (마지막 메시지 시간, 채팅방 ID) 커서로 이어서 읽는다.
+     * @param userId 조회할 사용자 ID
+     * @param beforeAt 이전 페이지 마지막 채팅방의 마지막 메시지 시간
+     * @param beforeRoomId 이전 페이지 마지막 채팅방 ID
+     * @param limit 최대 조회 건수
+     * @return 채팅방 목록 (마지막 메시지 시간 역순, 같으면 채팅방 ID 역순)
+     */
+    @Query(SELECT_INBOX + "AND (r.lastMessageAt < :beforeAt OR (r.lastMessageAt = :beforeAt AND r.roomId < :beforeRoomId)) "
+            + "ORDER BY r.lastMessageAt DESC, r.roomId DESC")
+    List<ChatRoom> findInboxBefore(@Param("userId") Long userId, @Param("beforeAt") LocalDateTime beforeAt,
+                                   @Param("beforeRoomId") Long beforeRoomId, Limit limit);
 }
\ No newline at end of file
@@ -1,8 +1,14 @@
 package com.chat.server.repository;
 
 import com.chat.server.domain.RoomParticipantsHistory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +44,24 @@ public interface RoomParticipantsHistoryRepository extends JpaRepository<RoomPar
      */
     Optional<RoomParticipantsHistory> findByChatRoom_RoomIdAndUserBase_UserIdAndQuitAtIsNull(Long roomId, Long userId);
 
+    /**
+     * 특정 채팅방에 특정 사용자가 현재 참여 중인지 확인한다.
+     * 참여자 레지스트리를 사용하지 않는 relay 모드에서 발신자 확인에 사용한다.
+     * @param roomId 채팅방 ID
+     * @param userId 사용자 ID
+     * @return 현재 참여 중이면 true
+     */
+    boolean existsByChatRoom_RoomIdAndUserBase_UserIdAndQuitAtIsNull(Long roomId, Long userId);
+
+    /**
+     * 특정 채팅방에서 여러 사용자의 참여 기록을 한 번의 IN 조회로 모두 조회한다.
+     * 여러 명을 초대할 때 이미 참여 중인지 확인하고 재초대할 기록을 찾는 데 사용한다.
+     * @param roomId 채팅방 ID
+     * @param userIds 사용자 ID 목록
+     * @return 해당 사용자들의 참여 기록 목록 (퇴장한 기록 포함)
+     */
+    List<RoomParticipantsHistory> findByChatRoom_RoomIdAndUserBase_UserIdIn(Long roomId, Collection<Long> userIds);
+
     /**
      * 특정 채팅방에서 특정 사용자의 가장 최근 참여 기록을 조회한다.
      * 재초대 시 이전 기록을 재활용할 때 사용한다.
@@ -63,4 +87,44 @@ public interface RoomParticipantsHistoryRepository extends JpaRepository<RoomPar
      */
     List<RoomParticipantsHistory> findByUserBase_UserIdAndQuitAtIsNull(Long userId);
 
+    /**
+     * 특정 채팅방에 현재 참여 중인 사용자들의 ID만 조회한다.
+     * 사용자 엔티티를 로딩하지 않으므로 relay 모드에서 참여자 레지스트리 대신 사용한다.
+     * @param roomId 채팅방 ID
+     * @return 현재 참여 중인 사용자 ID 목록
+     */
+    @Query("SELECT p.userBase.userId FROM RoomParticipantsHistory p WHERE p.chatRoom.roomId = :roomId AND p.quitAt IS NULL")
+    List<Long> findActiveUserIdsByRoomId(@Param("roomId") Long roomId);
+
+    /**
+     * 여러 채팅방의 현재 참여 기록을 사용자 정보와 함께 한 번에 조회한다.
+     * 채팅방 목록을 DTO로 바꿀 때 채팅방마다 참여자와 사용자를 따로 읽지 않도록 사용한다.
+     * 2차 캐시가 켜져 있으면 쿼리 캐시에 두며, 참여 기록이나 사용자가 바뀌면 Hibernate가 결과를 무효화한다.
+     * @param roomIds 채팅방 ID 목록
+     * @return 현재 참여 중인 참여 기록 목록 (사용자 엔티티 포함, 채팅방 ID와 입장 시간 순)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT p FROM RoomParticipantsHistory p JOIN FETCH p.userBase "
+            + "WHERE p.chatRoom.roomId IN :roomIds AND p.quitAt IS NULL ORDER BY p.chatRoom.roomId, p.joinedAt")
+    List<RoomParticipantsHistory> findActiveWithUserByRoomIds(@Param("roomIds") Collection<Long> roomIds);
+
+    /**
+     * 여러 사용자가 현재 참여 중인 채팅방을 한 번에 조회한다.
+     * 엔티티를 만들지 않고 사용자 ID와 채팅방 ID만 읽으며, 접속 상태를 알릴 채팅방을 찾을 때 사용한다.
+     * @param userIds 사용자 ID 목록
+     * @return 사용자 ID와 참여 중인 채팅방 ID 쌍
+     */
+    @Query("SELECT p.userBase.userId AS userId, p.chatRoom.roomId AS roomId FROM RoomParticipantsHistory p "
+            + "WHERE p.userBase.userId IN :userIds AND p.quitAt IS NULL")
+    List<UserRoom> findActiveRoomsByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 사용자 ID와 참여 중인 채팅방 ID 쌍이다.
+     */
+    interface UserRoom {
+        Long getUserId();
+
+        Long getRoomId();
+    }
+
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.chat.server.repository;
 
 import com.chat.server.domain.UserBase;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,11 +29,20 @@ public interface UserBaseRepository extends JpaRepository<UserBase, Long> {
      */
     Optional<UserBase> findByUserNickname(String nickname);
 
+    /**
+     * 여러 닉네임에 해당하는 사용자를 한 번의 IN 조회로 찾는다.
+     * @param nicknames 찾을 닉네임 목록
+     * @return 찾은 사용자 목록 (없는 닉네임은 제외되며 순서는 보장하지 않는다)
+     */
+    List<UserBase> findByUserNicknameIn(Collection<String> nicknames);
+
     /**
      * 닉네임에 특정 문자열을 포함하고, 자신의 아이디는 제외한 사용자 목록을 조회한다.
+     * 테이블 전체를 훑으므로 닉네임 검색 인덱스를 쓸 수 없는 relay 모드에서만 사용한다.
      * @param nickname 검색할 닉네임 문자열
      * @param userId 제외할 사용자 ID
+     * @param pageable 조회할 페이지와 정렬
      * @return List<UserBase>
      */
-    List<UserBase> findByUserNicknameContainingAndUserIdNot(String nickname, Long userId);
+    List<UserBase> findByUserNicknameContainingAndUserIdNot(String nickname, Long userId, Pageable pageable);
 }
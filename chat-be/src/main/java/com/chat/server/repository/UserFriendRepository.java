@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -68,4 +69,32 @@ public interface UserFriendRepository extends JpaRepository<UserFriend, Long> {
      */
     @Query("SELECT f FROM UserFriend f WHERE f.user2 = :user AND f.status = 'PENDING'")
     List<UserFriend> findPendingRequests(@Param("user") UserBase user);
+
+    /**
+     * 여러 사용자의 ACCEPTED 상태인 친구 관계를 한 번에 조회한다.
+     * 엔티티를 만들지 않고 두 사용자 ID만 읽으며, 접속 상태를 알릴 친구를 찾을 때 사용한다.
+     * @param userIds 친구를 찾을 사용자 ID 목록
+     * @return 한쪽이 userIds에 포함된 친구 관계의 사용자 ID 쌍
+     */
+    @Query("SELECT f.user1.userId AS userId1, f.user2.userId AS userId2 FROM UserFriend f "
+            + "WHERE f.status = 'ACCEPTED' AND (f.user1.userId IN :userIds OR f.user2.userId IN :userIds)")
+    List<FriendPair> findAcceptedFriendPairs(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 두 사용자 사이에 특정 상태의 친구 관계가 있는지 확인한다.
+     * @param userId1 첫 번째 사용자 ID (ID가 더 작은 사용자)
+     * @param userId2 두 번째 사용자 ID (ID가 더 큰 사용자)
+     * @param status 확인할 친구 관계 상태
+     * @return 친구 관계가 있으면 true
+     */
+    boolean existsByUser1_UserIdAndUser2_UserIdAndStatus(Long userId1, Long userId2, FriendStatus status);
+
+    /**
+     * 친구 관계의 두 사용자 ID다.
+     */
+    interface FriendPair {
+        Long getUserId1();
+
+        Long getUserId2();
+    }
 }
@@ -0,0 +1,98 @@
+package com.chat.server.service;
+
+import com.chat.server.exception.ErrorCode;
+import com.chat.server.exception.ErrorResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Collection;
+
+/**
+ * STOMP 구독자에게 메시지를 브로드캐스트하는 컴포넌트다.
+ * 페이로드를 JSON 바이트 배열로 한 번만 인코딩하고, 메시지 변환기를 거치지 않고 그대로 브로커에 전달한다.
+ * 브로커는 같은 바이트 배열을 모든 구독 세션에 공유하므로, 여러 목적지로 보내더라도 JSON 인코딩은 한 번만 일어난다.
+ * 인코딩된 바이트 배열은 여러 세션이 공유하므로 전송 후 수정해서는 안 된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatBroadcaster {
+
+    private static final String ROOM_TOPIC_PREFIX = "/topic/chat/room/";
+    private static final String USER_TOPIC_PREFIX = "/topic/user/";
+    private static final String ERRORS_TOPIC_SUFFIX = "/errors";
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 채팅방 토픽을 구독 중인 모든 클라이언트에게 메시지를 전송한다.
+     * @param roomId 채팅방 ID
+     * @param payload 전송할 메시지 (JSON으로 변환된다)
+     */
+    public void broadcastToRoom(Long roomId, Object payload) {
+        send(ROOM_TOPIC_PREFIX + roomId, encode(payload));
+    }
+
+    /**
+     * 사용자의 오류 토픽(/topic/user/{userId}/errors)으로 오류를 전송한다.
+     * WebSocket으로 보낸 메시지를 채팅방 레인에서 처리하다 실패했을 때 보낸 사용자에게 알리는 데 사용한다.
+     * @param userId 알릴 사용자 ID
+     * @param errorCode 오류 코드
+     */
+    public void sendErrorToUser(Long userId, ErrorCode errorCode) {
+        send(USER_TOPIC_PREFIX + userId + ERRORS_TOPIC_SUFFIX, encode(ErrorResponse.of(errorCode)));
+    }
+
+    /**
+     * 같은 메시지를 여러 목적지에 전송한다.
+     * 목적지 수와 관계없이 JSON 인코딩은 한 번만 수행한다.
+     * @param destinations 전송할 목적지 목록
+     * @param payload 전송할 메시지 (JSON으로 변환된다)
+     */
+    public void broadcast(Collection<String> destinations, Object payload) {
+        if (destinations.isEmpty()) {
+            return;
+        }
+        byte[] encoded = encode(payload);
+        for (String destination : destinations) {
+            send(destination, encoded);
+        }
+    }
+
+    /**
+     * 페이로드를 JSON 바이트 배열로 인코딩한다.
+     * @param payload 인코딩할 객체
+     * @return JSON 바이트 배열
+     * @throws IllegalStateException JSON 변환에 실패한 경우
+     */
+    public byte[] encode(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode broadcast payload: " + payload.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * 이미 인코딩된 JSON 바이트 배열을 목적지로 전송한다.
+     * @param destination 전송할 목적지
+     * @param encodedPayload JSON 바이트 배열
+     */
+    public void send(String destination, byte[] encodedPayload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        // 헤더를 변경 가능한 상태로 넘겨 템플릿이 메시지를 다시 만들지 않도록 한다
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(encodedPayload, accessor.getMessageHeaders());
+        messagingTemplate.send(destination, message);
+    }
+}
@@ -4,15 +4,27 @@ import com.chat.server.domain.*;
 import com.chat.server.dto.ChatMessageDto;
 import com.chat.server.dto.ChatRoomDto;
 import com.chat.server.dto.UserDto;
+import com.chat.server.event.RoomMembershipChangedEvent;
 import com.chat.server.repository.*;
 import com.chat.server.exception.CustomException;
 import com.chat.server.exception.ErrorCode;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -28,11 +40,42 @@ public class ChatService {
     private final ChatMessageRepository chatMessageRepository;
     private final UserBaseRepository userBaseRepository;
     private final RoomParticipantsHistoryRepository participantsRepository;
-    private final SimpMessageSendingOperations messagingTemplate; // WebSocket 메시지 전송용
+    private final RoomAccessCache roomAccessCache;
+    private final RoomMembershipRegistry roomMembershipRegistry;
+    private final RecentMessageCache recentMessageCache;
+    private final RoomListCache roomListCache;
+    private final UserProfileCache userProfileCache;
+    private final UnreadCountRegistry unreadCountRegistry;
+    private final ReadReceiptAggregator readReceiptAggregator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MessageSearchIndex messageSearchIndex;
+
+    @Value("${chat.message.history.max-size:1000}")
+    private int historyMaxSize; // 전체 메시지 조회 API가 반환하는 최대 메시지 수
+
+    @Value("${chat.message.history.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${chat.message.history.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${chat.inbox.default-page-size:30}")
+    private int inboxDefaultPageSize;
+
+    @Value("${chat.inbox.max-page-size:100}")
+    private int inboxMaxPageSize;
+
+    @Value("${chat.search.message.default-page-size:20}")
+    private int searchDefaultPageSize;
+
+    @Value("${chat.search.message.max-page-size:50}")
+    private int searchMaxPageSize;
 
     /**
      * 새로운 채팅방을 생성한다.
-     * 참여자 목록을 받아서 채팅방을 생성하고, 모든 참여자에게 JOIN 알림을 전송한다.
+     * 참여자는 {@link UserProfileCache}에서 닉네임으로 찾고 캐시에 없는 닉네임만 한 번의 IN 조회로 읽는다.
+     * 참여 기록은 배치 INSERT로 저장하므로 참여자 수에 비례하는 쿼리를 실행하지 않는다.
+     * 커밋 이후 참여자 전체를 담은 ROOM_CREATED 알림이 한 번 전송된다.
      * @param request 채팅방 생성 요청 정보
      * @return 생성된 채팅방 정보
      * @throws CustomException 참여자 닉네임에 해당하는 사용자를 찾을 수 없는 경우
@@ -44,84 +87,308 @@ public class ChatService {
         chatRoom.setRoomType(request.getRoomType());
         chatRoom.setIsActive("Y");
 
-        List<UserBase> users = request.getUserNicknames().stream()
-            .map(nickname -> userBaseRepository.findByUserNickname(nickname)
-                .orElseThrow(() -> new CustomException(ErrorCode.USER_NOT_FOUND)))
-            .collect(Collectors.toList());
+        Set<String> nicknames = new HashSet<>(request.getUserNicknames());
+        List<UserProfileCache.UserProfile> users = userProfileCache.findAllByNickname(nicknames);
+        if (users.size() != nicknames.size()) {
+            throw new CustomException(ErrorCode.USER_NOT_FOUND);
+        }
 
+        LocalDateTime joinedAt = LocalDateTime.now();
         List<RoomParticipantsHistory> participants = users.stream()
                 .map(user -> {
                     RoomParticipantsHistory participant = new RoomParticipantsHistory();
                     participant.setChatRoom(chatRoom);
-                    participant.setUserBase(user);
-                    participant.setJoinedAt(LocalDateTime.now());
+                    participant.setUserBase(userBaseRepository.getReferenceById(user.userId()));
+                    participant.setJoinedAt(joinedAt);
                     return participant;
                 }).collect(Collectors.toList());
 
         chatRoom.getParticipants().addAll(participants);
         ChatRoom savedChatRoom = chatRoomRepository.save(chatRoom);
+        // 커밋 이후 참여자 레지스트리 반영과 ROOM_CREATED 알림 전송
+        eventPublisher.publishEvent(RoomMembershipChangedEvent.created(savedChatRoom.getRoomId(),
+                users.stream().map(UserProfileCache.UserProfile::userId).collect(Collectors.toSet())));
 
-        // 생성 후 참여자들에게 JOIN 메시지 전송
-        users.forEach(user -> {
-            sendJoinNotification(savedChatRoom.getRoomId(), user);
-        });
-
-        return ChatRoomDto.fromEntity(savedChatRoom);
+        return ChatRoomDto.of(savedChatRoom, users.stream().map(UserProfileCache.UserProfile::toDto).toList());
     }
 
     /**
      * 특정 사용자가 참여 중인 채팅방 목록을 조회한다.
-     * 사용자가 나가지 않은 활성 상태인 채팅방만 반환한다.
+     * 사용자가 나가지 않은 활성 상태인 채팅방만 마지막 메시지 시간 역순으로 반환한다.
+     * 목록은 {@link RoomListCache}에 사용자별로 보관하며, 캐시에 없을 때만 채팅방과 참여자를 두 번의 조회로 읽는다.
+     * 채팅방별 안 읽은 메시지 수는 {@link UnreadCountRegistry}에서 한 번에 읽어 채운다.
      * @param userId 조회할 사용자 ID
      * @return 사용자가 참여 중인 채팅방 목록
      */
     public List<ChatRoomDto> findRoomsByUserId(Long userId) {
-        // 사용자가 나가지 않은(quitAt is NULL) 채팅방만 조회
-        List<ChatRoom> chatRooms = participantsRepository.findByUserBase_UserIdAndQuitAtIsNull(userId)
+        List<ChatRoomDto> rooms = roomListCache.get(userId,
+                key -> toRoomDtos(chatRoomRepository.findInbox(key, Limit.unlimited())));
+        return withUnreadCounts(userId, rooms);
+    }
+
+    /**
+     * 특정 사용자가 참여 중인 채팅방 목록을 마지막 메시지 시간 역순으로 한 페이지 조회한다.
+     * beforeAt과 beforeRoomId를 주면 그 채팅방 다음부터, 없으면 처음부터 조회한다.
+     * OFFSET을 쓰지 않으므로 참여한 채팅방이 수천 개여도 페이지 위치와 관계없이 같은 방식으로 읽는다.
+     * @param userId 조회할 사용자 ID
+     * @param beforeAt 이전 페이지의 nextBeforeAt (선택)
+     * @param beforeRoomId 이전 페이지의 nextBeforeRoomId (선택)
+     * @param limit 조회할 채팅방 수 (없으면 기본값, 최대값을 넘으면 최대값으로 제한)
+     * @return 채팅방 페이지
+     * @throws CustomException 커서 값을 하나만 지정하거나 limit이 1보다 작은 경우
+     */
+    public ChatRoomDto.InboxPage findInboxPage(Long userId, LocalDateTime beforeAt, Long beforeRoomId, Integer limit) {
+        if ((beforeAt == null) != (beforeRoomId == null) || (limit != null && limit < 1)) {
+            throw new CustomException(ErrorCode.INVALID_INPUT_VALUE);
+        }
+        int pageSize = limit == null ? inboxDefaultPageSize : Math.min(limit, inboxMaxPageSize);
+        // 한 건을 더 읽어 다음 페이지 존재 여부를 판단한다
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<ChatRoom> chatRooms = new ArrayList<>(beforeAt == null
+                ? chatRoomRepository.findInbox(userId, fetchLimit)
+                : chatRoomRepository.findInboxBefore(userId, beforeAt, beforeRoomId, fetchLimit));
+
+        boolean hasMore = chatRooms.size() > pageSize;
+        if (hasMore) {
+            chatRooms.remove(chatRooms.size() - 1);
+        }
+        ChatRoom last = chatRooms.isEmpty() ? null : chatRooms.get(chatRooms.size() - 1);
+        return ChatRoomDto.InboxPage.builder()
+                .rooms(withUnreadCounts(userId, toRoomDtos(chatRooms)))
+                .nextBeforeAt(last == null ? null : last.getLastMessageAt())
+                .nextBeforeRoomId(last == null ? null : last.getRoomId())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * 채팅방 목록을 DTO로 바꾼다.
+     * 채팅방마다 참여자 컬렉션과 사용자를 지연 로딩하지 않도록, 모든 채팅방의 현재 참여자를 사용자와 함께 한 번에 조회한다.
+     */
+    private List<ChatRoomDto> toRoomDtos(List<ChatRoom> chatRooms) {
+        if (chatRooms.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<RoomParticipantsHistory>> participantsByRoom = participantsRepository
+                .findActiveWithUserByRoomIds(chatRooms.stream().map(ChatRoom::getRoomId).collect(Collectors.toSet()))
                 .stream()
-                .map(RoomParticipantsHistory::getChatRoom)
+                .collect(Collectors.groupingBy(p -> p.getChatRoom().getRoomId()));
+        return chatRooms.stream()
                 .distinct()
+                .map(chatRoom -> ChatRoomDto.fromEntity(chatRoom,
+                        participantsByRoom.getOrDefault(chatRoom.getRoomId(), List.of())))
                 .collect(Collectors.toList());
+    }
 
-        return chatRooms.stream()
-                .map(ChatRoomDto::fromEntity)
+    /**
+     * 채팅방 목록의 복사본에 사용자의 채팅방별 안 읽은 메시지 수를 채운다.
+     * 캐시에 보관한 목록은 수정하지 않는다.
+     */
+    private List<ChatRoomDto> withUnreadCounts(Long userId, List<ChatRoomDto> rooms) {
+        Map<Long, Long> unreadCounts = unreadCountRegistry.getUnreadCounts(userId);
+        return rooms.stream()
+                .map(room -> room.toBuilder()
+                        .unreadCount(unreadCounts.getOrDefault(room.getRoomId(), 0L))
+                        .build())
                 .collect(Collectors.toList());
     }
 
     /**
-     * 특정 채팅방의 모든 메시지를 조회한다.
-     * 생성 시간 순으로 정렬하여 반환한다.
+     * 사용자가 채팅방의 현재까지 메시지를 모두 읽은 것으로 처리한다.
+     * @param roomId 채팅방 ID
+     * @param userId 사용자 ID
+     * @throws CustomException 사용자가 채팅방 참여자가 아닌 경우
+     */
+    public void markRoomRead(Long roomId, Long userId) {
+        if (!roomMembershipRegistry.isMember(roomId, userId)) {
+            throw new CustomException(ErrorCode.NOT_ROOM_PARTICIPANT);
+        }
+        unreadCountRegistry.markRead(userId, roomId);
+    }
+
+    /**
+     * 클라이언트가 보낸 읽음 확인을 받는다.
+     * 읽음 확인은 {@link ReadReceiptAggregator}가 채팅방별로 모아 짧은 주기마다 한 번에 알리고 저장한다.
+     * @param roomId 채팅방 ID
+     * @param userId 사용자 ID
+     * @param messageId 읽은 메시지 중 가장 최신 메시지 ID
+     * @throws CustomException 사용자가 채팅방 참여자가 아닌 경우
+     */
+    public void receiveReadReceipt(Long roomId, Long userId, Long messageId) {
+        if (!roomMembershipRegistry.isMember(roomId, userId)) {
+            throw new CustomException(ErrorCode.NOT_ROOM_PARTICIPANT);
+        }
+        if (messageId != null) {
+            readReceiptAggregator.record(roomId, userId, messageId);
+        }
+    }
+
+    /**
+     * 채팅방 참여자들의 현재 읽음 위치를 READ_RECEIPT 메시지와 같은 형태로 조회한다.
+     * 클라이언트는 채팅방을 열 때 이 값으로 시작하고, 이후에는 READ_RECEIPT 메시지만 이어서 반영한다.
+     * @param roomId 채팅방 ID
+     * @return 메시지 ID별로 그 메시지까지 읽은 사용자 ID 목록
+     */
+    public Map<Long, List<Long>> getReadReceipts(Long roomId) {
+        Map<Long, List<Long>> readReceipts = new TreeMap<>();
+        unreadCountRegistry.getReadWatermarks(roomId, roomMembershipRegistry.getMemberIds(roomId))
+                .forEach((userId, messageId) -> readReceipts.computeIfAbsent(messageId, key -> new ArrayList<>()).add(userId));
+        return readReceipts;
+    }
+
+    /**
+     * 특정 채팅방의 메시지를 조회한다.
+     * 전체 기록을 메모리에 올리지 않도록 최신 메시지 max-size 건까지만 오래된 순으로 반환한다.
+     * 그 이전 메시지는 {@link #findMessagePage}로 조회한다.
      * @param roomId 메시지를 조회할 채팅방 ID
      * @return 채팅방의 메시지 목록
      */
     public List<ChatMessageDto> findMessagesByRoomId(Long roomId) {
-        List<ChatMessage> messages = chatMessageRepository.findByChatRoom_RoomIdOrderByCreatedAtAsc(roomId);
-        return messages.stream()
-                .map(ChatMessageDto::fromEntity)
-                .collect(Collectors.toList());
+        List<ChatMessageDto> messages = new ArrayList<>(chatMessageRepository.findLatestMessages(roomId, Limit.of(historyMaxSize)));
+        Collections.reverse(messages);
+        return messages;
+    }
+
+    /**
+     * 메시지 ID를 커서로 사용하여 채팅방 메시지를 한 페이지 조회한다.
+     * before를 주면 그보다 이전 메시지를, after를 주면 그보다 이후 메시지를, 둘 다 없으면 최신 메시지를 조회한다.
+     * OFFSET을 쓰지 않고 (room_id, message_id) 인덱스 범위만 읽으므로 페이지 위치와 관계없이 비용이 일정하다.
+     * @param roomId 메시지를 조회할 채팅방 ID
+     * @param before 이 메시지 ID보다 이전 메시지를 조회 (선택)
+     * @param after 이 메시지 ID보다 이후 메시지를 조회 (선택)
+     * @param limit 조회할 메시지 수 (없으면 기본값, 최대값을 넘으면 최대값으로 제한)
+     * @return 메시지 페이지 (메시지는 오래된 순)
+     * @throws CustomException before와 after를 함께 지정하거나 limit이 1보다 작은 경우
+     */
+    public ChatMessageDto.CursorPage findMessagePage(Long roomId, Long before, Long after, Integer limit) {
+        if ((before != null && after != null) || (limit != null && limit < 1)) {
+            throw new CustomException(ErrorCode.INVALID_INPUT_VALUE);
+        }
+        int pageSize = limit == null ? defaultPageSize : Math.min(limit, maxPageSize);
+        // 한 건을 더 읽어 다음 페이지 존재 여부를 판단한다
+        Limit fetchLimit = Limit.of(pageSize + 1);
+
+        List<ChatMessageDto> messages;
+        if (after != null) {
+            messages = new ArrayList<>(chatMessageRepository.findMessagesAfter(roomId, after, fetchLimit));
+        } else if (before != null) {
+            messages = new ArrayList<>(chatMessageRepository.findMessagesBefore(roomId, before, fetchLimit));
+        } else {
+            // 최신 페이지는 최근 메시지 버퍼에서 먼저 찾는다
+            messages = new ArrayList<>(recentMessageCache.findLatest(roomId, pageSize + 1)
+                    .orElseGet(() -> chatMessageRepository.findLatestMessages(roomId, fetchLimit)));
+        }
+
+        boolean hasMore = messages.size() > pageSize;
+        if (hasMore) {
+            messages.remove(messages.size() - 1);
+        }
+        if (after == null) {
+            // 최신순으로 읽은 결과를 화면 표시 순서(오래된 순)로 맞춘다
+            Collections.reverse(messages);
+        }
+
+        return ChatMessageDto.CursorPage.builder()
+                .messages(messages)
+                .oldestMessageId(messages.isEmpty() ? null : messages.get(0).getMessageId())
+                .newestMessageId(messages.isEmpty() ? null : messages.get(messages.size() - 1).getMessageId())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * 사용자가 참여 중인 채팅방의 메시지를 검색어로 찾아 최신순으로 한 페이지 조회한다.
+     * 채팅방을 지정하면 그 채팅방만, 지정하지 않으면 사용자가 현재 참여 중인 모든 채팅방을 검색한다.
+     * 메시지는 {@link MessageSearchIndex}에서 읽고, 발신자 닉네임은 {@link UserProfileCache}에서 한 번에 채운다.
+     * @param userId 검색하는 사용자 ID
+     * @param query 검색어
+     * @param roomId 검색할 채팅방 ID (선택)
+     * @param before 이 메시지 ID보다 이전 메시지를 조회 (선택, 이전 페이지의 nextBefore)
+     * @param limit 조회할 메시지 수 (없으면 기본값, 최대값을 넘으면 최대값으로 제한)
+     * @return 검색 결과 페이지 (메시지는 최신순)
+     * @throws CustomException 메시지 검색이 꺼져 있거나, 검색어가 비어 있거나, 지정한 채팅방의 참여자가 아닌 경우
+     */
+    public ChatMessageDto.SearchPage searchMessages(Long userId, String query, Long roomId, Long before, Integer limit) {
+        if (!messageSearchIndex.isEnabled()) {
+            throw new CustomException(ErrorCode.MESSAGE_SEARCH_DISABLED);
+        }
+        if (query == null || query.isBlank() || (limit != null && limit < 1)) {
+            throw new CustomException(ErrorCode.INVALID_INPUT_VALUE);
+        }
+        List<Long> roomIds;
+        if (roomId != null) {
+            if (!roomMembershipRegistry.isMember(roomId, userId)) {
+                throw new CustomException(ErrorCode.NOT_ROOM_PARTICIPANT);
+            }
+            roomIds = List.of(roomId);
+        } else {
+            roomIds = participantsRepository.findActiveRoomsByUserIds(List.of(userId)).stream()
+                    .map(RoomParticipantsHistoryRepository.UserRoom::getRoomId)
+                    .toList();
+        }
+        int pageSize = limit == null ? searchDefaultPageSize : Math.min(limit, searchMaxPageSize);
+        // 한 건을 더 읽어 다음 페이지 존재 여부를 판단한다
+        List<MessageSearchIndex.Hit> hits = new ArrayList<>(messageSearchIndex.search(query, roomIds, before, pageSize + 1));
+        boolean hasMore = hits.size() > pageSize;
+        if (hasMore) {
+            hits.remove(hits.size() - 1);
+        }
+
+        Map<Long, UserProfileCache.UserProfile> senders = userProfileCache.findAllById(
+                hits.stream().map(MessageSearchIndex.Hit::senderId).collect(Collectors.toSet()));
+        List<ChatMessageDto> messages = hits.stream()
+                .map(hit -> ChatMessageDto.builder()
+                        .type(ChatMessageDto.MessageType.TALK)
+                        .messageId(hit.messageId())
+                        .roomId(hit.roomId())
+                        .senderId(hit.senderId())
+                        .senderNickname(senders.containsKey(hit.senderId()) ? senders.get(hit.senderId()).userNickname() : null)
+                        .message(hit.content())
+                        .createdAt(hit.createdAt())
+                        .build())
+                .toList();
+        return ChatMessageDto.SearchPage.builder()
+                .messages(messages)
+                .nextBefore(messages.isEmpty() ? null : messages.get(messages.size() - 1).getMessageId())
+                .hasMore(hasMore)
+                .build();
     }
 
     /**
      * 새로운 채팅 메시지를 저장한다.
+     * 채팅방 확인은 캐시로, 발신자 확인은 참여자 레지스트리로 처리하고 엔티티 대신 프록시 참조를 사용하므로, 캐시가 채워진 상태에서는 INSERT 한 번만 실행된다.
      * @param messageDto 저장할 메시지 정보
      * @return 저장된 메시지 엔티티
-     * @throws CustomException 채팅방이나 발신자를 찾을 수 없는 경우
+     * @throws CustomException 채팅방을 찾을 수 없거나 발신자가 채팅방 참여자가 아닌 경우
      */
     @Transactional
     public ChatMessage saveMessage(ChatMessageDto messageDto) {
-        ChatRoom chatRoom = chatRoomRepository.findById(messageDto.getRoomId())
-                .orElseThrow(() -> new CustomException(ErrorCode.CHAT_ROOM_NOT_FOUND));
-        UserBase sender = userBaseRepository.findById(messageDto.getSenderId())
-                .orElseThrow(() -> new CustomException(ErrorCode.USER_NOT_FOUND));
+        validateSender(messageDto.getRoomId(), messageDto.getSenderId());
 
         ChatMessage chatMessage = new ChatMessage();
-        chatMessage.setChatRoom(chatRoom);
-        chatMessage.setSender(sender);
+        chatMessage.setChatRoom(chatRoomRepository.getReferenceById(messageDto.getRoomId()));
+        chatMessage.setSender(userBaseRepository.getReferenceById(messageDto.getSenderId()));
         chatMessage.setMessageContent(messageDto.getMessage());
 
         return chatMessageRepository.save(chatMessage);
     }
 
+    /**
+     * 발신자가 메시지를 보낼 수 있는지 확인한다.
+     * 채팅방이 존재하고 활성 상태이며, 발신자가 현재 참여 중이어야 한다.
+     * @param roomId 채팅방 ID
+     * @param senderId 발신자 ID
+     * @throws CustomException 채팅방을 찾을 수 없거나 발신자가 채팅방 참여자가 아닌 경우
+     */
+    public void validateSender(Long roomId, Long senderId) {
+        roomAccessCache.get(roomId)
+                .filter(RoomAccessCache.RoomAccess::active)
+                .orElseThrow(() -> new CustomException(ErrorCode.CHAT_ROOM_NOT_FOUND));
+        if (!roomMembershipRegistry.isMember(roomId, senderId)) {
+            throw new CustomException(ErrorCode.NOT_ROOM_PARTICIPANT);
+        }
+    }
+
     /**
      * 특정 채팅방의 상세 정보를 조회한다.
      * @param roomId 조회할 채팅방 ID
@@ -131,122 +398,122 @@ public class ChatService {
     public ChatRoomDto findRoomById(Long roomId) {
         ChatRoom chatRoom = chatRoomRepository.findById(roomId)
                 .orElseThrow(() -> new CustomException(ErrorCode.CHAT_ROOM_NOT_FOUND));
-        return ChatRoomDto.fromEntity(chatRoom);
+        return ChatRoomDto.fromEntity(chatRoom, participantsRepository.findActiveWithUserByRoomIds(List.of(roomId)));
     }
 
     /**
      * 채팅방에서 참여자를 제거한다.
-     * 참여자의 퇴장 시간을 기록하고 다른 참여자들에게 퇴장 알림을 전송한다.
+     * 참여자의 퇴장 시간을 기록하고, 커밋 이후 다른 참여자들에게 퇴장 알림이 전송된다.
      * @param roomId 채팅방 ID
      * @param userId 나갈 사용자 ID
      * @throws CustomException 사용자를 찾을 수 없는 경우
      */
     @Transactional
     public void removeParticipant(Long roomId, Long userId) {
-        UserBase user = userBaseRepository.findById(userId)
-            .orElseThrow(() -> new CustomException(ErrorCode.USER_NOT_FOUND));
+        if (userProfileCache.findById(userId).isEmpty()) {
+            throw new CustomException(ErrorCode.USER_NOT_FOUND);
+        }
 
         participantsRepository.findByChatRoom_RoomIdAndUserBase_UserIdAndQuitAtIsNull(roomId, userId)
                 .ifPresent(participant -> {
                     participant.setQuitAt(LocalDateTime.now());
                     participantsRepository.save(participant);
-
-                    // 퇴장 알림 메시지 전송
-                    sendLeaveNotification(roomId, user);
+                    eventPublisher.publishEvent(RoomMembershipChangedEvent.left(roomId, userId));
                 });
     }
 
     /**
      * 특정 채팅방의 현재 참여자 목록을 조회한다.
-     * 퇴장하지 않은 활성 참여자만 반환한다.
+     * 참여자 ID는 참여자 레지스트리에서 읽고, 사용자 정보는 {@link UserProfileCache}에서 가져온다 (캐시에 없는 사용자만 한 번의 IN 조회).
      * @param roomId 조회할 채팅방 ID
-     * @return 현재 참여자 목록
+     * @return 현재 참여자 목록 (사용자 ID 오름차순)
      */
     public List<UserDto> getRoomParticipants(Long roomId) {
-        return participantsRepository.findByChatRoom_RoomIdAndQuitAtIsNull(roomId).stream()
-                .map(participant -> UserDto.fromEntity(participant.getUserBase()))
+        return findUsers(roomMembershipRegistry.getMemberIds(roomId));
+    }
+
+    /**
+     * 특정 채팅방의 현재 참여자 목록을 참여자 구성 버전과 함께 조회한다.
+     * 클라이언트가 JOIN/LEAVE 메시지의 버전이 건너뛴 것을 발견했을 때 전체 목록을 다시 맞추는 데 사용한다.
+     * @param roomId 조회할 채팅방 ID
+     * @return 참여자 구성 버전과 현재 참여자 목록
+     */
+    public ChatRoomDto.Members getRoomMembers(Long roomId) {
+        RoomMembershipRegistry.Snapshot snapshot = roomMembershipRegistry.getSnapshot(roomId);
+        return ChatRoomDto.Members.builder()
+                .version(snapshot.version())
+                .members(findUsers(snapshot.memberIds()))
+                .build();
+    }
+
+    private List<UserDto> findUsers(long[] memberIds) {
+        Map<Long, UserProfileCache.UserProfile> users = userProfileCache.findAllById(Arrays.stream(memberIds).boxed().toList());
+        return Arrays.stream(memberIds)
+                .mapToObj(users::get)
+                .filter(Objects::nonNull)
+                .map(UserProfileCache.UserProfile::toDto)
                 .collect(Collectors.toList());
     }
 
     /**
      * 채팅방에 새로운 사용자들을 초대한다.
-     * 이미 참여 중인 사용자는 제외하고, 새로 초대된 사용자들에게 JOIN 알림을 전송한다.
+     * 초대할 사용자는 {@link UserProfileCache}에서 찾고(캐시에 없는 사용자만 IN 조회), 참여 기록은 한 번의 IN 조회로 읽어 배치로 저장한다.
+     * 나갔던 사용자는 가장 최근 참여 기록을 재사용하며, 커밋 이후 초대된 사용자 전체에 대한 JOIN 알림이 한 번 전송된다.
+     * 한 명이라도 초대할 수 없으면 아무도 초대하지 않는다.
      * @param roomId 초대할 채팅방 ID
+     * @param inviterId 초대하는 사용자 ID
      * @param userNicknames 초대할 사용자들의 닉네임 목록
-     * @throws CustomException 채팅방이나 초대할 사용자를 찾을 수 없는 경우
+     * @throws CustomException 채팅방이나 초대할 사용자를 찾을 수 없거나, 자기 자신 또는 이미 참여 중인 사용자를 초대한 경우
      */
-        @Transactional
-        public void inviteUsersToRoom(Long roomId, Long inviterId, List<String> userNicknames) {
-            ChatRoom chatRoom = chatRoomRepository.findById(roomId)
-                    .orElseThrow(() -> new CustomException(ErrorCode.CHAT_ROOM_NOT_FOUND));
-    
-            for (String nickname : userNicknames) {
-                UserBase userToInvite = userBaseRepository.findByUserNickname(nickname)
-                        .orElseThrow(() -> new CustomException(ErrorCode.USER_NOT_FOUND));
-    
-                // 자기 자신을 초대하는지 확인
-                if (userToInvite.getUserId().equals(inviterId)) {
-                    throw new CustomException(ErrorCode.INVALID_INVITATION);
-                }
-    
-                // 이미 채팅방에 참여중인지 확인
-                boolean isAlreadyParticipant = participantsRepository.findByChatRoom_RoomIdAndUserBase_UserIdAndQuitAtIsNull(roomId, userToInvite.getUserId()).isPresent();
-                if (isAlreadyParticipant) {
-                    throw new CustomException(ErrorCode.USER_ALREADY_IN_CHAT_ROOM);
-                }
-    
-                // 재초대 로직 (나갔던 사용자를 다시 초대)
-                RoomParticipantsHistory participant = participantsRepository.findFirstByChatRoom_RoomIdAndUserBase_UserIdOrderByJoinedAtDesc(roomId, userToInvite.getUserId())
-                        .orElseGet(() -> {
-                            RoomParticipantsHistory newParticipant = new RoomParticipantsHistory();
-                            newParticipant.setChatRoom(chatRoom);
-                            newParticipant.setUserBase(userToInvite);
-                            return newParticipant;
-                        });
-    
-                participant.setJoinedAt(LocalDateTime.now());
-                participant.setQuitAt(null); // 다시 들어왔으므로 나간 시간 초기화
-                participantsRepository.save(participant);
-    
-                // 초대된 사용자에게 JOIN 메시지 전송
-                sendJoinNotification(roomId, userToInvite);
+    @Transactional
+    public void inviteUsersToRoom(Long roomId, Long inviterId, List<String> userNicknames) {
+        ChatRoom chatRoom = chatRoomRepository.findById(roomId)
+                .orElseThrow(() -> new CustomException(ErrorCode.CHAT_ROOM_NOT_FOUND));
+
+        Set<String> nicknames = new HashSet<>(userNicknames);
+        List<UserProfileCache.UserProfile> usersToInvite = userProfileCache.findAllByNickname(nicknames);
+        if (usersToInvite.size() != nicknames.size()) {
+            throw new CustomException(ErrorCode.USER_NOT_FOUND);
+        }
+        Set<Long> userIds = usersToInvite.stream().map(UserProfileCache.UserProfile::userId).collect(Collectors.toSet());
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        // 자기 자신을 초대하는지 확인
+        if (userIds.contains(inviterId)) {
+            throw new CustomException(ErrorCode.INVALID_INVITATION);
+        }
+
+        // 이미 참여 중인지 확인하면서, 재초대에 쓸 사용자별 가장 최근 참여 기록을 고른다
+        Map<Long, RoomParticipantsHistory> latestHistories = new HashMap<>();
+        for (RoomParticipantsHistory history : participantsRepository.findByChatRoom_RoomIdAndUserBase_UserIdIn(roomId, userIds)) {
+            if (history.getQuitAt() == null) {
+                throw new CustomException(ErrorCode.USER_ALREADY_IN_CHAT_ROOM);
             }
+            latestHistories.merge(history.getUserBase().getUserId(), history,
+                    (current, candidate) -> candidate.getJoinedAt().isAfter(current.getJoinedAt()) ? candidate : current);
         }
 
-    /**
-     * 사용자가 채팅방에 참여했을 때 WebSocket을 통해 JOIN 알림 메시지를 전송한다.
-     * @param roomId 채팅방 ID
-     * @param user 참여한 사용자
-     */
-    private void sendJoinNotification(Long roomId, UserBase user) {
-        ChatMessageDto joinMessage = ChatMessageDto.builder()
-            .type(ChatMessageDto.MessageType.JOIN)
-            .roomId(roomId)
-            .senderId(user.getUserId())
-            .senderNickname(user.getUserNickname())
-            .message(user.getUserNickname() + "님이 채팅방에 참여했습니다.")
-            .createdAt(LocalDateTime.now())
-            .participants(getRoomParticipants(roomId)) // 최신 참여자 목록
-            .build();
-        messagingTemplate.convertAndSend("/topic/chat/room/" + roomId, joinMessage);
-    }
+        LocalDateTime joinedAt = LocalDateTime.now();
+        List<RoomParticipantsHistory> participants = usersToInvite.stream()
+                .map(user -> {
+                    // 재초대 로직 (나갔던 사용자를 다시 초대)
+                    RoomParticipantsHistory participant = latestHistories.get(user.userId());
+                    if (participant == null) {
+                        participant = new RoomParticipantsHistory();
+                        participant.setChatRoom(chatRoom);
+                        participant.setUserBase(userBaseRepository.getReferenceById(user.userId()));
+                    }
+                    participant.setJoinedAt(joinedAt);
+                    participant.setQuitAt(null); // 다시 들어왔으므로 나간 시간 초기화
+                    return participant;
+                })
+                .toList();
+        participantsRepository.saveAll(participants);
 
-    /**
-     * 사용자가 채팅방에서 나갔을 때 WebSocket을 통해 LEAVE 알림 메시지를 전송한다.
-     * @param roomId 채팅방 ID
-     * @param user 나간 사용자
-     */
-    private void sendLeaveNotification(Long roomId, UserBase user) {
-        ChatMessageDto leaveMessage = ChatMessageDto.builder()
-            .type(ChatMessageDto.MessageType.LEAVE)
-            .roomId(roomId)
-            .senderId(user.getUserId())
-            .senderNickname(user.getUserNickname())
-            .message(user.getUserNickname() + "님이 채팅방에서 나갔습니다.")
-            .createdAt(LocalDateTime.now())
-            .participants(getRoomParticipants(roomId)) // 최신 참여자 목록
-            .build();
-        messagingTemplate.convertAndSend("/topic/chat/room/" + roomId, leaveMessage);
+        // 커밋 이후 참여자 레지스트리 반영과 JOIN 알림 전송 (초대된 사용자 전체를 한 번에)
+        eventPublisher.publishEvent(RoomMembershipChangedEvent.joined(roomId, userIds));
     }
 
     /**
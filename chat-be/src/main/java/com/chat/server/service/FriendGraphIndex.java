@@ -0,0 +1,296 @@
+package com.chat.server.service;
+
+import com.chat.server.domain.FriendStatus;
+import com.chat.server.event.FriendshipChangedEvent;
+import com.chat.server.repository.UserFriendRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 사용자별 친구(ACCEPTED) ID를 메모리에 보관하는 인덱스다.
+ * 친구 목록, 친구 여부 확인, 접속 상태를 알릴 친구 찾기는 데이터베이스 대신 이 인덱스를 읽는다.
+ * <p>
+ * {@link RoomMembershipRegistry}와 같이 사용자마다 친구 ID를 정렬된 long 배열로 보관하고, 변경할 때마다 배열을 새로 만들어 교체한다.
+ * 친구 관계 하나는 양쪽 사용자의 배열에 한 번씩 들어가므로 관계당 16바이트를 사용하며, 친구가 없는 사용자는 보관하지 않는다.
+ * <p>
+ * 사용량은 max-memory-mb로 제한한다. 다시 만들거나 변경을 반영한 뒤 추정 사용량이 제한을 넘으면 인덱스를 비우고
+ * 데이터베이스를 조회하므로, 사용자가 늘어도 메모리를 제한 이상 쓰지 않는다. 비워진 동안에는 rebuild-retry-ms 간격으로
+ * 다시 만들기를 시도하며, 읽는 도중 제한을 넘으면 끝까지 읽지 않고 다음 시도를 기다린다.
+ * <p>
+ * 애플리케이션 시작 시 데이터베이스의 ACCEPTED 친구 관계로 전체를 다시 만들고, 이후에는 수락, 거절, 삭제 시 발행되는
+ * {@link FriendshipChangedEvent}를 커밋 이후에 반영한다.
+ * 이 서버에서 일어난 변경만 알 수 있으므로 relay 모드에서는 사용하지 않고 매번 데이터베이스를 조회한다.
+ */
+@Slf4j
+@Component
+public class FriendGraphIndex implements SmartInitializingSingleton, SmartLifecycle {
+
+    private static final String SELECT_ACCEPTED_FRIENDSHIPS =
+            "SELECT user_id1, user_id2 FROM user_friends WHERE status = 'ACCEPTED'";
+    private static final long[] EMPTY = LongBuffer.EMPTY;
+
+    // 메모리 사용량 추정치 (64비트 JVM, 압축 포인터 기준): 맵 노드 + 테이블 슬롯 + Long 키 + 배열 헤더, 친구당 8바이트
+    private static final long BYTES_PER_USER = 32 + 8 + 16 + 16;
+    private static final long BYTES_PER_FRIEND = Long.BYTES;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserFriendRepository userFriendRepository;
+    private final boolean enabled;
+    private final long maxMemoryBytes;
+    private final long rebuildRetryMillis;
+    private final Map<Long, long[]> friends = new ConcurrentHashMap<>();
+    private final AtomicLong friendCount = new AtomicLong();
+    private final Counter overBudgetCounter;
+
+    // 인덱스가 완전할 때만 true (relay 모드이거나 메모리 제한을 넘으면 false)
+    private volatile boolean loaded;
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public FriendGraphIndex(JdbcTemplate jdbcTemplate,
+                            UserFriendRepository userFriendRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${chat.broker.mode:simple}") String brokerMode,
+                            @Value("${chat.friend.index.max-memory-mb:256}") long maxMemoryMegabytes,
+                            @Value("${chat.friend.index.rebuild-retry-ms:600000}") long rebuildRetryMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userFriendRepository = userFriendRepository;
+        this.enabled = !"relay".equalsIgnoreCase(brokerMode);
+        this.maxMemoryBytes = maxMemoryMegabytes * 1024 * 1024;
+        this.rebuildRetryMillis = rebuildRetryMillis;
+        Gauge.builder("chat.friend.index.users", friends, Map::size)
+                .description("친구 관계 인덱스에 보관 중인 사용자 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.friend.index.friendships", friendCount, count -> count.get() / 2.0)
+                .description("친구 관계 인덱스에 보관 중인 친구 관계 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.friend.index.memory", this, FriendGraphIndex::estimatedMemoryBytes)
+                .description("친구 관계 인덱스의 추정 메모리 사용량")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("chat.friend.index.loaded", this, index -> index.loaded ? 1 : 0)
+                .description("친구 관계 인덱스 사용 여부 (0이면 데이터베이스 조회)")
+                .register(meterRegistry);
+        this.overBudgetCounter = Counter.builder("chat.friend.index.over-budget")
+                .description("메모리 제한을 넘어 친구 관계 인덱스를 비우거나 다시 만들지 못한 횟수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 모든 빈이 만들어진 뒤, 웹 서버가 요청을 받기 전에 인덱스를 채운다.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 데이터베이스의 ACCEPTED 친구 관계로 인덱스 전체를 다시 만든다.
+     * 엔티티를 만들지 않고 두 사용자 ID만 읽어 사용자별 배열로 모은 뒤 한 번에 교체한다.
+     * 읽는 도중 추정 사용량이 제한을 넘으면 중단하고 인덱스를 비운 채로 둔다.
+     */
+    public synchronized void rebuild() {
+        long startedAt = System.nanoTime();
+        Map<Long, LongBuffer> collected = new HashMap<>();
+        boolean withinBudget = Boolean.TRUE.equals(jdbcTemplate.query(SELECT_ACCEPTED_FRIENDSHIPS, (ResultSetExtractor<Boolean>) rs -> {
+            long entries = 0;
+            while (rs.next()) {
+                long userId1 = rs.getLong(1);
+                long userId2 = rs.getLong(2);
+                collected.computeIfAbsent(userId1, key -> new LongBuffer()).add(userId2);
+                collected.computeIfAbsent(userId2, key -> new LongBuffer()).add(userId1);
+                entries += 2;
+                if (collected.size() * BYTES_PER_USER + entries * BYTES_PER_FRIEND > maxMemoryBytes) {
+                    return false;
+                }
+            }
+            return true;
+        }));
+        if (!withinBudget) {
+            loaded = false;
+            friends.clear();
+            friendCount.set(0);
+            overBudgetCounter.increment();
+            log.warn("Friend graph index does not fit in {} MiB, using database lookups (next rebuild attempt in {} ms)",
+                    maxMemoryBytes / 1024 / 1024, rebuildRetryMillis);
+            return;
+        }
+
+        Map<Long, long[]> rebuilt = new HashMap<>(collected.size() * 2);
+        long total = 0;
+        for (Map.Entry<Long, LongBuffer> entry : collected.entrySet()) {
+            long[] ids = entry.getValue().toSortedDistinctArray();
+            rebuilt.put(entry.getKey(), ids);
+            total += ids.length;
+        }
+        friends.clear();
+        friends.putAll(rebuilt);
+        friendCount.set(total);
+        loaded = true;
+        log.info("Friend graph index rebuilt: {} users, {} friendships, ~{} KiB in {} ms",
+                rebuilt.size(), total / 2, estimatedMemoryBytes() / 1024, (System.nanoTime() - startedAt) / 1_000_000);
+        unloadIfOverBudget();
+    }
+
+    /**
+     * 사용자의 친구 ID를 조회한다.
+     * @param userId 사용자 ID
+     * @return 친구 ID 배열 (오름차순, 호출자가 수정해도 인덱스에는 영향이 없다)
+     */
+    public long[] getFriendIds(Long userId) {
+        return getFriendIds(List.of(userId)).get(userId);
+    }
+
+    /**
+     * 여러 사용자의 친구 ID를 한 번에 조회한다.
+     * 인덱스를 쓸 수 없을 때는 한 번의 IN 조회로 모든 사용자의 친구를 읽는다.
+     * @param userIds 사용자 ID 목록
+     * @return 사용자 ID → 친구 ID 배열 (오름차순, 친구가 없는 사용자는 빈 배열)
+     */
+    public Map<Long, long[]> getFriendIds(Collection<Long> userIds) {
+        Map<Long, long[]> result = new HashMap<>();
+        if (!loaded) {
+            Map<Long, LongBuffer> collected = new HashMap<>();
+            userIds.forEach(userId -> collected.put(userId, new LongBuffer()));
+            for (UserFriendRepository.FriendPair pair : userFriendRepository.findAcceptedFriendPairs(collected.keySet())) {
+                LongBuffer friendsOf1 = collected.get(pair.getUserId1());
+                LongBuffer friendsOf2 = collected.get(pair.getUserId2());
+                if (friendsOf1 != null) {
+                    friendsOf1.add(pair.getUserId2());
+                }
+                if (friendsOf2 != null) {
+                    friendsOf2.add(pair.getUserId1());
+                }
+            }
+            collected.forEach((userId, buffer) -> result.put(userId, buffer.toSortedDistinctArray()));
+            return result;
+        }
+        for (Long userId : userIds) {
+            long[] ids = friends.get(userId);
+            result.put(userId, ids == null ? EMPTY : ids.clone());
+        }
+        return result;
+    }
+
+    /**
+     * 두 사용자가 친구(ACCEPTED)인지 확인한다.
+     * @param userId 사용자 ID
+     * @param otherUserId 다른 사용자 ID
+     * @return 친구이면 true
+     */
+    public boolean areFriends(Long userId, Long otherUserId) {
+        if (userId == null || otherUserId == null || userId.equals(otherUserId)) {
+            return false;
+        }
+        if (!loaded) {
+            return userFriendRepository.existsByUser1_UserIdAndUser2_UserIdAndStatus(
+                    Math.min(userId, otherUserId), Math.max(userId, otherUserId), FriendStatus.ACCEPTED);
+        }
+        long[] ids = friends.get(userId);
+        return ids != null && Arrays.binarySearch(ids, otherUserId) >= 0;
+    }
+
+    /**
+     * 인덱스의 추정 메모리 사용량을 계산한다.
+     * @return 추정 사용량 (바이트)
+     */
+    public long estimatedMemoryBytes() {
+        return friends.size() * BYTES_PER_USER + friendCount.get() * BYTES_PER_FRIEND;
+    }
+
+    /**
+     * 친구 관계 변경을 양쪽 사용자의 배열에 반영한다.
+     * 롤백된 수락이 남지 않도록 트랜잭션 커밋 이후에 처리한다.
+     * 다시 만드는 중에는 끝날 때까지 기다렸다가 반영하여, 다시 읽은 내용보다 늦게 커밋된 변경을 놓치지 않는다.
+     * @param event 친구 관계 변경 이벤트
+     */
+    @TransactionalEventListener
+    public synchronized void onFriendshipChanged(FriendshipChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        update(event.userId1(), event.userId2(), event.accepted());
+        update(event.userId2(), event.userId1(), event.accepted());
+        unloadIfOverBudget();
+    }
+
+    private void update(Long userId, long friendId, boolean add) {
+        friends.compute(userId, (key, current) -> {
+            long[] before = current == null ? EMPTY : current;
+            long[] after = add ? LongBuffer.insert(before, friendId) : LongBuffer.remove(before, friendId);
+            friendCount.addAndGet(after.length - before.length);
+            // 친구가 모두 없어진 사용자는 보관하지 않는다
+            return after.length == 0 ? null : after;
+        });
+    }
+
+    private synchronized void unloadIfOverBudget() {
+        if (!loaded || estimatedMemoryBytes() <= maxMemoryBytes) {
+            return;
+        }
+        loaded = false;
+        overBudgetCounter.increment();
+        log.warn("Friend graph index exceeded {} MiB (~{} KiB), falling back to database lookups (next rebuild attempt in {} ms)",
+                maxMemoryBytes / 1024 / 1024, estimatedMemoryBytes() / 1024, rebuildRetryMillis);
+        friends.clear();
+        friendCount.set(0);
+    }
+
+    // 메모리 제한을 넘어 비워진 인덱스를 다시 만들어 본다
+    private void rebuildIfUnloaded() {
+        if (loaded) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild friend graph index", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running || !enabled) {
+            return;
+        }
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("chat-friend-index").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::rebuildIfUnloaded, rebuildRetryMillis, rebuildRetryMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -7,19 +7,27 @@ import com.chat.server.domain.UserBase;
 import com.chat.server.domain.UserFriend;
 import com.chat.server.dto.FriendDto;
 import com.chat.server.dto.FriendRequestDto;
+import com.chat.server.event.FriendshipChangedEvent;
 import com.chat.server.repository.UserBaseRepository;
 import com.chat.server.repository.UserFriendRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * 친구 관리를 위한 비즈니스 로직을 처리하는 서비스다.
  * 친구 검색, 친구 요청 송수신, 수락/거절, 친구 삭제, 친구 목록 조회 등의 기능을 제공한다.
+ * 친구 목록과 친구 여부는 {@link FriendGraphIndex}에서 읽고, 친구 관계가 바뀌면 {@link FriendshipChangedEvent}를 발행한다.
  */
 @Service
 @RequiredArgsConstructor
@@ -28,24 +36,64 @@ public class FriendService {
 
     private final UserFriendRepository userFriendRepository;
     private final UserBaseRepository userBaseRepository;
+    private final UserProfileCache userProfileCache;
+    private final PresenceRegistry presenceRegistry;
+    private final FriendGraphIndex friendGraphIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NicknameSearchIndex nicknameSearchIndex;
+
+    @Value("${chat.search.nickname.default-page-size:20}")
+    private int searchDefaultPageSize;
+
+    @Value("${chat.search.nickname.max-page-size:50}")
+    private int searchMaxPageSize;
+
+    /**
+     * 사용자가 있는지 {@link UserProfileCache}로 확인하고, 연관관계에 쓸 사용자 엔티티 참조를 돌려준다.
+     * 사용자 엔티티를 조회하지 않으므로 캐시에 있는 사용자는 데이터베이스를 조회하지 않는다.
+     */
+    private UserBase getUserReference(Long userId) {
+        if (userProfileCache.findById(userId).isEmpty()) {
+            throw new CustomException(ErrorCode.USER_NOT_FOUND);
+        }
+        return userBaseRepository.getReferenceById(userId);
+    }
 
     /**
      * 닉네임으로 사용자를 검색한다.
      * 현재 사용자 자신은 검색 결과에서 제외한다.
+     * {@link NicknameSearchIndex}에서 전체 일치, 앞부분 일치, 부분 일치 순으로 찾으며,
+     * 인덱스를 쓸 수 없는 relay 모드에서는 데이터베이스에서 닉네임 순으로 찾는다.
      * @param nickname 검색할 닉네임
      * @param currentUserId 현재 사용자 ID
+     * @param page 조회할 페이지 (0부터 시작, 없으면 0)
+     * @param size 페이지 크기 (없으면 기본값, 최대값을 넘으면 최대값으로 제한)
      * @return 검색된 사용자 목록
+     * @throws CustomException page가 0보다 작거나 size가 1보다 작은 경우
      */
-    public List<FriendDto> searchUsers(String nickname, Long currentUserId) {
-        return userBaseRepository.findByUserNicknameContainingAndUserIdNot(nickname, currentUserId)
+    public List<FriendDto> searchUsers(String nickname, Long currentUserId, Integer page, Integer size) {
+        if ((page != null && page < 0) || (size != null && size < 1)) {
+            throw new CustomException(ErrorCode.INVALID_INPUT_VALUE);
+        }
+        int pageNumber = page == null ? 0 : page;
+        int pageSize = size == null ? searchDefaultPageSize : Math.min(size, searchMaxPageSize);
+        if (!nicknameSearchIndex.isEnabled()) {
+            return userBaseRepository.findByUserNicknameContainingAndUserIdNot(nickname, currentUserId,
+                            PageRequest.of(pageNumber, pageSize, Sort.by("userNickname", "userId")))
+                    .stream()
+                    .map(user -> new FriendDto(user.getUserId(), user.getUserNickname(), presenceRegistry.isOnline(user.getUserId())))
+                    .collect(Collectors.toList());
+        }
+        return nicknameSearchIndex.search(nickname, currentUserId, pageNumber * pageSize, pageSize)
                 .stream()
-                .map(user -> new FriendDto(user.getUserId(), user.getUserNickname()))
+                .map(match -> new FriendDto(match.userId(), match.nickname(), presenceRegistry.isOnline(match.userId())))
                 .collect(Collectors.toList());
     }
 
     /**
      * 다른 사용자에게 친구 요청을 보낸다.
      * 이미 친구 관계가 존재하는지 확인하고, 없을 경우 PENDING 상태의 친구 요청을 생성한다.
+     * 이미 친구인 경우는 {@link FriendGraphIndex}에서 바로 거절하고, 대기 중인 요청만 데이터베이스에서 확인한다.
      * @param requesterId 요청 보내는 사용자 ID
      * @param recipientId 요청 받는 사용자 ID
      * @throws CustomException 요청자, 수신자를 찾을 수 없거나, 이미 친구 요청이 존재하거나 친구 관계인 경우
@@ -56,8 +104,11 @@ public class FriendService {
             throw new CustomException(ErrorCode.CANNOT_FRIEND_YOURSELF);
         }
 
-        UserBase requester = userBaseRepository.findById(requesterId).orElseThrow(() -> new CustomException(ErrorCode.USER_NOT_FOUND));
-        UserBase recipient = userBaseRepository.findById(recipientId).orElseThrow(() -> new CustomException(ErrorCode.USER_NOT_FOUND));
+        UserBase requester = getUserReference(requesterId);
+        UserBase recipient = getUserReference(recipientId);
+        if (friendGraphIndex.areFriends(requesterId, recipientId)) {
+            throw new CustomException(ErrorCode.FRIEND_REQUEST_ALREADY_EXISTS);
+        }
 
         UserBase user1 = requesterId < recipientId ? requester : recipient;
         UserBase user2 = requesterId < recipientId ? recipient : requester;
@@ -85,6 +136,7 @@ public class FriendService {
         UserFriend userFriend = userFriendRepository.findById(friendId).orElseThrow(() -> new CustomException(ErrorCode.FRIEND_REQUEST_NOT_FOUND));
         userFriend.setStatus(FriendStatus.ACCEPTED);
         userFriendRepository.save(userFriend);
+        eventPublisher.publishEvent(friendshipChanged(userFriend, true));
     }
 
     /**
@@ -94,20 +146,27 @@ public class FriendService {
      */
     @Transactional
     public void rejectFriendRequest(Long friendId) {
-        userFriendRepository.deleteById(friendId);
+        userFriendRepository.findById(friendId).ifPresent(userFriend -> {
+            userFriendRepository.delete(userFriend);
+            eventPublisher.publishEvent(friendshipChanged(userFriend, false));
+        });
     }
 
     /**
      * 기존 친구를 삭제한다.
      * 두 사용자 간의 친구 관계를 데이터베이스에서 삭제한다.
+     * 친구가 아니면 {@link FriendGraphIndex}에서 바로 거절하므로 친구 관계를 조회하지 않는다.
      * @param userId 현재 사용자 ID
      * @param friendToRemoveId 삭제할 친구의 ID
      * @throws CustomException 사용자를 찾을 수 없거나 친구 관계를 찾을 수 없는 경우
      */
     @Transactional
     public void removeFriend(Long userId, Long friendToRemoveId) {
-        UserBase user = userBaseRepository.findById(userId).orElseThrow(() -> new CustomException(ErrorCode.USER_NOT_FOUND));
-        UserBase friendToRemove = userBaseRepository.findById(friendToRemoveId).orElseThrow(() -> new CustomException(ErrorCode.USER_NOT_FOUND));
+        UserBase user = getUserReference(userId);
+        UserBase friendToRemove = getUserReference(friendToRemoveId);
+        if (!friendGraphIndex.areFriends(userId, friendToRemoveId)) {
+            throw new CustomException(ErrorCode.FRIENDSHIP_NOT_FOUND);
+        }
 
         UserBase user1 = userId < friendToRemoveId ? user : friendToRemove;
         UserBase user2 = userId < friendToRemoveId ? friendToRemove : user;
@@ -116,25 +175,27 @@ public class FriendService {
                 .orElseThrow(() -> new CustomException(ErrorCode.FRIENDSHIP_NOT_FOUND));
 
         userFriendRepository.delete(userFriend);
+        eventPublisher.publishEvent(friendshipChanged(userFriend, false));
     }
 
     /**
      * 현재 사용자의 친구 목록을 조회한다.
-     * ACCEPTED 상태인 친구 관계만 조회한다.
+     * ACCEPTED 상태인 친구 관계만 조회하며, 친구 ID는 {@link FriendGraphIndex}에서 읽는다.
+     * 친구 닉네임은 {@link UserProfileCache}에서 한 번에 읽고, 접속 여부는 {@link PresenceRegistry}에서 친구마다 메모리 조회 한 번으로 채운다.
      * @param userId 조회할 사용자 ID
      * @return 친구 목록
      * @throws CustomException 사용자를 찾을 수 없는 경우
      */
     public List<FriendDto> getFriendList(Long userId) {
-        UserBase user = userBaseRepository.findById(userId).orElseThrow(() -> new CustomException(ErrorCode.USER_NOT_FOUND));
-        List<UserFriend> friends1 = userFriendRepository.findByUser1AndStatus(user, FriendStatus.ACCEPTED);
-        List<UserFriend> friends2 = userFriendRepository.findByUser2AndStatus(user, FriendStatus.ACCEPTED);
-
-        return Stream.concat(friends1.stream(), friends2.stream())
-                .map(friendship -> {
-                    UserBase friendUser = friendship.getUser1().equals(user) ? friendship.getUser2() : friendship.getUser1();
-                    return new FriendDto(friendUser.getUserId(), friendUser.getUserNickname());
-                })
+        if (userProfileCache.findById(userId).isEmpty()) {
+            throw new CustomException(ErrorCode.USER_NOT_FOUND);
+        }
+        List<Long> friendIds = Arrays.stream(friendGraphIndex.getFriendIds(userId)).boxed().toList();
+        Map<Long, UserProfileCache.UserProfile> profiles = userProfileCache.findAllById(friendIds);
+        return friendIds.stream()
+                .map(profiles::get)
+                .filter(Objects::nonNull)
+                .map(friend -> new FriendDto(friend.userId(), friend.userNickname(), presenceRegistry.isOnline(friend.userId())))
                 .collect(Collectors.toList());
     }
 
@@ -145,10 +206,17 @@ public class FriendService {
      * @throws CustomException 사용자를 찾을 수 없는 경우
      */
     public List<FriendRequestDto> getPendingFriendRequests(Long userId) {
-        UserBase user = userBaseRepository.findById(userId).orElseThrow(() -> new CustomException(ErrorCode.USER_NOT_FOUND));
-        return userFriendRepository.findPendingRequests(user)
-                .stream()
-                .map(request -> new FriendRequestDto(request.getFriendId(), request.getRequester().getUserId(), request.getRequester().getUserNickname()))
+        List<UserFriend> requests = userFriendRepository.findPendingRequests(getUserReference(userId));
+        Map<Long, UserProfileCache.UserProfile> requesters = userProfileCache.findAllById(
+                requests.stream().map(request -> request.getRequester().getUserId()).toList());
+        return requests.stream()
+                .filter(request -> requesters.containsKey(request.getRequester().getUserId()))
+                .map(request -> new FriendRequestDto(request.getFriendId(), request.getRequester().getUserId(),
+                        requesters.get(request.getRequester().getUserId()).userNickname()))
                 .collect(Collectors.toList());
     }
+
+    private static FriendshipChangedEvent friendshipChanged(UserFriend userFriend, boolean accepted) {
+        return new FriendshipChangedEvent(userFriend.getUser1().getUserId(), userFriend.getUser2().getUserId(), accepted);
+    }
 }
@@ -0,0 +1,77 @@
+package com.chat.server.service;
+
+import java.util.Arrays;
+
+/**
+ * long 값을 박싱 없이 모으는 가변 길이 버퍼다.
+ * 정렬된 long 배열로 ID 집합을 보관하는 레지스트리와 인덱스가 배열을 만들 때 사용한다.
+ */
+final class LongBuffer {
+
+    static final long[] EMPTY = new long[0];
+
+    private long[] values = new long[4];
+    private int size;
+
+    void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * 모은 값을 오름차순으로 정렬하고 중복을 제거한 배열을 만든다.
+     * @return 정렬된 배열 (버퍼와 공유하지 않는다)
+     */
+    long[] toSortedDistinctArray() {
+        if (size == 0) {
+            return EMPTY;
+        }
+        long[] sorted = Arrays.copyOf(values, size);
+        Arrays.sort(sorted);
+        int distinct = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[distinct - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct);
+    }
+
+    /**
+     * 정렬된 배열에 값을 넣은 새 배열을 만든다.
+     * @param ids 정렬된 배열 (수정하지 않는다)
+     * @param id 넣을 값
+     * @return 값이 들어간 정렬된 배열 (이미 있으면 ids 그대로)
+     */
+    static long[] insert(long[] ids, long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            return ids;
+        }
+        int at = -index - 1;
+        long[] inserted = new long[ids.length + 1];
+        System.arraycopy(ids, 0, inserted, 0, at);
+        inserted[at] = id;
+        System.arraycopy(ids, at, inserted, at + 1, ids.length - at);
+        return inserted;
+    }
+
+    /**
+     * 정렬된 배열에서 값을 뺀 새 배열을 만든다.
+     * @param ids 정렬된 배열 (수정하지 않는다)
+     * @param id 뺄 값
+     * @return 값이 빠진 정렬된 배열 (없으면 ids 그대로)
+     */
+    static long[] remove(long[] ids, long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return ids;
+        }
+        long[] removed = new long[ids.length - 1];
+        System.arraycopy(ids, 0, removed, 0, index);
+        System.arraycopy(ids, index + 1, removed, index, ids.length - index - 1);
+        return removed;
+    }
+}
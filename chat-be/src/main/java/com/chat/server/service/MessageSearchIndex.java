@@ -0,0 +1,492 @@
+package com.chat.server.service;
+
+import com.chat.server.domain.id.SnowflakeIdGenerator;
+import com.chat.server.dto.ChatMessageDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortedNumericSelector;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 채팅 메시지 전문 검색을 위한 로컬 디스크 Lucene 인덱스다.
+ * chat_message.message_content는 TEXT 컬럼이라 LIKE 검색을 쓸 수 없으므로, 저장된 메시지를 이 인덱스에 따로 색인한다.
+ * <p>
+ * 본문은 {@link CJKAnalyzer}로 분석하여 한글/한자/일본어는 두 글자 단위로, 그 밖의 단어는 소문자 단어 단위로 색인한다.
+ * 검색 결과를 데이터베이스에서 다시 읽지 않도록 채팅방 ID, 발신자 ID, 본문, 생성 시간을 함께 저장하고,
+ * 메시지 ID 역순(최신순)으로 정렬하여 메시지 ID 커서로 페이지를 나눈다.
+ * <p>
+ * 저장이 끝난 메시지는 {@link #enqueue(ChatMessageDto)}로 대기열에 넣기만 하고, indexer 스레드가 refresh-interval마다
+ * 모아서 색인한 뒤 검색 결과에 반영한다(near-real-time). 따라서 메시지 저장 경로는 색인 시간을 기다리지 않는다.
+ * 대기열이 가득 차 버렸거나 색인 중 오류가 난 메시지는 가장 작은 메시지 ID를 기억해 두었다가, 갱신할 때 재색인 스레드에
+ * 넘겨 그 ID부터 chat_message를 다시 읽어 채운다. 그동안 indexer 스레드는 계속 대기열을 비우고 검색기를 갱신한다.
+ * <p>
+ * 디스크에는 commit-interval마다, 그리고 종료할 때 기록하며, 빠짐없이 색인된 마지막 메시지 ID를 커밋 정보에 함께 남긴다.
+ * 비정상 종료 후 다시 시작하면 별도 스레드에서 그 ID부터(지연 저장으로 늦게 저장된 메시지를 위해 catch-up-overlap만큼 앞에서부터)
+ * chat_message를 읽어 따라잡는다. 인덱스가 비어 있는 상태로 시작하면(처음 켰거나 인덱스 디렉터리를 지운 경우) 전체를 다시 색인한다.
+ * 재색인 중에도 새 메시지는 계속 색인되며, 같은 메시지는 메시지 ID로 덮어쓴다.
+ * <p>
+ * chat.search.message.enabled=true일 때만 켜진다. 서버마다 자신이 저장한 메시지만 알 수 있으므로 relay 모드에서는 사용하지 않는다.
+ */
+@Slf4j
+@Component
+public class MessageSearchIndex implements SmartLifecycle {
+
+    private static final String ID = "id";
+    private static final String MESSAGE_ID = "messageId";
+    private static final String ROOM_ID = "roomId";
+    private static final String SENDER_ID = "senderId";
+    private static final String CONTENT = "content";
+    private static final String CREATED_AT = "createdAt";
+    private static final String INDEXED_THROUGH = "indexedThrough";
+
+    private static final String SELECT_MESSAGES_AFTER = "SELECT message_id, room_id, user_id, message_content, created_at "
+            + "FROM chat_message WHERE message_id > ? ORDER BY message_id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Path indexDir;
+    private final double ramBufferMegabytes;
+    private final long refreshIntervalMillis;
+    private final long commitIntervalMillis;
+    private final int reindexBatchSize;
+    private final boolean reindexOnStart;
+    private final Duration catchUpOverlap;
+    private final BlockingQueue<ChatMessageDto> queue;
+    private final Analyzer analyzer = new CJKAnalyzer();
+    private final AtomicBoolean reindexing = new AtomicBoolean();
+    private final AtomicLong reindexedCount = new AtomicLong();
+    // 색인한 가장 큰 메시지 ID와, 색인되지 않았을 수 있는 가장 작은 메시지 ID (없으면 Long.MAX_VALUE)
+    private final AtomicLong maxIndexedId = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong missingFromId = new AtomicLong(Long.MAX_VALUE);
+    private final Counter indexedCounter;
+    private final Counter droppedCounter;
+
+    private volatile boolean running;
+    private volatile boolean stopping;
+    // 재색인 중이면 마지막으로 색인한 메시지 ID, 아니면 Long.MAX_VALUE
+    private volatile long reindexPosition = Long.MAX_VALUE;
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService reindexExecutor;
+
+    public MessageSearchIndex(JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${chat.broker.mode:simple}") String brokerMode,
+                              @Value("${chat.search.message.enabled:false}") boolean enabled,
+                              @Value("${chat.search.message.index-dir:data/message-index}") String indexDir,
+                              @Value("${chat.search.message.ram-buffer-mb:64}") double ramBufferMegabytes,
+                              @Value("${chat.search.message.queue-capacity:100000}") int queueCapacity,
+                              @Value("${chat.search.message.refresh-interval-ms:1000}") long refreshIntervalMillis,
+                              @Value("${chat.search.message.commit-interval-ms:60000}") long commitIntervalMillis,
+                              @Value("${chat.search.message.reindex-batch-size:10000}") int reindexBatchSize,
+                              @Value("${chat.search.message.reindex-on-start:false}") boolean reindexOnStart,
+                              @Value("${chat.search.message.catch-up-overlap-ms:60000}") long catchUpOverlapMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled && !"relay".equalsIgnoreCase(brokerMode);
+        this.indexDir = Path.of(indexDir);
+        this.ramBufferMegabytes = ramBufferMegabytes;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.commitIntervalMillis = commitIntervalMillis;
+        this.reindexBatchSize = reindexBatchSize;
+        this.reindexOnStart = reindexOnStart;
+        this.catchUpOverlap = Duration.ofMillis(catchUpOverlapMillis);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.indexedCounter = meterRegistry.counter("chat.message.search.indexed");
+        this.droppedCounter = Counter.builder("chat.message.search.dropped")
+                .description("대기열이 가득 차거나 색인 오류로 바로 색인하지 못해 데이터베이스에서 다시 읽어야 하는 메시지 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.message.search.queue", queue, BlockingQueue::size)
+                .description("색인 대기 중인 메시지 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.message.search.reindexed", reindexedCount, AtomicLong::get)
+                .description("마지막 재색인(따라잡기 포함)에서 지금까지 색인한 메시지 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 메시지 검색을 사용할 수 있는지 확인한다.
+     * @return 설정으로 켜져 있고 relay 모드가 아니면 true
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 저장된 메시지를 색인 대기열에 넣는다.
+     * 저장 경로를 막지 않도록 대기열이 가득 차면 기다리지 않고 버리며, 다음 갱신 때 데이터베이스에서 다시 읽어 색인한다.
+     * @param message 저장이 끝난 TALK 메시지 (메시지 ID와 생성 시간이 채워져 있어야 한다)
+     */
+    public void enqueue(ChatMessageDto message) {
+        if (!running || message.getMessageId() == null) {
+            return;
+        }
+        if (!queue.offer(message)) {
+            droppedCounter.increment();
+            markMissing(message.getMessageId());
+        }
+    }
+
+    /**
+     * 대기열의 메시지를 색인하고, 색인된 내용이 검색 결과에 보이도록 검색기를 갱신한다.
+     * 버려졌거나 색인에 실패한 메시지가 있으면 그 메시지 ID부터 데이터베이스에서 다시 읽어 채우도록 재색인 스레드에 넘긴다.
+     * indexer 스레드가 refresh-interval마다 호출한다.
+     */
+    public void refresh() {
+        if (!running) {
+            return;
+        }
+        List<ChatMessageDto> batch = new ArrayList<>();
+        queue.drainTo(batch);
+        try {
+            for (ChatMessageDto message : batch) {
+                writer.updateDocument(new Term(ID, String.valueOf(message.getMessageId())), toDocument(
+                        message.getMessageId(), message.getRoomId(), message.getSenderId(), message.getMessage(), message.getCreatedAt()));
+                maxIndexedId.accumulateAndGet(message.getMessageId(), Math::max);
+            }
+            indexedCounter.increment(batch.size());
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            // 꺼낸 메시지는 데이터베이스에 저장되어 있으므로 버리지 않고 다음 갱신 때 다시 읽는다
+            droppedCounter.increment(batch.size());
+            batch.forEach(message -> markMissing(message.getMessageId()));
+            throw new UncheckedIOException("Failed to index " + batch.size() + " messages", e);
+        } finally {
+            requestCatchUp();
+        }
+    }
+
+    /**
+     * chat_message 전체를 메시지 ID 순으로 reindex-batch-size씩 읽어 다시 색인한다.
+     * 이미 재색인 중이면 아무것도 하지 않는다.
+     * @return 색인한 메시지 수 (이미 재색인 중이었으면 -1)
+     */
+    public long reindex() {
+        return reindexAfter(Long.MIN_VALUE);
+    }
+
+    /**
+     * 색인되지 않은 메시지가 있으면 재색인 스레드에서 따라잡도록 넘긴다.
+     * 재색인이 돌고 있는 동안에는 넘기지 않고, 끝난 뒤의 갱신에서 다시 확인한다.
+     */
+    private void requestCatchUp() {
+        if (!stopping && missingFromId.get() != Long.MAX_VALUE && !reindexing.get()) {
+            reindexExecutor.execute(() -> runSafely(this::catchUpMissing));
+        }
+    }
+
+    /**
+     * 색인되지 않았을 수 있는 가장 작은 메시지 ID부터 다시 색인한다.
+     */
+    private void catchUpMissing() {
+        long fromId = missingFromId.getAndSet(Long.MAX_VALUE);
+        if (fromId != Long.MAX_VALUE && reindexAfter(previousId(fromId)) < 0) {
+            // 이미 다른 재색인이 돌고 있으면 다음 갱신 때 다시 시도한다
+            markMissing(fromId);
+        }
+    }
+
+    /**
+     * 메시지 ID가 afterId보다 큰 chat_message를 메시지 ID 순으로 reindex-batch-size씩 읽어 색인한다.
+     * 끝까지 색인하지 못하고 멈추면(종료 또는 오류) 남은 범위를 색인되지 않은 것으로 기록한다.
+     * @param afterId 이 메시지 ID 다음부터 색인
+     * @return 색인한 메시지 수 (이미 재색인 중이었으면 -1)
+     */
+    private long reindexAfter(long afterId) {
+        if (!running || !reindexing.compareAndSet(false, true)) {
+            return -1;
+        }
+        long startedAt = System.nanoTime();
+        reindexedCount.set(0);
+        reindexPosition = afterId;
+        boolean completed = false;
+        try {
+            long lastMessageId = afterId;
+            while (!stopping) {
+                List<Document> documents = new ArrayList<>(reindexBatchSize);
+                long[] last = {lastMessageId};
+                jdbcTemplate.query(SELECT_MESSAGES_AFTER, rs -> {
+                    last[0] = rs.getLong(1);
+                    documents.add(toDocument(last[0], rs.getLong(2), rs.getLong(3), rs.getString(4),
+                            rs.getTimestamp(5).toLocalDateTime()));
+                }, lastMessageId, reindexBatchSize);
+                for (Document document : documents) {
+                    writer.updateDocument(new Term(ID, document.get(ID)), document);
+                }
+                reindexedCount.addAndGet(documents.size());
+                lastMessageId = last[0];
+                maxIndexedId.accumulateAndGet(lastMessageId, Math::max);
+                reindexPosition = lastMessageId;
+                if (documents.size() < reindexBatchSize) {
+                    completed = true;
+                    break;
+                }
+            }
+            searcherManager.maybeRefreshBlocking();
+            log.info("Message search index {} after message {}: {} messages in {} ms", completed ? "caught up" : "stopped",
+                    afterId, reindexedCount.get(), (System.nanoTime() - startedAt) / 1_000_000);
+            return reindexedCount.get();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to reindex messages", e);
+        } finally {
+            if (!completed) {
+                markMissing(reindexPosition + 1);
+            }
+            reindexPosition = Long.MAX_VALUE;
+            reindexing.set(false);
+            commit();
+        }
+    }
+
+    /**
+     * 채팅방 목록 안에서 검색어가 들어 있는 메시지를 최신순으로 조회한다.
+     * 검색어의 모든 단어(한글은 두 글자 단위)가 들어 있는 메시지만 찾는다.
+     * @param query 검색어
+     * @param roomIds 검색할 채팅방 ID 목록
+     * @param before 이 메시지 ID보다 이전 메시지만 조회 (선택)
+     * @param limit 조회할 최대 메시지 수
+     * @return 검색된 메시지 (메시지 ID 내림차순)
+     */
+    public List<Hit> search(String query, Collection<Long> roomIds, Long before, int limit) {
+        Query textQuery = new QueryBuilder(analyzer).createBooleanQuery(CONTENT, query, BooleanClause.Occur.MUST);
+        if (!running || textQuery == null || roomIds.isEmpty()) {
+            return List.of();
+        }
+        BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                .add(textQuery, BooleanClause.Occur.MUST)
+                .add(LongField.newSetQuery(ROOM_ID, roomIds.stream().mapToLong(Long::longValue).toArray()), BooleanClause.Occur.FILTER);
+        if (before != null) {
+            builder.add(LongField.newRangeQuery(MESSAGE_ID, Long.MIN_VALUE, before - 1), BooleanClause.Occur.FILTER);
+        }
+        Sort newestFirst = new Sort(LongField.newSortField(MESSAGE_ID, true, SortedNumericSelector.Type.MAX));
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                ScoreDoc[] scoreDocs = searcher.search(builder.build(), limit, newestFirst).scoreDocs;
+                StoredFields storedFields = searcher.storedFields();
+                List<Hit> hits = new ArrayList<>(scoreDocs.length);
+                for (ScoreDoc scoreDoc : scoreDocs) {
+                    hits.add(Hit.fromDocument(storedFields.document(scoreDoc.doc)));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to search messages", e);
+        }
+    }
+
+    private static Document toDocument(long messageId, long roomId, long senderId, String content, LocalDateTime createdAt) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(messageId), Field.Store.YES));
+        document.add(new LongField(MESSAGE_ID, messageId, Field.Store.YES));
+        document.add(new LongField(ROOM_ID, roomId, Field.Store.YES));
+        document.add(new StoredField(SENDER_ID, senderId));
+        document.add(new TextField(CONTENT, content, Field.Store.YES));
+        document.add(new StoredField(CREATED_AT, createdAt.toString()));
+        return document;
+    }
+
+    private void markMissing(long messageId) {
+        missingFromId.accumulateAndGet(messageId, Math::min);
+    }
+
+    /**
+     * 이 메시지 ID까지는 빠짐없이 색인되었음을 반환한다.
+     * 색인한 가장 큰 메시지 ID에서, 색인되지 않은 메시지와 진행 중인 재색인의 위치 앞까지로 낮춘다.
+     */
+    private long indexedThrough() {
+        long missingFrom = missingFromId.get();
+        long through = Math.min(maxIndexedId.get(), reindexPosition);
+        return missingFrom == Long.MAX_VALUE ? through : Math.min(through, previousId(missingFrom));
+    }
+
+    private static long previousId(long messageId) {
+        return messageId == Long.MIN_VALUE ? Long.MIN_VALUE : messageId - 1;
+    }
+
+    /**
+     * 인덱스를 디스크에 기록하고, 빠짐없이 색인된 마지막 메시지 ID를 커밋 정보에 남긴다.
+     */
+    private synchronized void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.setLiveCommitData(List.of(Map.entry(INDEXED_THROUGH, String.valueOf(indexedThrough()))));
+                writer.commit();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to commit message search index", e);
+        }
+    }
+
+    /**
+     * 마지막 커밋에 남긴 색인 완료 메시지 ID를 읽는다.
+     * @return 색인 완료 메시지 ID (기록이 없으면 Long.MIN_VALUE)
+     */
+    private long readIndexedThrough() {
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (INDEXED_THROUGH.equals(entry.getKey())) {
+                    return Long.parseLong(entry.getValue());
+                }
+            }
+        }
+        return Long.MIN_VALUE;
+    }
+
+    /**
+     * 다시 시작할 때 따라잡기를 시작할 메시지 ID를 구한다.
+     * 지연 저장에서는 메시지 ID를 발급한 뒤 늦게 저장되므로, 색인 완료 ID보다 catch-up-overlap만큼 먼저 발급된 메시지부터 다시 읽는다.
+     */
+    private long catchUpAfter(long indexedThrough) {
+        if (indexedThrough == Long.MIN_VALUE) {
+            return Long.MIN_VALUE;
+        }
+        return SnowflakeIdGenerator.minIdAt(SnowflakeIdGenerator.extractInstant(indexedThrough).minus(catchUpOverlap)) - 1;
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("Message search index task failed", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        try {
+            directory = FSDirectory.open(indexDir);
+            writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                    .setRAMBufferSizeMB(ramBufferMegabytes));
+            searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open message search index at " + indexDir.toAbsolutePath(), e);
+        }
+        long indexedThrough = readIndexedThrough();
+        maxIndexedId.set(indexedThrough);
+        missingFromId.set(Long.MAX_VALUE);
+        stopping = false;
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("chat-message-index").daemon().factory());
+        scheduler.scheduleWithFixedDelay(() -> runSafely(this::refresh), refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> runSafely(this::commit), commitIntervalMillis, commitIntervalMillis, TimeUnit.MILLISECONDS);
+        // 비어 있거나 설정된 경우 전체를, 아니면 마지막 커밋 이후(비정상 종료로 잃었을 수 있는 범위)를 다시 색인한다
+        long reindexAfter = reindexOnStart || writer.getDocStats().numDocs == 0 ? Long.MIN_VALUE : catchUpAfter(indexedThrough);
+        reindexExecutor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("chat-message-reindex").daemon().factory());
+        reindexExecutor.execute(() -> runSafely(() -> reindexAfter(reindexAfter)));
+        log.info("Message search index opened at {} ({} messages)", indexDir.toAbsolutePath(), writer.getDocStats().numDocs);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        stopping = true;
+        scheduler.shutdown();
+        reindexExecutor.shutdown();
+        try {
+            scheduler.awaitTermination(30, TimeUnit.SECONDS);
+            // 재색인은 다음 배치를 읽기 전에 멈춘다 (남은 범위는 커밋 정보에 남아 다음 시작 때 이어서 색인한다)
+            reindexExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 남은 대기열을 색인하고 디스크에 기록한 뒤 닫는다
+        runSafely(this::refresh);
+        runSafely(this::commit);
+        running = false;
+        try {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        } catch (IOException e) {
+            log.error("Failed to close message search index", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 메시지 지연 저장(writer 스레드)이 마지막으로 저장한 메시지까지 색인할 수 있도록 그보다 늦게 멈춘다.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    /**
+     * 검색된 메시지 한 건이다.
+     * @param messageId 메시지 ID
+     * @param roomId 채팅방 ID
+     * @param senderId 발신자 ID
+     * @param content 메시지 본문
+     * @param createdAt 생성 시간
+     */
+    public record Hit(Long messageId, Long roomId, Long senderId, String content, LocalDateTime createdAt) {
+
+        private static Hit fromDocument(Document document) {
+            return new Hit(document.getField(MESSAGE_ID).numericValue().longValue(),
+                    document.getField(ROOM_ID).numericValue().longValue(),
+                    document.getField(SENDER_ID).numericValue().longValue(),
+                    document.get(CONTENT),
+                    LocalDateTime.parse(document.get(CREATED_AT)));
+        }
+    }
+}
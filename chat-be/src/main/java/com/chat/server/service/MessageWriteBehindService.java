@@ -0,0 +1,342 @@
+package com.chat.server.service;
+
+import com.chat.server.domain.id.EntityIdGenerator;
+import com.chat.server.dto.ChatMessageDto;
+import com.chat.server.exception.CustomException;
+import com.chat.server.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 채팅 메시지를 지연 저장(write-behind)하는 서비스다.
+ * STOMP로 받은 TALK 메시지를 제한된 크기의 대기열에 넣고, 전용 writer 스레드가 배치 크기 또는 대기 시간 조건을 만족하면
+ * 여러 행을 한 번의 INSERT 문으로 저장한다.
+ * 메시지 ID는 대기열에 넣을 때 {@link EntityIdGenerator}로 미리 발급하므로 저장 전에도 브로드캐스트에 사용할 수 있다.
+ * 대기열이 가득 차면 일정 시간 동안 호출 스레드를 대기시켜 역압(backpressure)을 걸고, 종료 시에는 남은 메시지를 모두 저장한 뒤 멈춘다.
+ * <p>
+ * 대기열에 들어간 메시지는 이미 브로드캐스트되었으므로 저장에 실패해도 버리지 않는다. 데이터베이스 연결 실패처럼 일시적인 오류는
+ * 같은 배치를 retry-backoff 간격으로 max-retries번까지 다시 저장하고, 그래도 실패하거나 존재하지 않는 채팅방처럼 다시 시도해도
+ * 저장될 수 없는 메시지만 버린다. 버린 메시지 수는 chat.message.write-behind.failed 지표로 확인한다.
+ */
+@Slf4j
+@Service
+public class MessageWriteBehindService implements SmartLifecycle {
+
+    private static final String INSERT_PREFIX = "INSERT INTO chat_message (message_id, room_id, user_id, message_content, created_at) VALUES ";
+    private static final String VALUES_ROW = "(?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityIdGenerator entityIdGenerator;
+    private final MessageSearchIndex messageSearchIndex;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private final BlockingQueue<PendingMessage> queue;
+    private final Counter failedCounter;
+    // 대기열에 넣는 쪽은 읽기 잠금, 종료는 쓰기 잠금을 잡아 종료 이후에 들어온 메시지가 대기열에 남지 않게 한다
+    private final ReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public MessageWriteBehindService(JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     EntityIdGenerator entityIdGenerator,
+                                     MessageSearchIndex messageSearchIndex,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${chat.message.write-behind.enabled:false}") boolean enabled,
+                                     @Value("${chat.message.write-behind.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${chat.message.write-behind.batch-size:500}") int batchSize,
+                                     @Value("${chat.message.write-behind.flush-interval-ms:50}") long flushIntervalMillis,
+                                     @Value("${chat.message.write-behind.offer-timeout-ms:1000}") long offerTimeoutMillis,
+                                     @Value("${chat.message.write-behind.shutdown-timeout-ms:30000}") long shutdownTimeoutMillis,
+                                     @Value("${chat.message.write-behind.max-retries:10}") int maxRetries,
+                                     @Value("${chat.message.write-behind.retry-backoff-ms:500}") long retryBackoffMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityIdGenerator = entityIdGenerator;
+        this.messageSearchIndex = messageSearchIndex;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.failedCounter = Counter.builder("chat.message.write-behind.failed")
+                .description("브로드캐스트되었지만 저장하지 못하고 버린 메시지 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.message.write-behind.pending", queue, BlockingQueue::size)
+                .description("저장 대기 중인 메시지 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 지연 저장 모드가 켜져 있는지 확인한다.
+     * @return 설정으로 활성화되어 있으면 true
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 메시지를 저장 대기열에 넣는다.
+     * 메시지 ID와 생성 시간을 발급해 전달받은 DTO에 채워 넣는다.
+     * 대기열이 가득 차 있으면 offer-timeout 동안 기다리고, 그래도 자리가 나지 않으면 예외를 던진다.
+     * @param messageDto 저장할 메시지 정보
+     * @throws CustomException 대기열이 가득 찼거나 서비스가 종료 중인 경우
+     */
+    public void enqueue(ChatMessageDto messageDto) {
+        PendingMessage pending;
+        lifecycleLock.readLock().lock();
+        try {
+            if (!running) {
+                throw new CustomException(ErrorCode.MESSAGE_QUEUE_FULL);
+            }
+            pending = new PendingMessage(entityIdGenerator.nextId(), messageDto.getRoomId(), messageDto.getSenderId(),
+                    messageDto.getMessage(), LocalDateTime.now());
+            if (!queue.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new CustomException(ErrorCode.MESSAGE_QUEUE_FULL);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomException(ErrorCode.MESSAGE_QUEUE_FULL);
+        } finally {
+            lifecycleLock.readLock().unlock();
+        }
+        messageDto.setMessageId(pending.messageId());
+        messageDto.setCreatedAt(pending.createdAt());
+    }
+
+    /**
+     * 현재 대기열에 쌓여 있는 메시지 수를 반환한다.
+     * @return 저장 대기 중인 메시지 수
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * 저장하지 못하고 버린 메시지 수를 반환한다.
+     * @return 서비스가 시작된 뒤 버린 메시지 수
+     */
+    public long getFailedCount() {
+        return (long) failedCounter.count();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "chat-message-writer");
+        writerThread.start();
+        log.info("Message write-behind started (batchSize={}, flushIntervalMs={})", batchSize, TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos));
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        // 새 메시지를 받지 않고, writer가 대기열을 모두 비운 뒤 종료하도록 한다
+        // (대기열에 넣는 중인 호출이 끝나기를 기다리므로 종료 후에 들어온 메시지가 대기열에 남지 않는다)
+        lifecycleLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            lifecycleLock.writeLock().unlock();
+        }
+        try {
+            writerThread.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("Message writer did not drain within {}ms, {} messages left", shutdownTimeoutMillis, queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * WebSocket 처리 빈들이 먼저 멈춘 뒤에 대기열을 비우도록 기본 phase보다 늦게 종료한다.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1024;
+    }
+
+    /**
+     * writer 스레드의 본체다.
+     * 첫 메시지를 받은 시점부터 flush-interval이 지나거나 batch-size가 찰 때까지 모은 뒤 한 번에 저장한다.
+     * 저장에 실패한 배치는 비우지 않고 retry-backoff 뒤에 다시 저장한다.
+     */
+    private void runWriter() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        int attempts = 0;
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty() && !collect(batch)) {
+                    continue;
+                }
+                flush(batch);
+                batch.clear();
+                attempts = 0;
+            } catch (InterruptedException e) {
+                // 종료 중 인터럽트되더라도 남은 메시지는 한 번 더 저장을 시도한다
+                queue.drainTo(batch);
+                try {
+                    flush(batch);
+                } catch (RuntimeException flushError) {
+                    drop(batch, flushError);
+                }
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                if (++attempts > maxRetries) {
+                    drop(batch, e);
+                    batch.clear();
+                    attempts = 0;
+                    continue;
+                }
+                log.warn("Failed to save {} messages (attempt {}/{}), retrying in {}ms", batch.size(), attempts, maxRetries, retryBackoffMillis, e);
+                try {
+                    Thread.sleep(retryBackoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    drop(batch, e);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 대기열에서 한 배치를 모은다.
+     * @param batch 메시지를 담을 빈 목록
+     * @return 한 건 이상 모았으면 true
+     */
+    private boolean collect(List<PendingMessage> batch) throws InterruptedException {
+        PendingMessage first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return false;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            PendingMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return true;
+    }
+
+    /**
+     * 모인 메시지를 다중 행 INSERT 한 번으로 저장한다.
+     * 무결성 제약 위반으로 배치 저장이 실패하면 (예: 존재하지 않는 채팅방) 한 건씩 다시 저장하여 정상 메시지는 살리고
+     * 위반한 메시지만 버린다. 그 밖의 오류는 호출한 쪽에서 다시 시도하도록 던지며, 이미 저장된 메시지는 배치에서 빼 둔다.
+     * 저장된 메시지만 검색 색인 대기열에 넣는다.
+     * @param batch 저장할 메시지 목록
+     */
+    private void flush(List<PendingMessage> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertRows(batch));
+            batch.forEach(message -> messageSearchIndex.enqueue(message.toDto()));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Batch insert of {} messages failed, retrying one by one", batch.size(), e);
+            for (Iterator<PendingMessage> it = batch.iterator(); it.hasNext(); ) {
+                PendingMessage message = it.next();
+                try {
+                    insertRows(List.of(message));
+                    messageSearchIndex.enqueue(message.toDto());
+                } catch (DataIntegrityViolationException rowError) {
+                    log.error("Dropping message for room {} from user {}", message.roomId(), message.senderId(), rowError);
+                    failedCounter.increment();
+                }
+                it.remove();
+            }
+        }
+    }
+
+    private void drop(List<PendingMessage> batch, RuntimeException cause) {
+        log.error("Dropping {} unsaved messages", batch.size(), cause);
+        failedCounter.increment(batch.size());
+    }
+
+    private void insertRows(List<PendingMessage> rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows.size() * (VALUES_ROW.length() + 2));
+        sql.append(INSERT_PREFIX);
+        Object[] args = new Object[rows.size() * 5];
+        int i = 0;
+        for (PendingMessage row : rows) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(VALUES_ROW);
+            args[i++] = row.messageId();
+            args[i++] = row.roomId();
+            args[i++] = row.senderId();
+            args[i++] = row.content();
+            args[i++] = Timestamp.valueOf(row.createdAt());
+        }
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    /**
+     * 저장 대기 중인 메시지 한 건이다.
+     */
+    private record PendingMessage(long messageId, Long roomId, Long senderId, String content, LocalDateTime createdAt) {
+
+        ChatMessageDto toDto() {
+            return ChatMessageDto.builder()
+                    .type(ChatMessageDto.MessageType.TALK)
+                    .messageId(messageId)
+                    .roomId(roomId)
+                    .senderId(senderId)
+                    .message(content)
+                    .createdAt(createdAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.chat.server.service;
+
+import com.chat.server.domain.UserBase;
+import com.chat.server.event.UserProfileChangedEvent;
+import com.chat.server.repository.UserBaseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 닉네임 부분 일치 검색을 위한 n-gram 인덱스다.
+ * 친구 검색은 user_base 전체를 훑는 LIKE '%검색어%' 대신 이 인덱스를 읽는다.
+ * <p>
+ * 닉네임을 소문자로 바꾼 뒤 글자 하나(1-gram)와 연속한 두 글자(2-gram)마다 사용자 ID를 정렬된 long 배열로 보관한다.
+ * 한 글자 검색어는 1-gram 목록을 그대로 쓰고, 두 글자 이상은 검색어의 2-gram 중 사용자가 가장 적은 목록만 골라
+ * 후보로 삼은 뒤 닉네임에 검색어가 실제로 들어 있는지 확인하므로, 사용자가 늘어도 확인하는 후보 수는 검색어에 따라 정해진다.
+ * <p>
+ * 결과는 닉네임 전체 일치, 앞부분 일치, 부분 일치 순으로, 같은 순위에서는 검색어가 앞에 나올수록, 닉네임이 짧을수록 먼저 둔다.
+ * 검색어마다 상위 max-results명만 골라 짧은 시간 동안 캐시하므로, 입력할 때마다 같은 앞부분을 검색해도 순위를 다시 계산하지 않는다.
+ * 캐시된 결과에는 그 사이 가입하거나 닉네임을 바꾼 사용자가 result-cache-ttl-ms 동안 반영되지 않을 수 있다.
+ * <p>
+ * 애플리케이션 시작 시 user_base의 닉네임으로 전체를 만들고, 이후에는 가입, 닉네임 변경, 탈퇴 시 발행되는
+ * {@link UserProfileChangedEvent}를 커밋 이후에 반영한다.
+ * 이 서버에서 일어난 변경만 알 수 있으므로 relay 모드에서는 사용하지 않고 데이터베이스를 조회한다.
+ */
+@Slf4j
+@Component
+public class NicknameSearchIndex implements SmartInitializingSingleton {
+
+    private static final String SELECT_NICKNAMES = "SELECT user_id, user_nickname FROM user_base";
+    private static final long[] EMPTY = LongBuffer.EMPTY;
+
+    // 순위: 전체 일치 → 앞부분 일치 → 부분 일치, 검색어 위치, 닉네임 길이, 닉네임, 사용자 ID 순
+    private static final Comparator<Ranked> RANKING = Comparator.comparingInt(Ranked::matchType)
+            .thenComparingInt(Ranked::position)
+            .thenComparingInt(ranked -> ranked.entry().nickname().length())
+            .thenComparing(ranked -> ranked.entry().nickname())
+            .thenComparingLong(Ranked::userId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserBaseRepository userBaseRepository;
+    private final boolean enabled;
+    private final int maxResults;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, long[]> postings = new ConcurrentHashMap<>();
+    private final Cache<String, List<Match>> results;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public NicknameSearchIndex(JdbcTemplate jdbcTemplate,
+                               UserBaseRepository userBaseRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${chat.broker.mode:simple}") String brokerMode,
+                               @Value("${chat.search.nickname.max-results:1000}") int maxResults,
+                               @Value("${chat.search.nickname.result-cache-max-size:10000}") long resultCacheMaxSize,
+                               @Value("${chat.search.nickname.result-cache-ttl-ms:5000}") long resultCacheTtlMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userBaseRepository = userBaseRepository;
+        this.enabled = !"relay".equalsIgnoreCase(brokerMode);
+        this.maxResults = maxResults;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(resultCacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(resultCacheTtlMillis))
+                .build();
+        this.hitCounter = meterRegistry.counter("chat.nickname.search.cache.requests", "result", "hit");
+        this.missCounter = meterRegistry.counter("chat.nickname.search.cache.requests", "result", "miss");
+        Gauge.builder("chat.nickname.search.index.users", entries, Map::size)
+                .description("닉네임 검색 인덱스에 보관 중인 사용자 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.nickname.search.index.grams", postings, Map::size)
+                .description("닉네임 검색 인덱스의 n-gram 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 모든 빈이 만들어진 뒤, 웹 서버가 요청을 받기 전에 인덱스를 채운다.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * user_base의 닉네임으로 인덱스 전체를 다시 만든다.
+     * 엔티티를 만들지 않고 두 컬럼만 읽어 n-gram별 배열로 모은 뒤 한 번에 교체한다.
+     */
+    public synchronized void rebuild() {
+        long startedAt = System.nanoTime();
+        Map<Long, Entry> loadedEntries = new HashMap<>();
+        Map<String, LongBuffer> loadedPostings = new HashMap<>();
+        jdbcTemplate.query(SELECT_NICKNAMES, rs -> {
+            Entry entry = Entry.of(rs.getString(2));
+            long userId = rs.getLong(1);
+            loadedEntries.put(userId, entry);
+            for (String gram : grams(entry.normalized())) {
+                loadedPostings.computeIfAbsent(gram, key -> new LongBuffer()).add(userId);
+            }
+        });
+
+        Map<String, long[]> rebuilt = new HashMap<>(loadedPostings.size() * 2);
+        loadedPostings.forEach((gram, buffer) -> rebuilt.put(gram, buffer.toSortedDistinctArray()));
+        entries.clear();
+        entries.putAll(loadedEntries);
+        postings.clear();
+        postings.putAll(rebuilt);
+        results.invalidateAll();
+        log.info("Nickname search index rebuilt: {} users, {} grams in {} ms",
+                loadedEntries.size(), rebuilt.size(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * relay 모드가 아니어서 인덱스를 사용할 수 있는지 확인한다.
+     * @return 사용할 수 있으면 true
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 닉네임에 검색어가 들어 있는 사용자를 순위대로 조회한다.
+     * 같은 검색어의 상위 max-results명은 캐시해 두고, 요청한 범위만 잘라 반환한다.
+     * @param query 검색어 (대소문자와 앞뒤 공백은 무시한다)
+     * @param excludeUserId 결과에서 제외할 사용자 ID (자신)
+     * @param offset 건너뛸 결과 수
+     * @param limit 반환할 최대 결과 수
+     * @return 검색 결과
+     */
+    public List<Match> search(String query, Long excludeUserId, int offset, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        List<Match> ranked = results.getIfPresent(normalized);
+        if (ranked != null) {
+            hitCounter.increment();
+        } else {
+            missCounter.increment();
+            ranked = rank(normalized);
+            results.put(normalized, ranked);
+        }
+        return ranked.stream()
+                .filter(match -> !match.userId().equals(excludeUserId))
+                .skip(offset)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * 가입, 닉네임 변경, 탈퇴를 인덱스에 반영한다.
+     * 커밋된 닉네임을 다시 읽어 이전 닉네임의 n-gram을 지우고 새 닉네임의 n-gram을 추가한다.
+     * 연달아 바뀐 이벤트가 서로 다른 스레드에서 처리되더라도 나중에 반영하는 쪽이 마지막으로 커밋된 닉네임을 읽도록 잠근 상태에서 읽는다.
+     * @param event 사용자 프로필 변경 이벤트
+     */
+    @TransactionalEventListener
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Long userId = event.userId();
+        synchronized (this) {
+            String nickname = userBaseRepository.findById(userId).map(UserBase::getUserNickname).orElse(null);
+            Entry before = entries.get(userId);
+            Entry after = nickname == null ? null : Entry.of(nickname);
+            if (before != null && after != null && before.nickname().equals(after.nickname())) {
+                return;
+            }
+            Set<String> removed = before == null ? Set.of() : grams(before.normalized());
+            Set<String> added = after == null ? Set.of() : grams(after.normalized());
+            if (after == null) {
+                entries.remove(userId);
+            } else {
+                entries.put(userId, after);
+            }
+            for (String gram : removed) {
+                if (!added.contains(gram)) {
+                    postings.computeIfPresent(gram, (key, ids) -> emptyToNull(LongBuffer.remove(ids, userId)));
+                }
+            }
+            for (String gram : added) {
+                if (!removed.contains(gram)) {
+                    postings.compute(gram, (key, ids) -> LongBuffer.insert(ids == null ? EMPTY : ids, userId));
+                }
+            }
+        }
+    }
+
+    private List<Match> rank(String query) {
+        long[] candidates = null;
+        for (String gram : queryGrams(query)) {
+            long[] ids = postings.getOrDefault(gram, EMPTY);
+            if (candidates == null || ids.length < candidates.length) {
+                candidates = ids;
+            }
+        }
+        // 순위가 가장 낮은 후보를 맨 앞에 두어 상위 maxResults명만 남긴다
+        PriorityQueue<Ranked> top = new PriorityQueue<>(RANKING.reversed());
+        for (long userId : candidates) {
+            Entry entry = entries.get(userId);
+            int position = entry == null ? -1 : entry.normalized().indexOf(query);
+            if (position < 0) {
+                continue;
+            }
+            int matchType = entry.normalized().length() == query.length() ? 0 : position == 0 ? 1 : 2;
+            top.add(new Ranked(userId, entry, matchType, position));
+            if (top.size() > maxResults) {
+                top.poll();
+            }
+        }
+        List<Ranked> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        return ranked.stream()
+                .map(candidate -> new Match(candidate.userId(), candidate.entry().nickname()))
+                .toList();
+    }
+
+    private static String normalize(String nickname) {
+        return nickname == null ? "" : nickname.strip().toLowerCase(Locale.ROOT);
+    }
+
+    // 닉네임을 색인할 n-gram (글자 하나와 연속한 두 글자)
+    private static Set<String> grams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        int[] codePoints = normalized.codePoints().toArray();
+        for (int i = 0; i < codePoints.length; i++) {
+            grams.add(new String(codePoints, i, 1));
+            if (i + 1 < codePoints.length) {
+                grams.add(new String(codePoints, i, 2));
+            }
+        }
+        return grams;
+    }
+
+    // 검색어로 후보를 찾을 n-gram (한 글자면 그 글자, 두 글자 이상이면 연속한 두 글자)
+    private static Set<String> queryGrams(String query) {
+        int[] codePoints = query.codePoints().toArray();
+        if (codePoints.length == 1) {
+            return Set.of(query);
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 1 < codePoints.length; i++) {
+            grams.add(new String(codePoints, i, 2));
+        }
+        return grams;
+    }
+
+    private static long[] emptyToNull(long[] ids) {
+        return ids.length == 0 ? null : ids;
+    }
+
+    /**
+     * 검색 결과 한 건이다.
+     * @param userId 사용자 ID
+     * @param nickname 닉네임
+     */
+    public record Match(Long userId, String nickname) {
+    }
+
+    /**
+     * 인덱스에 보관하는 사용자별 닉네임이다.
+     */
+    private record Entry(String nickname, String normalized) {
+
+        static Entry of(String nickname) {
+            return new Entry(nickname, normalize(nickname));
+        }
+    }
+
+    /**
+     * 순위를 매기는 중인 후보다.
+     */
+    private record Ranked(long userId, Entry entry, int matchType, int position) {
+    }
+}
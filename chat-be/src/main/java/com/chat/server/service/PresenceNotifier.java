@@ -0,0 +1,157 @@
+package com.chat.server.service;
+
+import com.chat.server.dto.PresenceDto;
+import com.chat.server.repository.RoomParticipantsHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 사용자의 접속 상태 변경을 친구와 같은 채팅방 참여자에게 알리는 컴포넌트다.
+ * <p>
+ * 연결/해제마다 바로 알리지 않고, flush-interval마다 {@link PresenceRegistry}의 변경 목록을 가져가 한 번에 알린다.
+ * 그 사이 접속했다가 바로 끊긴 사용자나 탭을 여러 개 연 사용자처럼 마지막으로 알린 상태와 같아진 경우에는 아무것도 보내지 않는다.
+ * 받는 사람별로 이번 주기의 변경을 하나의 목록으로 모아 /topic/user/{userId}/presence로 한 번만 보내며, 오프라인인 사람에게는 보내지 않는다.
+ * 친구는 {@link FriendGraphIndex}에서 읽고, 채팅방은 변경된 사용자 전체에 대해 IN 조회 한 번으로 찾으며, 채팅방 참여자는 {@link RoomMembershipRegistry}에서 읽는다.
+ * <p>
+ * 같은 스레드에서 session-timeout의 절반마다 하트비트가 끊긴 세션도 정리한다.
+ */
+@Slf4j
+@Component
+public class PresenceNotifier implements SmartLifecycle {
+
+    private static final String PRESENCE_TOPIC_PREFIX = "/topic/user/";
+    private static final String PRESENCE_TOPIC_SUFFIX = "/presence";
+
+    private final PresenceRegistry presenceRegistry;
+    private final FriendGraphIndex friendGraphIndex;
+    private final RoomParticipantsHistoryRepository participantsRepository;
+    private final RoomMembershipRegistry roomMembershipRegistry;
+    private final ChatBroadcaster chatBroadcaster;
+    private final long flushIntervalMillis;
+    private final long sweepIntervalMillis;
+
+    // 마지막으로 온라인이라고 알린 사용자 (flush 스레드에서만 변경)
+    private final Set<Long> publishedOnline = new HashSet<>();
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public PresenceNotifier(PresenceRegistry presenceRegistry,
+                            FriendGraphIndex friendGraphIndex,
+                            RoomParticipantsHistoryRepository participantsRepository,
+                            RoomMembershipRegistry roomMembershipRegistry,
+                            ChatBroadcaster chatBroadcaster,
+                            @Value("${chat.presence.flush-interval-ms:1000}") long flushIntervalMillis,
+                            @Value("${chat.presence.session-timeout-ms:60000}") long sessionTimeoutMillis) {
+        this.presenceRegistry = presenceRegistry;
+        this.friendGraphIndex = friendGraphIndex;
+        this.participantsRepository = participantsRepository;
+        this.roomMembershipRegistry = roomMembershipRegistry;
+        this.chatBroadcaster = chatBroadcaster;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.sweepIntervalMillis = Math.max(1, sessionTimeoutMillis / 2);
+    }
+
+    /**
+     * 변경 목록을 가져가 마지막으로 알린 상태와 달라진 사용자만 받는 사람별로 모아 전송한다.
+     * @return 접속 상태 변경을 알린 사용자 수
+     */
+    public synchronized int flush() {
+        List<PresenceDto> changes = new ArrayList<>();
+        for (Long userId : presenceRegistry.drainChangedUserIds()) {
+            boolean online = presenceRegistry.isOnline(userId);
+            if (online ? publishedOnline.add(userId) : publishedOnline.remove(userId)) {
+                changes.add(new PresenceDto(userId, online));
+            }
+        }
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        recipientsOf(changes).forEach((recipientId, presences) ->
+                chatBroadcaster.send(PRESENCE_TOPIC_PREFIX + recipientId + PRESENCE_TOPIC_SUFFIX,
+                        chatBroadcaster.encode(new ArrayList<>(presences))));
+        return changes.size();
+    }
+
+    /**
+     * 변경마다 알릴 사람(친구와 같은 채팅방 참여자 중 온라인인 사람)을 찾아 받는 사람별로 묶는다.
+     * @param changes 접속 상태 변경 목록
+     * @return 받는 사람 ID별 변경 목록
+     */
+    private Map<Long, Set<PresenceDto>> recipientsOf(List<PresenceDto> changes) {
+        Map<Long, PresenceDto> byUserId = new HashMap<>();
+        changes.forEach(change -> byUserId.put(change.getUserId(), change));
+
+        Map<Long, Set<PresenceDto>> byRecipient = new HashMap<>();
+        friendGraphIndex.getFriendIds(byUserId.keySet()).forEach((userId, friendIds) -> {
+            for (long friendId : friendIds) {
+                addRecipient(byRecipient, friendId, byUserId.get(userId));
+            }
+        });
+        for (RoomParticipantsHistoryRepository.UserRoom userRoom : participantsRepository.findActiveRoomsByUserIds(byUserId.keySet())) {
+            PresenceDto change = byUserId.get(userRoom.getUserId());
+            if (change == null) {
+                continue;
+            }
+            for (long memberId : roomMembershipRegistry.getMemberIds(userRoom.getRoomId())) {
+                if (memberId != change.getUserId()) {
+                    addRecipient(byRecipient, memberId, change);
+                }
+            }
+        }
+        return byRecipient;
+    }
+
+    private void addRecipient(Map<Long, Set<PresenceDto>> byRecipient, Long recipientId, PresenceDto change) {
+        if (change != null && presenceRegistry.isOnline(recipientId)) {
+            byRecipient.computeIfAbsent(recipientId, key -> new LinkedHashSet<>()).add(change);
+        }
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("Presence task failed", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("chat-presence").daemon().factory());
+        scheduler.scheduleWithFixedDelay(() -> runSafely(this::flush), flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> runSafely(presenceRegistry::expireIdleSessions),
+                sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Presence notifier started (flushIntervalMs={}, sweepIntervalMs={})", flushIntervalMillis, sweepIntervalMillis);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
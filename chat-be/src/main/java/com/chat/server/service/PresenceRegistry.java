@@ -0,0 +1,199 @@
+package com.chat.server.service;
+
+import com.chat.server.dto.UserDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 사용자별 STOMP 세션 연결 상태를 메모리에 보관하는 레지스트리다.
+ * 세션이 하나라도 연결된 사용자를 온라인으로 본다.
+ * <p>
+ * 세션 ID별 상태와 사용자별 연결 세션 수를 각각 ConcurrentHashMap에 보관한다.
+ * 연결/해제는 해당 사용자 항목만 잠그고(compute), 온라인 여부 조회는 잠금 없이 읽으므로 연결 수가 많아도 서로 막지 않는다.
+ * 세션 하나당 세션 상태 객체 하나만 두므로 10만 연결도 수십 MB 안에서 유지된다.
+ * <p>
+ * 하트비트를 포함해 세션에서 프레임을 받을 때마다 마지막 활동 시각을 갱신하고,
+ * session-timeout 동안 아무 프레임도 받지 못한 세션은 연결 해제 이벤트를 받지 못했더라도 오프라인으로 처리한다.
+ * 이때 세션 항목은 남겨 두므로, 연결이 살아 있어 이후 프레임이 들어오면 다시 온라인이 되고, 실제로 끊긴 세션은 연결 해제 이벤트 때 지운다.
+ * 온라인 여부가 바뀐 사용자는 변경 목록에 모아 두며, {@link PresenceNotifier}가 주기적으로 가져가 한 번에 알린다.
+ * 이 서버에 연결된 세션만 알 수 있으므로 relay 모드에서 여러 서버에 나눠 연결된 사용자는 서버마다 따로 집계된다.
+ */
+@Component
+public class PresenceRegistry {
+
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> sessionCounts = new ConcurrentHashMap<>();
+    private final Set<Long> changedUserIds = ConcurrentHashMap.newKeySet();
+    private final long sessionTimeoutNanos;
+
+    public PresenceRegistry(MeterRegistry meterRegistry,
+                            @Value("${chat.presence.session-timeout-ms:60000}") long sessionTimeoutMillis) {
+        this.sessionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sessionTimeoutMillis);
+        Gauge.builder("chat.presence.sessions", sessions, Map::size)
+                .description("연결 중인 STOMP 세션 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.presence.users", sessionCounts, Map::size)
+                .description("세션이 하나 이상 연결된 사용자 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * STOMP 세션이 연결되면 해당 사용자의 세션으로 등록한다.
+     * 인증되지 않은 세션은 무시한다.
+     * @param event 세션 연결 이벤트
+     */
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        Long userId = userIdOf(event.getUser());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (userId != null && sessionId != null) {
+            connected(sessionId, userId);
+        }
+    }
+
+    /**
+     * STOMP 세션 연결이 끊기면 등록을 해제한다.
+     * @param event 세션 해제 이벤트
+     */
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        disconnected(event.getSessionId());
+    }
+
+    /**
+     * 세션을 사용자의 연결 세션으로 등록한다.
+     * 사용자의 첫 세션이면 온라인으로 바뀐 것으로 기록한다.
+     * @param sessionId STOMP 세션 ID
+     * @param userId 사용자 ID
+     */
+    public void connected(String sessionId, Long userId) {
+        if (sessions.putIfAbsent(sessionId, new SessionState(userId, System.nanoTime())) != null) {
+            return;
+        }
+        countOnline(userId);
+    }
+
+    /**
+     * 세션 등록을 해제한다.
+     * 사용자의 마지막 세션이면 오프라인으로 바뀐 것으로 기록한다.
+     * @param sessionId STOMP 세션 ID
+     */
+    public void disconnected(String sessionId) {
+        SessionState state = sessions.remove(sessionId);
+        if (state != null && state.online.compareAndSet(true, false)) {
+            countOffline(state.userId);
+        }
+    }
+
+    /**
+     * 세션에서 프레임을 받았음을 기록한다. (하트비트 포함)
+     * 유휴 시간 초과로 오프라인 처리된 세션이면 다시 온라인으로 등록한다.
+     * 다시 온라인으로 바꾸는 동안 세션 항목을 잠가 두므로, 동시에 연결이 해제되면 해제가 먼저든 나중이든 오프라인으로 끝난다.
+     * @param sessionId STOMP 세션 ID
+     */
+    public void touch(String sessionId) {
+        SessionState state = sessions.get(sessionId);
+        if (state == null) {
+            return;
+        }
+        state.lastSeenAt = System.nanoTime();
+        if (!state.online.get()) {
+            sessions.computeIfPresent(sessionId, (id, current) -> {
+                if (current.online.compareAndSet(false, true)) {
+                    countOnline(current.userId);
+                }
+                return current;
+            });
+        }
+    }
+
+    /**
+     * 사용자가 현재 온라인인지 확인한다.
+     * @param userId 사용자 ID
+     * @return 연결된 세션이 하나 이상이면 true
+     */
+    public boolean isOnline(Long userId) {
+        return userId != null && sessionCounts.containsKey(userId);
+    }
+
+    /**
+     * session-timeout 동안 프레임을 받지 못한 세션을 오프라인으로 처리한다.
+     * 세션 항목은 연결 해제 이벤트를 받을 때까지 남겨 두어, 이후 프레임이 들어오면 {@link #touch(String)}에서 다시 온라인이 된다.
+     * @return 오프라인으로 처리한 세션 수
+     */
+    public int expireIdleSessions() {
+        long now = System.nanoTime();
+        int expired = 0;
+        for (SessionState state : sessions.values()) {
+            if (now - state.lastSeenAt > sessionTimeoutNanos && state.online.compareAndSet(true, false)) {
+                countOffline(state.userId);
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 마지막으로 가져간 뒤 온라인 여부가 바뀌었을 수 있는 사용자 ID를 가져가고 목록을 비운다.
+     * 그 사이 온라인과 오프라인을 오간 사용자도 한 번만 들어 있으므로, 호출자는 현재 상태만 확인하면 된다.
+     * @return 변경된 사용자 ID 목록
+     */
+    public Set<Long> drainChangedUserIds() {
+        Set<Long> drained = new HashSet<>();
+        Iterator<Long> iterator = changedUserIds.iterator();
+        while (iterator.hasNext()) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    private void countOnline(Long userId) {
+        if (sessionCounts.merge(userId, 1, Integer::sum) == 1) {
+            changedUserIds.add(userId);
+        }
+    }
+
+    private void countOffline(Long userId) {
+        if (sessionCounts.computeIfPresent(userId, (id, count) -> count == 1 ? null : count - 1) == null) {
+            changedUserIds.add(userId);
+        }
+    }
+
+    private static Long userIdOf(Principal principal) {
+        if (principal instanceof Authentication authentication && authentication.getPrincipal() instanceof UserDto user) {
+            return user.getUserId();
+        }
+        return null;
+    }
+
+    /**
+     * 세션별 연결 상태다. 마지막 활동 시각과 온라인 집계 여부만 바뀐다.
+     */
+    private static final class SessionState {
+        private final Long userId;
+        private final AtomicBoolean online = new AtomicBoolean(true);
+        private volatile long lastSeenAt;
+
+        private SessionState(Long userId, long lastSeenAt) {
+            this.userId = userId;
+            this.lastSeenAt = lastSeenAt;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.chat.server.service;
+
+import com.chat.server.dto.ChatMessageDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 클라이언트가 보낸 읽음 확인을 채팅방별로 모아서 한 번에 알리는 컴포넌트다.
+ * <p>
+ * 읽음 확인마다 바로 브로드캐스트하면 참여자가 N명인 채팅방에서 메시지 하나에 N개의 프레임이 N명에게 전달된다.
+ * 대신 window 동안 받은 읽음 확인을 채팅방별로 (사용자 ID → 가장 최신 메시지 ID)로 합치고,
+ * 주기마다 채팅방당 READ_RECEIPT 프레임 하나만 보낸다. 프레임에는 같은 메시지까지 읽은 사용자를 묶어 담는다.
+ * <p>
+ * 읽음 위치도 같은 주기에 사용자별 최신 메시지 ID만 {@link UnreadCountRegistry}에 넘기므로,
+ * 읽음 확인을 여러 번 보내더라도 room_read_marker에는 마지막 위치만 저장된다.
+ * 클라이언트가 보낸 메시지 ID는 채팅방의 마지막 메시지 ID 이하로 제한해서 합치고, 0 이하인 ID는 무시한다.
+ */
+@Slf4j
+@Component
+public class ReadReceiptAggregator implements SmartLifecycle {
+
+    private final ChatBroadcaster chatBroadcaster;
+    private final UnreadCountRegistry unreadCountRegistry;
+    private final long windowMillis;
+    private final Counter receivedCounter;
+    private final Counter framesCounter;
+
+    // 채팅방 ID → (사용자 ID → 가장 최신 메시지 ID), 채팅방 항목을 잠근 상태(compute/remove)에서만 변경
+    private final Map<Long, Map<Long, Long>> pending = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public ReadReceiptAggregator(ChatBroadcaster chatBroadcaster,
+                                 UnreadCountRegistry unreadCountRegistry,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${chat.read-receipt.window-ms:250}") long windowMillis) {
+        this.chatBroadcaster = chatBroadcaster;
+        this.unreadCountRegistry = unreadCountRegistry;
+        this.windowMillis = windowMillis;
+        this.receivedCounter = Counter.builder("chat.read.receipts.received")
+                .description("받은 읽음 확인 수")
+                .register(meterRegistry);
+        this.framesCounter = Counter.builder("chat.read.receipts.frames")
+                .description("채팅방으로 보낸 READ_RECEIPT 프레임 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 읽음 확인을 다음 주기까지 모아 둔다.
+     * 같은 사용자가 같은 채팅방에 여러 번 보내면 가장 최신 메시지 ID만 남는다.
+     * 아직 없는 메시지까지 읽었다고 알리지 않도록 채팅방의 마지막 메시지 ID 이하로 제한한다.
+     * @param roomId 채팅방 ID
+     * @param userId 사용자 ID
+     * @param messageId 읽은 메시지 중 가장 최신 메시지 ID
+     */
+    public void record(Long roomId, Long userId, Long messageId) {
+        receivedCounter.increment();
+        if (messageId == null || messageId <= 0) {
+            return;
+        }
+        long readMessageId = Math.min(messageId, unreadCountRegistry.lastMessageId(roomId));
+        if (readMessageId <= 0) {
+            return;
+        }
+        pending.compute(roomId, (key, receipts) -> {
+            Map<Long, Long> merged = receipts == null ? new HashMap<>() : receipts;
+            merged.merge(userId, readMessageId, Math::max);
+            return merged;
+        });
+    }
+
+    /**
+     * 모아 둔 읽음 확인을 채팅방별 READ_RECEIPT 프레임 하나로 보내고, 사용자별 최신 위치를 읽음 위치에 반영한다.
+     * @return 보낸 프레임 수
+     */
+    public synchronized int flush() {
+        int frames = 0;
+        for (Long roomId : pending.keySet()) {
+            Map<Long, Long> receipts = pending.remove(roomId);
+            if (receipts == null) {
+                continue;
+            }
+            Map<Long, List<Long>> readReceipts = new TreeMap<>();
+            receipts.forEach((userId, messageId) -> {
+                readReceipts.computeIfAbsent(messageId, key -> new ArrayList<>()).add(userId);
+                unreadCountRegistry.markRead(userId, roomId, messageId);
+            });
+            chatBroadcaster.broadcastToRoom(roomId, ChatMessageDto.builder()
+                    .type(ChatMessageDto.MessageType.READ_RECEIPT)
+                    .roomId(roomId)
+                    .readReceipts(readReceipts)
+                    .build());
+            frames++;
+        }
+        framesCounter.increment(frames);
+        return frames;
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush read receipts", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("chat-read-receipt").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::flushSafely, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        log.info("Read receipt aggregator started (windowMs={})", windowMillis);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(windowMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 남은 읽음 위치를 UnreadCountRegistry가 멈추기 전에 넘긴다
+        flushSafely();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
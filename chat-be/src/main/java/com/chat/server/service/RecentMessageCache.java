@@ -0,0 +1,197 @@
+package com.chat.server.service;
+
+import com.chat.server.dto.ChatMessageDto;
+import com.chat.server.repository.ChatMessageRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 채팅방별 최근 메시지를 메모리에 보관하는 링 버퍼 캐시다.
+ * 채팅방을 열 때 필요한 최신 메시지 페이지를 데이터베이스 대신 메모리에서 돌려준다.
+ * <p>
+ * 채팅방마다 capacity-per-room 크기의 링 버퍼를 두고, 버퍼를 보관하는 채팅방 수는 max-rooms로 제한하므로
+ * 전체 메모리 사용량은 max-rooms × capacity-per-room 건을 넘지 않는다.
+ * 버퍼는 처음 조회될 때 데이터베이스의 최신 메시지로 채우고, 이후에는 {@link #append}로 새 메시지를 이어 붙인다.
+ * 조회 중에 들어온 메시지와 데이터베이스 결과는 메시지 ID 기준으로 합치므로 순서가 뒤섞이거나 중복되지 않는다.
+ * <p>
+ * 버퍼는 이 서버에서 저장한 메시지만 알 수 있으므로, 여러 서버가 외부 브로커를 공유하는 relay 모드에서는 사용하지 않는다.
+ */
+@Component
+public class RecentMessageCache {
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final boolean enabled;
+    private final int capacityPerRoom;
+    private final Cache<Long, RoomBuffer> buffers;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public RecentMessageCache(ChatMessageRepository chatMessageRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${chat.broker.mode:simple}") String brokerMode,
+                              @Value("${chat.cache.recent-message.max-rooms:10000}") long maxRooms,
+                              @Value("${chat.cache.recent-message.capacity-per-room:100}") int capacityPerRoom) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.enabled = !"relay".equalsIgnoreCase(brokerMode);
+        this.capacityPerRoom = capacityPerRoom;
+        this.buffers = Caffeine.newBuilder()
+                .maximumSize(maxRooms)
+                .build();
+        this.hitCounter = meterRegistry.counter("chat.message.recent.cache.requests", "result", "hit");
+        this.missCounter = meterRegistry.counter("chat.message.recent.cache.requests", "result", "miss");
+        Gauge.builder("chat.message.recent.cache.rooms", buffers, Cache::estimatedSize)
+                .description("최근 메시지 버퍼를 보관 중인 채팅방 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 새로 저장된 메시지를 해당 채팅방 버퍼에 추가한다.
+     * 지연 저장 모드에서는 메시지가 아직 데이터베이스에 없을 수 있으므로, 버퍼가 없으면 만들어 두고 조회 시 데이터베이스 결과와 합친다.
+     * @param message 저장된 메시지 (메시지 ID가 있어야 한다)
+     */
+    public void append(ChatMessageDto message) {
+        if (!enabled || message.getMessageId() == null) {
+            return;
+        }
+        buffers.get(message.getRoomId(), key -> new RoomBuffer(capacityPerRoom)).add(copyOf(message));
+    }
+
+    /**
+     * 채팅방의 최신 메시지를 최신순으로 조회한다.
+     * 요청 건수가 버퍼 크기보다 크거나 relay 모드이면 캐시를 사용하지 않는다.
+     * @param roomId 채팅방 ID
+     * @param count 조회할 메시지 수
+     * @return 최신 메시지 목록 (메시지 ID 내림차순, 캐시로 처리할 수 없으면 empty)
+     */
+    public Optional<List<ChatMessageDto>> findLatest(Long roomId, int count) {
+        if (!enabled || count > capacityPerRoom) {
+            missCounter.increment();
+            return Optional.empty();
+        }
+        // 버퍼는 최신 capacity 건을 모두 가지고 있거나, 채팅방 메시지가 그보다 적으면 전부 가지고 있으므로 count 건을 항상 처리할 수 있다
+        RoomBuffer buffer = buffers.get(roomId, key -> new RoomBuffer(capacityPerRoom));
+        if (buffer.isWarmed()) {
+            hitCounter.increment();
+        } else {
+            missCounter.increment();
+            // 버퍼를 먼저 등록한 뒤 조회하므로, 조회하는 동안 저장된 메시지도 버퍼에 쌓여 결과와 합쳐진다
+            List<ChatMessageDto> latest = chatMessageRepository.findLatestMessages(roomId, Limit.of(capacityPerRoom));
+            buffer.warm(latest);
+        }
+        return Optional.of(buffer.latest(count));
+    }
+
+    /**
+     * 채팅방 버퍼를 제거한다.
+     * @param roomId 제거할 채팅방 ID
+     */
+    public void evict(Long roomId) {
+        buffers.invalidate(roomId);
+    }
+
+    private ChatMessageDto copyOf(ChatMessageDto message) {
+        // 브로드캐스트 후 원본 DTO가 바뀌어도 버퍼 내용이 영향받지 않도록 필요한 필드만 복사한다
+        return new ChatMessageDto(message.getMessageId(), message.getRoomId(), message.getSenderId(),
+                message.getSenderNickname(), message.getMessage(), message.getCreatedAt());
+    }
+
+    /**
+     * 한 채팅방의 최근 메시지를 메시지 ID 오름차순으로 보관하는 고정 크기 링 버퍼다.
+     * 가득 차면 가장 오래된 메시지를 덮어쓴다.
+     */
+    static final class RoomBuffer {
+
+        private final ChatMessageDto[] ring;
+        private int start; // 가장 오래된 메시지의 위치
+        private int size;
+        private boolean warmed;
+
+        RoomBuffer(int capacity) {
+            this.ring = new ChatMessageDto[capacity];
+        }
+
+        synchronized boolean isWarmed() {
+            return warmed;
+        }
+
+        /**
+         * 데이터베이스에서 읽은 최신 메시지로 버퍼를 채운다.
+         * @param latest 최신 메시지 목록 (메시지 ID 내림차순)
+         */
+        synchronized void warm(List<ChatMessageDto> latest) {
+            if (warmed) {
+                return;
+            }
+            for (ChatMessageDto message : latest) {
+                add(message);
+            }
+            warmed = true;
+        }
+
+        /**
+         * 메시지를 ID 순서에 맞는 위치에 넣는다.
+         * 동시에 저장된 메시지는 도착 순서가 ID 순서와 다를 수 있으므로 뒤에서부터 자리를 찾는다.
+         */
+        synchronized void add(ChatMessageDto message) {
+            long messageId = message.getMessageId();
+            int position = size;
+            while (position > 0) {
+                long previousId = at(position - 1).getMessageId();
+                if (previousId == messageId) {
+                    return;
+                }
+                if (previousId < messageId) {
+                    break;
+                }
+                position--;
+            }
+            if (size == ring.length) {
+                if (position == 0) {
+                    // 버퍼의 모든 메시지보다 오래된 메시지는 보관하지 않는다
+                    return;
+                }
+                ring[start] = null;
+                start = (start + 1) % ring.length;
+                size--;
+                position--;
+            }
+            for (int i = size; i > position; i--) {
+                set(i, at(i - 1));
+            }
+            set(position, message);
+            size++;
+        }
+
+        /**
+         * 최신 메시지를 최신순으로 반환한다.
+         * @param count 반환할 최대 메시지 수
+         * @return 메시지 목록 (메시지 ID 내림차순)
+         */
+        synchronized List<ChatMessageDto> latest(int count) {
+            int n = Math.min(count, size);
+            List<ChatMessageDto> result = new ArrayList<>(n);
+            for (int i = size - 1; i >= size - n; i--) {
+                result.add(at(i));
+            }
+            return result;
+        }
+
+        private ChatMessageDto at(int index) {
+            return ring[(start + index) % ring.length];
+        }
+
+        private void set(int index, ChatMessageDto message) {
+            ring[(start + index) % ring.length] = message;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.chat.server.service;
+
+import com.chat.server.domain.ChatRoom;
+import com.chat.server.repository.ChatRoomRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 메시지 저장 시 채팅방 존재 여부와 활성 상태를 확인하기 위한 로컬 캐시다.
+ * 채팅방 ID별로 활성 상태를 보관하며, 크기 제한과 쓰기 만료 시간에 따라 자동으로 제거된다.
+ * 애플리케이션은 채팅방을 만들 때만 활성 상태를 정하므로 직접 무효화하지 않고, 데이터베이스에서 바꾼 활성 상태는
+ * 만료 시간 안에 반영된다. (접근 만료를 쓰면 메시지가 계속 오가는 채팅방은 만료되지 않는다)
+ * 발신자 참여 여부는 {@link RoomMembershipRegistry}에서 확인한다.
+ */
+@Component
+public class RoomAccessCache {
+
+    private final ChatRoomRepository chatRoomRepository;
+    private final Cache<Long, RoomAccess> cache;
+
+    public RoomAccessCache(ChatRoomRepository chatRoomRepository,
+                           @Value("${chat.cache.room-access.max-size:10000}") long maxSize,
+                           @Value("${chat.cache.room-access.expire-after-write-minutes:10}") long expireAfterWriteMinutes) {
+        this.chatRoomRepository = chatRoomRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes))
+                .build();
+    }
+
+    /**
+     * 채팅방의 접근 정보를 조회한다.
+     * 캐시에 없으면 데이터베이스에서 채팅방을 읽어 채운다.
+     * 존재하지 않는 채팅방은 캐시하지 않는다.
+     * @param roomId 채팅방 ID
+     * @return 채팅방 접근 정보 (채팅방이 없으면 empty)
+     */
+    public Optional<RoomAccess> get(Long roomId) {
+        return Optional.ofNullable(cache.get(roomId, this::load));
+    }
+
+    private RoomAccess load(Long roomId) {
+        return chatRoomRepository.findById(roomId)
+                .map(chatRoom -> new RoomAccess(isActive(chatRoom)))
+                .orElse(null);
+    }
+
+    private boolean isActive(ChatRoom chatRoom) {
+        // 컬럼 기본값이 'Y'이므로 값이 비어 있으면 활성 상태로 본다
+        return !"N".equals(chatRoom.getIsActive());
+    }
+
+    /**
+     * 캐시에 보관하는 채팅방 접근 정보다.
+     * @param active 채팅방 활성 여부
+     */
+    public record RoomAccess(boolean active) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.chat.server.service;
+
+import com.chat.server.domain.ChatRoom;
+import com.chat.server.dto.ChatMessageDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅방의 마지막 메시지 정보(chat_room.last_message_*)를 갱신하는 컴포넌트다.
+ * <p>
+ * 메시지마다 chat_room 행을 UPDATE하면 대화가 활발한 채팅방의 같은 행에 잠금이 몰린다.
+ * 대신 채팅방별로 가장 최신 메시지만 메모리에 남겨 두고, flush-interval마다 채팅방당 UPDATE 하나를 JDBC 배치로 실행한다.
+ * 메시지가 초당 수백 건인 채팅방도 주기당 한 번만 갱신된다.
+ * <p>
+ * 더 최신 메시지로 이미 갱신된 행은 건드리지 않도록 메시지 ID를 조건에 넣으므로,
+ * relay 모드에서 여러 서버가 같은 채팅방을 갱신하더라도 마지막 메시지가 뒤로 돌아가지 않는다.
+ */
+@Slf4j
+@Component
+public class RoomInboxUpdater implements SmartLifecycle {
+
+    private static final String UPDATE_LAST_MESSAGE =
+            "UPDATE chat_room SET last_message_id = ?, last_message_at = ?, last_message_preview = ? "
+                    + "WHERE room_id = ? AND (last_message_id IS NULL OR last_message_id < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RoomListCache roomListCache;
+    private final Cache secondLevelCache;
+    private final int previewLength;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+
+    private final Map<Long, LastMessage> pending = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public RoomInboxUpdater(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            RoomListCache roomListCache,
+                            EntityManagerFactory entityManagerFactory,
+                            MeterRegistry meterRegistry,
+                            @Value("${chat.inbox.preview-length:100}") int previewLength,
+                            @Value("${chat.inbox.batch-size:500}") int batchSize,
+                            @Value("${chat.inbox.flush-interval-ms:500}") long flushIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.roomListCache = roomListCache;
+        this.secondLevelCache = entityManagerFactory.getCache();
+        this.previewLength = previewLength;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        Gauge.builder("chat.inbox.pending.rooms", pending, Map::size)
+                .description("마지막 메시지 갱신을 기다리는 채팅방 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 채팅방의 마지막 메시지를 다음 주기에 갱신하도록 기록한다.
+     * 같은 채팅방에 이미 더 최신 메시지가 기록되어 있으면 무시한다.
+     * @param message 저장했거나 저장 대기열에 넣은 TALK 메시지 (메시지 ID와 생성 시간이 채워져 있어야 한다)
+     */
+    public void onMessage(ChatMessageDto message) {
+        if (message.getMessageId() == null || message.getRoomId() == null) {
+            return;
+        }
+        LastMessage last = new LastMessage(message.getMessageId(),
+                message.getCreatedAt() != null ? message.getCreatedAt() : LocalDateTime.now(),
+                preview(message.getMessage()));
+        pending.merge(message.getRoomId(), last, LastMessage::latest);
+    }
+
+    /**
+     * 기록된 채팅방별 마지막 메시지를 한 번의 배치로 저장하고, 그 채팅방 참여자들의 채팅방 목록 캐시와 채팅방 2차 캐시를 지운다.
+     * 저장에 실패하면 다음 주기에 다시 저장하도록 되돌린다.
+     * @return 갱신을 요청한 채팅방 수
+     */
+    public synchronized int flush() {
+        List<Map.Entry<Long, LastMessage>> rows = new ArrayList<>();
+        for (Long roomId : pending.keySet()) {
+            LastMessage last = pending.remove(roomId);
+            if (last != null) {
+                rows.add(Map.entry(roomId, last));
+            }
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(UPDATE_LAST_MESSAGE, rows, batchSize, (ps, row) -> {
+                        LastMessage last = row.getValue();
+                        ps.setLong(1, last.messageId());
+                        ps.setTimestamp(2, Timestamp.valueOf(last.createdAt()));
+                        ps.setString(3, last.preview());
+                        ps.setLong(4, row.getKey());
+                        ps.setLong(5, last.messageId());
+                    }));
+        } catch (RuntimeException e) {
+            rows.forEach(row -> pending.merge(row.getKey(), row.getValue(), LastMessage::latest));
+            throw e;
+        }
+        // 커밋된 뒤에 지워야 다시 읽은 목록에 새 마지막 메시지가 담긴다 (JDBC 갱신은 Hibernate가 알지 못한다)
+        List<Long> roomIds = rows.stream().map(Map.Entry::getKey).toList();
+        roomIds.forEach(roomId -> secondLevelCache.evict(ChatRoom.class, roomId));
+        roomListCache.evictRooms(roomIds);
+        return rows.size();
+    }
+
+    private String preview(String content) {
+        if (content == null || content.length() <= previewLength) {
+            return content;
+        }
+        // 서로게이트 쌍의 앞쪽에서 잘리지 않도록 한 글자 덜 자른다
+        int end = Character.isHighSurrogate(content.charAt(previewLength - 1)) ? previewLength - 1 : previewLength;
+        return content.substring(0, end);
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to update room last messages, will retry", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("chat-inbox-updater").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Room inbox updater started (flushIntervalMs={})", flushIntervalMillis);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(flushIntervalMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 종료 전에 남은 마지막 메시지를 저장한다
+        flushSafely();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 메시지 지연 저장이 멈춘 뒤에 남은 갱신을 저장하도록 더 늦게 종료한다.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    /**
+     * 채팅방의 마지막 메시지 정보다.
+     */
+    private record LastMessage(long messageId, LocalDateTime createdAt, String preview) {
+
+        private static LastMessage latest(LastMessage a, LastMessage b) {
+            return a.messageId >= b.messageId ? a : b;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.chat.server.service;
+
+import com.chat.server.exception.CustomException;
+import com.chat.server.exception.ErrorCode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 채팅방 ID를 기준으로 작업을 단일 스레드 레인에 나눠 실행하는 실행기다.
+ * 같은 채팅방의 작업은 항상 같은 레인에서 제출된 순서대로 실행되므로, 전역 잠금 없이 채팅방 단위의 순서가 보장된다.
+ * 서로 다른 채팅방은 여러 레인에 분산되어 병렬로 처리되며, 한 채팅방이 느려도 같은 레인을 쓰는 채팅방만 영향을 받는다.
+ * <p>
+ * 레인마다 크기가 제한된 대기열을 두고, 가득 차면 offer-timeout 동안 호출 스레드를 대기시킨 뒤 그래도 자리가 없으면 예외를 던진다.
+ * 레인별 대기열 길이와 대기 시간(제출부터 실행 시작까지)을 메트릭으로 노출한다.
+ * 가상 스레드 모드(spring.threads.virtual.enabled)에서는 레인 스레드를 가상 스레드로 만들어, JPA 호출로 블로킹되는 동안 플랫폼 스레드를 점유하지 않는다.
+ */
+@Slf4j
+@Component
+public class RoomLaneExecutor implements SmartLifecycle {
+
+    private final ThreadPoolExecutor[] lanes;
+    private final Timer[] lagTimers;
+    private final long offerTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+
+    private volatile boolean running;
+
+    public RoomLaneExecutor(MeterRegistry meterRegistry,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                            @Value("${chat.inbound.lanes:0}") int laneCount,
+                            @Value("${chat.inbound.lane-queue-capacity:10000}") int queueCapacity,
+                            @Value("${chat.inbound.offer-timeout-ms:1000}") long offerTimeoutMillis,
+                            @Value("${chat.inbound.shutdown-timeout-ms:30000}") long shutdownTimeoutMillis) {
+        int count = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors();
+        this.lanes = new ThreadPoolExecutor[count];
+        this.lagTimers = new Timer[count];
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        for (int i = 0; i < count; i++) {
+            String laneName = String.valueOf(i);
+            ThreadFactory threadFactory = virtualThreads
+                    ? Thread.ofVirtual().name("chat-room-lane-" + laneName).factory()
+                    : Thread.ofPlatform().name("chat-room-lane-" + laneName).factory();
+            ThreadPoolExecutor lane = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), threadFactory, this::waitForSpace);
+            lanes[i] = lane;
+            Gauge.builder("chat.inbound.lane.queue.depth", lane, executor -> executor.getQueue().size())
+                    .description("레인 대기열에 쌓인 작업 수")
+                    .tag("lane", laneName)
+                    .register(meterRegistry);
+            lagTimers[i] = Timer.builder("chat.inbound.lane.lag")
+                    .description("작업이 제출된 뒤 레인에서 실행되기까지 걸린 시간")
+                    .tag("lane", laneName)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 채팅방에 해당하는 레인에서 작업을 실행한다.
+     * 작업에서 발생한 예외는 로그로 남기고 같은 레인의 다음 작업은 계속 실행한다.
+     * @param roomId 채팅방 ID (레인 선택 기준)
+     * @param task 실행할 작업
+     * @throws CustomException 레인 대기열이 가득 찼거나 실행기가 종료된 경우
+     */
+    public void execute(Long roomId, Runnable task) {
+        execute(roomId, task, null);
+    }
+
+    /**
+     * 채팅방에 해당하는 레인에서 작업을 실행하고, 작업에서 예외가 발생하면 레인 스레드에서 onFailure에 넘긴다.
+     * 레인에서 실행되는 작업의 예외는 제출한 쪽으로 전파되지 않으므로, 요청한 사용자에게 실패를 알릴 때 사용한다.
+     * @param roomId 채팅방 ID (레인 선택 기준)
+     * @param task 실행할 작업
+     * @param onFailure 작업이 실패했을 때 호출할 콜백 (선택)
+     * @throws CustomException 레인 대기열이 가득 찼거나 실행기가 종료된 경우
+     */
+    public void execute(Long roomId, Runnable task, Consumer<RuntimeException> onFailure) {
+        int index = laneIndex(roomId);
+        Timer lagTimer = lagTimers[index];
+        long submittedAt = System.nanoTime();
+        try {
+            lanes[index].execute(() -> {
+                lagTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.warn("Inbound task for room {} failed", roomId, e);
+                    notifyFailure(onFailure, roomId, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new CustomException(ErrorCode.MESSAGE_QUEUE_FULL);
+        }
+    }
+
+    private static void notifyFailure(Consumer<RuntimeException> onFailure, Long roomId, RuntimeException failure) {
+        if (onFailure == null) {
+            return;
+        }
+        try {
+            onFailure.accept(failure);
+        } catch (RuntimeException e) {
+            log.warn("Failure callback for room {} failed", roomId, e);
+        }
+    }
+
+    /**
+     * 채팅방이 배정되는 레인 번호를 계산한다.
+     * @param roomId 채팅방 ID
+     * @return 레인 번호 (0 ~ 레인 수 - 1)
+     */
+    public int laneIndex(Long roomId) {
+        return Math.floorMod(Objects.hashCode(roomId), lanes.length);
+    }
+
+    /**
+     * 레인 수를 반환한다.
+     * @return 레인 수
+     */
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * 레인 대기열이 가득 찼을 때 호출 스레드를 offer-timeout 동안 대기시킨다.
+     * 다른 스레드에서 실행하면 채팅방 순서가 깨지므로 CallerRuns 방식은 사용하지 않는다.
+     */
+    private void waitForSpace(Runnable runnable, ThreadPoolExecutor lane) {
+        if (lane.isShutdown()) {
+            throw new RejectedExecutionException("Room lane is shut down");
+        }
+        try {
+            if (!lane.getQueue().offer(runnable, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Room lane queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for room lane", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        log.info("Room lane executor started with {} lanes", lanes.length);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        // 이미 받은 작업은 모두 실행한 뒤 종료한다
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+        for (ThreadPoolExecutor lane : lanes) {
+            try {
+                if (!lane.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    log.warn("Room lane did not finish within {}ms, {} tasks left", shutdownTimeoutMillis, lane.getQueue().size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * WebSocket 처리 빈들이 먼저 멈춘 뒤에 레인을 비우고, 메시지 지연 저장보다는 먼저 종료한다.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 512;
+    }
+}
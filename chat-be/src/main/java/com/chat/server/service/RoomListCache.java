@@ -0,0 +1,112 @@
+package com.chat.server.service;
+
+import com.chat.server.dto.ChatRoomDto;
+import com.chat.server.event.RoomMembershipChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 사용자별 채팅방 목록을 메모리에 보관하는 캐시다.
+ * 채팅방 목록을 다시 열 때마다 채팅방과 참여자를 데이터베이스에서 읽지 않도록, 사용자 ID별로 조회 결과를 그대로 둔다.
+ * <p>
+ * 채팅방 생성, 초대, 퇴장으로 참여자 구성이 바뀌면 그 채팅방 참여자 전원의 목록을 지운다.
+ * 목록에는 채팅방별 마지막 메시지도 담기므로, {@link RoomInboxUpdater}가 마지막 메시지를 저장한 채팅방도 참여자 전원의 목록을 지운다.
+ * 참여자는 {@link RoomMembershipRegistry}에서 찾으므로, 참여자 레지스트리를 쓰지 않는 relay 모드에서는 사용하지 않는다.
+ * <p>
+ * 보관한 목록은 여러 요청이 함께 읽으므로 수정하지 않는다. 안 읽은 메시지 수처럼 요청마다 다른 값은 복사본에 채운다.
+ */
+@Component
+public class RoomListCache {
+
+    private final RoomMembershipRegistry roomMembershipRegistry;
+    private final boolean enabled;
+    private final Cache<Long, List<ChatRoomDto>> cache;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public RoomListCache(RoomMembershipRegistry roomMembershipRegistry,
+                         MeterRegistry meterRegistry,
+                         @Value("${chat.broker.mode:simple}") String brokerMode,
+                         @Value("${chat.cache.room-list.max-size:10000}") long maxSize,
+                         @Value("${chat.cache.room-list.expire-after-write-minutes:10}") long expireAfterWriteMinutes) {
+        this.roomMembershipRegistry = roomMembershipRegistry;
+        this.enabled = !"relay".equalsIgnoreCase(brokerMode);
+        // 참여자 닉네임 변경처럼 무효화하지 않는 변경도 만료 시간이 지나면 반영된다
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes))
+                .build();
+        this.hitCounter = meterRegistry.counter("chat.room.list.cache.requests", "result", "hit");
+        this.missCounter = meterRegistry.counter("chat.room.list.cache.requests", "result", "miss");
+        Gauge.builder("chat.room.list.cache.users", cache, Cache::estimatedSize)
+                .description("채팅방 목록을 보관 중인 사용자 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 사용자의 채팅방 목록을 조회한다.
+     * 캐시에 없으면 loader로 읽어 채우며, relay 모드에서는 항상 loader로 읽는다.
+     * @param userId 사용자 ID
+     * @param loader 캐시에 없을 때 채팅방 목록을 읽는 함수
+     * @return 채팅방 목록 (수정할 수 없는 목록, 안 읽은 메시지 수는 채워지지 않는다)
+     */
+    public List<ChatRoomDto> get(Long userId, Function<Long, List<ChatRoomDto>> loader) {
+        if (!enabled) {
+            return loader.apply(userId);
+        }
+        List<ChatRoomDto> rooms = cache.getIfPresent(userId);
+        if (rooms != null) {
+            hitCounter.increment();
+            return rooms;
+        }
+        missCounter.increment();
+        // 로딩 중에 들어온 무효화는 로딩이 끝난 뒤 적용되므로 오래된 목록이 남지 않는다
+        return cache.get(userId, key -> List.copyOf(loader.apply(key)));
+    }
+
+    /**
+     * 채팅방 참여자 전원의 채팅방 목록을 캐시에서 제거한다.
+     * 채팅방 이름이나 마지막 메시지처럼 목록에 보이는 채팅방 정보가 바뀌었을 때 호출한다.
+     * @param roomIds 정보가 바뀐 채팅방 ID 목록
+     */
+    public void evictRooms(Collection<Long> roomIds) {
+        if (!enabled) {
+            return;
+        }
+        List<Long> userIds = new ArrayList<>();
+        for (Long roomId : roomIds) {
+            for (long userId : roomMembershipRegistry.getMemberIds(roomId)) {
+                userIds.add(userId);
+            }
+        }
+        cache.invalidateAll(userIds);
+    }
+
+    /**
+     * 참여자 구성이 바뀐 채팅방의 기존 참여자와 참여하거나 퇴장한 사용자의 채팅방 목록을 제거한다.
+     * 롤백된 변경으로 목록을 지우지 않도록 트랜잭션 커밋 이후에 처리한다.
+     * @param event 참여자 변경 이벤트
+     */
+    @TransactionalEventListener
+    public void onMembershipChanged(RoomMembershipChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        // 참여자 레지스트리 반영 전후 어느 쪽이든 변경된 사용자는 이벤트에 담겨 있다
+        evictRooms(List.of(event.roomId()));
+        cache.invalidateAll(event.joinedUserIds());
+        cache.invalidateAll(event.leftUserIds());
+    }
+}
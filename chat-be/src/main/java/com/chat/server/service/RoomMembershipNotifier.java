@@ -0,0 +1,106 @@
+package com.chat.server.service;
+
+import com.chat.server.dto.ChatMessageDto;
+import com.chat.server.dto.UserDto;
+import com.chat.server.event.RoomMembershipChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 채팅방 참여자 변경을 참여자 레지스트리에 반영하고 채팅방 구독자에게 알리는 컴포넌트다.
+ * 참여자 변경 이벤트를 트랜잭션 커밋 이후에 받으므로 롤백된 변경은 반영하지도 알리지도 않는다.
+ * <p>
+ * 이벤트 하나당 JOIN 또는 LEAVE 메시지 하나만 보내며, 메시지에는 참여하거나 퇴장한 사용자 목록과 참여자 구성 버전만 담는다.
+ * 여러 명을 한 번에 초대해도 메시지는 하나이고, 클라이언트는 버전이 1씩 이어지면 해당 사용자만 목록에 더하거나 빼고
+ * 버전이 건너뛰면 전체 목록을 다시 조회한다. 채팅방 생성도 참여자 수와 관계없이 처음 참여자 전체를 담은 ROOM_CREATED 메시지 하나로 알린다.
+ * 참여자 구성 버전이 없는 relay 모드에서는 이전처럼 전체 참여자 목록을 함께 보낸다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomMembershipNotifier {
+
+    // 알림 문구에 이름을 나열할 최대 사용자 수
+    private static final int MAX_NAMED_MEMBERS = 3;
+
+    private final RoomMembershipRegistry roomMembershipRegistry;
+    private final UserProfileCache userProfileCache;
+    private final ChatService chatService;
+    private final ChatBroadcaster chatBroadcaster;
+
+    /**
+     * 참여자 변경을 레지스트리에 반영한 뒤, 채팅방이 생성되었으면 ROOM_CREATED 메시지를,
+     * 참여한 사용자가 있으면 JOIN 메시지를, 퇴장한 사용자가 있으면 LEAVE 메시지를 전송한다.
+     * 변경된 사용자 정보는 {@link UserProfileCache}에서 읽는다 (캐시에 없는 사용자만 한 번의 IN 조회).
+     * @param event 참여자 변경 이벤트
+     */
+    @TransactionalEventListener
+    public void onMembershipChanged(RoomMembershipChangedEvent event) {
+        RoomMembershipRegistry.Snapshot snapshot = roomMembershipRegistry.apply(event);
+        // relay 모드에서는 버전이 없으므로 전체 참여자 목록을 함께 보낸다
+        List<UserDto> participants = snapshot.version() == null ? chatService.getRoomParticipants(event.roomId()) : null;
+
+        if (event.roomCreated()) {
+            List<UserDto> members = findUsers(event.joinedUserIds());
+            broadcast(event.roomId(), ChatMessageDto.MessageType.ROOM_CREATED, members,
+                    "채팅방이 생성되었습니다. (참여자 " + members.size() + "명)", snapshot.version(), participants);
+        } else if (!event.joinedUserIds().isEmpty()) {
+            List<UserDto> joined = findUsers(event.joinedUserIds());
+            broadcast(event.roomId(), ChatMessageDto.MessageType.JOIN, joined,
+                    namesOf(joined) + "님이 채팅방에 참여했습니다.", snapshot.version(), participants);
+        }
+        if (!event.leftUserIds().isEmpty()) {
+            List<UserDto> left = findUsers(event.leftUserIds());
+            broadcast(event.roomId(), ChatMessageDto.MessageType.LEAVE, left,
+                    namesOf(left) + "님이 채팅방에서 나갔습니다.", snapshot.version(), participants);
+        }
+    }
+
+    /**
+     * 참여자 변경 알림 메시지를 채팅방 구독자에게 전송한다.
+     * 변경된 사용자가 한 명이면 발신자 필드에도 그 사용자를 담는다.
+     * @param roomId 채팅방 ID
+     * @param type JOIN, LEAVE 또는 ROOM_CREATED
+     * @param changedMembers 참여하거나 퇴장한 사용자 목록
+     * @param message 알림 문구
+     * @param membershipVersion 이 변경이 반영된 참여자 구성 버전 (relay 모드에서는 null)
+     * @param participants 현재 참여자 목록 (relay 모드에서만 전송)
+     */
+    private void broadcast(Long roomId, ChatMessageDto.MessageType type, List<UserDto> changedMembers, String message,
+                           Long membershipVersion, List<UserDto> participants) {
+        UserDto single = changedMembers.size() == 1 ? changedMembers.get(0) : null;
+        ChatMessageDto notification = ChatMessageDto.builder()
+            .type(type)
+            .roomId(roomId)
+            .senderId(single == null ? null : single.getUserId())
+            .senderNickname(single == null ? null : single.getUserNickname())
+            .message(message)
+            .createdAt(LocalDateTime.now())
+            .membershipVersion(membershipVersion)
+            .changedMembers(changedMembers)
+            .participants(participants)
+            .build();
+        chatBroadcaster.broadcastToRoom(roomId, notification);
+    }
+
+    private List<UserDto> findUsers(Set<Long> userIds) {
+        return userProfileCache.findAllById(userIds).values().stream()
+                .map(UserProfileCache.UserProfile::toDto)
+                .sorted(Comparator.comparing(UserDto::getUserId))
+                .toList();
+    }
+
+    private String namesOf(List<UserDto> users) {
+        String names = users.stream()
+                .limit(MAX_NAMED_MEMBERS)
+                .map(UserDto::getUserNickname)
+                .collect(Collectors.joining(", "));
+        return users.size() > MAX_NAMED_MEMBERS ? names + " 외 " + (users.size() - MAX_NAMED_MEMBERS) + "명" : names;
+    }
+}
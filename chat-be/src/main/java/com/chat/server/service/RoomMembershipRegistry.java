@@ -0,0 +1,217 @@
+package com.chat.server.service;
+
+import com.chat.server.event.RoomMembershipChangedEvent;
+import com.chat.server.repository.RoomParticipantsHistoryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 채팅방별 현재 참여자 ID를 메모리에 보관하는 레지스트리다.
+ * 참여자 알림과 메시지 발신자 확인은 데이터베이스 대신 이 레지스트리를 읽는다.
+ * <p>
+ * 채팅방마다 참여자 ID를 정렬된 long 배열로 보관하므로 참여자 한 명당 8바이트만 사용하고, 참여 여부는 이진 탐색으로 확인한다.
+ * 배열은 변경할 때마다 새로 만들어 교체(copy-on-write)하므로 읽는 쪽은 잠금 없이 항상 완전한 배열을 본다.
+ * 참여자 변경은 드물고 조회는 메시지마다 일어나므로, 변경 비용을 치르고 조회를 가볍게 만드는 쪽을 택했다.
+ * <p>
+ * 채팅방마다 참여자 구성 버전을 함께 보관한다. 참여자 변경 이벤트 하나(JOIN/LEAVE 메시지 하나)마다 1씩 증가하며,
+ * 클라이언트는 JOIN/LEAVE 메시지의 버전이 건너뛰었을 때만 전체 참여자 목록을 다시 조회한다.
+ * 버전은 레지스트리를 다시 만든 시각(ms × 1000)에서 시작하므로 서버가 재시작되어도 이전 버전보다 작아지지 않는다.
+ * <p>
+ * 애플리케이션 시작 시 데이터베이스의 활성 참여 기록으로 전체를 다시 만들고, 이후에는 {@link RoomMembershipNotifier}가
+ * 참여자 변경 이벤트를 커밋 이후에 반영한다.
+ * 이 서버에서 일어난 변경만 알 수 있으므로, 여러 서버가 외부 브로커를 공유하는 relay 모드에서는 사용하지 않고 매번 데이터베이스를 조회한다.
+ */
+@Slf4j
+@Component
+public class RoomMembershipRegistry implements SmartInitializingSingleton {
+
+    private static final String SELECT_ACTIVE_MEMBERSHIPS =
+            "SELECT room_id, user_id FROM room_participants_history WHERE quit_at IS NULL";
+    private static final long[] EMPTY = LongBuffer.EMPTY;
+
+    // 메모리 사용량 추정치 (64비트 JVM, 압축 포인터 기준): 맵 노드 + Long 키 + RoomMembers + 배열 헤더, 참여자당 8바이트
+    private static final long BYTES_PER_ROOM = 32 + 16 + 24 + 16;
+    private static final long BYTES_PER_MEMBER = Long.BYTES;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RoomParticipantsHistoryRepository participantsRepository;
+    private final boolean enabled;
+    private final Map<Long, RoomMembers> members = new ConcurrentHashMap<>();
+    private final AtomicLong memberCount = new AtomicLong();
+    private volatile long initialVersion = System.currentTimeMillis() * 1000;
+
+    public RoomMembershipRegistry(JdbcTemplate jdbcTemplate,
+                                  RoomParticipantsHistoryRepository participantsRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${chat.broker.mode:simple}") String brokerMode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.participantsRepository = participantsRepository;
+        this.enabled = !"relay".equalsIgnoreCase(brokerMode);
+        Gauge.builder("chat.membership.registry.rooms", members, Map::size)
+                .description("참여자 레지스트리에 보관 중인 채팅방 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.membership.registry.members", memberCount, AtomicLong::get)
+                .description("참여자 레지스트리에 보관 중인 참여자 수 (채팅방별 합계)")
+                .register(meterRegistry);
+        Gauge.builder("chat.membership.registry.memory", this, RoomMembershipRegistry::estimatedMemoryBytes)
+                .description("참여자 레지스트리의 추정 메모리 사용량")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 모든 빈이 만들어진 뒤, 웹 서버가 요청을 받기 전에 레지스트리를 채운다.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 데이터베이스의 활성 참여 기록으로 레지스트리 전체를 다시 만든다.
+     * 엔티티를 만들지 않고 (room_id, user_id) 두 컬럼만 읽어 채팅방별 배열로 모은 뒤 한 번에 교체한다.
+     */
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+        Map<Long, LongBuffer> loaded = new HashMap<>();
+        jdbcTemplate.query(SELECT_ACTIVE_MEMBERSHIPS, rs -> {
+            loaded.computeIfAbsent(rs.getLong(1), key -> new LongBuffer()).add(rs.getLong(2));
+        });
+
+        long version = System.currentTimeMillis() * 1000;
+        Map<Long, RoomMembers> rebuilt = new HashMap<>(loaded.size() * 2);
+        long total = 0;
+        for (Map.Entry<Long, LongBuffer> entry : loaded.entrySet()) {
+            long[] ids = entry.getValue().toSortedDistinctArray();
+            rebuilt.put(entry.getKey(), new RoomMembers(ids, version));
+            total += ids.length;
+        }
+        initialVersion = version;
+        members.clear();
+        members.putAll(rebuilt);
+        memberCount.set(total);
+        log.info("Room membership registry rebuilt: {} rooms, {} members, ~{} KiB in {} ms",
+                rebuilt.size(), total, estimatedMemoryBytes() / 1024, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * 채팅방의 현재 참여자 ID를 조회한다.
+     * @param roomId 채팅방 ID
+     * @return 참여자 ID 배열 (오름차순, 호출자가 수정해도 레지스트리에는 영향이 없다)
+     */
+    public long[] getMemberIds(Long roomId) {
+        if (!enabled) {
+            return toSortedDistinctArray(participantsRepository.findActiveUserIdsByRoomId(roomId));
+        }
+        RoomMembers current = members.get(roomId);
+        return current == null ? EMPTY : current.ids().clone();
+    }
+
+    /**
+     * 채팅방의 현재 참여자 ID와 참여자 구성 버전을 함께 조회한다.
+     * 두 값은 같은 시점의 상태이므로, 클라이언트는 이후 버전의 JOIN/LEAVE 메시지만 이어서 적용하면 된다.
+     * @param roomId 채팅방 ID
+     * @return 참여자 구성 (relay 모드에서는 버전이 null)
+     */
+    public Snapshot getSnapshot(Long roomId) {
+        if (!enabled) {
+            return new Snapshot(getMemberIds(roomId), null);
+        }
+        RoomMembers current = members.get(roomId);
+        return current == null ? new Snapshot(EMPTY, initialVersion) : new Snapshot(current.ids().clone(), current.version());
+    }
+
+    /**
+     * 사용자가 채팅방에 현재 참여 중인지 확인한다.
+     * @param roomId 채팅방 ID
+     * @param userId 사용자 ID
+     * @return 참여 중이면 true
+     */
+    public boolean isMember(Long roomId, Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        if (!enabled) {
+            return participantsRepository.existsByChatRoom_RoomIdAndUserBase_UserIdAndQuitAtIsNull(roomId, userId);
+        }
+        RoomMembers current = members.get(roomId);
+        return current != null && Arrays.binarySearch(current.ids(), userId) >= 0;
+    }
+
+    /**
+     * 레지스트리의 추정 메모리 사용량을 계산한다.
+     * @return 추정 사용량 (바이트)
+     */
+    public long estimatedMemoryBytes() {
+        return members.size() * BYTES_PER_ROOM + memberCount.get() * BYTES_PER_MEMBER;
+    }
+
+    /**
+     * 참여자 변경을 반영하고 반영된 뒤의 참여자 구성을 반환한다.
+     * 버전은 이벤트마다 1씩 증가하며, 같은 채팅방의 변경은 순서대로 하나씩 반영되므로 버전이 겹치지 않는다.
+     * 롤백된 참여가 남지 않도록 트랜잭션 커밋 이후에 호출해야 한다.
+     * @param event 참여자 변경 이벤트
+     * @return 반영된 뒤의 참여자 구성 (relay 모드에서는 데이터베이스에서 읽은 참여자와 null 버전)
+     */
+    public Snapshot apply(RoomMembershipChangedEvent event) {
+        if (!enabled) {
+            return getSnapshot(event.roomId());
+        }
+        RoomMembers applied = members.compute(event.roomId(), (roomId, current) -> {
+            long[] before = current == null ? EMPTY : current.ids();
+            long version = current == null ? initialVersion : current.version();
+            long[] after = apply(before, event.joinedUserIds(), event.leftUserIds());
+            memberCount.addAndGet(after.length - before.length);
+            // 모두 나간 채팅방도 버전이 처음으로 돌아가지 않도록 빈 배열로 남겨 둔다
+            return new RoomMembers(after, version + 1);
+        });
+        return new Snapshot(applied.ids().clone(), applied.version());
+    }
+
+    private static long[] apply(long[] current, Set<Long> joined, Set<Long> left) {
+        LongBuffer buffer = new LongBuffer();
+        for (long id : current) {
+            if (!left.contains(id)) {
+                buffer.add(id);
+            }
+        }
+        for (Long id : joined) {
+            buffer.add(id);
+        }
+        return buffer.toSortedDistinctArray();
+    }
+
+    private static long[] toSortedDistinctArray(Iterable<Long> ids) {
+        LongBuffer buffer = new LongBuffer();
+        ids.forEach(buffer::add);
+        return buffer.toSortedDistinctArray();
+    }
+
+    /**
+     * 채팅방의 참여자 구성이다.
+     * @param memberIds 현재 참여자 ID (오름차순)
+     * @param version 참여자 구성 버전 (relay 모드에서는 null)
+     */
+    public record Snapshot(long[] memberIds, Long version) {
+    }
+
+    /**
+     * 레지스트리 내부에 보관하는 채팅방별 참여자 구성이다. 배열은 교체만 하고 수정하지 않는다.
+     */
+    private record RoomMembers(long[] ids, long version) {
+    }
+}
@@ -0,0 +1,205 @@
+package com.chat.server.service;
+
+import com.chat.server.dto.TypingDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 입력 중 알림을 처리하는 컴포넌트다. 입력 중 알림은 저장하지 않고 채팅방 레인도 거치지 않는다.
+ * <p>
+ * (사용자, 채팅방)마다 마지막으로 알린 시각과 만료 시각만 메모리에 둔다.
+ * 클라이언트가 키 입력마다 보내더라도 throttle 간격 안의 이벤트는 만료 시각만 늘리고 버리므로,
+ * 사용자 한 명이 채팅방에 보내는 알림은 throttle 간격당 최대 하나다.
+ * ttl 동안 이벤트가 없으면 주기적인 정리에서 입력 종료를 알리고, 메시지를 보내면 알리지 않고 상태만 지운다.
+ * <p>
+ * 전송은 TALK와 다른 토픽(/topic/chat/room/{roomId}/typing)으로, 우선순위가 낮은 전용 스레드 하나에서 한다.
+ * 전송 대기열이 가득 차면 기다리지 않고 버리므로, 입력 중 알림이 몰려도 수신 스레드와 채팅방 레인은 막히지 않는다.
+ */
+@Slf4j
+@Component
+public class TypingIndicatorService implements SmartLifecycle {
+
+    private static final String ROOM_TOPIC_PREFIX = "/topic/chat/room/";
+    private static final String TYPING_TOPIC_SUFFIX = "/typing";
+
+    private final ChatBroadcaster chatBroadcaster;
+    private final RoomMembershipRegistry roomMembershipRegistry;
+    private final long throttleNanos;
+    private final long ttlNanos;
+    private final long sweepIntervalMillis;
+    private final ThreadPoolExecutor sender;
+    private final Counter throttledCounter;
+    private final Counter droppedCounter;
+
+    private final Map<TypingKey, TypingState> states = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private ScheduledExecutorService sweeper;
+
+    public TypingIndicatorService(ChatBroadcaster chatBroadcaster,
+                                  RoomMembershipRegistry roomMembershipRegistry,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${chat.typing.throttle-ms:2000}") long throttleMillis,
+                                  @Value("${chat.typing.ttl-ms:5000}") long ttlMillis,
+                                  @Value("${chat.typing.queue-capacity:1000}") int queueCapacity) {
+        this.chatBroadcaster = chatBroadcaster;
+        this.roomMembershipRegistry = roomMembershipRegistry;
+        this.throttleNanos = TimeUnit.MILLISECONDS.toNanos(throttleMillis);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.sweepIntervalMillis = Math.max(1, ttlMillis / 5);
+        this.throttledCounter = Counter.builder("chat.typing.throttled")
+                .description("throttle 간격 안이라 전송하지 않은 입력 중 이벤트 수")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("chat.typing.dropped")
+                .description("전송 대기열이 가득 차 버린 입력 중 알림 수")
+                .register(meterRegistry);
+        this.sender = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("chat-typing").priority(Thread.MIN_PRIORITY).daemon().factory(),
+                (task, executor) -> droppedCounter.increment());
+        Gauge.builder("chat.typing.active", states, Map::size)
+                .description("입력 중인 (사용자, 채팅방) 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 사용자가 채팅방에서 입력 중이거나 입력을 멈췄음을 반영한다.
+     * 입력 중이면 처음이거나 throttle 간격이 지났을 때만 알리고, 멈췄으면 입력 중으로 알렸던 경우에만 종료를 알린다.
+     * 채팅방 참여자가 아닌 사용자의 이벤트는 무시한다.
+     * @param roomId 채팅방 ID
+     * @param userId 사용자 ID
+     * @param typing 입력 중 여부
+     */
+    public void update(Long roomId, Long userId, boolean typing) {
+        TypingKey key = new TypingKey(roomId, userId);
+        if (!typing) {
+            if (states.remove(key) != null) {
+                publish(roomId, userId, false);
+            }
+            return;
+        }
+        if (!states.containsKey(key) && !roomMembershipRegistry.isMember(roomId, userId)) {
+            return;
+        }
+        long now = System.nanoTime();
+        boolean[] notify = new boolean[1];
+        states.compute(key, (k, state) -> {
+            if (state == null) {
+                notify[0] = true;
+                return new TypingState(now, now + ttlNanos);
+            }
+            state.expiresAt = now + ttlNanos;
+            if (now - state.lastSentAt >= throttleNanos) {
+                state.lastSentAt = now;
+                notify[0] = true;
+            }
+            return state;
+        });
+        if (notify[0]) {
+            publish(roomId, userId, true);
+        } else {
+            throttledCounter.increment();
+        }
+    }
+
+    /**
+     * 사용자가 메시지를 보냈으므로 입력 중 상태를 지운다.
+     * 메시지 자체가 입력이 끝났음을 알리므로 종료 알림은 보내지 않는다.
+     * @param roomId 채팅방 ID
+     * @param userId 사용자 ID
+     */
+    public void clear(Long roomId, Long userId) {
+        states.remove(new TypingKey(roomId, userId));
+    }
+
+    /**
+     * ttl 동안 이벤트가 없었던 입력 중 상태를 지우고 입력 종료를 알린다.
+     * @return 만료된 입력 중 상태 수
+     */
+    public int expireIdle() {
+        long now = System.nanoTime();
+        int expired = 0;
+        for (Map.Entry<TypingKey, TypingState> entry : states.entrySet()) {
+            TypingState state = entry.getValue();
+            if (now - state.expiresAt > 0 && states.remove(entry.getKey(), state)) {
+                publish(entry.getKey().roomId(), entry.getKey().userId(), false);
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    private void publish(Long roomId, Long userId, boolean typing) {
+        sender.execute(() -> {
+            try {
+                chatBroadcaster.send(ROOM_TOPIC_PREFIX + roomId + TYPING_TOPIC_SUFFIX,
+                        chatBroadcaster.encode(new TypingDto(roomId, userId, typing)));
+            } catch (RuntimeException e) {
+                log.warn("Failed to send typing indicator for room {}", roomId, e);
+            }
+        });
+    }
+
+    private void expireSafely() {
+        try {
+            expireIdle();
+        } catch (RuntimeException e) {
+            log.error("Failed to expire typing indicators", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        sweeper = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("chat-typing-sweeper").daemon().factory());
+        sweeper.scheduleWithFixedDelay(this::expireSafely, sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Typing indicators started (throttleMs={}, ttlMs={})",
+                TimeUnit.NANOSECONDS.toMillis(throttleNanos), TimeUnit.NANOSECONDS.toMillis(ttlNanos));
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        // 입력 중 알림은 남은 것을 보낼 필요가 없다
+        sender.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private record TypingKey(Long roomId, Long userId) {
+    }
+
+    /**
+     * (사용자, 채팅방)의 입력 중 상태다. 마지막으로 알린 시각과 만료 시각(System.nanoTime 기준)을 둔다.
+     */
+    private static final class TypingState {
+        private volatile long lastSentAt;
+        private volatile long expiresAt;
+
+        private TypingState(long lastSentAt, long expiresAt) {
+            this.lastSentAt = lastSentAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
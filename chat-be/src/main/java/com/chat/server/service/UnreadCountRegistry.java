@@ -0,0 +1,551 @@
+package com.chat.server.service;
+
+import com.chat.server.domain.id.SnowflakeIdGenerator;
+import com.chat.server.event.RoomMembershipChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 사용자별 채팅방의 안 읽은 메시지 수를 관리하는 레지스트리다.
+ * <p>
+ * 채팅방마다 메시지 순번을 하나 두고, 사용자마다 채팅방별로 마지막으로 읽은 순번을 둔다.
+ * 안 읽은 메시지 수는 두 순번의 차이이므로, 메시지를 받을 때 참여자 수와 관계없이 채팅방 순번 하나만 올리면 된다.
+ * 메시지를 보낸 사용자는 그 메시지까지 읽은 것으로 본다.
+ * <p>
+ * 두 순번은 메모리에서 관리하고, flush-interval마다 채팅방별로 모은 순번 증가분(chat_room.message_seq)과
+ * 읽음 위치가 바뀐 (사용자, 채팅방)의 마지막으로 읽은 메시지 ID와 순번(room_read_marker)을 한 트랜잭션의 JDBC 배치로 저장한다.
+ * 애플리케이션 시작 시에는 메시지를 세지 않고 저장된 두 순번으로 다시 만든다.
+ * <p>
+ * 이 서버에서 처리한 메시지만 알 수 있으므로 relay 모드에서는 메모리를 사용하지 않고 순번을 데이터베이스에서 읽는다.
+ * 참여, 메시지, 읽음은 모두 모아 두었다가 같은 주기에 참여, 메시지, 읽음 순서로 저장하고, 읽은 순번은 저장할 때의
+ * 채팅방 순번을 SQL로 읽어 넣으므로 호출한 스레드에서는 데이터베이스를 조회하지 않는다.
+ * 다른 서버가 받은 메시지는 그 서버의 다음 주기에 반영된다.
+ */
+@Slf4j
+@Component
+public class UnreadCountRegistry implements SmartInitializingSingleton, SmartLifecycle {
+
+    private static final String SELECT_ROOM_SEQUENCES =
+            "SELECT room_id, message_seq, COALESCE(last_message_id, 0) FROM chat_room";
+    private static final String SELECT_READ_SEQUENCES =
+            "SELECT p.user_id, p.room_id, COALESCE(r.last_read_message_id, c.last_message_id, 0), "
+                    + "COALESCE(r.read_message_seq, c.message_seq) "
+                    + "FROM room_participants_history p "
+                    + "JOIN chat_room c ON c.room_id = p.room_id "
+                    + "LEFT JOIN room_read_marker r ON r.user_id = p.user_id AND r.room_id = p.room_id "
+                    + "WHERE p.quit_at IS NULL";
+    private static final String SELECT_USER_READ_SEQUENCES =
+            "SELECT p.room_id, c.message_seq, COALESCE(r.read_message_seq, c.message_seq) "
+                    + "FROM room_participants_history p "
+                    + "JOIN chat_room c ON c.room_id = p.room_id "
+                    + "LEFT JOIN room_read_marker r ON r.user_id = p.user_id AND r.room_id = p.room_id "
+                    + "WHERE p.quit_at IS NULL AND p.user_id = ?";
+    private static final String SELECT_ROOM_MARKERS =
+            "SELECT r.user_id, r.last_read_message_id FROM room_read_marker r "
+                    + "JOIN room_participants_history p ON p.user_id = r.user_id AND p.room_id = r.room_id AND p.quit_at IS NULL "
+                    + "WHERE r.room_id = ?";
+    private static final String INCREMENT_ROOM_SEQUENCE =
+            "UPDATE chat_room SET message_seq = message_seq + ? WHERE room_id = ?";
+    private static final String DELETE_MARKER = "DELETE FROM room_read_marker WHERE user_id = ? AND room_id = ?";
+    private static final String INSERT_MARKER =
+            "INSERT INTO room_read_marker (user_id, room_id, last_read_message_id, read_message_seq, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_MARKER_AT_ROOM_SEQUENCE =
+            "INSERT INTO room_read_marker (user_id, room_id, last_read_message_id, read_message_seq, updated_at) "
+                    + "SELECT ?, room_id, GREATEST(?, COALESCE(last_message_id, 0)), message_seq, ? FROM chat_room WHERE room_id = ?";
+    // 모두 읽었거나 채팅방의 마지막 메시지 이상을 읽었으면 읽은 순번을 채팅방 순번으로 옮기고, 아니면 메시지 ID만 앞으로 옮긴다
+    private static final String UPDATE_MARKER_READ =
+            "UPDATE room_read_marker SET "
+                    + "read_message_seq = CASE WHEN ? = 1 OR ? >= (SELECT COALESCE(last_message_id, 0) FROM chat_room WHERE room_id = ?) "
+                    + "THEN (SELECT message_seq FROM chat_room WHERE room_id = ?) ELSE read_message_seq END, "
+                    + "last_read_message_id = GREATEST(last_read_message_id, ?, "
+                    + "CASE WHEN ? = 1 THEN (SELECT COALESCE(last_message_id, 0) FROM chat_room WHERE room_id = ?) ELSE 0 END), "
+                    + "updated_at = ? "
+                    + "WHERE user_id = ? AND room_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+
+    private final Map<Long, RoomSequence> rooms = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, ReadMarker>> markers = new ConcurrentHashMap<>();
+    private final Set<MarkerKey> dirtyMarkers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> pendingMessages = new ConcurrentHashMap<>();
+
+    // relay 모드에서 다음 주기에 저장할 참여와 읽음
+    private final Set<MarkerKey> pendingJoins = ConcurrentHashMap.newKeySet();
+    private final Map<MarkerKey, PendingRead> pendingReads = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public UnreadCountRegistry(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${chat.broker.mode:simple}") String brokerMode,
+                               @Value("${chat.unread.batch-size:500}") int batchSize,
+                               @Value("${chat.unread.flush-interval-ms:1000}") long flushIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = !"relay".equalsIgnoreCase(brokerMode);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        Gauge.builder("chat.unread.pending.markers", this, registry -> registry.dirtyMarkers.size() + registry.pendingReads.size())
+                .description("저장 대기 중인 읽음 위치 수")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 저장된 채팅방 순번과 읽은 순번으로 안 읽은 메시지 수를 다시 만든다.
+     * 메시지 테이블은 읽지 않으며, 읽음 위치가 없는 참여자는 안 읽은 메시지가 없는 것으로 둔다.
+     */
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+        Map<Long, RoomSequence> rebuiltRooms = new HashMap<>();
+        jdbcTemplate.query(SELECT_ROOM_SEQUENCES, rs -> {
+            RoomSequence room = new RoomSequence(rs.getLong(3));
+            room.sequence = rs.getLong(2);
+            rebuiltRooms.put(rs.getLong(1), room);
+        });
+        Map<Long, Map<Long, ReadMarker>> rebuiltMarkers = new HashMap<>();
+        long[] total = new long[2];
+        jdbcTemplate.query(SELECT_READ_SEQUENCES, rs -> {
+            long roomId = rs.getLong(2);
+            long readSequence = rs.getLong(4);
+            rebuiltMarkers.computeIfAbsent(rs.getLong(1), key -> new ConcurrentHashMap<>())
+                    .put(roomId, new ReadMarker(readSequence, rs.getLong(3)));
+            RoomSequence room = rebuiltRooms.get(roomId);
+            total[0]++;
+            total[1] += room == null ? 0 : Math.max(0, room.sequence - readSequence);
+        });
+        rooms.clear();
+        rooms.putAll(rebuiltRooms);
+        markers.clear();
+        markers.putAll(rebuiltMarkers);
+        log.info("Unread counts rebuilt: {} markers, {} unread messages in {} ms",
+                total[0], total[1], (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * 채팅방에 메시지가 추가되었음을 반영한다.
+     * 채팅방 순번만 올리고, 보낸 사용자는 이 메시지까지 읽은 것으로 처리한다.
+     * 같은 채팅방의 메시지는 채팅방 레인에서 순서대로 호출된다.
+     * @param roomId 채팅방 ID
+     * @param senderId 보낸 사용자 ID
+     * @param messageId 메시지 ID
+     */
+    public void onMessage(Long roomId, Long senderId, Long messageId) {
+        pendingMessages.merge(roomId, 1L, Long::sum);
+        if (!enabled) {
+            pendingReads.merge(new MarkerKey(senderId, roomId), new PendingRead(messageId != null ? messageId : 0L, true),
+                    PendingRead::merge);
+            return;
+        }
+        RoomSequence room = rooms.computeIfAbsent(roomId, key -> new RoomSequence(0));
+        synchronized (room) {
+            room.sequence++;
+            if (messageId != null && messageId > room.lastMessageId) {
+                room.lastMessageId = messageId;
+            }
+        }
+        markRead(senderId, roomId);
+    }
+
+    /**
+     * 사용자가 채팅방의 현재까지 메시지를 모두 읽은 것으로 처리한다.
+     * @param userId 사용자 ID
+     * @param roomId 채팅방 ID
+     */
+    public void markRead(Long userId, Long roomId) {
+        if (!enabled) {
+            pendingReads.merge(new MarkerKey(userId, roomId), new PendingRead(0L, true), PendingRead::merge);
+            return;
+        }
+        RoomSequence room = rooms.computeIfAbsent(roomId, key -> new RoomSequence(0));
+        long sequence;
+        long lastMessageId;
+        synchronized (room) {
+            sequence = room.sequence;
+            lastMessageId = room.lastMessageId;
+        }
+        ReadMarker marker = markers.computeIfAbsent(userId, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(roomId, key -> new ReadMarker(sequence, lastMessageId));
+        marker.readSequence = sequence;
+        marker.lastReadMessageId = lastMessageId;
+        dirtyMarkers.add(new MarkerKey(userId, roomId));
+    }
+
+    /**
+     * 사용자가 채팅방에서 지정한 메시지까지 읽었음을 반영한다. (클라이언트가 보낸 읽음 확인의 최고 메시지 ID)
+     * 채팅방의 마지막 메시지 이상이면 모두 읽은 것으로 처리하고, 그보다 이전이면 마지막으로 읽은 메시지 ID만 앞으로 옮긴다.
+     * 메시지 ID별 순번은 보관하지 않으므로, 이 경우 안 읽은 메시지 수는 마지막 메시지까지 읽을 때 줄어든다.
+     * 이미 더 뒤의 메시지까지 읽은 경우에는 아무것도 바꾸지 않는다.
+     * @param userId 사용자 ID
+     * @param roomId 채팅방 ID
+     * @param messageId 읽은 메시지 중 가장 최신 메시지 ID
+     */
+    public void markRead(Long userId, Long roomId, long messageId) {
+        if (!enabled) {
+            pendingReads.merge(new MarkerKey(userId, roomId), new PendingRead(messageId, false), PendingRead::merge);
+            return;
+        }
+        RoomSequence room = rooms.computeIfAbsent(roomId, key -> new RoomSequence(0));
+        long lastMessageId;
+        synchronized (room) {
+            lastMessageId = room.lastMessageId;
+        }
+        if (messageId >= lastMessageId) {
+            markRead(userId, roomId);
+            return;
+        }
+        ReadMarker marker = markers.getOrDefault(userId, Map.of()).get(roomId);
+        if (marker != null && messageId > marker.lastReadMessageId) {
+            marker.lastReadMessageId = messageId;
+            dirtyMarkers.add(new MarkerKey(userId, roomId));
+        }
+    }
+
+    /**
+     * 채팅방의 마지막 메시지 ID를 조회한다. 클라이언트가 보낸 메시지 ID를 이 값 이하로 제한할 때 사용한다.
+     * relay 모드에서는 다른 서버가 받은 메시지를 알 수 없으므로, 지금까지 발급될 수 있었던 가장 큰 메시지 ID를 반환한다.
+     * @param roomId 채팅방 ID
+     * @return 마지막 메시지 ID (메시지가 없으면 0)
+     */
+    public long lastMessageId(Long roomId) {
+        if (!enabled) {
+            return SnowflakeIdGenerator.minIdAt(Instant.now().plusMillis(1)) - 1;
+        }
+        RoomSequence room = rooms.get(roomId);
+        if (room == null) {
+            return 0L;
+        }
+        synchronized (room) {
+            return room.lastMessageId;
+        }
+    }
+
+    /**
+     * 채팅방 참여자별로 마지막으로 읽은 메시지 ID를 조회한다.
+     * @param roomId 채팅방 ID
+     * @param memberIds 채팅방 참여자 ID
+     * @return 사용자 ID별 마지막으로 읽은 메시지 ID (읽음 위치가 없는 참여자는 빠진다)
+     */
+    public Map<Long, Long> getReadWatermarks(Long roomId, long[] memberIds) {
+        Map<Long, Long> watermarks = new HashMap<>();
+        if (!enabled) {
+            jdbcTemplate.query(SELECT_ROOM_MARKERS, rs -> {
+                watermarks.put(rs.getLong(1), rs.getLong(2));
+            }, roomId);
+            return watermarks;
+        }
+        for (long memberId : memberIds) {
+            ReadMarker marker = markers.getOrDefault(memberId, Map.of()).get(roomId);
+            if (marker != null) {
+                watermarks.put(memberId, marker.lastReadMessageId);
+            }
+        }
+        return watermarks;
+    }
+
+    /**
+     * 사용자의 채팅방별 안 읽은 메시지 수를 조회한다.
+     * 사용자가 참여 중인 채팅방 수만큼 메모리를 읽는다. (relay 모드에서는 채팅방당 한 행을 읽는 쿼리 하나)
+     * @param userId 사용자 ID
+     * @return 채팅방 ID별 안 읽은 메시지 수 (안 읽은 메시지가 없는 채팅방은 없을 수 있다)
+     */
+    public Map<Long, Long> getUnreadCounts(Long userId) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (!enabled) {
+            jdbcTemplate.query(SELECT_USER_READ_SEQUENCES, rs -> {
+                counts.put(rs.getLong(1), Math.max(0, rs.getLong(2) - rs.getLong(3)));
+            }, userId);
+            return counts;
+        }
+        markers.getOrDefault(userId, Map.of()).forEach((roomId, marker) -> {
+            RoomSequence room = rooms.get(roomId);
+            long unread = room == null ? 0 : room.sequence - marker.readSequence;
+            counts.put(roomId, Math.max(0, unread));
+        });
+        return counts;
+    }
+
+    /**
+     * 참여자 변경을 읽음 위치에 반영한다.
+     * 새로 참여한 사용자는 참여 시점까지 읽은 것으로 두고, 나간 사용자의 읽음 위치는 메모리에서 지운다.
+     * relay 모드에서는 새로 참여한 사용자의 읽음 위치를 다음 주기에 그때의 채팅방 순번으로 저장한다.
+     * @param event 참여자 변경 이벤트
+     */
+    @TransactionalEventListener
+    public void onMembershipChanged(RoomMembershipChangedEvent event) {
+        if (!enabled) {
+            event.joinedUserIds().forEach(userId -> pendingJoins.add(new MarkerKey(userId, event.roomId())));
+            return;
+        }
+        event.joinedUserIds().forEach(userId -> markRead(userId, event.roomId()));
+        event.leftUserIds().forEach(userId -> {
+            Map<Long, ReadMarker> userMarkers = markers.get(userId);
+            if (userMarkers != null) {
+                userMarkers.remove(event.roomId());
+            }
+        });
+    }
+
+    /**
+     * 모아 둔 채팅방 순번 증가분과 바뀐 읽음 위치를 한 트랜잭션의 JDBC 배치로 저장한다.
+     * 참여한 사용자는 이번 주기의 메시지보다 먼저, 읽은 사용자는 나중에 채팅방 순번을 읽어 간다.
+     * 저장에 실패하면 다음 주기에 다시 저장하도록 변경 목록에 되돌린다.
+     * @return 저장한 채팅방 순번과 읽음 위치 수
+     */
+    public synchronized int flush() {
+        List<MarkerKey> joins = new ArrayList<>();
+        for (MarkerKey key : pendingJoins) {
+            if (pendingJoins.remove(key)) {
+                joins.add(key);
+            }
+        }
+        List<Map.Entry<Long, Long>> increments = new ArrayList<>();
+        for (Long roomId : pendingMessages.keySet()) {
+            Long count = pendingMessages.remove(roomId);
+            if (count != null) {
+                increments.add(Map.entry(roomId, count));
+            }
+        }
+        List<MarkerKey> keys = new ArrayList<>();
+        List<MarkerRow> rows = new ArrayList<>();
+        Iterator<MarkerKey> iterator = dirtyMarkers.iterator();
+        while (iterator.hasNext()) {
+            MarkerKey key = iterator.next();
+            iterator.remove();
+            ReadMarker marker = markers.getOrDefault(key.userId(), Map.of()).get(key.roomId());
+            if (marker != null) {
+                keys.add(key);
+                rows.add(new MarkerRow(key.userId(), key.roomId(), marker.lastReadMessageId, marker.readSequence));
+            }
+        }
+        List<Map.Entry<MarkerKey, PendingRead>> reads = new ArrayList<>();
+        for (MarkerKey key : pendingReads.keySet()) {
+            PendingRead read = pendingReads.remove(key);
+            if (read != null) {
+                reads.add(Map.entry(key, read));
+            }
+        }
+        if (joins.isEmpty() && increments.isEmpty() && rows.isEmpty() && reads.isEmpty()) {
+            return 0;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                saveAtRoomSequence(joins.stream().map(key -> Map.entry(key, 0L)).toList());
+                jdbcTemplate.batchUpdate(INCREMENT_ROOM_SEQUENCE, increments, batchSize, (ps, row) -> {
+                    ps.setLong(1, row.getValue());
+                    ps.setLong(2, row.getKey());
+                });
+                save(rows);
+                saveReads(reads);
+            });
+        } catch (RuntimeException e) {
+            pendingJoins.addAll(joins);
+            increments.forEach(row -> pendingMessages.merge(row.getKey(), row.getValue(), Long::sum));
+            dirtyMarkers.addAll(keys);
+            reads.forEach(row -> pendingReads.merge(row.getKey(), row.getValue(), PendingRead::merge));
+            throw e;
+        }
+        return increments.size() + joins.size() + rows.size() + reads.size();
+    }
+
+    /**
+     * 메모리의 읽음 위치를 지우고 다시 넣는 방식으로 저장한다. (H2와 MariaDB에서 같은 SQL로 동작하는 upsert)
+     */
+    private void save(List<MarkerRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(DELETE_MARKER, rows, batchSize, (ps, row) -> {
+            ps.setLong(1, row.userId());
+            ps.setLong(2, row.roomId());
+        });
+        jdbcTemplate.batchUpdate(INSERT_MARKER, rows, batchSize, (ps, row) -> {
+            ps.setLong(1, row.userId());
+            ps.setLong(2, row.roomId());
+            ps.setLong(3, row.lastReadMessageId());
+            ps.setLong(4, row.readSequence());
+            ps.setTimestamp(5, now);
+        });
+    }
+
+    /**
+     * relay 모드의 읽음을 저장한다. 읽음 위치가 있으면 그 자리에서 옮기고, 없는 사용자는 채팅방의 현재 순번으로 새로 넣는다.
+     */
+    private void saveReads(List<Map.Entry<MarkerKey, PendingRead>> reads) {
+        if (reads.isEmpty()) {
+            return;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_MARKER_READ, reads, batchSize, (ps, row) -> {
+            PendingRead read = row.getValue();
+            long roomId = row.getKey().roomId();
+            ps.setInt(1, read.all() ? 1 : 0);
+            ps.setLong(2, read.messageId());
+            ps.setLong(3, roomId);
+            ps.setLong(4, roomId);
+            ps.setLong(5, read.messageId());
+            ps.setInt(6, read.all() ? 1 : 0);
+            ps.setLong(7, roomId);
+            ps.setTimestamp(8, now);
+            ps.setLong(9, row.getKey().userId());
+            ps.setLong(10, roomId);
+        });
+        List<Map.Entry<MarkerKey, Long>> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                Map.Entry<MarkerKey, PendingRead> row = reads.get(index++);
+                if (count == 0) {
+                    missing.add(Map.entry(row.getKey(), row.getValue().messageId()));
+                }
+            }
+        }
+        saveAtRoomSequence(missing);
+    }
+
+    /**
+     * 읽음 위치를 지우고, 채팅방의 현재 순번과 마지막 메시지 ID로 다시 넣는다.
+     */
+    private void saveAtRoomSequence(List<Map.Entry<MarkerKey, Long>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(DELETE_MARKER, rows, batchSize, (ps, row) -> {
+            ps.setLong(1, row.getKey().userId());
+            ps.setLong(2, row.getKey().roomId());
+        });
+        jdbcTemplate.batchUpdate(INSERT_MARKER_AT_ROOM_SEQUENCE, rows, batchSize, (ps, row) -> {
+            ps.setLong(1, row.getKey().userId());
+            ps.setLong(2, row.getValue());
+            ps.setTimestamp(3, now);
+            ps.setLong(4, row.getKey().roomId());
+        });
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush read markers, will retry", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("chat-unread-flusher").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Unread count flusher started (flushIntervalMs={})", flushIntervalMillis);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(flushIntervalMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 종료 전에 남은 읽음 위치를 저장한다
+        flushSafely();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * WebSocket 처리 빈들이 먼저 멈춘 뒤에 남은 읽음 위치를 저장하도록 기본 phase보다 늦게 종료한다.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1024;
+    }
+
+    /**
+     * 채팅방의 메시지 순번과 마지막 메시지 ID다. 채팅방 객체로 동기화한다.
+     */
+    private static final class RoomSequence {
+        private volatile long sequence;
+        private long lastMessageId;
+
+        private RoomSequence(long lastMessageId) {
+            this.lastMessageId = lastMessageId;
+        }
+    }
+
+    /**
+     * 사용자의 채팅방별 읽음 위치다.
+     */
+    private static final class ReadMarker {
+        private volatile long readSequence;
+        private volatile long lastReadMessageId;
+
+        private ReadMarker(long readSequence, long lastReadMessageId) {
+            this.readSequence = readSequence;
+            this.lastReadMessageId = lastReadMessageId;
+        }
+    }
+
+    private record MarkerKey(long userId, long roomId) {
+    }
+
+    private record MarkerRow(long userId, long roomId, long lastReadMessageId, long readSequence) {
+    }
+
+    /**
+     * relay 모드에서 저장을 기다리는 읽음이다.
+     * @param messageId 읽은 메시지 중 가장 최신 메시지 ID
+     * @param all 채팅방의 현재까지 메시지를 모두 읽었는지 여부
+     */
+    private record PendingRead(long messageId, boolean all) {
+
+        private static PendingRead merge(PendingRead a, PendingRead b) {
+            return new PendingRead(Math.max(a.messageId, b.messageId), a.all || b.all);
+        }
+    }
+}
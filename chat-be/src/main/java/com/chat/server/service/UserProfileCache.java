@@ -0,0 +1,227 @@
+package com.chat.server.service;
+
+import com.chat.server.domain.UserBase;
+import com.chat.server.dto.UserDto;
+import com.chat.server.event.UserProfileChangedEvent;
+import com.chat.server.repository.UserBaseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 사용자 프로필을 사용자 ID와 닉네임으로 찾을 수 있도록 메모리에 보관하는 캐시다.
+ * 채팅방 생성, 초대, 참여자 조회, 친구 목록처럼 사용자 정보를 자주 읽는 곳에서 데이터베이스 대신 사용한다.
+ * <p>
+ * 엔티티 대신 ID, 닉네임, 프로필 이미지만 담은 {@link UserProfile}을 보관하고, 크기 제한에 따라 오래 쓰지 않은 사용자부터 제거한다.
+ * 닉네임 색인은 닉네임 → 사용자 ID만 두며, 찾은 프로필의 닉네임이 요청한 닉네임과 다르면 캐시에 없는 것으로 보고 다시 읽는다.
+ * 따라서 색인이 지워지지 않고 남아 있어도 다른 사용자의 프로필을 돌려주지 않는다.
+ * <p>
+ * 여러 명을 한 번에 찾을 때는 캐시에 없는 사용자만 한 번의 IN 조회로 읽는다.
+ * 프로필 변경과 삭제는 커밋 이후 {@link UserProfileChangedEvent}로 무효화하며,
+ * 무효화와 캐시 채우기는 같은 잠금 안에서 세대 번호로 비교하므로 무효화 전에 읽은 프로필이 무효화 뒤에 다시 들어가지 않는다.
+ * 다른 서버의 변경은 알 수 없으므로 relay 모드에서는 사용하지 않는다.
+ */
+@Component
+public class UserProfileCache {
+
+    private final UserBaseRepository userBaseRepository;
+    private final boolean enabled;
+    private final Cache<Long, UserProfile> profiles;
+    private final Cache<String, Long> userIdsByNickname;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    // 무효화할 때마다 증가하며, 읽기 시작한 뒤 무효화가 있었으면 읽은 프로필을 캐시에 넣지 않는다 (this로 잠금)
+    private long generation;
+
+    public UserProfileCache(UserBaseRepository userBaseRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${chat.broker.mode:simple}") String brokerMode,
+                            @Value("${chat.cache.user-profile.max-size:100000}") long maxSize,
+                            @Value("${chat.cache.user-profile.expire-after-access-minutes:30}") long expireAfterAccessMinutes) {
+        this.userBaseRepository = userBaseRepository;
+        this.enabled = !"relay".equalsIgnoreCase(brokerMode);
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+                .build();
+        this.userIdsByNickname = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+                .build();
+        this.hitCounter = meterRegistry.counter("chat.user.profile.cache.requests", "result", "hit");
+        this.missCounter = meterRegistry.counter("chat.user.profile.cache.requests", "result", "miss");
+        Gauge.builder("chat.user.profile.cache.size", profiles, Cache::estimatedSize)
+                .description("캐시에 보관 중인 사용자 프로필 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 사용자 ID로 프로필을 조회한다.
+     * @param userId 사용자 ID
+     * @return 사용자 프로필 (사용자가 없으면 empty)
+     */
+    public Optional<UserProfile> findById(Long userId) {
+        return Optional.ofNullable(findAllById(List.of(userId)).get(userId));
+    }
+
+    /**
+     * 여러 사용자의 프로필을 조회한다.
+     * 캐시에 없는 사용자만 한 번의 IN 조회로 읽는다.
+     * @param userIds 사용자 ID 목록
+     * @return 사용자 ID → 프로필 (없는 사용자는 제외)
+     */
+    public Map<Long, UserProfile> findAllById(Collection<Long> userIds) {
+        Map<Long, UserProfile> found = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long userId : userIds) {
+            UserProfile profile = enabled ? profiles.getIfPresent(userId) : null;
+            if (profile != null) {
+                found.put(userId, profile);
+            } else {
+                missing.add(userId);
+            }
+        }
+        record(found.size(), missing.size());
+        if (!missing.isEmpty()) {
+            long observed = currentGeneration();
+            List<UserProfile> loaded = userBaseRepository.findAllById(missing).stream()
+                    .map(UserProfile::fromEntity)
+                    .toList();
+            cacheAll(observed, loaded);
+            loaded.forEach(profile -> found.put(profile.userId(), profile));
+        }
+        return found;
+    }
+
+    /**
+     * 닉네임으로 프로필을 조회한다.
+     * @param nickname 닉네임
+     * @return 사용자 프로필 (사용자가 없으면 empty)
+     */
+    public Optional<UserProfile> findByNickname(String nickname) {
+        List<UserProfile> found = findAllByNickname(List.of(nickname));
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+    }
+
+    /**
+     * 여러 닉네임의 프로필을 조회한다.
+     * 캐시에 없는 닉네임만 한 번의 IN 조회로 읽는다.
+     * @param nicknames 닉네임 목록
+     * @return 찾은 프로필 목록 (없는 닉네임은 제외되며 순서는 보장하지 않는다)
+     */
+    public List<UserProfile> findAllByNickname(Collection<String> nicknames) {
+        List<UserProfile> found = new ArrayList<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String nickname : nicknames) {
+            UserProfile profile = enabled ? cachedByNickname(nickname) : null;
+            if (profile != null) {
+                found.add(profile);
+            } else {
+                missing.add(nickname);
+            }
+        }
+        record(found.size(), missing.size());
+        if (!missing.isEmpty()) {
+            long observed = currentGeneration();
+            List<UserProfile> loaded = userBaseRepository.findByUserNicknameIn(missing).stream()
+                    .map(UserProfile::fromEntity)
+                    .toList();
+            cacheAll(observed, loaded);
+            found.addAll(loaded);
+        }
+        return found;
+    }
+
+    /**
+     * 사용자의 프로필과 닉네임 색인을 함께 제거한다.
+     * @param userId 제거할 사용자 ID
+     */
+    public synchronized void evict(Long userId) {
+        generation++;
+        UserProfile profile = profiles.getIfPresent(userId);
+        profiles.invalidate(userId);
+        if (profile != null) {
+            userIdsByNickname.invalidate(profile.userNickname());
+        }
+    }
+
+    /**
+     * 프로필이 바뀌거나 삭제된 사용자를 캐시에서 제거한다.
+     * 커밋 이전 값을 다시 읽어 넣지 않도록 트랜잭션 커밋 이후에 처리한다.
+     * @param event 사용자 프로필 변경 이벤트
+     */
+    @TransactionalEventListener
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        evict(event.userId());
+    }
+
+    private UserProfile cachedByNickname(String nickname) {
+        Long userId = userIdsByNickname.getIfPresent(nickname);
+        UserProfile profile = userId == null ? null : profiles.getIfPresent(userId);
+        // 닉네임이 바뀐 뒤 남은 색인은 무시한다
+        return profile != null && profile.userNickname().equals(nickname) ? profile : null;
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private synchronized void cacheAll(long observedGeneration, List<UserProfile> loaded) {
+        if (!enabled || observedGeneration != generation) {
+            return;
+        }
+        for (UserProfile profile : loaded) {
+            profiles.put(profile.userId(), profile);
+            userIdsByNickname.put(profile.userNickname(), profile.userId());
+        }
+    }
+
+    private void record(int hits, int misses) {
+        if (!enabled) {
+            return;
+        }
+        hitCounter.increment(hits);
+        missCounter.increment(misses);
+    }
+
+    /**
+     * 캐시에 보관하는 사용자 프로필이다.
+     * @param userId 사용자 ID
+     * @param userNickname 닉네임
+     * @param profileImgUrl 프로필 이미지 URL
+     */
+    public record UserProfile(Long userId, String userNickname, String profileImgUrl) {
+
+        private static UserProfile fromEntity(UserBase userBase) {
+            return new UserProfile(userBase.getUserId(), userBase.getUserNickname(), userBase.getProfileImgUrl());
+        }
+
+        /**
+         * 요청마다 새 UserDto를 만든다.
+         * @return 사용자 정보
+         */
+        public UserDto toDto() {
+            return UserDto.builder()
+                    .userId(userId)
+                    .userNickname(userNickname)
+                    .profileImgUrl(profileImgUrl)
+                    .build();
+        }
+    }
+}
@@ -4,10 +4,12 @@ import com.chat.server.domain.UserAuthBase;
 import com.chat.server.exception.CustomException;
 import com.chat.server.exception.ErrorCode;
 import com.chat.server.dto.AuthRequest;
+import com.chat.server.event.UserProfileChangedEvent;
 import com.chat.server.repository.UserAuthBaseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +31,8 @@ public class UserService {
     private final UserBaseRepository userBaseRepository;
     private final UserAuthBaseRepository userAuthBaseRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserProfileCache userProfileCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${server.servlet.session.timeout}")
     private String sessionTimeout;
@@ -45,6 +49,7 @@ public class UserService {
     /**
      * 새로운 사용자를 생성한다.
      * 닉네임 중복 검사를 수행한 후 사용자 정보를 저장한다.
+     * 커밋 후 닉네임 검색 인덱스에 반영되도록 {@link UserProfileChangedEvent}를 발행한다.
      * @param request 사용자 생성 요청 정보
      * @return 생성된 사용자 정보
      * @throws CustomException 닉네임이 이미 존재하는 경우
@@ -58,23 +63,26 @@ public class UserService {
         user.setUserNickname(request.getUserNickname());
         user.setProfileImgUrl(request.getProfileImgUrl());
         UserBase savedUser = userBaseRepository.save(user);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(savedUser.getUserId()));
         return UserDto.fromEntity(savedUser);
     }
 
     /**
      * 특정 사용자의 정보를 조회한다.
+     * 사용자 정보는 {@link UserProfileCache}에서 읽으며, 캐시에 없을 때만 데이터베이스를 조회한다.
      * @param userId 조회할 사용자 ID
      * @return 조회된 사용자 정보
      * @throws CustomException 사용자를 찾을 수 없는 경우
      */
     public UserDto findUserById(Long userId) {
-        UserBase user = userBaseRepository.findById(userId)
+        return userProfileCache.findById(userId)
+                .map(UserProfileCache.UserProfile::toDto)
                 .orElseThrow(() -> new CustomException(ErrorCode.USER_NOT_FOUND));
-        return UserDto.fromEntity(user);
     }
 
     /**
      * 특정 사용자의 정보를 수정한다.
+     * 커밋 이후 사용자 프로필 캐시에서 이 사용자를 제거한다.
      * @param userId 수정할 사용자 ID
      * @param request 수정할 사용자 정보
      * @return 수정된 사용자 정보
@@ -88,16 +96,19 @@ public class UserService {
         user.setUserNickname(request.getUserNickname());
         user.setProfileImgUrl(request.getProfileImgUrl());
         UserBase updatedUser = userBaseRepository.save(user);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(userId));
         return UserDto.fromEntity(updatedUser);
     }
 
     /**
      * 특정 사용자를 삭제한다.
+     * 커밋 이후 사용자 프로필 캐시에서 이 사용자를 제거한다.
      * @param userId 삭제할 사용자 ID
      */
     @Transactional
     public void deleteUser(Long userId) {
         userBaseRepository.deleteById(userId);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(userId));
     }
 
     /**
@@ -133,6 +144,7 @@ public class UserService {
         newUserAuth.setPassword(passwordEncoder.encode(request.getPassword())); // 비밀번호 암호화
         newUserAuth.setUserBase(savedUserBase); // 생성된 프로필과 연결
         userAuthBaseRepository.save(newUserAuth);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(savedUserBase.getUserId()));
 
         // 5. 생성된 사용자 정보를 DTO로 변환하여 반환
         return UserDto.fromEntity(savedUserBase);
@@ -165,6 +177,7 @@ public class UserService {
     /**
      * 사용자의 닉네임을 변경한다.
      * 새로운 닉네임의 유효성과 중복 여부를 검사한 후 변경을 수행한다.
+     * 커밋 이후 사용자 프로필 캐시에서 이 사용자와 이전 닉네임 색인을 함께 제거한다.
      * @param userId 닉네임을 변경할 사용자 ID
      * @param newNickname 새로운 닉네임
      * @return 업데이트된 사용자 정보
@@ -187,6 +200,7 @@ public class UserService {
 
         user.setUserNickname(newNickname);
         UserBase updatedUser = userBaseRepository.save(user);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(userId));
         return UserDto.fromEntity(updatedUser);
     }
 }
\ No newline at end of file
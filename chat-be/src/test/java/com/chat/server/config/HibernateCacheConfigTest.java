@@ -0,0 +1,103 @@
+package com.chat.server.config;
+
+import com.chat.server.domain.UserBase;
+import com.chat.server.dto.ChatMessageDto;
+import com.chat.server.dto.ChatRoomDto;
+import com.chat.server.dto.UserDto;
+import com.chat.server.repository.UserBaseRepository;
+import com.chat.server.service.ChatService;
+import com.chat.server.service.RoomInboxUpdater;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "chat.cache.hibernate.enabled=true")
+class HibernateCacheConfigTest {
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private RoomInboxUpdater roomInboxUpdater;
+
+    @Autowired
+    private UserBaseRepository userBaseRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserBase member;
+    private Long roomId;
+
+    private UserBase createUser() {
+        UserBase user = new UserBase();
+        user.setUserNickname("cached" + SEQ.incrementAndGet());
+        return userBaseRepository.save(user);
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        member = createUser();
+        ChatRoomDto.CreateRequest request = new ChatRoomDto.CreateRequest();
+        request.setRoomName("Cached Room");
+        request.setRoomType("GROUP");
+        request.setUserNicknames(List.of(member.getUserNickname(), createUser().getUserNickname()));
+        roomId = chatService.createChatRoom(request).getRoomId();
+    }
+
+    @Test
+    @DisplayName("2차 캐시가 켜져 있으면 채팅방을 다시 열 때 데이터베이스를 조회하지 않음")
+    void findRoomById_servedFromCache() {
+        // given
+        chatService.findRoomById(roomId);
+        statistics.clear();
+
+        // when
+        ChatRoomDto room = chatService.findRoomById(roomId);
+
+        // then
+        assertThat(room.getParticipants()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics(HibernateCacheConfig.ROOM_REGION).getHitCount()).isPositive();
+    }
+
+    @Test
+    @DisplayName("JDBC로 갱신한 마지막 메시지와 초대된 참여자가 캐시된 채팅방에 반영됨")
+    void findRoomById_reflectsInboxUpdateAndInvite() {
+        // given
+        chatService.findRoomById(roomId);
+        UserBase invited = createUser();
+
+        // when
+        roomInboxUpdater.onMessage(ChatMessageDto.builder()
+                .type(ChatMessageDto.MessageType.TALK)
+                .messageId(Long.MAX_VALUE)
+                .roomId(roomId)
+                .senderId(member.getUserId())
+                .message("cached preview")
+                .createdAt(LocalDateTime.now())
+                .build());
+        roomInboxUpdater.flush();
+        chatService.inviteUsersToRoom(roomId, member.getUserId(), List.of(invited.getUserNickname()));
+
+        // then
+        ChatRoomDto room = chatService.findRoomById(roomId);
+        assertThat(room.getLastMessagePreview()).isEqualTo("cached preview");
+        assertThat(room.getParticipants()).extracting(UserDto::getUserId).contains(invited.getUserId());
+    }
+}
@@ -0,0 +1,101 @@
+package com.chat.server.config;
+
+import com.chat.server.dto.ChatMessageDto;
+import com.chat.server.service.ChatBroadcaster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "chat.broker.mode=relay",
+        "chat.broker.embedded.enabled=true"
+})
+class StompBrokerRelayTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ChatBroadcaster chatBroadcaster;
+
+    private WebSocketStompClient stompClient;
+
+    @DynamicPropertySource
+    static void brokerPort(DynamicPropertyRegistry registry) throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            int brokerPort = socket.getLocalPort();
+            registry.add("chat.broker.embedded.port", () -> brokerPort);
+            registry.add("chat.broker.relay.port", () -> brokerPort);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (stompClient != null) {
+            stompClient.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("relay 모드에서 채팅방 브로드캐스트가 내장 브로커를 거쳐 구독자에게 전달됨")
+    void broadcastToRoom_deliveredThroughRelay() throws Exception {
+        // given
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        StompSession session = stompClient
+                .connectAsync("ws://localhost:" + port + "/ws/chat/websocket", new StompSessionHandlerAdapter() {
+                })
+                .get(5, TimeUnit.SECONDS);
+
+        BlockingQueue<ChatMessageDto> received = new LinkedBlockingQueue<>();
+        session.subscribe("/topic/chat/room/1", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return ChatMessageDto.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((ChatMessageDto) payload);
+            }
+        });
+
+        ChatMessageDto message = ChatMessageDto.builder()
+                .type(ChatMessageDto.MessageType.TALK)
+                .roomId(1L)
+                .message("through relay")
+                .build();
+
+        // when (구독이 브로커에 등록될 때까지 반복 전송)
+        await().atMost(Duration.ofSeconds(10)).pollInterval(Duration.ofMillis(200)).until(() -> {
+            chatBroadcaster.broadcastToRoom(1L, message);
+            return !received.isEmpty();
+        });
+
+        // then
+        assertThat(received.peek().getMessage()).isEqualTo("through relay");
+    }
+}
@@ -0,0 +1,166 @@
+package com.chat.server.controller;
+
+import com.chat.server.dto.ChatMessageDto;
+import com.chat.server.dto.UserDto;
+import com.chat.server.exception.CustomException;
+import com.chat.server.exception.ErrorCode;
+import com.chat.server.service.ChatBroadcaster;
+import com.chat.server.service.ChatService;
+import com.chat.server.service.MessageSearchIndex;
+import com.chat.server.service.MessageWriteBehindService;
+import com.chat.server.service.RecentMessageCache;
+import com.chat.server.service.RoomInboxUpdater;
+import com.chat.server.service.RoomLaneExecutor;
+import com.chat.server.service.TypingIndicatorService;
+import com.chat.server.service.UnreadCountRegistry;
+import com.chat.server.service.UserProfileCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class MessageControllerTest {
+
+    private static final long ROOM_ID = 10L;
+    private static final long USER_ID = 1L;
+
+    private RoomLaneExecutor roomLaneExecutor;
+    private ChatBroadcaster chatBroadcaster;
+    private UserProfileCache userProfileCache;
+    private MessageController controller;
+    private UsernamePasswordAuthenticationToken principal;
+
+    @BeforeEach
+    void setUp() {
+        roomLaneExecutor = mock(RoomLaneExecutor.class);
+        chatBroadcaster = mock(ChatBroadcaster.class);
+        userProfileCache = mock(UserProfileCache.class);
+        controller = new MessageController(mock(ChatService.class), mock(MessageWriteBehindService.class),
+                mock(RecentMessageCache.class), chatBroadcaster, roomLaneExecutor, mock(UnreadCountRegistry.class),
+                mock(TypingIndicatorService.class), mock(RoomInboxUpdater.class), mock(MessageSearchIndex.class), userProfileCache);
+        principal = new UsernamePasswordAuthenticationToken(UserDto.builder().userId(USER_ID).build(), null, List.of());
+    }
+
+    private ChatMessageDto talk() {
+        return ChatMessageDto.builder()
+                .type(ChatMessageDto.MessageType.TALK)
+                .roomId(ROOM_ID)
+                .senderId(USER_ID)
+                .message("hello")
+                .build();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ChatMessageDto.MessageType.class, names = "TALK", mode = EnumSource.Mode.EXCLUDE)
+    @DisplayName("클라이언트가 보낸 TALK 이외의 메시지는 처리하지도 브로드캐스트하지도 않음")
+    void message_ignoresNonTalkTypes(ChatMessageDto.MessageType type) {
+        // when
+        controller.message(ChatMessageDto.builder().type(type).roomId(ROOM_ID).senderId(USER_ID).membershipVersion(99L).build(),
+                principal);
+
+        // then
+        verifyNoInteractions(roomLaneExecutor, chatBroadcaster);
+    }
+
+    @Test
+    @DisplayName("TALK 메시지에 담긴 서버 전용 필드는 지우고 채팅방 레인에 넘김")
+    void message_stripsServerOnlyFields() {
+        // given
+        ChatMessageDto message = ChatMessageDto.builder()
+                .type(ChatMessageDto.MessageType.TALK)
+                .roomId(ROOM_ID)
+                .senderId(USER_ID)
+                .message("hello")
+                .membershipVersion(99L)
+                .readReceipts(Map.of(1L, List.of(2L)))
+                .build();
+
+        // when
+        controller.message(message, principal);
+
+        // then
+        verify(roomLaneExecutor).execute(eq(ROOM_ID), any(Runnable.class), any());
+        assertThat(message.getMembershipVersion()).isNull();
+        assertThat(message.getReadReceipts()).isNull();
+    }
+
+    @Test
+    @DisplayName("채팅방 레인에서 처리하다 실패하면 보낸 사용자의 오류 토픽으로 알림")
+    @SuppressWarnings("unchecked")
+    void message_laneFailureSentToSender() {
+        // given
+        controller.message(talk(), principal);
+        ArgumentCaptor<Consumer<RuntimeException>> onFailure = ArgumentCaptor.forClass(Consumer.class);
+        verify(roomLaneExecutor).execute(eq(ROOM_ID), any(Runnable.class), onFailure.capture());
+
+        // when
+        onFailure.getValue().accept(new CustomException(ErrorCode.NOT_ROOM_PARTICIPANT));
+        onFailure.getValue().accept(new IllegalStateException("boom"));
+
+        // then
+        verify(chatBroadcaster).sendErrorToUser(USER_ID, ErrorCode.NOT_ROOM_PARTICIPANT);
+        verify(chatBroadcaster).sendErrorToUser(USER_ID, ErrorCode.INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    @DisplayName("레인 대기열이 가득 차 제출하지 못하면 보낸 사용자의 오류 토픽으로 알림")
+    void message_queueFullSentToSender() {
+        // given
+        doThrow(new CustomException(ErrorCode.MESSAGE_QUEUE_FULL))
+                .when(roomLaneExecutor).execute(eq(ROOM_ID), any(Runnable.class), any());
+
+        // when
+        controller.message(talk(), principal);
+
+        // then
+        verify(chatBroadcaster).sendErrorToUser(USER_ID, ErrorCode.MESSAGE_QUEUE_FULL);
+    }
+
+    @Test
+    @DisplayName("보낸 사용자와 닉네임은 프레임 값 대신 세션 인증 정보와 서버 프로필로 채움")
+    void message_senderTakenFromPrincipal() {
+        // given
+        when(userProfileCache.findById(USER_ID)).thenReturn(Optional.of(new UserProfileCache.UserProfile(USER_ID, "real", null)));
+        ChatMessageDto message = talk();
+        message.setSenderId(99L);
+        message.setSenderNickname("fake");
+
+        // when
+        controller.message(message, principal);
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(roomLaneExecutor).execute(eq(ROOM_ID), task.capture(), any());
+        task.getValue().run();
+
+        // then
+        assertThat(message.getSenderId()).isEqualTo(USER_ID);
+        assertThat(message.getSenderNickname()).isEqualTo("real");
+        verify(chatBroadcaster).broadcastToRoom(ROOM_ID, message);
+    }
+
+    @Test
+    @DisplayName("인증되지 않은 세션의 메시지는 처리하지 않음")
+    void message_ignoresUnauthenticated() {
+        // when
+        controller.message(talk(), null);
+
+        // then
+        verifyNoInteractions(roomLaneExecutor, chatBroadcaster);
+    }
+}
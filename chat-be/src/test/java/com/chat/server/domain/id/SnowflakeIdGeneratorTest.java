@@ -0,0 +1,82 @@
+package com.chat.server.domain.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+    /**
+     * 테스트에서 시각을 직접 지정할 수 있는 생성기
+     */
+    private static class ManualClockGenerator extends SnowflakeIdGenerator {
+        private long now;
+
+        ManualClockGenerator(long nodeId, long now) {
+            super(nodeId);
+            this.now = now;
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    }
+
+    @Test
+    @DisplayName("같은 밀리초 안에서 순번을 모두 써도 ID가 증가함")
+    void nextId_monotonicWithinSameMillisecond() {
+        ManualClockGenerator generator = new ManualClockGenerator(1, Instant.parse("2026-01-01T00:00:00Z").toEpochMilli());
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long next = generator.nextId();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("시계가 뒤로 가도 ID가 증가함")
+    void nextId_monotonicWhenClockMovesBackwards() {
+        ManualClockGenerator generator = new ManualClockGenerator(1, Instant.parse("2026-01-01T00:00:00Z").toEpochMilli());
+        long before = generator.nextId();
+
+        generator.now -= 5_000;
+        long after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    @DisplayName("ID에서 발급 시각을 복원할 수 있음")
+    void extractInstant() {
+        Instant now = Instant.parse("2026-03-01T12:34:56.789Z");
+        ManualClockGenerator generator = new ManualClockGenerator(7, now.toEpochMilli());
+
+        long id = generator.nextId();
+
+        assertThat(SnowflakeIdGenerator.extractInstant(id)).isEqualTo(now);
+        assertThat(id).isGreaterThanOrEqualTo(SnowflakeIdGenerator.minIdAt(now));
+        assertThat(id).isLessThan(SnowflakeIdGenerator.minIdAt(now.plusMillis(1)));
+    }
+
+    @Test
+    @DisplayName("노드가 다르면 같은 시각에도 ID가 겹치지 않음")
+    void nextId_differentNodes() {
+        long now = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+
+        assertThat(new ManualClockGenerator(1, now).nextId()).isNotEqualTo(new ManualClockGenerator(2, now).nextId());
+    }
+
+    @Test
+    @DisplayName("노드 번호가 범위를 벗어나면 예외 발생")
+    void constructor_invalidNodeId() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -3,12 +3,14 @@ package com.chat.server.repository;
 import com.chat.server.domain.ChatMessage;
 import com.chat.server.domain.ChatRoom;
 import com.chat.server.domain.UserBase;
+import com.chat.server.dto.ChatMessageDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 
@@ -64,4 +66,20 @@ class ChatMessageRepositoryTest {
         assertThat(messages.get(0).getMessageContent()).isEqualTo("Hello");
         assertThat(messages.get(1).getMessageContent()).isEqualTo("World");
     }
+
+    @Test
+    @DisplayName("메시지 ID 커서 기준으로 이전/이후 메시지 조회")
+    void findByMessageIdCursor() {
+        List<ChatMessageDto> latest = chatMessageRepository.findLatestMessages(chatRoom.getRoomId(), Limit.of(1));
+        Long newestId = latest.get(0).getMessageId();
+
+        List<ChatMessageDto> before = chatMessageRepository.findMessagesBefore(chatRoom.getRoomId(), newestId, Limit.of(10));
+        List<ChatMessageDto> after = chatMessageRepository.findMessagesAfter(chatRoom.getRoomId(), before.get(0).getMessageId(), Limit.of(10));
+
+        assertThat(latest.get(0).getMessage()).isEqualTo("World");
+        assertThat(latest.get(0).getSenderNickname()).isEqualTo("testUser");
+        assertThat(latest.get(0).getType()).isEqualTo(ChatMessageDto.MessageType.TALK);
+        assertThat(before).extracting(ChatMessageDto::getMessage).containsExactly("Hello");
+        assertThat(after).extracting(ChatMessageDto::getMessage).containsExactly("World");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.chat.server.service;
+
+import com.chat.server.dto.ChatMessageDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ChatBroadcasterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private SimpMessageSendingOperations messagingTemplate;
+    private ChatBroadcaster chatBroadcaster;
+
+    private ChatMessageDto talk() {
+        return new ChatMessageDto(Long.MAX_VALUE, 1L, 2L, "sender", "hello", LocalDateTime.of(2025, 1, 1, 0, 0));
+    }
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessageSendingOperations.class);
+        chatBroadcaster = new ChatBroadcaster(messagingTemplate, objectMapper);
+    }
+
+    @Test
+    @DisplayName("채팅방 토픽으로 JSON 바이트 페이로드를 전송")
+    @SuppressWarnings("unchecked")
+    void broadcastToRoom_sendsEncodedJson() throws Exception {
+        // when
+        chatBroadcaster.broadcastToRoom(1L, talk());
+
+        // then
+        ArgumentCaptor<Message<?>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/topic/chat/room/1"), captor.capture());
+        Message<?> sent = captor.getValue();
+        assertThat(sent.getHeaders().get(MessageHeaders.CONTENT_TYPE)).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+
+        JsonNode json = objectMapper.readTree((byte[]) sent.getPayload());
+        assertThat(json.get("type").asText()).isEqualTo("TALK");
+        assertThat(json.get("messageId").isTextual()).isTrue();
+        assertThat(json.get("message").asText()).isEqualTo("hello");
+    }
+
+    @Test
+    @DisplayName("여러 목적지로 보내도 같은 바이트 배열을 공유")
+    @SuppressWarnings("unchecked")
+    void broadcast_sharesEncodedPayload() {
+        // when
+        chatBroadcaster.broadcast(List.of("/topic/a", "/topic/b"), talk());
+
+        // then
+        ArgumentCaptor<Message<?>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(2)).send(anyString(), captor.capture());
+        assertThat(captor.getAllValues().get(0).getPayload()).isSameAs(captor.getAllValues().get(1).getPayload());
+    }
+}
@@ -0,0 +1,345 @@
+package com.chat.server.service;
+
+import com.chat.server.domain.ChatMessage;
+import com.chat.server.domain.ChatRoom;
+import com.chat.server.domain.UserBase;
+import com.chat.server.dto.ChatMessageDto;
+import com.chat.server.dto.ChatRoomDto;
+import com.chat.server.exception.CustomException;
+import com.chat.server.exception.ErrorCode;
+import com.chat.server.repository.ChatRoomRepository;
+import com.chat.server.repository.UserBaseRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=100"
+})
+class ChatServiceTest {
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private UserBaseRepository userBaseRepository;
+
+    @Autowired
+    private ChatRoomRepository chatRoomRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RoomInboxUpdater roomInboxUpdater;
+
+    private UserBase member;
+    private UserBase outsider;
+    private ChatRoom chatRoom;
+
+    private UserBase createUser(String prefix) {
+        UserBase user = new UserBase();
+        user.setUserNickname(prefix + SEQ.incrementAndGet());
+        return userBaseRepository.save(user);
+    }
+
+    private ChatMessageDto talk(Long senderId, String content) {
+        return ChatMessageDto.builder()
+                .type(ChatMessageDto.MessageType.TALK)
+                .roomId(chatRoom.getRoomId())
+                .senderId(senderId)
+                .message(content)
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        member = createUser("member");
+        outsider = createUser("outsider");
+
+        ChatRoomDto.CreateRequest request = new ChatRoomDto.CreateRequest();
+        request.setRoomName("Service Room");
+        request.setRoomType("GROUP");
+        request.setUserNicknames(List.of(member.getUserNickname()));
+        chatRoom = chatRoomRepository.findById(chatService.createChatRoom(request).getRoomId()).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("캐시가 채워진 뒤 메시지 저장은 INSERT 한 번만 실행")
+    void saveMessage_singleStatementWhenCached() {
+        // given
+        chatService.saveMessage(talk(member.getUserId(), "warm up"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        chatService.saveMessage(talk(member.getUserId(), "hello"));
+
+        // then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("참여자가 아닌 사용자의 메시지 저장 실패")
+    void saveMessage_fail_notParticipant() {
+        assertThatThrownBy(() -> chatService.saveMessage(talk(outsider.getUserId(), "hello")))
+                .isInstanceOf(CustomException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.NOT_ROOM_PARTICIPANT);
+    }
+
+    @Test
+    @DisplayName("채팅방에서 나간 뒤에는 캐시가 무효화되어 메시지 저장 실패")
+    void saveMessage_fail_afterLeave() {
+        // given
+        chatService.saveMessage(talk(member.getUserId(), "before leave"));
+
+        // when
+        chatService.removeParticipant(chatRoom.getRoomId(), member.getUserId());
+
+        // then
+        assertThatThrownBy(() -> chatService.saveMessage(talk(member.getUserId(), "after leave")))
+                .isInstanceOf(CustomException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.NOT_ROOM_PARTICIPANT);
+    }
+
+    @Test
+    @DisplayName("커서로 최신 메시지부터 이전 메시지까지 페이지 단위 조회")
+    void findMessagePage_walksBackwardWithCursor() {
+        // given
+        for (int i = 1; i <= 5; i++) {
+            chatService.saveMessage(talk(member.getUserId(), "m" + i));
+        }
+
+        // when
+        ChatMessageDto.CursorPage latest = chatService.findMessagePage(chatRoom.getRoomId(), null, null, 2);
+        ChatMessageDto.CursorPage middle = chatService.findMessagePage(chatRoom.getRoomId(), latest.getOldestMessageId(), null, 2);
+        ChatMessageDto.CursorPage first = chatService.findMessagePage(chatRoom.getRoomId(), middle.getOldestMessageId(), null, 2);
+        ChatMessageDto.CursorPage missed = chatService.findMessagePage(chatRoom.getRoomId(), null, first.getNewestMessageId(), 10);
+
+        // then
+        assertThat(contents(latest)).containsExactly("m4", "m5");
+        assertThat(latest.isHasMore()).isTrue();
+        assertThat(contents(middle)).containsExactly("m2", "m3");
+        assertThat(contents(first)).containsExactly("m1");
+        assertThat(first.isHasMore()).isFalse();
+        assertThat(contents(missed)).containsExactly("m2", "m3", "m4", "m5");
+        assertThat(missed.isHasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("메시지 조회는 페이지 크기와 발신자 수에 관계없이 쿼리 한 번만 실행")
+    void findMessagePage_singleStatementRegardlessOfPageSize() {
+        // given
+        for (int i = 0; i < 10; i++) {
+            UserBase sender = createUser("sender");
+            chatService.inviteUsersToRoom(chatRoom.getRoomId(), member.getUserId(), List.of(sender.getUserNickname()));
+            chatService.saveMessage(talk(sender.getUserId(), "from sender " + i));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int pageSize : new int[]{1, 5, 10}) {
+            statistics.clear();
+
+            // when (최신 페이지는 최근 메시지 버퍼에서 처리되므로 커서를 지정해 DB 조회 경로를 확인한다)
+            ChatMessageDto.CursorPage page = chatService.findMessagePage(chatRoom.getRoomId(), Long.MAX_VALUE, null, pageSize);
+
+            // then
+            assertThat(page.getMessages()).hasSize(pageSize)
+                    .allSatisfy(message -> assertThat(message.getSenderNickname()).startsWith("sender"));
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("여러 명 초대는 초대 인원과 관계없이 같은 수의 쿼리로 처리")
+    void inviteUsersToRoom_sameStatementCountRegardlessOfInvitees() {
+        // given
+        List<String> few = nicknamesOfNewUsers(2);
+        List<String> many = nicknamesOfNewUsers(50);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // when
+        statistics.clear();
+        chatService.inviteUsersToRoom(chatRoom.getRoomId(), member.getUserId(), few);
+        long fewStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        chatService.inviteUsersToRoom(chatRoom.getRoomId(), member.getUserId(), many);
+        long manyStatements = statistics.getPrepareStatementCount();
+
+        // then
+        assertThat(manyStatements).isEqualTo(fewStatements);
+        assertThat(chatService.getRoomParticipants(chatRoom.getRoomId())).hasSize(1 + 2 + 50);
+    }
+
+    @Test
+    @DisplayName("채팅방 생성은 참여자 수와 관계없이 같은 수의 쿼리로 처리")
+    void createChatRoom_sameStatementCountRegardlessOfMembers() {
+        // given
+        List<String> few = nicknamesOfNewUsers(2);
+        List<String> many = nicknamesOfNewUsers(50);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // when
+        statistics.clear();
+        Long fewRoomId = chatService.createChatRoom(createRequest(few)).getRoomId();
+        long fewStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        Long manyRoomId = chatService.createChatRoom(createRequest(many)).getRoomId();
+        long manyStatements = statistics.getPrepareStatementCount();
+
+        // then
+        assertThat(manyStatements).isEqualTo(fewStatements);
+        assertThat(chatService.getRoomParticipants(fewRoomId)).hasSize(2);
+        assertThat(chatService.getRoomParticipants(manyRoomId)).hasSize(50);
+    }
+
+    @Test
+    @DisplayName("존재하지 않는 닉네임이 섞여 있으면 채팅방 생성 실패")
+    void createChatRoom_fail_unknownNickname() {
+        // given
+        List<String> nicknames = new ArrayList<>(nicknamesOfNewUsers(2));
+        nicknames.add("unknown-" + SEQ.incrementAndGet());
+
+        // when & then
+        assertThatThrownBy(() -> chatService.createChatRoom(createRequest(nicknames)))
+                .isInstanceOf(CustomException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.USER_NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("이미 참여 중인 사용자가 섞여 있으면 아무도 초대하지 않음")
+    void inviteUsersToRoom_fail_alreadyParticipant() {
+        // given
+        List<String> nicknames = new ArrayList<>(nicknamesOfNewUsers(3));
+        nicknames.add(member.getUserNickname());
+
+        // when & then
+        assertThatThrownBy(() -> chatService.inviteUsersToRoom(chatRoom.getRoomId(), outsider.getUserId(), nicknames))
+                .isInstanceOf(CustomException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.USER_ALREADY_IN_CHAT_ROOM);
+        assertThat(chatService.getRoomParticipants(chatRoom.getRoomId())).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("나갔던 사용자를 다시 초대하면 이전 참여 기록을 재사용")
+    void inviteUsersToRoom_reusesHistoryOfLeftUser() {
+        // given
+        chatService.inviteUsersToRoom(chatRoom.getRoomId(), member.getUserId(), List.of(outsider.getUserNickname()));
+        chatService.removeParticipant(chatRoom.getRoomId(), outsider.getUserId());
+
+        // when
+        chatService.inviteUsersToRoom(chatRoom.getRoomId(), member.getUserId(), List.of(outsider.getUserNickname()));
+
+        // then
+        assertThat(chatService.getParticipantsHistory(chatRoom.getRoomId())).hasSize(2)
+                .allSatisfy(history -> assertThat(history.getQuitAt()).isNull());
+    }
+
+    @Test
+    @DisplayName("before와 after를 함께 지정하면 메시지 조회 실패")
+    void findMessagePage_fail_bothCursors() {
+        assertThatThrownBy(() -> chatService.findMessagePage(chatRoom.getRoomId(), 1L, 2L, null))
+                .isInstanceOf(CustomException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.INVALID_INPUT_VALUE);
+    }
+
+    private List<String> nicknamesOfNewUsers(int count) {
+        List<String> nicknames = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nicknames.add(createUser("invitee").getUserNickname());
+        }
+        return nicknames;
+    }
+
+    private ChatRoomDto.CreateRequest createRequest(List<String> nicknames) {
+        ChatRoomDto.CreateRequest request = new ChatRoomDto.CreateRequest();
+        request.setRoomName("Group Room");
+        request.setRoomType("GROUP");
+        request.setUserNicknames(nicknames);
+        return request;
+    }
+
+    private List<String> contents(ChatMessageDto.CursorPage page) {
+        return page.getMessages().stream().map(ChatMessageDto::getMessage).toList();
+    }
+
+    @Test
+    @DisplayName("채팅방 목록은 마지막 메시지 시간 역순으로 커서 페이지 조회")
+    void findInboxPage_ordersByLatestMessage() {
+        // given: 나중에 만든 채팅방 두 개보다 처음 채팅방에 더 최근 메시지가 있음
+        Long second = chatService.createChatRoom(createRequest(List.of(member.getUserNickname()))).getRoomId();
+        Long third = chatService.createChatRoom(createRequest(List.of(member.getUserNickname()))).getRoomId();
+        ChatMessageDto message = talk(member.getUserId(), "가장 최근 메시지");
+        ChatMessage saved = chatService.saveMessage(message);
+        message.setMessageId(saved.getMessageId());
+        message.setCreatedAt(saved.getCreatedAt());
+        roomInboxUpdater.onMessage(message);
+        roomInboxUpdater.flush();
+
+        // when
+        ChatRoomDto.InboxPage first = chatService.findInboxPage(member.getUserId(), null, null, 2);
+        ChatRoomDto.InboxPage next = chatService.findInboxPage(member.getUserId(),
+                first.getNextBeforeAt(), first.getNextBeforeRoomId(), 2);
+
+        // then
+        assertThat(first.getRooms()).extracting(ChatRoomDto::getRoomId).containsExactly(chatRoom.getRoomId(), third);
+        assertThat(first.getRooms().get(0).getLastMessagePreview()).isEqualTo("가장 최근 메시지");
+        assertThat(first.getRooms().get(0).getLastMessageId()).isEqualTo(saved.getMessageId());
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(next.getRooms()).extracting(ChatRoomDto::getRoomId).containsExactly(second);
+        assertThat(next.isHasMore()).isFalse();
+        assertThat(chatService.findRoomsByUserId(member.getUserId())).extracting(ChatRoomDto::getRoomId)
+                .containsExactly(chatRoom.getRoomId(), third, second);
+    }
+
+    @Test
+    @DisplayName("채팅방 목록은 참여자 수와 관계없이 두 번의 조회로 읽고, 캐시된 뒤에는 초대 전까지 조회하지 않음")
+    void findRoomsByUserId_twoStatementsThenCached() {
+        // given: 참여자가 여럿인 채팅방 세 개
+        List<String> nicknames = new ArrayList<>(List.of(member.getUserNickname()));
+        for (int i = 0; i < 3; i++) {
+            nicknames.add(createUser("listed").getUserNickname());
+        }
+        for (int i = 0; i < 2; i++) {
+            chatService.createChatRoom(createRequest(nicknames));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        List<ChatRoomDto> rooms = chatService.findRoomsByUserId(member.getUserId());
+        long firstLoad = statistics.getPrepareStatementCount();
+        chatService.findRoomsByUserId(member.getUserId());
+
+        // then
+        assertThat(rooms).hasSize(3);
+        assertThat(rooms).filteredOn(room -> !room.getRoomId().equals(chatRoom.getRoomId()))
+                .allSatisfy(room -> assertThat(room.getParticipants()).hasSize(4));
+        assertThat(firstLoad).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(firstLoad);
+
+        // 초대되면 목록을 다시 읽음
+        Long invitedRoomId = chatService.createChatRoom(createRequest(List.of(outsider.getUserNickname()))).getRoomId();
+        chatService.findRoomsByUserId(member.getUserId());
+        chatService.inviteUsersToRoom(invitedRoomId, outsider.getUserId(), List.of(member.getUserNickname()));
+        assertThat(chatService.findRoomsByUserId(member.getUserId())).extracting(ChatRoomDto::getRoomId)
+                .contains(invitedRoomId);
+    }
+}
@@ -0,0 +1,162 @@
+package com.chat.server.service;
+
+import com.chat.server.domain.FriendStatus;
+import com.chat.server.domain.UserBase;
+import com.chat.server.domain.UserFriend;
+import com.chat.server.dto.FriendDto;
+import com.chat.server.exception.CustomException;
+import com.chat.server.repository.UserBaseRepository;
+import com.chat.server.repository.UserFriendRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class FriendGraphIndexTest {
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private FriendGraphIndex friendGraphIndex;
+
+    @Autowired
+    private FriendService friendService;
+
+    @Autowired
+    private UserBaseRepository userBaseRepository;
+
+    @Autowired
+    private UserFriendRepository userFriendRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    private UserBase createUser() {
+        UserBase user = new UserBase();
+        user.setUserNickname("graph" + SEQ.incrementAndGet());
+        return userBaseRepository.save(user);
+    }
+
+    private Long pendingFriendId(UserBase requester, UserBase recipient) {
+        friendService.sendFriendRequest(requester.getUserId(), recipient.getUserId());
+        boolean requesterFirst = requester.getUserId() < recipient.getUserId();
+        return userFriendRepository.findByUser1AndUser2(requesterFirst ? requester : recipient, requesterFirst ? recipient : requester)
+                .orElseThrow().getFriendId();
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("수락과 삭제가 커밋 이후 양쪽 사용자에게 반영되고, 친구 목록은 친구 관계를 조회하지 않음")
+    void friendshipChanges_appliedToBothUsers() {
+        // given
+        UserBase user = createUser();
+        UserBase friend = createUser();
+        UserBase pending = createUser();
+        friendService.acceptFriendRequest(pendingFriendId(user, friend));
+        pendingFriendId(pending, user);
+        friendService.getFriendList(user.getUserId());
+        statistics.clear();
+
+        // when
+        List<FriendDto> friends = friendService.getFriendList(user.getUserId());
+
+        // then
+        assertThat(friends).extracting(FriendDto::getUserId).containsExactly(friend.getUserId());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(friendGraphIndex.areFriends(friend.getUserId(), user.getUserId())).isTrue();
+        assertThat(friendGraphIndex.areFriends(user.getUserId(), pending.getUserId())).isFalse();
+
+        friendService.removeFriend(friend.getUserId(), user.getUserId());
+        assertThat(friendGraphIndex.getFriendIds(user.getUserId())).isEmpty();
+        assertThat(friendGraphIndex.getFriendIds(friend.getUserId())).isEmpty();
+        assertThatThrownBy(() -> friendService.removeFriend(user.getUserId(), friend.getUserId()))
+                .isInstanceOf(CustomException.class);
+    }
+
+    @Test
+    @DisplayName("이미 친구인 사용자에게는 친구 요청을 보낼 수 없음")
+    void sendFriendRequest_rejectsExistingFriend() {
+        // given
+        UserBase user = createUser();
+        UserBase friend = createUser();
+        friendService.acceptFriendRequest(pendingFriendId(user, friend));
+
+        // when & then
+        assertThatThrownBy(() -> friendService.sendFriendRequest(friend.getUserId(), user.getUserId()))
+                .isInstanceOf(CustomException.class);
+    }
+
+    @Test
+    @DisplayName("다시 만들면 이벤트 없이 저장된 친구 관계도 데이터베이스에서 읽어 옴")
+    void rebuild_loadsAcceptedFriendshipsFromDatabase() {
+        // given (이벤트를 거치지 않고 저장하여 재시작 직후 상태를 흉내 낸다)
+        UserBase user1 = createUser();
+        UserBase user2 = createUser();
+        UserFriend friendship = new UserFriend();
+        friendship.setUser1(user1.getUserId() < user2.getUserId() ? user1 : user2);
+        friendship.setUser2(user1.getUserId() < user2.getUserId() ? user2 : user1);
+        friendship.setRequester(user1);
+        friendship.setStatus(FriendStatus.ACCEPTED);
+        userFriendRepository.save(friendship);
+        assertThat(friendGraphIndex.areFriends(user1.getUserId(), user2.getUserId())).isFalse();
+
+        // when
+        friendGraphIndex.rebuild();
+
+        // then
+        assertThat(friendGraphIndex.areFriends(user1.getUserId(), user2.getUserId())).isTrue();
+        assertThat(friendGraphIndex.getFriendIds(user2.getUserId())).containsExactly(user1.getUserId());
+        assertThat(friendGraphIndex.estimatedMemoryBytes()).isPositive();
+    }
+
+    @Test
+    @DisplayName("메모리 제한을 넘으면 데이터베이스로 조회하고 주기적으로 다시 만들기를 시도함")
+    void overBudget_fallsBackToDatabaseAndRetriesRebuild() {
+        // given
+        UserBase user = createUser();
+        UserBase friend = createUser();
+        friendService.acceptFriendRequest(pendingFriendId(user, friend));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FriendGraphIndex index = new FriendGraphIndex(jdbcTemplate, userFriendRepository, meterRegistry, "simple", 0, 50);
+
+        // when
+        index.rebuild();
+        index.start();
+
+        // then
+        try {
+            assertThat(meterRegistry.get("chat.friend.index.loaded").gauge().value()).isZero();
+            assertThat(index.estimatedMemoryBytes()).isZero();
+            assertThat(index.areFriends(user.getUserId(), friend.getUserId())).isTrue();
+            assertThat(index.getFriendIds(friend.getUserId())).containsExactly(user.getUserId());
+            await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                    assertThat(meterRegistry.get("chat.friend.index.over-budget").counter().count()).isGreaterThanOrEqualTo(3));
+        } finally {
+            index.stop();
+        }
+    }
+}
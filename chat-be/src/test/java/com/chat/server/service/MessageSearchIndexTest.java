@@ -0,0 +1,230 @@
+package com.chat.server.service;
+
+import com.chat.server.domain.ChatMessage;
+import com.chat.server.domain.UserBase;
+import com.chat.server.dto.ChatMessageDto;
+import com.chat.server.dto.ChatRoomDto;
+import com.chat.server.exception.CustomException;
+import com.chat.server.exception.ErrorCode;
+import com.chat.server.repository.UserBaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = "chat.search.message.enabled=true")
+class MessageSearchIndexTest {
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @TempDir
+    static Path indexDir;
+
+    @DynamicPropertySource
+    static void indexDir(DynamicPropertyRegistry registry) {
+        registry.add("chat.search.message.index-dir", () -> indexDir.toString());
+    }
+
+    @Autowired
+    private MessageSearchIndex messageSearchIndex;
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private UserBaseRepository userBaseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserBase member;
+    private UserBase outsider;
+    private Long roomId;
+    private Long otherRoomId;
+
+    private UserBase createUser() {
+        UserBase user = new UserBase();
+        user.setUserNickname("search" + SEQ.incrementAndGet());
+        return userBaseRepository.save(user);
+    }
+
+    private Long createRoom(UserBase... users) {
+        ChatRoomDto.CreateRequest request = new ChatRoomDto.CreateRequest();
+        request.setRoomName("Search Room");
+        request.setRoomType("GROUP");
+        request.setUserNicknames(Arrays.stream(users).map(UserBase::getUserNickname).toList());
+        return chatService.createChatRoom(request).getRoomId();
+    }
+
+    private ChatMessage save(Long roomId, UserBase sender, String content) {
+        return chatService.saveMessage(ChatMessageDto.builder()
+                .type(ChatMessageDto.MessageType.TALK)
+                .roomId(roomId)
+                .senderId(sender.getUserId())
+                .message(content)
+                .build());
+    }
+
+    // 메시지 저장 경로와 같이 저장된 메시지를 색인 대기열에 넣는다
+    private void saveAndIndex(Long roomId, UserBase sender, String content) {
+        saveAndIndex(messageSearchIndex, roomId, sender, content);
+    }
+
+    private void saveAndIndex(MessageSearchIndex index, Long roomId, UserBase sender, String content) {
+        ChatMessage saved = save(roomId, sender, content);
+        index.enqueue(ChatMessageDto.builder()
+                .type(ChatMessageDto.MessageType.TALK)
+                .messageId(saved.getMessageId())
+                .roomId(roomId)
+                .senderId(sender.getUserId())
+                .message(content)
+                .createdAt(saved.getCreatedAt())
+                .build());
+    }
+
+    // 갱신과 기록을 테스트에서 직접 호출하는 인덱스를 연다
+    private MessageSearchIndex openIndex(String dir, int queueCapacity) {
+        long manual = TimeUnit.HOURS.toMillis(1);
+        MessageSearchIndex index = new MessageSearchIndex(jdbcTemplate, new SimpleMeterRegistry(), "simple", true,
+                indexDir.resolve(dir).toString(), 16, queueCapacity, manual, manual, 100, false, 60_000);
+        index.start();
+        return index;
+    }
+
+    // 빈 인덱스로 열어 시작할 때 도는 전체 재색인이 끝나기를 기다린다
+    private MessageSearchIndex openEmptyIndex(String dir, int queueCapacity) throws InterruptedException {
+        MessageSearchIndex index = openIndex(dir, queueCapacity);
+        while (index.reindex() < 0) {
+            Thread.sleep(10);
+        }
+        return index;
+    }
+
+    private List<String> search(MessageSearchIndex index, String query) {
+        return index.search(query, List.of(roomId), null, 10).stream().map(MessageSearchIndex.Hit::content).toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        member = createUser();
+        outsider = createUser();
+        roomId = createRoom(member, createUser());
+        otherRoomId = createRoom(outsider, createUser());
+    }
+
+    @Test
+    @DisplayName("참여 중인 채팅방에서 한글 검색어가 들어 있는 메시지만 최신순으로 페이지를 나눠 찾음")
+    void searchMessages_pagesNewestFirstWithinMemberRooms() {
+        // given
+        saveAndIndex(roomId, member, "오늘 저녁 회의는 7시입니다");
+        saveAndIndex(roomId, member, "내일 점심 메뉴 추천");
+        saveAndIndex(roomId, member, "저녁 회의 자료 공유합니다");
+        saveAndIndex(roomId, member, "Dinner 회의 끝");
+        saveAndIndex(otherRoomId, outsider, "다른 방의 저녁 회의");
+        messageSearchIndex.refresh();
+
+        // when
+        ChatMessageDto.SearchPage first = chatService.searchMessages(member.getUserId(), "회의", null, null, 2);
+        ChatMessageDto.SearchPage second = chatService.searchMessages(member.getUserId(), "회의", null, first.getNextBefore(), 2);
+
+        // then
+        assertThat(first.getMessages()).extracting(ChatMessageDto::getMessage)
+                .containsExactly("Dinner 회의 끝", "저녁 회의 자료 공유합니다");
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getMessages().get(0).getSenderNickname()).isEqualTo(member.getUserNickname());
+        assertThat(second.getMessages()).extracting(ChatMessageDto::getMessage).containsExactly("오늘 저녁 회의는 7시입니다");
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(chatService.searchMessages(member.getUserId(), "DINNER", roomId, null, null).getMessages()).hasSize(1);
+        assertThat(chatService.searchMessages(member.getUserId(), "점심 메뉴", roomId, null, null).getMessages())
+                .extracting(ChatMessageDto::getMessage).containsExactly("내일 점심 메뉴 추천");
+    }
+
+    @Test
+    @DisplayName("참여하지 않은 채팅방은 검색할 수 없음")
+    void searchMessages_rejectsNonMemberRoom() {
+        assertThatThrownBy(() -> chatService.searchMessages(member.getUserId(), "회의", otherRoomId, null, null))
+                .isInstanceOf(CustomException.class)
+                .extracting(e -> ((CustomException) e).getErrorCode())
+                .isEqualTo(ErrorCode.NOT_ROOM_PARTICIPANT);
+    }
+
+    @Test
+    @DisplayName("재색인하면 색인 대기열을 거치지 않고 저장된 메시지도 검색됨")
+    void reindex_loadsMessagesFromDatabase() throws InterruptedException {
+        // given (색인 대기열에 넣지 않고 저장하여 인덱스를 잃은 상태를 흉내 낸다)
+        save(roomId, member, "재색인 대상 메시지");
+        messageSearchIndex.refresh();
+        assertThat(chatService.searchMessages(member.getUserId(), "재색인", roomId, null, null).getMessages()).isEmpty();
+
+        // when (시작할 때 돌기 시작한 재색인이 끝나기를 기다린다)
+        long reindexed;
+        while ((reindexed = messageSearchIndex.reindex()) < 0) {
+            Thread.sleep(10);
+        }
+
+        // then
+        assertThat(reindexed).isPositive();
+        List<ChatMessageDto> found = chatService.searchMessages(member.getUserId(), "재색인", roomId, null, null).getMessages();
+        assertThat(found).extracting(ChatMessageDto::getMessage).containsExactly("재색인 대상 메시지");
+    }
+
+    @Test
+    @DisplayName("대기열이 넘쳐 버려진 메시지도 갱신할 때 재색인 스레드가 데이터베이스에서 읽어 색인함")
+    void refresh_recoversDroppedMessages() throws InterruptedException {
+        // given (대기열에 한 건만 들어가므로 나머지 두 건은 버려진다)
+        MessageSearchIndex index = openEmptyIndex("overflow", 1);
+        try {
+            saveAndIndex(index, roomId, member, "넘침 첫째");
+            saveAndIndex(index, roomId, member, "넘침 둘째");
+            saveAndIndex(index, roomId, member, "넘침 셋째");
+
+            // when
+            index.refresh();
+
+            // then (갱신은 대기열의 한 건만 바로 반영하고, 버려진 두 건은 재색인 스레드가 채운다)
+            await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                    assertThat(search(index, "넘침")).containsExactly("넘침 셋째", "넘침 둘째", "넘침 첫째"));
+        } finally {
+            index.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("다시 시작하면 인덱스가 멈춘 사이 저장된 메시지를 따라잡아 색인함")
+    void start_catchesUpFromLastCommit() throws InterruptedException {
+        // given
+        MessageSearchIndex first = openEmptyIndex("restart", 100);
+        saveAndIndex(first, roomId, member, "재시작 전 메시지");
+        first.refresh();
+        first.stop();
+        save(roomId, member, "재시작 사이 메시지");
+
+        // when (전체 재색인 없이 마지막 커밋 이후만 다시 읽는다)
+        MessageSearchIndex second = openIndex("restart", 100);
+
+        // then
+        try {
+            await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                    assertThat(search(second, "재시작")).containsExactly("재시작 사이 메시지", "재시작 전 메시지"));
+        } finally {
+            second.stop();
+        }
+    }
+}
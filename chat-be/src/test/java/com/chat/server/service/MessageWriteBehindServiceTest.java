@@ -0,0 +1,96 @@
+package com.chat.server.service;
+
+import com.chat.server.domain.ChatRoom;
+import com.chat.server.domain.UserBase;
+import com.chat.server.dto.ChatMessageDto;
+import com.chat.server.repository.ChatMessageRepository;
+import com.chat.server.repository.ChatRoomRepository;
+import com.chat.server.repository.UserBaseRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = {
+        "chat.message.write-behind.enabled=true",
+        "chat.message.write-behind.batch-size=3",
+        "chat.message.write-behind.flush-interval-ms=20"
+})
+class MessageWriteBehindServiceTest {
+
+    @Autowired
+    private MessageWriteBehindService messageWriteBehindService;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private ChatRoomRepository chatRoomRepository;
+
+    @Autowired
+    private UserBaseRepository userBaseRepository;
+
+    private ChatMessageDto talk(Long roomId, Long senderId, String content) {
+        return ChatMessageDto.builder()
+                .type(ChatMessageDto.MessageType.TALK)
+                .roomId(roomId)
+                .senderId(senderId)
+                .message(content)
+                .build();
+    }
+
+    @Test
+    @DisplayName("대기열에 넣은 메시지가 배치로 저장됨")
+    void enqueue_flushesInBatches() {
+        // given
+        UserBase user = new UserBase();
+        user.setUserNickname("writeBehindUser");
+        userBaseRepository.save(user);
+
+        ChatRoom chatRoom = new ChatRoom();
+        chatRoom.setRoomName("Write Behind Room");
+        chatRoom.setRoomType("GROUP");
+        chatRoomRepository.save(chatRoom);
+
+        // when
+        for (int i = 0; i < 7; i++) {
+            messageWriteBehindService.enqueue(talk(chatRoom.getRoomId(), user.getUserId(), "message " + i));
+        }
+
+        // then
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(chatMessageRepository.findByChatRoom_RoomIdOrderByCreatedAtAsc(chatRoom.getRoomId())).hasSize(7));
+        assertThat(messageWriteBehindService.getPendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("잘못된 메시지가 섞여도 나머지 메시지는 저장됨")
+    void enqueue_dropsOnlyInvalidRows() {
+        // given
+        UserBase user = new UserBase();
+        user.setUserNickname("writeBehindUser2");
+        userBaseRepository.save(user);
+
+        ChatRoom chatRoom = new ChatRoom();
+        chatRoom.setRoomName("Write Behind Room 2");
+        chatRoom.setRoomType("GROUP");
+        chatRoomRepository.save(chatRoom);
+
+        long failedBefore = messageWriteBehindService.getFailedCount();
+
+        // when
+        messageWriteBehindService.enqueue(talk(chatRoom.getRoomId(), user.getUserId(), "ok 1"));
+        messageWriteBehindService.enqueue(talk(Long.MAX_VALUE, user.getUserId(), "no room"));
+        messageWriteBehindService.enqueue(talk(chatRoom.getRoomId(), user.getUserId(), "ok 2"));
+
+        // then
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(chatMessageRepository.findByChatRoom_RoomIdOrderByCreatedAtAsc(chatRoom.getRoomId())).hasSize(2));
+        assertThat(messageWriteBehindService.getFailedCount()).isEqualTo(failedBefore + 1);
+    }
+}
@@ -0,0 +1,98 @@
+package com.chat.server.service;
+
+import com.chat.server.dto.AuthRequest;
+import com.chat.server.dto.FriendDto;
+import com.chat.server.dto.UserDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class NicknameSearchIndexTest {
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private FriendService friendService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UserDto signUp(String nickname) {
+        AuthRequest.SignUp request = new AuthRequest.SignUp();
+        request.setNickname(nickname);
+        request.setLoginId("search" + SEQ.incrementAndGet());
+        request.setPassword("password");
+        return userService.signUp(request);
+    }
+
+    @Test
+    @DisplayName("가입한 사용자를 전체 일치, 앞부분 일치, 부분 일치 순으로 데이터베이스 조회 없이 찾음")
+    void searchUsers_rankedFromIndex() {
+        // given
+        String term = "qzx" + SEQ.incrementAndGet();
+        UserDto contains = signUp("bb" + term);
+        UserDto prefix = signUp(term + "ab");
+        UserDto exact = signUp(term);
+        UserDto early = signUp("a" + term);
+        UserDto me = signUp(term + "me");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        List<FriendDto> all = friendService.searchUsers(term.toUpperCase(), me.getUserId(), null, null);
+        List<FriendDto> secondPage = friendService.searchUsers(term, me.getUserId(), 1, 3);
+
+        // then
+        assertThat(all).extracting(FriendDto::getUserId)
+                .containsExactly(exact.getUserId(), prefix.getUserId(), early.getUserId(), contains.getUserId());
+        assertThat(secondPage).extracting(FriendDto::getUserId).containsExactly(contains.getUserId());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("사용자 생성 API로 만든 사용자도 바로 찾을 수 있음")
+    void createUser_indexed() {
+        // given
+        int seq = SEQ.incrementAndGet();
+        UserDto me = signUp("qzu" + seq);
+        UserDto.CreateRequest request = new UserDto.CreateRequest();
+        request.setUserNickname("qzt" + seq);
+
+        // when
+        UserDto created = userService.createUser(request);
+
+        // then
+        assertThat(friendService.searchUsers("qzt" + seq, me.getUserId(), null, null))
+                .extracting(FriendDto::getUserId).containsExactly(created.getUserId());
+    }
+
+    @Test
+    @DisplayName("닉네임을 바꾸면 새 닉네임으로만 찾을 수 있음")
+    void updateNickname_reindexed() {
+        // given
+        int seq = SEQ.incrementAndGet();
+        UserDto user = signUp("qzy" + seq);
+        UserDto me = signUp("qzv" + seq);
+
+        // when
+        userService.updateNickname(user.getUserId(), "qzw" + seq);
+
+        // then
+        assertThat(friendService.searchUsers("qzy" + seq, me.getUserId(), null, null)).isEmpty();
+        assertThat(friendService.searchUsers("zw" + seq, me.getUserId(), null, null))
+                .extracting(FriendDto::getUserNickname).containsExactly("qzw" + seq);
+    }
+}
@@ -0,0 +1,139 @@
+package com.chat.server.service;
+
+import com.chat.server.repository.RoomParticipantsHistoryRepository;
+import com.chat.server.repository.UserFriendRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PresenceNotifierTest {
+
+    private static final long ROOM_ID = 10L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PresenceRegistry presenceRegistry;
+    private UserFriendRepository userFriendRepository;
+    private RoomParticipantsHistoryRepository participantsRepository;
+    private SimpMessageSendingOperations messagingTemplate;
+    private PresenceNotifier notifier;
+
+    private record Pair(Long userId1, Long userId2) implements UserFriendRepository.FriendPair {
+        @Override
+        public Long getUserId1() {
+            return userId1;
+        }
+
+        @Override
+        public Long getUserId2() {
+            return userId2;
+        }
+    }
+
+    private record Room(Long userId, Long roomId) implements RoomParticipantsHistoryRepository.UserRoom {
+        @Override
+        public Long getUserId() {
+            return userId;
+        }
+
+        @Override
+        public Long getRoomId() {
+            return roomId;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        presenceRegistry = new PresenceRegistry(new SimpleMeterRegistry(), 60_000);
+        userFriendRepository = mock(UserFriendRepository.class);
+        participantsRepository = mock(RoomParticipantsHistoryRepository.class);
+        RoomMembershipRegistry roomMembershipRegistry = mock(RoomMembershipRegistry.class);
+        messagingTemplate = mock(SimpMessageSendingOperations.class);
+        // 다시 만들지 않은 인덱스는 친구를 저장소에서 읽는다
+        FriendGraphIndex friendGraphIndex = new FriendGraphIndex(mock(JdbcTemplate.class), userFriendRepository,
+                new SimpleMeterRegistry(), "simple", 256, 600_000);
+        notifier = new PresenceNotifier(presenceRegistry, friendGraphIndex, participantsRepository, roomMembershipRegistry,
+                new ChatBroadcaster(messagingTemplate, objectMapper), 1000, 60_000);
+
+        // 1과 2는 친구, 1/2/3/4는 같은 채팅방 참여자 (4는 오프라인)
+        when(userFriendRepository.findAcceptedFriendPairs(any())).thenReturn(List.of(new Pair(1L, 2L)));
+        when(participantsRepository.findActiveRoomsByUserIds(any())).thenReturn(List.of(new Room(1L, ROOM_ID)));
+        when(roomMembershipRegistry.getMemberIds(ROOM_ID)).thenReturn(new long[]{1, 2, 3, 4});
+    }
+
+    @Test
+    @DisplayName("접속하면 온라인인 친구와 채팅방 참여자에게 한 번씩만 알림")
+    void flush_notifiesOnlineFriendsAndRoomMembersOnce() throws Exception {
+        // given
+        presenceRegistry.connected("friend", 2L);
+        presenceRegistry.connected("member", 3L);
+        presenceRegistry.drainChangedUserIds();
+
+        // when
+        presenceRegistry.connected("user-tab-1", 1L);
+        presenceRegistry.connected("user-tab-2", 1L);
+        int notified = notifier.flush();
+
+        // then
+        assertThat(notified).isEqualTo(1);
+        Map<String, JsonNode> sent = sentByDestination(2);
+        assertThat(sent).containsOnlyKeys("/topic/user/2/presence", "/topic/user/3/presence");
+        JsonNode presence = sent.get("/topic/user/2/presence");
+        assertThat(presence).hasSize(1);
+        assertThat(presence.get(0).get("userId").asLong()).isEqualTo(1L);
+        assertThat(presence.get(0).get("online").asBoolean()).isTrue();
+    }
+
+    @Test
+    @DisplayName("알림 주기 안에서 접속했다가 끊기면 알리지 않음")
+    void flush_skipsReconnectWithinInterval() {
+        // given
+        presenceRegistry.connected("friend", 2L);
+        notifier.flush();
+        presenceRegistry.connected("user", 1L);
+        notifier.flush();
+        clearInvocations(messagingTemplate);
+
+        // when
+        presenceRegistry.disconnected("user");
+        presenceRegistry.connected("user-reconnected", 1L);
+        int notified = notifier.flush();
+
+        // then
+        assertThat(notified).isZero();
+        verify(messagingTemplate, never()).send(anyString(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, JsonNode> sentByDestination(int count) throws Exception {
+        ArgumentCaptor<String> destinations = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Message<?>> messages = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(count)).send(destinations.capture(), messages.capture());
+        Map<String, JsonNode> sent = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            sent.put(destinations.getAllValues().get(i), objectMapper.readTree((byte[]) messages.getAllValues().get(i).getPayload()));
+        }
+        return sent;
+    }
+}
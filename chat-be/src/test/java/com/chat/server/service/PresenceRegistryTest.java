@@ -0,0 +1,118 @@
+package com.chat.server.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PresenceRegistryTest {
+
+    @Test
+    @DisplayName("세션이 여러 개인 사용자는 마지막 세션이 끊길 때 오프라인")
+    void multipleSessions_offlineAfterLastDisconnect() {
+        // given
+        PresenceRegistry registry = new PresenceRegistry(new SimpleMeterRegistry(), 60_000);
+
+        // when
+        registry.connected("tab-1", 1L);
+        registry.connected("tab-2", 1L);
+        assertThat(registry.drainChangedUserIds()).containsExactly(1L);
+        registry.disconnected("tab-1");
+
+        // then
+        assertThat(registry.isOnline(1L)).isTrue();
+        assertThat(registry.drainChangedUserIds()).isEmpty();
+        registry.disconnected("tab-2");
+        assertThat(registry.isOnline(1L)).isFalse();
+        assertThat(registry.drainChangedUserIds()).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("session-timeout 동안 프레임을 받지 못한 세션만 끊긴 것으로 처리")
+    void expireIdleSessions_removesOnlySilentSessions() throws Exception {
+        // given
+        PresenceRegistry registry = new PresenceRegistry(new SimpleMeterRegistry(), 100);
+        registry.connected("active", 1L);
+        registry.connected("silent", 2L);
+
+        // when
+        Thread.sleep(150);
+        registry.touch("active");
+        int expired = registry.expireIdleSessions();
+
+        // then
+        assertThat(expired).isEqualTo(1);
+        assertThat(registry.isOnline(1L)).isTrue();
+        assertThat(registry.isOnline(2L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("유휴 시간 초과로 오프라인이 된 세션도 다시 프레임을 받으면 온라인")
+    void expiredSession_onlineAgainOnNextFrame() throws Exception {
+        // given
+        PresenceRegistry registry = new PresenceRegistry(new SimpleMeterRegistry(), 100);
+        registry.connected("tab-1", 1L);
+        registry.drainChangedUserIds();
+        Thread.sleep(150);
+        assertThat(registry.expireIdleSessions()).isEqualTo(1);
+        assertThat(registry.isOnline(1L)).isFalse();
+        assertThat(registry.drainChangedUserIds()).containsExactly(1L);
+
+        // when
+        registry.touch("tab-1");
+
+        // then
+        assertThat(registry.isOnline(1L)).isTrue();
+        assertThat(registry.drainChangedUserIds()).containsExactly(1L);
+        assertThat(registry.expireIdleSessions()).isZero();
+        registry.disconnected("tab-1");
+        assertThat(registry.isOnline(1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("오프라인이 된 세션에 프레임과 연결 해제가 동시에 들어와도 오프라인으로 끝남")
+    void expiredSession_touchRacingDisconnect_endsOffline() throws Exception {
+        // given
+        PresenceRegistry registry = new PresenceRegistry(new SimpleMeterRegistry(), 1);
+        IntStream.range(0, 50_000).forEach(i -> registry.connected("s" + i, (long) i));
+        Thread.sleep(10);
+        assertThat(registry.expireIdleSessions()).isEqualTo(50_000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // when
+        IntStream.range(0, 50_000).forEach(i -> {
+            executor.execute(() -> registry.touch("s" + i));
+            executor.execute(() -> registry.disconnected("s" + i));
+        });
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        // then
+        assertThat(IntStream.range(0, 50_000).noneMatch(userId -> registry.isOnline((long) userId))).isTrue();
+    }
+
+    @Test
+    @DisplayName("10만 세션이 동시에 연결되고 끊겨도 사용자별 집계가 맞음")
+    void concurrentConnections_countedPerUser() throws Exception {
+        // given (사용자 5만 명이 세션 두 개씩)
+        PresenceRegistry registry = new PresenceRegistry(new SimpleMeterRegistry(), 60_000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // when
+        IntStream.range(0, 100_000).forEach(i -> executor.execute(() -> registry.connected("s" + i, (long) i / 2)));
+        IntStream.range(0, 100_000).filter(i -> i % 2 == 0)
+                .forEach(i -> executor.execute(() -> registry.disconnected("s" + i)));
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        // then (세션 하나씩 남았으므로 모두 온라인)
+        assertThat(IntStream.range(0, 50_000).allMatch(userId -> registry.isOnline((long) userId))).isTrue();
+        assertThat(registry.drainChangedUserIds()).hasSize(50_000);
+    }
+}
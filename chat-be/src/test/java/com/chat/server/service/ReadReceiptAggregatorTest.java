@@ -0,0 +1,114 @@
+package com.chat.server.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReadReceiptAggregatorTest {
+
+    private static final long ROOM_ID = 10L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SimpMessageSendingOperations messagingTemplate;
+    private UnreadCountRegistry unreadCountRegistry;
+    private ReadReceiptAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessageSendingOperations.class);
+        unreadCountRegistry = mock(UnreadCountRegistry.class);
+        when(unreadCountRegistry.lastMessageId(anyLong())).thenReturn(1_000L);
+        aggregator = new ReadReceiptAggregator(new ChatBroadcaster(messagingTemplate, objectMapper),
+                unreadCountRegistry, new SimpleMeterRegistry(), 250);
+    }
+
+    @Test
+    @DisplayName("주기 동안 받은 채팅방의 읽음 확인은 프레임 하나로 모이고 사용자별 최신 위치만 저장")
+    @SuppressWarnings("unchecked")
+    void flush_sendsOneFramePerRoomWithLatestWatermarks() throws Exception {
+        // given: 500명이 같은 메시지를, 한 명은 두 번 보내 더 최신 메시지를 읽음
+        for (long userId = 1; userId <= 500; userId++) {
+            aggregator.record(ROOM_ID, userId, 100L);
+        }
+        aggregator.record(ROOM_ID, 1L, 101L);
+        aggregator.record(ROOM_ID, 1L, 99L);
+
+        // when
+        int frames = aggregator.flush();
+
+        // then
+        assertThat(frames).isEqualTo(1);
+        ArgumentCaptor<Message<byte[]>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(1)).send(eq("/topic/chat/room/" + ROOM_ID), captor.capture());
+        JsonNode sent = objectMapper.readTree(captor.getValue().getPayload());
+        assertThat(sent.get("type").asText()).isEqualTo("READ_RECEIPT");
+        assertThat(sent.get("readReceipts").get("100")).hasSize(499);
+        assertThat(sent.get("readReceipts").get("101")).hasSize(1);
+        assertThat(sent.get("readReceipts").get("101").get(0).asLong()).isEqualTo(1L);
+        verify(unreadCountRegistry).markRead(1L, ROOM_ID, 101L);
+        verify(unreadCountRegistry, never()).markRead(1L, ROOM_ID, 100L);
+        verify(unreadCountRegistry, times(500)).markRead(any(), eq(ROOM_ID), anyLong());
+    }
+
+    @Test
+    @DisplayName("채팅방의 마지막 메시지보다 뒤의 ID는 마지막 메시지로 낮추고, 0 이하인 ID와 메시지가 없는 채팅방은 무시")
+    @SuppressWarnings("unchecked")
+    void record_clampsToLastMessageAndIgnoresInvalidIds() throws Exception {
+        // given
+        when(unreadCountRegistry.lastMessageId(ROOM_ID)).thenReturn(100L);
+        when(unreadCountRegistry.lastMessageId(ROOM_ID + 1)).thenReturn(0L);
+
+        // when
+        aggregator.record(ROOM_ID, 1L, Long.MAX_VALUE);
+        aggregator.record(ROOM_ID, 2L, 0L);
+        aggregator.record(ROOM_ID, 3L, -5L);
+        aggregator.record(ROOM_ID + 1, 1L, 50L);
+        int frames = aggregator.flush();
+
+        // then
+        assertThat(frames).isEqualTo(1);
+        ArgumentCaptor<Message<byte[]>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/topic/chat/room/" + ROOM_ID), captor.capture());
+        JsonNode readReceipts = objectMapper.readTree(captor.getValue().getPayload()).get("readReceipts");
+        assertThat(readReceipts.size()).isEqualTo(1);
+        assertThat(readReceipts.get("100")).hasSize(1);
+        verify(unreadCountRegistry).markRead(1L, ROOM_ID, 100L);
+        verify(unreadCountRegistry, times(1)).markRead(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("보낸 읽음 확인은 다음 주기에 다시 보내지 않음")
+    void flush_emptyAfterDrain() {
+        // given
+        aggregator.record(ROOM_ID, 1L, 100L);
+        aggregator.record(ROOM_ID + 1, 1L, 200L);
+        assertThat(aggregator.flush()).isEqualTo(2);
+        clearInvocations(messagingTemplate, unreadCountRegistry);
+
+        // when
+        int frames = aggregator.flush();
+
+        // then
+        assertThat(frames).isZero();
+        verify(messagingTemplate, never()).send(anyString(), any(Message.class));
+    }
+}
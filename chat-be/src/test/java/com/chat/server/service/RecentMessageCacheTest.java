@@ -0,0 +1,102 @@
+package com.chat.server.service;
+
+import com.chat.server.dto.ChatMessageDto;
+import com.chat.server.repository.ChatMessageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecentMessageCacheTest {
+
+    private static final long ROOM_ID = 1L;
+
+    private ChatMessageRepository chatMessageRepository;
+    private MeterRegistry meterRegistry;
+    private RecentMessageCache recentMessageCache;
+
+    private ChatMessageDto message(long messageId) {
+        return new ChatMessageDto(messageId, ROOM_ID, 1L, "user", "m" + messageId, LocalDateTime.now());
+    }
+
+    private List<Long> ids(List<ChatMessageDto> messages) {
+        return messages.stream().map(ChatMessageDto::getMessageId).toList();
+    }
+
+    private double requests(String result) {
+        return meterRegistry.counter("chat.message.recent.cache.requests", "result", result).count();
+    }
+
+    @BeforeEach
+    void setUp() {
+        chatMessageRepository = mock(ChatMessageRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        recentMessageCache = new RecentMessageCache(chatMessageRepository, meterRegistry, "simple", 10, 5);
+    }
+
+    @Test
+    @DisplayName("첫 조회는 DB로 채우고 이후 조회와 새 메시지는 메모리에서 처리")
+    void findLatest_warmsOnceThenServesFromBuffer() {
+        // given
+        when(chatMessageRepository.findLatestMessages(eq(ROOM_ID), any()))
+                .thenReturn(LongStream.of(5, 4, 3, 2, 1).mapToObj(this::message).toList());
+
+        // when
+        List<ChatMessageDto> first = recentMessageCache.findLatest(ROOM_ID, 3).orElseThrow();
+        recentMessageCache.append(message(6));
+        recentMessageCache.append(message(7));
+        List<ChatMessageDto> second = recentMessageCache.findLatest(ROOM_ID, 5).orElseThrow();
+
+        // then
+        assertThat(ids(first)).containsExactly(5L, 4L, 3L);
+        assertThat(ids(second)).containsExactly(7L, 6L, 5L, 4L, 3L);
+        verify(chatMessageRepository, times(1)).findLatestMessages(eq(ROOM_ID), any());
+        assertThat(requests("miss")).isEqualTo(1);
+        assertThat(requests("hit")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("조회 전에 추가된 메시지와 DB 결과를 ID 순서로 합치고 중복은 제거")
+    void findLatest_mergesAppendedMessagesWithDatabaseRows() {
+        // given (8번은 아직 DB에 저장되지 않았고, 7번은 버퍼와 DB 양쪽에 있다)
+        recentMessageCache.append(message(8));
+        recentMessageCache.append(message(7));
+        when(chatMessageRepository.findLatestMessages(eq(ROOM_ID), any()))
+                .thenReturn(LongStream.of(7, 6, 5).mapToObj(this::message).toList());
+
+        // when
+        List<ChatMessageDto> latest = recentMessageCache.findLatest(ROOM_ID, 5).orElseThrow();
+
+        // then
+        assertThat(ids(latest)).containsExactly(8L, 7L, 6L, 5L);
+    }
+
+    @Test
+    @DisplayName("relay 모드에서는 다른 서버의 메시지를 알 수 없으므로 캐시를 사용하지 않음")
+    void findLatest_disabledInRelayMode() {
+        RecentMessageCache relayCache = new RecentMessageCache(chatMessageRepository, meterRegistry, "relay", 10, 5);
+        relayCache.append(message(1));
+
+        assertThat(relayCache.findLatest(ROOM_ID, 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("버퍼 크기보다 큰 페이지는 캐시로 처리하지 않음")
+    void findLatest_largerThanCapacity() {
+        assertThat(recentMessageCache.findLatest(ROOM_ID, 6)).isEmpty();
+        assertThat(requests("miss")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,114 @@
+package com.chat.server.service;
+
+import com.chat.server.exception.CustomException;
+import com.chat.server.exception.ErrorCode;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoomLaneExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RoomLaneExecutor roomLaneExecutor;
+
+    @AfterEach
+    void tearDown() {
+        roomLaneExecutor.stop();
+    }
+
+    @Test
+    @DisplayName("같은 채팅방 작업은 같은 레인에서 제출 순서대로 실행")
+    void execute_preservesPerRoomOrder() throws InterruptedException {
+        // given
+        roomLaneExecutor = new RoomLaneExecutor(meterRegistry, false, 4, 10000, 1000, 5000);
+        roomLaneExecutor.start();
+        Map<Long, List<Integer>> executed = new ConcurrentHashMap<>();
+        Map<Long, String> threads = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(8 * 500);
+
+        // when
+        for (int seq = 0; seq < 500; seq++) {
+            for (long roomId = 1; roomId <= 8; roomId++) {
+                long room = roomId;
+                int value = seq;
+                roomLaneExecutor.execute(room, () -> {
+                    executed.computeIfAbsent(room, key -> new CopyOnWriteArrayList<>()).add(value);
+                    threads.merge(room, Thread.currentThread().getName(), (a, b) -> a.equals(b) ? a : "mixed");
+                    done.countDown();
+                });
+            }
+        }
+
+        // then
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        List<Integer> expected = IntStream.range(0, 500).boxed().toList();
+        for (long roomId = 1; roomId <= 8; roomId++) {
+            assertThat(executed.get(roomId)).containsExactlyElementsOf(expected);
+            assertThat(threads.get(roomId)).isEqualTo("chat-room-lane-" + roomLaneExecutor.laneIndex(roomId));
+        }
+        long lagRecords = meterRegistry.get("chat.inbound.lane.lag").timers().stream().mapToLong(Timer::count).sum();
+        assertThat(lagRecords).isEqualTo(8 * 500);
+    }
+
+    @Test
+    @DisplayName("레인 대기열이 가득 차면 대기 후 예외")
+    void execute_fail_queueFull() throws InterruptedException {
+        // given
+        roomLaneExecutor = new RoomLaneExecutor(meterRegistry, false, 1, 1, 50, 5000);
+        roomLaneExecutor.start();
+        CountDownLatch blocker = new CountDownLatch(1);
+        roomLaneExecutor.execute(1L, () -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        roomLaneExecutor.execute(1L, () -> { });
+
+        // when & then
+        try {
+            assertThat(meterRegistry.get("chat.inbound.lane.queue.depth").gauge().value()).isEqualTo(1);
+            assertThatThrownBy(() -> roomLaneExecutor.execute(1L, () -> { }))
+                    .isInstanceOf(CustomException.class)
+                    .extracting("errorCode").isEqualTo(ErrorCode.MESSAGE_QUEUE_FULL);
+        } finally {
+            blocker.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("레인 작업이 실패하면 예외를 실패 콜백에 넘기고 다음 작업은 계속 실행")
+    void execute_failureReportedToCallback() throws InterruptedException {
+        // given
+        roomLaneExecutor = new RoomLaneExecutor(meterRegistry, false, 1, 10, 1000, 5000);
+        roomLaneExecutor.start();
+        AtomicReference<RuntimeException> reported = new AtomicReference<>();
+        CountDownLatch next = new CountDownLatch(1);
+
+        // when
+        roomLaneExecutor.execute(1L, () -> {
+            throw new CustomException(ErrorCode.NOT_ROOM_PARTICIPANT);
+        }, reported::set);
+        roomLaneExecutor.execute(1L, next::countDown);
+
+        // then
+        assertThat(next.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(reported.get()).isInstanceOf(CustomException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.NOT_ROOM_PARTICIPANT);
+    }
+}
@@ -0,0 +1,142 @@
+package com.chat.server.service;
+
+import com.chat.server.domain.UserBase;
+import com.chat.server.dto.UserDto;
+import com.chat.server.event.RoomMembershipChangedEvent;
+import com.chat.server.repository.UserBaseRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoomMembershipNotifierTest {
+
+    private static final int ROOM_SIZE = 2_000;
+    private static final long ROOM_ID = 1L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private RoomMembershipRegistry roomMembershipRegistry;
+    private UserBaseRepository userBaseRepository;
+    private ChatService chatService;
+    private SimpMessageSendingOperations messagingTemplate;
+    private RoomMembershipNotifier notifier;
+
+    private static UserBase user(long userId) {
+        UserBase user = new UserBase();
+        user.setUserId(userId);
+        user.setUserNickname("member" + userId);
+        return user;
+    }
+
+    @BeforeEach
+    void setUp() {
+        roomMembershipRegistry = mock(RoomMembershipRegistry.class);
+        userBaseRepository = mock(UserBaseRepository.class);
+        chatService = mock(ChatService.class);
+        messagingTemplate = mock(SimpMessageSendingOperations.class);
+        UserProfileCache userProfileCache = new UserProfileCache(userBaseRepository, new SimpleMeterRegistry(), "simple", 1_000, 30);
+        notifier = new RoomMembershipNotifier(roomMembershipRegistry, userProfileCache, chatService,
+                new ChatBroadcaster(messagingTemplate, objectMapper));
+
+        when(userBaseRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            return StreamSupport.stream(ids.spliterator(), false).map(RoomMembershipNotifierTest::user).toList();
+        });
+        when(chatService.getRoomParticipants(ROOM_ID)).thenReturn(LongStream.rangeClosed(1, ROOM_SIZE)
+                .mapToObj(id -> UserDto.fromEntity(user(id)))
+                .toList());
+    }
+
+    @Test
+    @DisplayName("여러 명이 한 번에 참여하면 JOIN 메시지 하나에 모두 담아 전송")
+    void joined_coalescedIntoSingleMessage() throws Exception {
+        // given
+        when(roomMembershipRegistry.apply(any())).thenReturn(new RoomMembershipRegistry.Snapshot(new long[]{1, 2, 3, 4, 5}, 101L));
+
+        // when
+        notifier.onMembershipChanged(RoomMembershipChangedEvent.joined(ROOM_ID, Set.of(5L, 2L, 3L, 4L)));
+
+        // then
+        JsonNode sent = sentPayloads(1).get(0);
+        assertThat(sent.get("type").asText()).isEqualTo("JOIN");
+        assertThat(sent.get("membershipVersion").asLong()).isEqualTo(101L);
+        assertThat(sent.get("changedMembers").findValuesAsText("userId")).containsExactly("2", "3", "4", "5");
+        assertThat(sent.get("message").asText()).isEqualTo("member2, member3, member4 외 1명님이 채팅방에 참여했습니다.");
+        assertThat(sent.has("participants")).isFalse();
+    }
+
+    @Test
+    @DisplayName("채팅방 생성은 참여자 전체를 담은 ROOM_CREATED 메시지 하나로 전송")
+    void created_sentAsSingleRoomCreatedMessage() throws Exception {
+        // given
+        when(roomMembershipRegistry.apply(any())).thenReturn(new RoomMembershipRegistry.Snapshot(new long[]{1, 2, 3}, 7L));
+
+        // when
+        notifier.onMembershipChanged(RoomMembershipChangedEvent.created(ROOM_ID, Set.of(3L, 1L, 2L)));
+
+        // then
+        JsonNode sent = sentPayloads(1).get(0);
+        assertThat(sent.get("type").asText()).isEqualTo("ROOM_CREATED");
+        assertThat(sent.get("membershipVersion").asLong()).isEqualTo(7L);
+        assertThat(sent.get("changedMembers").findValuesAsText("userId")).containsExactly("1", "2", "3");
+        assertThat(sent.get("senderId").isNull()).isTrue();
+    }
+
+    @Test
+    @DisplayName("큰 채팅방의 JOIN 메시지 크기가 참여자 수와 관계없이 일정")
+    void largeRoom_deltaPayloadIsIndependentOfRoomSize() throws Exception {
+        // given (버전이 없는 relay 모드는 기존처럼 전체 참여자 목록을 보낸다)
+        long[] memberIds = LongStream.rangeClosed(1, ROOM_SIZE).toArray();
+        RoomMembershipChangedEvent event = RoomMembershipChangedEvent.joined(ROOM_ID, Set.of((long) ROOM_SIZE));
+        when(roomMembershipRegistry.apply(any()))
+                .thenReturn(new RoomMembershipRegistry.Snapshot(memberIds, null))
+                .thenReturn(new RoomMembershipRegistry.Snapshot(memberIds, 1L));
+
+        // when
+        notifier.onMembershipChanged(event);
+        notifier.onMembershipChanged(event);
+
+        // then (메시지 한 건은 채팅방의 모든 구독 세션에 그대로 전달된다)
+        List<byte[]> sent = sentBytes(2);
+        long fullListBytesOnWire = (long) sent.get(0).length * ROOM_SIZE;
+        long deltaBytesOnWire = (long) sent.get(1).length * ROOM_SIZE;
+        assertThat(sent.get(1).length).isLessThan(512);
+        assertThat(deltaBytesOnWire * 100).isLessThan(fullListBytesOnWire);
+    }
+
+    private List<JsonNode> sentPayloads(int count) throws Exception {
+        List<JsonNode> payloads = new ArrayList<>();
+        for (byte[] bytes : sentBytes(count)) {
+            payloads.add(objectMapper.readTree(bytes));
+        }
+        return payloads;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<byte[]> sentBytes(int count) {
+        ArgumentCaptor<Message<?>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(count)).send(anyString(), captor.capture());
+        return captor.getAllValues().stream().map(message -> (byte[]) message.getPayload()).toList();
+    }
+}
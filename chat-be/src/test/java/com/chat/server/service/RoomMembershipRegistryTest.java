@@ -0,0 +1,121 @@
+package com.chat.server.service;
+
+import com.chat.server.domain.ChatRoom;
+import com.chat.server.domain.RoomParticipantsHistory;
+import com.chat.server.domain.UserBase;
+import com.chat.server.dto.ChatRoomDto;
+import com.chat.server.dto.UserDto;
+import com.chat.server.repository.ChatRoomRepository;
+import com.chat.server.repository.UserBaseRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class RoomMembershipRegistryTest {
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private RoomMembershipRegistry roomMembershipRegistry;
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private UserBaseRepository userBaseRepository;
+
+    @Autowired
+    private ChatRoomRepository chatRoomRepository;
+
+    private UserBase createUser() {
+        UserBase user = new UserBase();
+        user.setUserNickname("registry" + SEQ.incrementAndGet());
+        return userBaseRepository.save(user);
+    }
+
+    @Test
+    @DisplayName("채팅방 생성, 초대, 퇴장이 커밋 이후 레지스트리에 반영됨")
+    void membershipChanges_appliedAfterCommit() {
+        // given
+        UserBase owner = createUser();
+        UserBase friend = createUser();
+        UserBase invited = createUser();
+        ChatRoomDto.CreateRequest request = new ChatRoomDto.CreateRequest();
+        request.setRoomName("Registry Room");
+        request.setRoomType("GROUP");
+        request.setUserNicknames(List.of(owner.getUserNickname(), friend.getUserNickname()));
+
+        // when
+        Long roomId = chatService.createChatRoom(request).getRoomId();
+        chatService.inviteUsersToRoom(roomId, owner.getUserId(), List.of(invited.getUserNickname()));
+        chatService.removeParticipant(roomId, friend.getUserId());
+
+        // then
+        assertThat(roomMembershipRegistry.getMemberIds(roomId)).containsExactly(owner.getUserId(), invited.getUserId());
+        assertThat(roomMembershipRegistry.isMember(roomId, friend.getUserId())).isFalse();
+        assertThat(chatService.getRoomParticipants(roomId)).extracting(UserDto::getUserId)
+                .containsExactly(owner.getUserId(), invited.getUserId());
+    }
+
+    @Test
+    @DisplayName("참여자 구성 버전은 참여자 변경 한 건마다 1씩 증가")
+    void membershipVersion_increasesPerChange() {
+        // given
+        UserBase owner = createUser();
+        ChatRoomDto.CreateRequest request = new ChatRoomDto.CreateRequest();
+        request.setRoomName("Version Room");
+        request.setRoomType("GROUP");
+        request.setUserNicknames(List.of(owner.getUserNickname()));
+        Long roomId = chatService.createChatRoom(request).getRoomId();
+        long created = chatService.getRoomMembers(roomId).getVersion();
+
+        // when
+        chatService.inviteUsersToRoom(roomId, owner.getUserId(), List.of(createUser().getUserNickname(), createUser().getUserNickname()));
+        chatService.removeParticipant(roomId, owner.getUserId());
+
+        // then
+        ChatRoomDto.Members members = chatService.getRoomMembers(roomId);
+        assertThat(members.getVersion()).isEqualTo(created + 2);
+        assertThat(members.getMembers()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("다시 만들면 이벤트 없이 저장된 참여 기록도 데이터베이스에서 읽어 옴")
+    void rebuild_loadsActiveMembershipsFromDatabase() {
+        // given (이벤트를 거치지 않고 저장하여 재시작 직후 상태를 흉내 낸다)
+        UserBase active = createUser();
+        UserBase left = createUser();
+        ChatRoom chatRoom = new ChatRoom();
+        chatRoom.setRoomName("Rebuild Room");
+        chatRoom.setRoomType("GROUP");
+        chatRoom.getParticipants().add(participant(chatRoom, active, null));
+        chatRoom.getParticipants().add(participant(chatRoom, left, LocalDateTime.now()));
+        chatRoomRepository.save(chatRoom);
+        assertThat(roomMembershipRegistry.isMember(chatRoom.getRoomId(), active.getUserId())).isFalse();
+
+        // when
+        roomMembershipRegistry.rebuild();
+
+        // then
+        assertThat(roomMembershipRegistry.getMemberIds(chatRoom.getRoomId())).containsExactly(active.getUserId());
+        assertThat(roomMembershipRegistry.isMember(chatRoom.getRoomId(), left.getUserId())).isFalse();
+        assertThat(roomMembershipRegistry.estimatedMemoryBytes()).isPositive();
+    }
+
+    private RoomParticipantsHistory participant(ChatRoom chatRoom, UserBase user, LocalDateTime quitAt) {
+        RoomParticipantsHistory participant = new RoomParticipantsHistory();
+        participant.setChatRoom(chatRoom);
+        participant.setUserBase(user);
+        participant.setJoinedAt(LocalDateTime.now());
+        participant.setQuitAt(quitAt);
+        return participant;
+    }
+}
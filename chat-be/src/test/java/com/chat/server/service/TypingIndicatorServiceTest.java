@@ -0,0 +1,99 @@
+package com.chat.server.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TypingIndicatorServiceTest {
+
+    private static final long ROOM_ID = 10L;
+    private static final String TYPING_TOPIC = "/topic/chat/room/" + ROOM_ID + "/typing";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SimpMessageSendingOperations messagingTemplate;
+    private RoomMembershipRegistry roomMembershipRegistry;
+    private TypingIndicatorService service;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessageSendingOperations.class);
+        roomMembershipRegistry = mock(RoomMembershipRegistry.class);
+        when(roomMembershipRegistry.isMember(eq(ROOM_ID), anyLong())).thenReturn(true);
+        service = new TypingIndicatorService(new ChatBroadcaster(messagingTemplate, objectMapper),
+                roomMembershipRegistry, new SimpleMeterRegistry(), 60_000, 50, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    @DisplayName("throttle 간격 안의 입력 중 이벤트는 한 번만 알림")
+    void update_throttlesRepeatedEvents() {
+        // when: 키 입력마다 이벤트
+        for (int i = 0; i < 100; i++) {
+            service.update(ROOM_ID, 1L, true);
+        }
+
+        // then
+        verify(messagingTemplate, after(200).times(1)).send(eq(TYPING_TOPIC), any(Message.class));
+    }
+
+    @Test
+    @DisplayName("ttl 동안 이벤트가 없으면 입력 종료를 알리고, 메시지를 보내면 알리지 않고 지움")
+    @SuppressWarnings("unchecked")
+    void expireIdle_sendsStopOnlyForSilentUsers() throws Exception {
+        // given
+        service.update(ROOM_ID, 1L, true);
+        service.update(ROOM_ID, 2L, true);
+        service.clear(ROOM_ID, 2L);
+        Thread.sleep(100);
+
+        // when
+        int expired = service.expireIdle();
+
+        // then
+        assertThat(expired).isEqualTo(1);
+        ArgumentCaptor<Message<byte[]>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, timeout(1000).times(3)).send(eq(TYPING_TOPIC), captor.capture());
+        JsonNode stop = objectMapper.readTree(captor.getAllValues().get(2).getPayload());
+        assertThat(stop.get("userId").asLong()).isEqualTo(1L);
+        assertThat(stop.get("typing").asBoolean()).isFalse();
+    }
+
+    @Test
+    @DisplayName("채팅방 참여자가 아닌 사용자의 이벤트는 무시")
+    void update_ignoresNonMembers() {
+        // given
+        when(roomMembershipRegistry.isMember(ROOM_ID, 3L)).thenReturn(false);
+
+        // when
+        service.update(ROOM_ID, 3L, true);
+        service.update(ROOM_ID, 3L, false);
+
+        // then
+        verify(messagingTemplate, after(100).never()).send(anyString(), any(Message.class));
+    }
+}
@@ -0,0 +1,188 @@
+package com.chat.server.service;
+
+import com.chat.server.domain.ChatMessage;
+import com.chat.server.domain.UserBase;
+import com.chat.server.dto.ChatMessageDto;
+import com.chat.server.dto.ChatRoomDto;
+import com.chat.server.event.RoomMembershipChangedEvent;
+import com.chat.server.repository.UserBaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UnreadCountRegistryTest {
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private UnreadCountRegistry unreadCountRegistry;
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private ReadReceiptAggregator readReceiptAggregator;
+
+    @Autowired
+    private RoomInboxUpdater roomInboxUpdater;
+
+    @Autowired
+    private UserBaseRepository userBaseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UserBase sender;
+    private UserBase reader;
+    private Long roomId;
+
+    private UserBase createUser() {
+        UserBase user = new UserBase();
+        user.setUserNickname("unread" + SEQ.incrementAndGet());
+        return userBaseRepository.save(user);
+    }
+
+    @BeforeEach
+    void setUp() {
+        sender = createUser();
+        reader = createUser();
+        ChatRoomDto.CreateRequest request = new ChatRoomDto.CreateRequest();
+        request.setRoomName("Unread Room");
+        request.setRoomType("GROUP");
+        request.setUserNicknames(List.of(sender.getUserNickname(), reader.getUserNickname()));
+        roomId = chatService.createChatRoom(request).getRoomId();
+    }
+
+    private Long send(String content) {
+        return send(unreadCountRegistry, content);
+    }
+
+    private Long send(UnreadCountRegistry registry, String content) {
+        ChatMessageDto message = ChatMessageDto.builder()
+                .type(ChatMessageDto.MessageType.TALK)
+                .roomId(roomId)
+                .senderId(sender.getUserId())
+                .message(content)
+                .build();
+        ChatMessage saved = chatService.saveMessage(message);
+        message.setMessageId(saved.getMessageId());
+        roomInboxUpdater.onMessage(message);
+        registry.onMessage(roomId, sender.getUserId(), saved.getMessageId());
+        return saved.getMessageId();
+    }
+
+    @Test
+    @DisplayName("메시지는 보낸 사람을 제외한 참여자의 안 읽은 수만 늘리고, 읽음 처리하면 0이 됨")
+    void onMessage_countsForOthersUntilRead() {
+        // when
+        send("one");
+        send("two");
+
+        // then
+        assertThat(unreadCountRegistry.getUnreadCounts(reader.getUserId())).containsEntry(roomId, 2L);
+        assertThat(unreadCountRegistry.getUnreadCounts(sender.getUserId())).containsEntry(roomId, 0L);
+        chatService.markRoomRead(roomId, reader.getUserId());
+        assertThat(chatService.findRoomsByUserId(reader.getUserId()))
+                .filteredOn(room -> room.getRoomId().equals(roomId))
+                .extracting(ChatRoomDto::getUnreadCount).containsExactly(0L);
+    }
+
+    @Test
+    @DisplayName("저장된 읽음 위치로 다시 만들면 재시작 전과 같은 안 읽은 수를 복원")
+    void rebuild_restoresCountsFromFlushedMarkers() {
+        // given
+        send("read");
+        unreadCountRegistry.markRead(reader.getUserId(), roomId);
+        send("unread-1");
+        send("unread-2");
+        unreadCountRegistry.flush();
+
+        // when
+        unreadCountRegistry.rebuild();
+
+        // then
+        assertThat(jdbcTemplate.queryForObject("SELECT message_seq FROM chat_room WHERE room_id = ?", Long.class, roomId))
+                .isEqualTo(3L);
+        assertThat(unreadCountRegistry.getUnreadCounts(reader.getUserId())).containsEntry(roomId, 2L);
+        assertThat(unreadCountRegistry.getUnreadCounts(sender.getUserId())).containsEntry(roomId, 0L);
+
+        // 다시 만든 뒤에도 이어서 증가
+        send("after-restart");
+        assertThat(unreadCountRegistry.getUnreadCounts(reader.getUserId())).containsEntry(roomId, 3L);
+    }
+
+    @Test
+    @DisplayName("읽음 확인은 보낸 메시지 ID를 읽음 위치로 남기고, 마지막 메시지까지 읽으면 안 읽은 수가 0이 됨")
+    void readReceipt_movesWatermark() {
+        // given
+        Long first = send("one");
+        Long last = send("two");
+
+        // when: 이전 메시지까지 읽음
+        chatService.receiveReadReceipt(roomId, reader.getUserId(), first);
+        readReceiptAggregator.flush();
+
+        // then
+        assertThat(chatService.getReadReceipts(roomId)).containsEntry(first, List.of(reader.getUserId()));
+        assertThat(unreadCountRegistry.getUnreadCounts(reader.getUserId())).containsEntry(roomId, 2L);
+
+        // when: 마지막 메시지까지 읽음
+        chatService.receiveReadReceipt(roomId, reader.getUserId(), last);
+        readReceiptAggregator.flush();
+
+        // then
+        assertThat(chatService.getReadReceipts(roomId).get(last)).contains(reader.getUserId(), sender.getUserId());
+        assertThat(unreadCountRegistry.getUnreadCounts(reader.getUserId())).containsEntry(roomId, 0L);
+    }
+
+    @Test
+    @DisplayName("relay 모드에서는 저장된 채팅방 순번과 읽은 순번의 차이로 안 읽은 수를 계산")
+    void relay_countsFromPersistedSequences() {
+        // given (같은 읽음 위치를 덮어쓰지 않도록 simple 모드 레지스트리에 남은 변경을 먼저 저장한다)
+        unreadCountRegistry.flush();
+        UnreadCountRegistry relay = new UnreadCountRegistry(jdbcTemplate, transactionTemplate, new SimpleMeterRegistry(),
+                "relay", 500, 60_000);
+        relay.onMembershipChanged(RoomMembershipChangedEvent.created(roomId, Set.of(sender.getUserId(), reader.getUserId())));
+        relay.flush();
+        Long first = send(relay, "one");
+        send(relay, "two");
+
+        // when
+        roomInboxUpdater.flush();
+        relay.flush();
+
+        // then
+        assertThat(relay.getUnreadCounts(reader.getUserId())).containsEntry(roomId, 2L);
+        assertThat(relay.getUnreadCounts(sender.getUserId())).containsEntry(roomId, 0L);
+
+        // 이전 메시지까지 읽으면 읽음 위치만 옮긴다
+        relay.markRead(reader.getUserId(), roomId, first);
+        relay.flush();
+        assertThat(relay.getReadWatermarks(roomId, new long[]{reader.getUserId()})).containsEntry(reader.getUserId(), first);
+        assertThat(relay.getUnreadCounts(reader.getUserId())).containsEntry(roomId, 2L);
+
+        // 같은 주기에 올린 메시지까지 모두 읽음 처리에 포함된다
+        send(relay, "three");
+        relay.markRead(reader.getUserId(), roomId);
+        relay.flush();
+        assertThat(relay.getUnreadCounts(reader.getUserId())).containsEntry(roomId, 0L);
+        send(relay, "four");
+        relay.flush();
+        assertThat(relay.getUnreadCounts(reader.getUserId())).containsEntry(roomId, 1L);
+    }
+}
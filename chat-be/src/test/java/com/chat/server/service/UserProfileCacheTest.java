@@ -0,0 +1,108 @@
+package com.chat.server.service;
+
+import com.chat.server.domain.UserBase;
+import com.chat.server.repository.UserBaseRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserProfileCacheTest {
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserBaseRepository userBaseRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private UserBase createUser() {
+        UserBase user = new UserBase();
+        user.setUserNickname("profile" + SEQ.incrementAndGet());
+        return userBaseRepository.save(user);
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("여러 닉네임을 찾을 때 캐시에 없는 사용자만 한 번의 조회로 읽음")
+    void findAllByNickname_loadsOnlyColdUsers() {
+        // given
+        UserBase warm = createUser();
+        UserBase cold = createUser();
+        userProfileCache.findByNickname(warm.getUserNickname());
+        statistics.clear();
+
+        // when
+        List<UserProfileCache.UserProfile> first = userProfileCache.findAllByNickname(
+                List.of(warm.getUserNickname(), cold.getUserNickname()));
+        long firstLoad = statistics.getPrepareStatementCount();
+        List<UserProfileCache.UserProfile> second = userProfileCache.findAllByNickname(
+                List.of(warm.getUserNickname(), cold.getUserNickname()));
+
+        // then
+        assertThat(first).extracting(UserProfileCache.UserProfile::userId)
+                .containsExactlyInAnyOrder(warm.getUserId(), cold.getUserId());
+        assertThat(second).hasSize(2);
+        assertThat(firstLoad).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(firstLoad);
+        assertThat(userProfileCache.findById(cold.getUserId())).isPresent();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(firstLoad);
+    }
+
+    @Test
+    @DisplayName("닉네임을 바꾸면 ID와 이전 닉네임 색인이 함께 무효화됨")
+    void updateNickname_evictsIdAndNickname() {
+        // given
+        UserBase user = createUser();
+        String oldNickname = user.getUserNickname();
+        userProfileCache.findByNickname(oldNickname);
+
+        // when
+        userService.updateNickname(user.getUserId(), "renamed" + SEQ.incrementAndGet());
+
+        // then
+        assertThat(userProfileCache.findByNickname(oldNickname)).isEmpty();
+        String newNickname = userProfileCache.findById(user.getUserId()).orElseThrow().userNickname();
+        assertThat(newNickname).startsWith("renamed");
+        assertThat(userProfileCache.findByNickname(newNickname)).map(UserProfileCache.UserProfile::userId)
+                .contains(user.getUserId());
+    }
+
+    @Test
+    @DisplayName("사용자를 삭제하면 캐시에서도 찾을 수 없음")
+    void deleteUser_evicts() {
+        // given
+        UserBase user = createUser();
+        userProfileCache.findById(user.getUserId());
+
+        // when
+        userService.deleteUser(user.getUserId());
+
+        // then
+        assertThat(userProfileCache.findById(user.getUserId())).isEmpty();
+        assertThat(userProfileCache.findByNickname(user.getUserNickname())).isEmpty();
+    }
+}
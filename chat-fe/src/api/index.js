@@ -117,6 +117,17 @@ export const getChatRoomsByUserId = (userId) => {
   return apiClient.get(`/chat/rooms/user/${userId}`);
 };
 
+/**
+ * @function getInbox
+ * @description 특정 사용자가 참여한 채팅방 목록을 마지막 메시지 시간 역순으로 한 페이지 조회하는 API 호출
+ * @param {string} userId - 사용자 ID
+ * @param {object} [cursor] - 이전 응답의 { beforeAt: nextBeforeAt, beforeRoomId: nextBeforeRoomId } (없으면 첫 페이지)
+ * @returns {Promise} Axios 응답 객체
+ */
+export const getInbox = (userId, cursor) => {
+  return apiClient.get(`/chat/rooms/user/${userId}/inbox`, { params: cursor });
+};
+
 /**
  * @function createChatRoom
  * @description 새 채팅방 생성 API 호출
@@ -137,6 +148,48 @@ export const getMessagesByRoomId = (roomId) => {
   return apiClient.get(`/chat/room/${roomId}/messages`);
 };
 
+/**
+ * @function getMessagePage
+ * @description 메시지 ID 커서로 채팅방 메시지를 한 페이지 조회하는 API 호출
+ * @param {string} roomId - 채팅방 ID
+ * @param {object} [params] - 조회 조건 (before: 이전 메시지 커서, after: 이후 메시지 커서, limit: 페이지 크기)
+ * @returns {Promise} Axios 응답 객체 (messages, oldestMessageId, newestMessageId, hasMore)
+ */
+export const getMessagePage = (roomId, params = {}) => {
+  return apiClient.get(`/chat/room/${roomId}/messages/page`, { params });
+};
+
+/**
+ * @function getRoomMembers
+ * @description 채팅방의 현재 참여자 목록과 참여자 구성 버전 조회 API 호출
+ * @param {string} roomId - 채팅방 ID
+ * @returns {Promise} Axios 응답 객체 (version, members)
+ */
+export const getRoomMembers = (roomId) => {
+  return apiClient.get(`/chat/room/${roomId}/members`);
+};
+
+/**
+ * @function markRoomRead
+ * @description 채팅방의 현재까지 메시지를 모두 읽은 것으로 처리하는 API 호출
+ * @param {string} roomId - 채팅방 ID
+ * @returns {Promise} Axios 응답 객체
+ */
+export const markRoomRead = (roomId) => {
+  return apiClient.post(`/chat/room/${roomId}/read`);
+};
+
+/**
+ * @function getReadReceipts
+ * @description 채팅방 참여자들의 현재 읽음 위치 조회 API 호출
+ * 응답은 READ_RECEIPT 메시지의 readReceipts와 같은 형태(메시지 ID별 사용자 ID 목록)다.
+ * @param {string} roomId - 채팅방 ID
+ * @returns {Promise} Axios 응답 객체
+ */
+export const getReadReceipts = (roomId) => {
+  return apiClient.get(`/chat/room/${roomId}/read-receipts`);
+};
+
 /**
  * @function getRoomInfo
  * @description 특정 채팅방 정보 조회 API 호출
@@ -14,6 +14,7 @@
  * @requires ./ConfirmModal
  * @requires ./SessionTimer
  * @requires ./FriendsPanel
+ * @requires ../services/stompClient
  * @requires @mui/material
  * @requires @mui/icons-material/Add
  * @requires @mui/icons-material/Logout
@@ -28,7 +29,7 @@ import { useNavigate } from 'react-router-dom';
 import { useUser } from '../context/UserContext';
 
 // API 호출 함수
-import { getChatRoomsByUserId, leaveChatRoom, updateNickname } from '../api';
+import { getInbox, leaveChatRoom, updateNickname } from '../api';
 
 // 하위 컴포넌트들
 import CreateRoomModal from './CreateRoomModal';
@@ -38,6 +39,9 @@ import ConfirmModal from './ConfirmModal';
 import SessionTimer from './SessionTimer';
 import FriendsPanel from './FriendsPanel';
 
+// Stomp 클라이언트 연결 및 해제 함수
+import { connect, disconnect } from '../services/stompClient';
+
 // MUI 컴포넌트
 import {
   List,
@@ -71,7 +75,8 @@ function ChatListPanel({ selectedRoomId }) {
   const { user, logout, updateUser } = useUser();
 
   // 컴포넌트 상태 변수들
-  const [rooms, setRooms] = useState([]); // 채팅방 목록
+  const [rooms, setRooms] = useState([]); // 채팅방 목록 (마지막 메시지 시간 역순)
+  const [inboxCursor, setInboxCursor] = useState(null); // 다음 채팅방 페이지 커서 (더 없으면 null)
   const [loading, setLoading] = useState(true); // 로딩 상태
   const [isCreateRoomModalOpen, setCreateRoomModalOpen] = useState(false); // 채팅방 생성 모달 열림/닫힘 상태
   const [isNicknameModalOpen, setNicknameModalOpen] = useState(false); // 닉네임 변경 모달 열림/닫힘 상태
@@ -80,6 +85,7 @@ function ChatListPanel({ selectedRoomId }) {
   const [isConfirmModalOpen, setConfirmModalOpen] = useState(false); // 확인 모달 열림/닫힘 상태
   const [confirmModalContent, setConfirmModalContent] = useState({ title: '', message: '', onConfirm: () => {} }); // 확인 모달 내용
   const [tab, setTab] = useState(0); // 현재 선택된 탭 (0: 채팅, 1: 친구)
+  const [presence, setPresence] = useState({}); // 사용자 ID별 접속 여부 (서버에서 받은 변경분)
   const navigate = useNavigate(); // 라우터 네비게이션
 
   /**
@@ -93,14 +99,44 @@ function ChatListPanel({ selectedRoomId }) {
     setInfoModalOpen(true);
   };
 
-  // 사용자 정보가 변경될 때마다 채팅방 목록을 다시 불러옴
+  /**
+   * @function applyInboxPage
+   * @description 채팅방 페이지 응답을 목록에 반영하는 함수
+   * 첫 페이지면 목록을 바꾸고, 다음 페이지면 이미 있는 채팅방을 빼고 뒤에 붙임
+   * @param {object} page - 채팅방 페이지 응답
+   * @param {boolean} append - 다음 페이지 여부
+   */
+  const applyInboxPage = (page, append) => {
+    setRooms((prev) => {
+      if (!append) return page.rooms;
+      const loadedIds = new Set(prev.map((room) => room.roomId));
+      return [...prev, ...page.rooms.filter((room) => !loadedIds.has(room.roomId))];
+    });
+    setInboxCursor(page.hasMore ? { beforeAt: page.nextBeforeAt, beforeRoomId: page.nextBeforeRoomId } : null);
+  };
+
+  /**
+   * @function loadMoreRooms
+   * @description 다음 채팅방 페이지를 불러와 목록 뒤에 붙이는 함수
+   */
+  const loadMoreRooms = async () => {
+    if (!inboxCursor) return;
+    try {
+      const response = await getInbox(user.userId, inboxCursor);
+      applyInboxPage(response.data, true);
+    } catch (error) {
+      console.error('Failed to fetch more chat rooms:', error);
+    }
+  };
+
+  // 사용자 정보나 선택한 채팅방이 바뀔 때마다 채팅방 목록 첫 페이지(안 읽은 메시지 수 포함)를 다시 불러옴
   useEffect(() => {
     const fetchRooms = async () => {
       if (!user) return;
       setLoading(true);
       try {
-        const response = await getChatRoomsByUserId(user.userId);
-        setRooms(response.data);
+        const response = await getInbox(user.userId);
+        applyInboxPage(response.data, false);
       } catch (error) {
         console.error('Failed to fetch chat rooms:', error);
       } finally {
@@ -108,7 +144,26 @@ function ChatListPanel({ selectedRoomId }) {
       }
     };
     fetchRooms();
-  }, [user]);
+  }, [user, selectedRoomId]);
+
+  // 메인 화면에 있는 동안 연결을 유지하여 접속 상태로 표시되고, 친구/채팅방 참여자의 접속 상태 변경을 받음
+  useEffect(() => {
+    if (!user) return;
+    const presenceClient = connect(
+      (client) => {
+        client.subscribe(`/topic/user/${user.userId}/presence`, (message) => {
+          const changes = JSON.parse(message.body);
+          setPresence((prev) => {
+            const next = { ...prev };
+            changes.forEach((change) => { next[change.userId] = change.online; });
+            return next;
+          });
+        });
+      },
+      (error) => console.error('Presence connection error:', error)
+    );
+    return () => disconnect(presenceClient);
+  }, [user?.userId]);
 
   /**
    * @function handleEnterRoom
@@ -185,8 +240,8 @@ function ChatListPanel({ selectedRoomId }) {
     setCreateRoomModalOpen(false);
     // 채팅방 목록을 다시 불러오고 새로 생성된 채팅방으로 이동
     const fetchRooms = async () => {
-        const response = await getChatRoomsByUserId(user.userId);
-        setRooms(response.data);
+        const response = await getInbox(user.userId);
+        applyInboxPage(response.data, false);
     };
     fetchRooms();
     navigate(`/chat/room/${newRoomId}`);
@@ -242,8 +297,9 @@ function ChatListPanel({ selectedRoomId }) {
                     >
                       <ListItemText
                         primary={room.roomName || '1:1 채팅'}
-                        secondary={`참여자: ${room.participants.length}명`}
+                        secondary={`${room.lastMessagePreview ?? `참여자: ${room.participants.length}명`}${room.unreadCount ? ` · 안 읽은 메시지 ${room.unreadCount}개` : ''}`}
                         primaryTypographyProps={{ fontWeight: 'bold' }}
+                        secondaryTypographyProps={{ noWrap: true }}
                       />
                        <IconButton
                           edge="end"
@@ -262,11 +318,17 @@ function ChatListPanel({ selectedRoomId }) {
                   참여중인 채팅방이 없습니다.
                 </Typography>
               )}
+              {/* 다음 채팅방 페이지 */}
+              {!loading && inboxCursor && (
+                <Box sx={{ display: 'flex', justifyContent: 'center', mt: 1 }}>
+                  <Button size="small" onClick={loadMoreRooms}>채팅방 더 보기</Button>
+                </Box>
+              )}
             </List>
           </>
         ) : (
             // 친구 탭
-            <FriendsPanel />
+            <FriendsPanel presence={presence} />
         )}
       </Box>
       {/* 모달 컴포넌트들 */}
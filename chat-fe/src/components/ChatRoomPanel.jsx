@@ -19,14 +19,14 @@
  * 
  */
 
-import React, { useState, useEffect, useRef } from 'react';
+import React, { useState, useEffect, useRef, useMemo } from 'react';
 import { useNavigate } from 'react-router-dom';
 
 // 사용자 정보 컨텍스트
 import { useUser } from '../context/UserContext';
 
 // API 호출 함수
-import { getMessagesByRoomId, getRoomInfo, inviteUsersToRoom, getParticipantsHistory, getFriendList } from '../api';
+import { getMessagePage, getRoomInfo, getRoomMembers, inviteUsersToRoom, getParticipantsHistory, getFriendList, markRoomRead, getReadReceipts } from '../api';
 
 // Stomp 클라이언트 연결 및 해제 함수
 import { connect, disconnect } from '../services/stompClient';
@@ -51,6 +51,42 @@ import HistoryIcon from '@mui/icons-material/History';
 // 오른쪽 참여자 목록 Drawer의 너비
 const drawerWidth = 240;
 
+// 새 메시지를 받은 뒤 읽음 확인을 보내기까지 기다리는 시간 (그 사이 받은 메시지는 마지막 것만 보냄)
+const READ_RECEIPT_DELAY_MS = 500;
+
+// 입력 중 이벤트를 다시 보내는 최소 간격 (서버도 같은 간격으로 throttle함)
+const TYPING_SEND_INTERVAL_MS = 2000;
+// 입력 종료 알림을 받지 못했을 때 입력 중 표시를 지우기까지의 시간
+const TYPING_DISPLAY_MS = 6000;
+
+/**
+ * @function toPosition
+ * @description 메시지 ID(문자열)를 크기 비교가 가능한 BigInt로 변환하는 함수
+ * @param {string} messageId - 메시지 ID
+ * @returns {bigint} 메시지 ID (없으면 0)
+ */
+const toPosition = (messageId) => (messageId ? BigInt(messageId) : 0n);
+
+/**
+ * @function mergeReadReceipts
+ * @description READ_RECEIPT 메시지의 readReceipts(메시지 ID별 사용자 ID 목록)를 사용자별 읽음 위치에 합치는 함수
+ * 이미 더 최신 메시지까지 읽은 사용자의 위치는 뒤로 돌리지 않음
+ * @param {object} watermarks - 사용자 ID별 마지막으로 읽은 메시지 ID
+ * @param {object} readReceipts - 메시지 ID별 사용자 ID 목록
+ * @returns {object} 합쳐진 사용자 ID별 읽음 위치
+ */
+const mergeReadReceipts = (watermarks, readReceipts) => {
+  const merged = { ...watermarks };
+  Object.entries(readReceipts ?? {}).forEach(([messageId, userIds]) => {
+    userIds.forEach((userId) => {
+      if (toPosition(messageId) > toPosition(merged[userId])) {
+        merged[userId] = messageId;
+      }
+    });
+  });
+  return merged;
+};
+
 /**
  * @function formatDateTime
  * @description 날짜 및 시간 문자열을 포맷하는 함수
@@ -97,6 +133,8 @@ function ChatRoomPanel({ roomId }) {
 
   // 컴포넌트 상태 변수들
   const [messages, setMessages] = useState([]); // 채팅 메시지 목록
+  const [oldestMessageId, setOldestMessageId] = useState(null); // 이전 메시지 조회용 커서
+  const [hasMoreOlder, setHasMoreOlder] = useState(false); // 더 불러올 이전 메시지가 있는지 여부
   const [newMessage, setNewMessage] = useState(''); // 새로 입력하는 메시지
   const [participants, setParticipants] = useState([]); // 현재 참여자 목록
   const [roomName, setRoomName] = useState(''); // 채팅방 이름
@@ -109,10 +147,25 @@ function ChatRoomPanel({ roomId }) {
   const [isInfoModalOpen, setInfoModalOpen] = useState(false); // 정보 모달 열림/닫힘 상태
   const [infoModalContent, setInfoModalContent] = useState({ title: '', message: '' }); // 정보 모달 내용
   const [isSelectFriendsModalOpen, setSelectFriendsModalOpen] = useState(false); // 친구 선택 모달 열림/닫힘 상태
+  const [readWatermarks, setReadWatermarks] = useState({}); // 참여자별 마지막으로 읽은 메시지 ID
+  const [typingUserIds, setTypingUserIds] = useState([]); // 입력 중인 다른 참여자 ID 목록
 
   // Stomp 클라이언트와 메시지 목록 끝을 참조하기 위한 ref
   const stompClientRef = useRef(null);
   const messageEndRef = useRef(null);
+  // 이전 메시지를 앞에 붙일 때는 스크롤을 아래로 내리지 않기 위한 플래그
+  const skipAutoScrollRef = useRef(false);
+  // 타이머 안에서 최신 메시지 목록을 읽기 위한 ref
+  const messagesRef = useRef([]);
+  messagesRef.current = messages;
+  // 현재 참여자 목록에 반영된 참여자 구성 버전 (JOIN/LEAVE 메시지의 버전이 건너뛰었는지 확인하는 데 사용)
+  const membershipVersionRef = useRef(null);
+  // 마지막으로 보낸 읽음 확인의 메시지 ID와 대기 중인 전송 타이머
+  const reportedMessageIdRef = useRef(null);
+  const readReceiptTimerRef = useRef(null);
+  // 마지막으로 입력 중 이벤트를 보낸 시각과 참여자별 입력 중 표시 만료 타이머
+  const typingSentAtRef = useRef(0);
+  const typingTimersRef = useRef({});
 
   /**
    * @function showInfoModal
@@ -127,21 +180,145 @@ function ChatRoomPanel({ roomId }) {
 
   // 새 메시지가 추가될 때마다 메시지 목록의 가장 아래로 스크롤
   useEffect(() => {
+    if (skipAutoScrollRef.current) {
+      skipAutoScrollRef.current = false;
+      return;
+    }
     messageEndRef.current?.scrollIntoView({ behavior: 'auto' });
   }, [messages]);
 
+  // 새 메시지를 받으면 잠시 뒤 가장 최신 메시지 ID로 읽음 확인을 보냄
+  // 서버는 채팅방별로 읽음 확인을 모아 READ_RECEIPT 메시지 하나로 알리므로, 여기서는 연속된 메시지만 하나로 합침
+  useEffect(() => {
+    if (readReceiptTimerRef.current) return;
+    readReceiptTimerRef.current = setTimeout(() => {
+      readReceiptTimerRef.current = null;
+      const client = stompClientRef.current;
+      const latest = [...messagesRef.current].reverse().find((msg) => msg.type === 'TALK' && msg.messageId);
+      if (!latest || !client?.connected || toPosition(latest.messageId) <= toPosition(reportedMessageIdRef.current)) return;
+      reportedMessageIdRef.current = latest.messageId;
+      client.publish({
+        destination: '/app/chat/read',
+        body: JSON.stringify({ roomId, messageId: latest.messageId }),
+      });
+    }, READ_RECEIPT_DELAY_MS);
+  }, [messages, roomId]);
+
+  // 참여자별 읽음 위치 (메시지마다 안 읽은 사람 수를 세는 데 사용)
+  const readPositions = useMemo(
+    () => participants.map((p) => ({ userId: p.userId, position: toPosition(readWatermarks[p.userId]) })),
+    [participants, readWatermarks]
+  );
+
+  /**
+   * @function countUnreadMembers
+   * @description 메시지를 아직 읽지 않은 참여자 수를 세는 함수 (보낸 사람은 제외)
+   * @param {object} msg - 메시지 객체
+   * @returns {number} 안 읽은 참여자 수
+   */
+  const countUnreadMembers = (msg) => {
+    if (!msg.messageId) return 0;
+    const position = toPosition(msg.messageId);
+    return readPositions.filter((p) => p.userId !== msg.senderId && p.position < position).length;
+  };
+
+  /**
+   * @function loadOlderMessages
+   * @description 현재 가장 오래된 메시지보다 이전 메시지를 한 페이지 불러와 목록 앞에 붙이는 함수
+   */
+  const loadOlderMessages = async () => {
+    if (!oldestMessageId) return;
+    try {
+      const response = await getMessagePage(roomId, { before: oldestMessageId });
+      skipAutoScrollRef.current = true;
+      setMessages((prev) => [...response.data.messages, ...prev]);
+      setOldestMessageId(response.data.oldestMessageId ?? oldestMessageId);
+      setHasMoreOlder(response.data.hasMore);
+    } catch (error) {
+      console.error('Failed to fetch older messages:', error);
+    }
+  };
+
   // roomId가 변경될 때마다 실행되는 useEffect
   // 채팅방 데이터(메시지, 참여자)를 가져오고 웹소켓 연결을 설정
   useEffect(() => {
+    membershipVersionRef.current = null;
+    reportedMessageIdRef.current = null;
+    typingSentAtRef.current = 0;
+    setReadWatermarks({});
+    setTypingUserIds([]);
+
+    // 입력 중 표시를 지움
+    const stopTyping = (userId) => {
+      clearTimeout(typingTimersRef.current[userId]);
+      delete typingTimersRef.current[userId];
+      setTypingUserIds((prev) => prev.filter((id) => id !== userId));
+    };
+
+    // 입력 중 알림을 반영 (종료 알림을 받지 못해도 일정 시간 뒤 지움)
+    const applyTyping = (event) => {
+      if (event.userId === user.userId) return;
+      if (!event.typing) {
+        stopTyping(event.userId);
+        return;
+      }
+      clearTimeout(typingTimersRef.current[event.userId]);
+      typingTimersRef.current[event.userId] = setTimeout(() => stopTyping(event.userId), TYPING_DISPLAY_MS);
+      setTypingUserIds((prev) => (prev.includes(event.userId) ? prev : [...prev, event.userId]));
+    };
+
+    // 전체 참여자 목록과 그 시점의 참여자 구성 버전을 다시 가져옴
+    const syncMembers = async () => {
+      try {
+        const response = await getRoomMembers(roomId);
+        membershipVersionRef.current = response.data.version;
+        setParticipants(response.data.members);
+      } catch (error) {
+        console.error('Failed to fetch room members:', error);
+      }
+    };
+
+    // JOIN/LEAVE/ROOM_CREATED 메시지를 참여자 목록에 반영
+    // 버전이 1씩 이어지면 변경된 사용자만 더하거나 빼고, 건너뛰었으면 전체 목록을 다시 가져옴
+    const applyMembershipChange = (change) => {
+      if (change.participants) {
+        // 참여자 구성 버전이 없는 서버(relay 모드)는 전체 목록을 함께 보냄
+        setParticipants(change.participants);
+        return;
+      }
+      const currentVersion = membershipVersionRef.current;
+      if (currentVersion !== null && change.membershipVersion <= currentVersion) {
+        return; // 이미 반영된 변경
+      }
+      if (currentVersion === null || change.membershipVersion !== currentVersion + 1) {
+        syncMembers();
+        return;
+      }
+      membershipVersionRef.current = change.membershipVersion;
+      const changedMembers = change.changedMembers
+        ?? [{ userId: change.senderId, userNickname: change.senderNickname }];
+      const changedIds = new Set(changedMembers.map((m) => m.userId));
+      setParticipants((prev) => {
+        const others = prev.filter((p) => !changedIds.has(p.userId));
+        return change.type === 'LEAVE' ? others : [...others, ...changedMembers];
+      });
+    };
+
     const fetchRoomData = async () => {
       try {
-        const [messagesResponse, roomInfoResponse] = await Promise.all([
-          getMessagesByRoomId(roomId),
+        const [messagesResponse, roomInfoResponse, membersResponse, readReceiptsResponse] = await Promise.all([
+          getMessagePage(roomId),
           getRoomInfo(roomId),
+          getRoomMembers(roomId),
+          getReadReceipts(roomId),
         ]);
-        setMessages(messagesResponse.data);
+        setMessages(messagesResponse.data.messages);
+        setOldestMessageId(messagesResponse.data.oldestMessageId);
+        setHasMoreOlder(messagesResponse.data.hasMore);
         setRoomName(roomInfoResponse.data.roomName);
-        setParticipants(roomInfoResponse.data.participants);
+        membershipVersionRef.current = membersResponse.data.version;
+        setParticipants(membersResponse.data.members);
+        setReadWatermarks((prev) => mergeReadReceipts(prev, readReceiptsResponse.data));
       } catch (error) {
         console.error('Failed to fetch room data:', error);
         navigate('/chat');
@@ -150,6 +327,10 @@ function ChatRoomPanel({ roomId }) {
 
     fetchRoomData();
 
+    // 채팅방을 열면 지금까지의 메시지를 읽은 것으로 처리
+    const markRead = () => markRoomRead(roomId).catch((error) => console.error('Failed to mark room read:', error));
+    markRead();
+
     // 웹소켓 연결 설정
     connect(
       (client) => {
@@ -157,18 +338,42 @@ function ChatRoomPanel({ roomId }) {
         // 해당 채팅방 주제를 구독하여 실시간 메시지를 받음
         client.subscribe(`/topic/chat/room/${roomId}`, (message) => {
           const receivedMessage = JSON.parse(message.body);
+          // 읽음 확인은 메시지 목록에 추가하지 않고 참여자별 읽음 위치에만 반영
+          if (receivedMessage.type === 'READ_RECEIPT') {
+            setReadWatermarks((prev) => mergeReadReceipts(prev, receivedMessage.readReceipts));
+            return;
+          }
           // 입장/퇴장 메시지인 경우 참여자 목록 업데이트
-          if (receivedMessage.type === 'JOIN' || receivedMessage.type === 'LEAVE') {
-            if (receivedMessage.participants) setParticipants(receivedMessage.participants);
+          if (isNotification(receivedMessage)) {
+            applyMembershipChange(receivedMessage);
+          }
+          // 메시지를 보낸 참여자는 입력이 끝난 것으로 처리
+          if (receivedMessage.type === 'TALK') {
+            stopTyping(receivedMessage.senderId);
           }
           setMessages((prev) => [...prev, receivedMessage]);
         });
+        // 입력 중 알림은 저장되지 않는 별도 토픽으로 받음
+        client.subscribe(`/topic/chat/room/${roomId}/typing`, (message) => {
+          applyTyping(JSON.parse(message.body));
+        });
+        // 보낸 메시지를 서버가 처리하지 못하면 내 오류 토픽으로 알려줌
+        client.subscribe(`/topic/user/${user.userId}/errors`, (message) => {
+          const error = JSON.parse(message.body);
+          console.error('Failed to send message:', error);
+          alert(error.errMsg);
+        });
       },
       (error) => console.error('WebSocket connection error:', error)
     );
 
-    // 컴포넌트 언마운트 시 웹소켓 연결 해제
+    // 컴포넌트 언마운트 시 보고 있던 메시지까지 읽음 처리 후 웹소켓 연결 해제
     return () => {
+      clearTimeout(readReceiptTimerRef.current);
+      readReceiptTimerRef.current = null;
+      Object.values(typingTimersRef.current).forEach(clearTimeout);
+      typingTimersRef.current = {};
+      markRead();
       if (stompClientRef.current) {
         disconnect(stompClientRef.current);
         stompClientRef.current = null;
@@ -224,6 +429,28 @@ function ChatRoomPanel({ roomId }) {
         body: JSON.stringify(chatMessage),
       });
       setNewMessage('');
+      // 서버는 메시지를 받으면 입력 중 상태를 지우므로 다음 입력은 바로 알림
+      typingSentAtRef.current = 0;
+    }
+  };
+
+  /**
+   * @function handleMessageChange
+   * @description 입력 중인 메시지를 바꾸고, 입력 중/입력 종료 이벤트를 보내는 함수
+   * 키 입력마다 보내지 않고 TYPING_SEND_INTERVAL_MS 간격으로만 보냄
+   * @param {string} value - 입력 중인 메시지
+   */
+  const handleMessageChange = (value) => {
+    setNewMessage(value);
+    const client = stompClientRef.current;
+    if (!client?.connected) return;
+    const now = Date.now();
+    if (value.trim() && now - typingSentAtRef.current >= TYPING_SEND_INTERVAL_MS) {
+      typingSentAtRef.current = now;
+      client.publish({ destination: '/app/chat/typing', body: JSON.stringify({ roomId, typing: true }) });
+    } else if (!value.trim() && typingSentAtRef.current) {
+      typingSentAtRef.current = 0;
+      client.publish({ destination: '/app/chat/typing', body: JSON.stringify({ roomId, typing: false }) });
     }
   };
 
@@ -268,7 +495,7 @@ function ChatRoomPanel({ roomId }) {
    * @param {object} msg - 메시지 객체
    * @returns {boolean} 알림 메시지 여부
    */
-  const isNotification = (msg) => msg.type === 'JOIN' || msg.type === 'LEAVE';
+  const isNotification = (msg) => msg.type === 'JOIN' || msg.type === 'LEAVE' || msg.type === 'ROOM_CREATED';
 
   // JSX 렌더링
   return (
@@ -287,6 +514,11 @@ function ChatRoomPanel({ roomId }) {
 
         {/* 메시지 목록 */}
         <Box sx={{ flexGrow: 1, overflowY: 'auto', p: 2 }}>
+          {hasMoreOlder && (
+            <Box sx={{ display: 'flex', justifyContent: 'center', mb: 1 }}>
+              <Button size="small" onClick={loadOlderMessages}>이전 메시지 더 보기</Button>
+            </Box>
+          )}
           <List>
             {messages.map((msg, index) => (
               <ListItem key={index} sx={{ p: 0, mb: 2, display: 'flex', flexDirection: isNotification(msg) ? 'row' : 'column', alignItems: isNotification(msg) ? 'center' : (msg.senderId === user.userId ? 'flex-end' : 'flex-start') }}>
@@ -303,6 +535,9 @@ function ChatRoomPanel({ roomId }) {
                       <Box sx={{ display: 'flex', alignItems: 'baseline', gap: 1, flexDirection: msg.senderId === user.userId ? 'row-reverse' : 'row' }}>
                         <Typography variant="subtitle2" sx={{ fontWeight: 'bold' }}>{msg.senderNickname}</Typography>
                         <Typography variant="caption" color="text.secondary">{formatDateTime(msg.createdAt)}</Typography>
+                        {countUnreadMembers(msg) > 0 && (
+                          <Typography variant="caption" sx={{ color: '#faa61a' }}>{countUnreadMembers(msg)}</Typography>
+                        )}
                       </Box>
                       <Paper sx={{ p: '10px 15px', borderRadius: '10px', bgcolor: msg.senderId === user.userId ? '#7289da' : '#2f3136', color: 'white', mt: 0.5 }}>
                         <Typography variant="body1" sx={{ whiteSpace: 'pre-wrap' }}>{msg.message}</Typography>
@@ -319,8 +554,17 @@ function ChatRoomPanel({ roomId }) {
 
         {/* 메시지 입력 창 */}
         <Box sx={{ p: 2, backgroundColor: '#2f3136' }}>
+          {/* 입력 중인 참여자 표시 */}
+          {typingUserIds.length > 0 && (
+            <Typography variant="caption" color="text.secondary" sx={{ display: 'block', mb: 0.5 }}>
+              {typingUserIds
+                .map((id) => participants.find((p) => p.userId === id)?.userNickname)
+                .filter(Boolean)
+                .join(', ')}님이 입력 중...
+            </Typography>
+          )}
           <Box sx={{ display: 'flex', alignItems: 'center', bgcolor: '#40444b', borderRadius: '8px', p: '5px 10px' }}>
-            <TextField fullWidth variant="standard" InputProps={{ disableUnderline: true }} placeholder={`#${roomName}에 메시지 보내기`} value={newMessage} onChange={(e) => setNewMessage(e.target.value)} onKeyDown={(e) => e.key === 'Enter' && handleSendMessage()} />
+            <TextField fullWidth variant="standard" InputProps={{ disableUnderline: true }} placeholder={`#${roomName}에 메시지 보내기`} value={newMessage} onChange={(e) => handleMessageChange(e.target.value)} onKeyDown={(e) => e.key === 'Enter' && handleSendMessage()} />
             <IconButton color="primary" onClick={handleSendMessage} sx={{ ml: 1 }}><SendIcon /></IconButton>
           </Box>
         </Box>
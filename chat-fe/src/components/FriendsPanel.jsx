@@ -38,8 +38,10 @@ import DeleteIcon from '@mui/icons-material/Delete';
 /**
  * @component FriendsPanel
  * @description 친구 목록, 보류 중인 요청, 친구 추가 기능을 관리하는 패널 컴포넌트
+ * @param {object} props - 컴포넌트 props
+ * @param {object} props.presence - 친구 목록을 불러온 뒤 받은 사용자 ID별 접속 여부
  */
-function FriendsPanel() {
+function FriendsPanel({ presence = {} }) {
     // 사용자 정보 컨텍스트
     const { user } = useUser();
 
@@ -212,7 +214,10 @@ function FriendsPanel() {
                 <List sx={{ flexGrow: 1, overflowY: 'auto' }}>
                     {friends.map(friend => (
                         <ListItem key={friend.userId} secondaryAction={<IconButton edge="end" onClick={() => handleRemoveFriend(friend.userId, friend.userNickname)}><DeleteIcon /></IconButton>}>
-                            <ListItemText primary={friend.userNickname} />
+                            <ListItemText
+                                primary={friend.userNickname}
+                                secondary={(presence[friend.userId] ?? friend.online) ? '온라인' : '오프라인'}
+                            />
                         </ListItem>
                     ))}
                 </List>
@@ -18,6 +18,7 @@ let stompClient = null;
  * SockJS를 사용하여 WebSocket 연결을 생성하고, STOMP 클라이언트를 활성화
  * @param {function} onConnected - 연결 성공 시 호출될 콜백 함수
  * @param {function} onError - 연결 또는 STOMP 에러 발생 시 호출될 콜백 함수
+ * @returns {object} 생성한 STOMP 클라이언트 (연결 전에도 해제할 수 있도록 반환)
  */
 export const connect = (onConnected, onError) => {
   // SockJS를 사용하여 WebSocket 연결 생성
@@ -42,15 +43,18 @@ export const connect = (onConnected, onError) => {
   });
 
   stompClient.activate(); // STOMP 클라이언트 활성화
+  return stompClient;
 };
 
 /**
  * @function disconnect
  * @description STOMP 클라이언트 연결을 해제하는 함수
+ * 연결이 여러 개일 수 있으므로 해제할 클라이언트를 넘기면 그 클라이언트를, 생략하면 마지막으로 만든 클라이언트를 해제한다.
+ * @param {object} [client] - 해제할 STOMP 클라이언트
  */
-export const disconnect = () => {
-  if (stompClient) {
-    stompClient.deactivate(); // STOMP 클라이언트 비활성화
+export const disconnect = (client = stompClient) => {
+  if (client) {
+    client.deactivate(); // STOMP 클라이언트 비활성화
     console.log('STOMP client disconnected');
   }
 };
\ No newline at end of file
@@ -2,7 +2,7 @@
 
 CREATE TABLE chat_message
 (
-  message_id      BIGINT       NOT NULL AUTO_INCREMENT COMMENT '메세지식별번호',
+  message_id      BIGINT       NOT NULL COMMENT '메세지식별번호', -- 애플리케이션에서 발급하는 Snowflake ID (시간 순 정렬 가능)
   user_id         BIGINT       NOT NULL COMMENT '유저아이디',
   room_id         BIGINT       NOT NULL COMMENT '채팅방식별번호',
   message_content TEXT         NOT NULL COMMENT '메세지내용',
@@ -20,6 +20,10 @@ CREATE TABLE chat_room
   created_at TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성시간', -- CURRENT_TIMESTAMP 로 변경
   updated_at TIMESTAMP    NULL     DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '변경시간', -- ON UPDATE 추가 권장
   is_active   VARCHAR(1)   NULL     DEFAULT 'Y' COMMENT '활성화여부', -- VARCHAR 길이 지정
+  last_message_id      BIGINT       NULL     COMMENT '마지막메세지식별번호', -- 채팅방 목록 정렬용 비정규화 컬럼
+  last_message_at      TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '마지막메세지시간', -- 메시지가 없으면 생성시간
+  last_message_preview VARCHAR(100) NULL     COMMENT '마지막메세지미리보기',
+  message_seq          BIGINT       NOT NULL DEFAULT 0 COMMENT '메세지순번', -- 안 읽은 메시지 수 계산용 (애플리케이션이 JDBC로 올린다)
   PRIMARY KEY (room_id)
 ) COMMENT '채팅방기본';
 
@@ -27,7 +31,7 @@ CREATE TABLE chat_room
 
 CREATE TABLE room_participants_history
 (
-  participant_id BIGINT    NOT NULL AUTO_INCREMENT COMMENT '참여자식별번호',
+  participant_id BIGINT    NOT NULL COMMENT '참여자식별번호', -- 애플리케이션에서 발급하는 Snowflake ID (여러 명 초대 시 배치 INSERT)
   room_id        BIGINT    NOT NULL COMMENT '채팅방식별번호',
   user_id        BIGINT    NOT NULL COMMENT '유저아이디',
   created_at     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성시간',
@@ -92,8 +96,63 @@ ALTER TABLE room_participants_history
     FOREIGN KEY (room_id)
     REFERENCES chat_room (room_id);
 
-CREATE INDEX idx_chat_message_room_id
-  ON chat_message (room_id ASC);
+-- 채팅방별 메시지 커서 조회용 (room_id로 범위를 좁힌 뒤 message_id 순서로 읽는다)
+CREATE INDEX idx_chat_message_room_id_message_id
+  ON chat_message (room_id ASC, message_id ASC);
+
+-- 메시지 ID가 AUTO_INCREMENT였던 기존 데이터베이스를 올릴 때는 아래처럼 AUTO_INCREMENT를 제거한다
+-- (ddl-auto: update는 기존 컬럼 속성을 바꾸지 않는다. 제거하지 않아도 애플리케이션이 ID를 넣으므로 저장은 되지만,
+--  애플리케이션 밖에서 ID 없이 넣은 행이 Snowflake ID 범위와 섞이지 않도록 제거한다)
+-- 기존 ID는 작은 정수라 새로 발급되는 Snowflake ID(2025-01-01 기준 시각 << 22)보다 항상 작으므로 메시지 순서는 그대로 유지된다
+-- ALTER TABLE chat_message MODIFY message_id BIGINT NOT NULL COMMENT '메세지식별번호';
+
+-- 채팅방 참여자를 사용자 목록으로 한 번에 조회하기 위한 인덱스
+CREATE INDEX idx_room_participants_history_room_id_user_id
+  ON room_participants_history (room_id ASC, user_id ASC);
+
+-- 참여자 ID가 AUTO_INCREMENT였던 기존 데이터베이스를 올릴 때는 위 인덱스와 함께 아래처럼 AUTO_INCREMENT를 제거한다
+-- (ddl-auto: update는 기존 컬럼 속성을 바꾸지 않는다. 재초대할 때 다시 쓸 참여 기록은 ID가 아니라 joined_at으로 고르므로
+--  기존 ID와 새 Snowflake ID가 섞여 있어도 된다)
+-- ALTER TABLE room_participants_history MODIFY participant_id BIGINT NOT NULL COMMENT '참여자식별번호';
+
+-- 사용자가 참여 중인 채팅방 목록 조회용 (user_id, quit_at으로 좁힌 뒤 room_id로 chat_room을 찾는다)
+CREATE INDEX idx_room_participants_history_user_id_quit_at
+  ON room_participants_history (user_id ASC, quit_at ASC, room_id ASC);
+
+-- 채팅방 목록을 마지막 메시지 시간 순으로 정렬하기 위한 인덱스
+CREATE INDEX idx_chat_room_last_message_at_room_id
+  ON chat_room (last_message_at DESC, room_id DESC);
+
+-- 기존 데이터베이스에 마지막 메시지 컬럼을 추가할 때는 아래처럼 채워 넣는다
+-- UPDATE chat_room r SET
+--   last_message_id = (SELECT MAX(m.message_id) FROM chat_message m WHERE m.room_id = r.room_id),
+--   last_message_at = COALESCE((SELECT MAX(m.created_at) FROM chat_message m WHERE m.room_id = r.room_id), r.created_at);
+
+-- room_read_marker 테이블 생성 (읽은 시점의 채팅방 메시지 순번을 함께 저장하고, chat_room.message_seq와의 차이로 안 읽은 메시지 수를 계산한다)
+-- simple 모드는 이 차이를 메모리에서 관리하고 재시작 시 두 순번으로 다시 만들며, relay 모드는 조회할 때마다 계산한다
+
+CREATE TABLE room_read_marker
+(
+  user_id              BIGINT    NOT NULL COMMENT '유저아이디',
+  room_id              BIGINT    NOT NULL COMMENT '채팅방식별번호',
+  last_read_message_id BIGINT    NOT NULL COMMENT '마지막으로읽은메세지식별번호',
+  read_message_seq     BIGINT    NOT NULL DEFAULT 0 COMMENT '마지막으로읽은메세지순번',
+  updated_at           TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '변경시간',
+  PRIMARY KEY (user_id, room_id)
+) COMMENT '채팅방읽음위치';
+
+-- 기존 데이터베이스에 순번 컬럼을 추가할 때는 애플리케이션을 띄우기 전에 아래처럼 순번을 채워 넣는다
+-- ALTER TABLE chat_room ADD COLUMN message_seq BIGINT NOT NULL DEFAULT 0 COMMENT '메세지순번';
+-- ALTER TABLE room_read_marker ADD COLUMN read_message_seq BIGINT NOT NULL DEFAULT 0 COMMENT '마지막으로읽은메세지순번';
+-- UPDATE chat_room r SET message_seq = (SELECT COUNT(*) FROM chat_message m WHERE m.room_id = r.room_id);
+-- UPDATE room_read_marker k SET read_message_seq =
+--   (SELECT COUNT(*) FROM chat_message m WHERE m.room_id = k.room_id AND m.message_id <= k.last_read_message_id);
+-- INSERT INTO room_read_marker (user_id, room_id, last_read_message_id, read_message_seq)
+--   SELECT p.user_id, p.room_id, 0,
+--          (SELECT COUNT(*) FROM chat_message m WHERE m.room_id = p.room_id AND m.created_at < p.joined_at)
+--   FROM room_participants_history p
+--   WHERE p.quit_at IS NULL
+--     AND NOT EXISTS (SELECT 1 FROM room_read_marker k WHERE k.user_id = p.user_id AND k.room_id = p.room_id);
 
 
 CREATE TABLE `user_friends` (
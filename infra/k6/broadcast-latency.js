@@ -0,0 +1,106 @@
+import ws from 'k6/ws';
+import { check } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+
+// 채팅방 브로드캐스트 지연 시간 측정 스크립트
+// simple 모드와 relay 모드를 같은 조건으로 비교하기 위해 사용한다.
+//
+// 실행 예시
+//   simple 모드 (서버 1대):
+//     k6 run -e WS_URLS=ws://localhost:8081/ws/chat/websocket -e ROOM_ID=1 -e SENDER_ID=1 broadcast-latency.js
+//   relay 모드 (서버 2대가 같은 외부 브로커에 연결):
+//     k6 run -e WS_URLS=ws://localhost:8081/ws/chat/websocket,ws://localhost:8082/ws/chat/websocket -e ROOM_ID=1 -e SENDER_ID=1 broadcast-latency.js
+//
+// ROOM_ID, SENDER_ID는 setupData.js로 만든 채팅방과 그 채팅방 참여자 ID로 지정한다.
+// 여러 서버 주소를 주면 구독자를 서버별로 나눠 붙이므로, 다른 서버에서 보낸 메시지가 브로커를 거쳐 전달되는 시간까지 측정된다.
+
+const WS_URLS = (__ENV.WS_URLS || 'ws://localhost:8081/ws/chat/websocket').split(',');
+const ROOM_ID = __ENV.ROOM_ID || '1';
+const SENDER_ID = Number(__ENV.SENDER_ID || '1');
+const SUBSCRIBERS = Number(__ENV.SUBSCRIBERS || '1000'); // 채팅방 구독자 수 (VU 수)
+const MESSAGES = Number(__ENV.MESSAGES || '100'); // 발신 VU가 보낼 메시지 수
+const SEND_INTERVAL_MS = Number(__ENV.SEND_INTERVAL_MS || '100'); // 메시지 전송 간격
+const LATENCY_PREFIX = 'k6-latency:';
+
+// 발신 시각부터 구독자가 MESSAGE 프레임을 받기까지 걸린 시간
+const broadcastLatency = new Trend('chat_broadcast_latency', true);
+const broadcastReceived = new Counter('chat_broadcast_received');
+
+export const options = {
+  scenarios: {
+    subscribers: {
+      executor: 'per-vu-iterations',
+      vus: SUBSCRIBERS,
+      iterations: 1,
+      maxDuration: '5m',
+    },
+  },
+  thresholds: {
+    chat_broadcast_latency: ['p(95)<500', 'p(99)<1000'],
+    ws_connecting: ['p(95)<1000'],
+  },
+};
+
+function frame(command, headers, body = '') {
+  const headerLines = Object.entries(headers).map(([key, value]) => `${key}:${value}`).join('\n');
+  return `${command}\n${headerLines}\n\n${body}\x00`;
+}
+
+export default function () {
+  const url = WS_URLS[(__VU - 1) % WS_URLS.length];
+  const isSender = __VU === 1;
+  // 모든 VU가 구독을 마칠 시간을 준 뒤 발신을 시작하고, 마지막 메시지를 받을 때까지 연결을 유지한다
+  const subscribeGraceMs = Math.max(5000, SUBSCRIBERS * 5);
+  const holdMs = subscribeGraceMs + MESSAGES * SEND_INTERVAL_MS + 5000;
+
+  const res = ws.connect(url, {}, function (socket) {
+    socket.on('open', function () {
+      socket.send(frame('CONNECT', { 'accept-version': '1.2', 'heart-beat': '0,0' }));
+    });
+
+    socket.on('message', function (data) {
+      const frames = data.split('\x00');
+      for (const raw of frames) {
+        if (raw.startsWith('CONNECTED')) {
+          socket.send(frame('SUBSCRIBE', { id: 'sub-0', destination: `/topic/chat/room/${ROOM_ID}` }));
+          if (isSender) {
+            startSending(socket, subscribeGraceMs);
+          }
+        } else if (raw.startsWith('MESSAGE')) {
+          const body = raw.substring(raw.indexOf('\n\n') + 2);
+          const payload = JSON.parse(body);
+          if (payload.message && payload.message.startsWith(LATENCY_PREFIX)) {
+            broadcastLatency.add(Date.now() - Number(payload.message.substring(LATENCY_PREFIX.length)));
+            broadcastReceived.add(1);
+          }
+        }
+      }
+    });
+
+    socket.setTimeout(function () {
+      socket.close();
+    }, holdMs);
+  });
+
+  check(res, { 'websocket handshake succeeded': (r) => r && r.status === 101 });
+}
+
+function startSending(socket, delayMs) {
+  socket.setTimeout(function () {
+    let sent = 0;
+    socket.setInterval(function () {
+      if (sent >= MESSAGES) {
+        return;
+      }
+      const body = JSON.stringify({
+        type: 'TALK',
+        roomId: Number(ROOM_ID),
+        senderId: SENDER_ID,
+        senderNickname: 'k6sender',
+        message: `${LATENCY_PREFIX}${Date.now()}`,
+      });
+      socket.send(frame('SEND', { destination: '/app/chat/message', 'content-type': 'application/json' }, body));
+      sent++;
+    }, SEND_INTERVAL_MS);
+  }, delayMs);
+}
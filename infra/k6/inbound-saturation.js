@@ -0,0 +1,130 @@
+import ws from 'k6/ws';
+import { check } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+
+// WebSocket 수신 처리 포화 지점 측정 스크립트
+// 플랫폼 스레드 모드와 가상 스레드 모드(spring.threads.virtual.enabled)를 같은 조건으로 비교하기 위해 사용한다.
+// 발신 VU 수를 단계적으로 늘리면서, 각 VU가 보낸 메시지가 브로드캐스트되어 자기에게 돌아오기까지의 시간을 측정한다.
+// 왕복 시간이 급격히 늘어나거나 chat_inbound_lost가 쌓이기 시작하는 VU 수가 해당 설정의 포화 지점이다.
+//
+// 실행 예시
+//   플랫폼 스레드 모드:
+//     k6 run -e WS_URL=ws://localhost:8081/ws/chat/websocket -e ROOM_IDS=1,2,3,4 -e SENDER_ID=1 inbound-saturation.js
+//   가상 스레드 모드 (서버를 SPRING_THREADS_VIRTUAL_ENABLED=true로 띄운 뒤 같은 명령 실행)
+//
+// ROOM_IDS는 setupData.js로 만든 채팅방 ID 목록이고, SENDER_ID는 그 채팅방 모두에 참여한 사용자 ID로 지정한다.
+// VU는 채팅방을 번갈아 배정받으므로, 채팅방 수를 늘리면 여러 채팅방 레인에 부하가 나뉜다.
+// 서버 쪽에서는 /actuator/prometheus의 chat_inbound_lane_lag, chat_inbound_lane_queue_depth를 함께 확인한다.
+
+const WS_URL = __ENV.WS_URL || 'ws://localhost:8081/ws/chat/websocket';
+const ROOM_IDS = (__ENV.ROOM_IDS || '1').split(',').map(Number);
+const SENDER_ID = Number(__ENV.SENDER_ID || '1');
+const MAX_VUS = Number(__ENV.MAX_VUS || '2000'); // 마지막 단계의 발신 VU 수
+const STAGE_DURATION = __ENV.STAGE_DURATION || '1m'; // 단계별 유지 시간
+const SEND_INTERVAL_MS = Number(__ENV.SEND_INTERVAL_MS || '200'); // VU별 메시지 전송 간격
+const ROUND_TRIP_PREFIX = 'k6-saturation:';
+
+// 메시지를 보낸 뒤 같은 VU가 브로드캐스트로 다시 받기까지 걸린 시간
+const roundTrip = new Trend('chat_inbound_round_trip', true);
+const sentCounter = new Counter('chat_inbound_sent');
+const receivedCounter = new Counter('chat_inbound_received');
+// 연결을 닫을 때까지 돌아오지 않은 메시지 수
+const lostCounter = new Counter('chat_inbound_lost');
+
+export const options = {
+  scenarios: {
+    senders: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: STAGE_DURATION, target: Math.ceil(MAX_VUS / 8) },
+        { duration: STAGE_DURATION, target: Math.ceil(MAX_VUS / 4) },
+        { duration: STAGE_DURATION, target: Math.ceil(MAX_VUS / 2) },
+        { duration: STAGE_DURATION, target: MAX_VUS },
+        { duration: STAGE_DURATION, target: MAX_VUS },
+      ],
+      gracefulRampDown: '10s',
+    },
+  },
+  thresholds: {
+    chat_inbound_round_trip: ['p(95)<500', 'p(99)<1000'],
+    chat_inbound_lost: ['count<1'],
+  },
+};
+
+function frame(command, headers, body = '') {
+  const headerLines = Object.entries(headers).map(([key, value]) => `${key}:${value}`).join('\n');
+  return `${command}\n${headerLines}\n\n${body}\x00`;
+}
+
+export default function () {
+  const roomId = ROOM_IDS[(__VU - 1) % ROOM_IDS.length];
+  const marker = `${ROUND_TRIP_PREFIX}${__VU}-${__ITER}:`;
+  // 응답을 기다리는 메시지의 전송 시각 (시퀀스 → 시각)
+  const pending = new Map();
+  let stopped = false;
+
+  const res = ws.connect(WS_URL, {}, function (socket) {
+    socket.on('open', function () {
+      socket.send(frame('CONNECT', { 'accept-version': '1.2', 'heart-beat': '0,0' }));
+    });
+
+    socket.on('message', function (data) {
+      const frames = data.split('\x00');
+      for (const raw of frames) {
+        if (raw.startsWith('CONNECTED')) {
+          socket.send(frame('SUBSCRIBE', { id: 'sub-0', destination: `/topic/chat/room/${roomId}` }));
+          startSending(socket, roomId, marker, pending, () => stopped);
+        } else if (raw.startsWith('MESSAGE')) {
+          const body = raw.substring(raw.indexOf('\n\n') + 2);
+          const payload = JSON.parse(body);
+          // 같은 채팅방의 다른 VU가 보낸 메시지는 건너뛴다
+          if (payload.message && payload.message.startsWith(marker)) {
+            const seq = payload.message.substring(marker.length);
+            const sentAt = pending.get(seq);
+            if (sentAt !== undefined) {
+              pending.delete(seq);
+              roundTrip.add(Date.now() - sentAt);
+              receivedCounter.add(1);
+            }
+          }
+        }
+      }
+    });
+
+    socket.on('close', function () {
+      lostCounter.add(pending.size);
+    });
+
+    // 단계가 바뀌어도 VU가 계속 같은 연결을 쓰지 않도록 일정 시간 뒤 다시 연결한다
+    // 닫기 전 마지막 몇 초는 전송을 멈추고, 이미 보낸 메시지가 돌아올 시간을 준다
+    socket.setTimeout(function () {
+      stopped = true;
+    }, 25000);
+    socket.setTimeout(function () {
+      socket.close();
+    }, 30000);
+  });
+
+  check(res, { 'websocket handshake succeeded': (r) => r && r.status === 101 });
+}
+
+function startSending(socket, roomId, marker, pending, isStopped) {
+  let seq = 0;
+  socket.setInterval(function () {
+    if (isStopped()) {
+      return;
+    }
+    const key = String(seq++);
+    const body = JSON.stringify({
+      type: 'TALK',
+      roomId: roomId,
+      senderId: SENDER_ID,
+      senderNickname: 'k6sender',
+      message: `${marker}${key}`,
+    });
+    pending.set(key, Date.now());
+    socket.send(frame('SEND', { destination: '/app/chat/message', 'content-type': 'application/json' }, body));
+    sentCounter.add(1);
+  }, SEND_INTERVAL_MS);
+}